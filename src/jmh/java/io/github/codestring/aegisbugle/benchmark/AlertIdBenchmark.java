@@ -0,0 +1,45 @@
+package io.github.codestring.aegisbugle.benchmark;
+
+import io.github.codestring.aegisbugle.application.core.BugleAlertException;
+import io.github.codestring.aegisbugle.application.core.id.MonotonicAlertIdGenerator;
+import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AlertIdBenchmark {
+
+    private final MonotonicAlertIdGenerator generator = new MonotonicAlertIdGenerator();
+    private final char[] buffer = new char[MonotonicAlertIdGenerator.ID_LENGTH];
+    private final AlertEvent event = AlertEvent.builder().serviceName(BenchmarkFixtures.SERVICE_NAME).build();
+
+    @Benchmark
+    public String monotonicNextId() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    public char[] monotonicIntoBuffer() {
+        generator.nextId(buffer, 0);
+        return buffer;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String monotonicNextIdContended() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public String legacySetAlertId() throws BugleAlertException {
+        event.setAlertId();
+        return event.getAlertId();
+    }
+}
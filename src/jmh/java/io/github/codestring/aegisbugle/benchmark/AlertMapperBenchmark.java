@@ -0,0 +1,34 @@
+package io.github.codestring.aegisbugle.benchmark;
+
+import io.github.codestring.aegisbugle.adapter.out.mapper.AlertMapper;
+import io.github.codestring.aegisbugle.adapter.out.mapper.AlertMapperImpl;
+import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import io.github.codestring.aegisbugle.application.core.model.BugleEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AlertMapperBenchmark {
+
+    @Param({"5", "50"})
+    public int metadataEntries;
+
+    private final AlertMapper mapper = new AlertMapperImpl();
+    private BugleEvent event;
+
+    @Setup
+    public void setUp() {
+        event = BenchmarkFixtures.bugleEvent(20, metadataEntries);
+    }
+
+    @Benchmark
+    public AlertEvent toAlertEvent() {
+        return mapper.toAlertEvent(event);
+    }
+}
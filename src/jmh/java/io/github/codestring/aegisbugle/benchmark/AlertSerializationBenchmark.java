@@ -0,0 +1,67 @@
+package io.github.codestring.aegisbugle.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.codestring.aegisbugle.adapter.out.serialization.AlertJsonWriter;
+import io.github.codestring.aegisbugle.application.core.context.AlertContextEnricher;
+import io.github.codestring.aegisbugle.application.core.id.MonotonicAlertIdGenerator;
+import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import io.github.codestring.aegisbugle.config.BugleProperties;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of an alert: Jackson's reflective ObjectMapper path against the streaming
+ * {@link AlertJsonWriter} that every adapter uses before sending, with and without the static
+ * host, pod and build context that the writer splices in pre-encoded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AlertSerializationBenchmark {
+
+    @Param({"0", "20", "100"})
+    public int stackFrames;
+
+    @Param({"0", "5", "50"})
+    public int metadataEntries;
+
+    @Param({"false", "true"})
+    public boolean context;
+
+    private ObjectMapper objectMapper;
+    private AlertJsonWriter jsonWriter;
+    private AlertEvent event;
+
+    @Setup
+    public void setUp() {
+        objectMapper = BenchmarkFixtures.objectMapper();
+        jsonWriter = new AlertJsonWriter(objectMapper);
+        event = BenchmarkFixtures.alertEvent(stackFrames, metadataEntries);
+        event.ensureAlertId(new MonotonicAlertIdGenerator());
+        if (context) {
+            BugleProperties properties = BenchmarkFixtures.properties();
+            properties.getContext().setEnabled(true);
+            AlertContextEnricher.from(properties, "2.4.0").enrich(event);
+        }
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public String writeValueAsString() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(event);
+    }
+
+    @Benchmark
+    public byte[] alertJsonWriter() throws JsonProcessingException {
+        return jsonWriter.writeValueAsBytes(event);
+    }
+}
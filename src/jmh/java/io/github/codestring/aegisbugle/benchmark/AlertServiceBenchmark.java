@@ -0,0 +1,49 @@
+package io.github.codestring.aegisbugle.benchmark;
+
+import io.github.codestring.aegisbugle.adapter.out.mapper.AlertMapperImpl;
+import io.github.codestring.aegisbugle.application.core.BugleAlertException;
+import io.github.codestring.aegisbugle.application.core.context.AlertContextEnricher;
+import io.github.codestring.aegisbugle.application.core.id.MonotonicAlertIdGenerator;
+import io.github.codestring.aegisbugle.application.core.model.BugleEvent;
+import io.github.codestring.aegisbugle.application.core.service.BugleAlertService;
+import io.github.codestring.aegisbugle.config.BugleProperties;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end cost of {@link BugleAlertService#raiseFailureAlert}: validation, mapping, enrichment,
+ * id generation and serialization, against a publisher that discards the bytes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AlertServiceBenchmark {
+
+    @Param({"20", "100"})
+    public int stackFrames;
+
+    @Param({"5", "50"})
+    public int metadataEntries;
+
+    private BugleAlertService service;
+    private BugleEvent event;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        BugleProperties properties = BenchmarkFixtures.properties();
+        service = new BugleAlertService(properties,
+                new InMemoryPublisher(BenchmarkFixtures.objectMapper(), blackhole), new AlertMapperImpl(), null, null,
+                new MonotonicAlertIdGenerator(), AlertContextEnricher.from(properties, null), null);
+        event = BenchmarkFixtures.bugleEvent(stackFrames, metadataEntries);
+    }
+
+    @Benchmark
+    public void raiseFailureAlert() throws BugleAlertException {
+        service.raiseFailureAlert(event);
+    }
+}
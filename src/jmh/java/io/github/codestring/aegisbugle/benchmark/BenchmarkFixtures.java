@@ -0,0 +1,120 @@
+package io.github.codestring.aegisbugle.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import io.github.codestring.aegisbugle.application.core.model.AlertSeverity;
+import io.github.codestring.aegisbugle.application.core.model.BrokerType;
+import io.github.codestring.aegisbugle.application.core.model.BugleEvent;
+import io.github.codestring.aegisbugle.application.core.model.Environment;
+import io.github.codestring.aegisbugle.config.BugleProperties;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Realistic alert payloads shared by the benchmarks.
+ */
+final class BenchmarkFixtures {
+
+    static final String SERVICE_NAME = "order-service";
+    static final String TOPIC = "aegis-alerts";
+
+    private BenchmarkFixtures() {
+    }
+
+    static ObjectMapper objectMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return mapper;
+    }
+
+    static BugleProperties properties() {
+        BugleProperties properties = new BugleProperties();
+        properties.setServiceName(SERVICE_NAME);
+        properties.setBrokerType(BrokerType.KAFKA);
+        properties.setEnvironment(Environment.PROD);
+        properties.getRabbitmq().setDefaultExchange("aegis-exchange");
+        return properties;
+    }
+
+    static BugleEvent bugleEvent(int stackFrames, int metadataEntries) {
+        return BugleEvent.builder()
+                .topic(TOPIC)
+                .exchange("aegis-exchange")
+                .routingKey("alerts.orders")
+                .errorCode("ORD-5001")
+                .errorMessage("Failed to reserve inventory for order 8d1f0c2e")
+                .exceptionType("java.lang.IllegalStateException")
+                .stackTrace(stackTrace(stackFrames))
+                .timestamp(Instant.parse("2024-06-01T12:00:00Z"))
+                .severity(AlertSeverity.HIGH)
+                .metadata(metadata(metadataEntries))
+                .build();
+    }
+
+    static AlertEvent alertEvent(int stackFrames, int metadataEntries) {
+        return AlertEvent.builder()
+                .serviceName(SERVICE_NAME)
+                .errorCode("ORD-5001")
+                .errorMessage("Failed to reserve inventory for order 8d1f0c2e")
+                .exceptionType("java.lang.IllegalStateException")
+                .stackTrace(stackTrace(stackFrames))
+                .timestamp(Instant.parse("2024-06-01T12:00:00Z"))
+                .severity(AlertSeverity.HIGH)
+                .environment(Environment.PROD.name())
+                .routingKey("alerts.orders")
+                .metadata(metadata(metadataEntries))
+                .build();
+    }
+
+    /**
+     * Copies an alert without its id, so an adapter assigns a fresh one as it would on first send.
+     */
+    static AlertEvent withoutId(AlertEvent source) {
+        return AlertEvent.builder()
+                .serviceName(source.getServiceName())
+                .errorCode(source.getErrorCode())
+                .errorMessage(source.getErrorMessage())
+                .exceptionType(source.getExceptionType())
+                .stackTrace(source.getStackTrace())
+                .timestamp(source.getTimestamp())
+                .severity(source.getSeverity())
+                .environment(source.getEnvironment())
+                .routingKey(source.getRoutingKey())
+                .metadata(source.getMetadata())
+                .build();
+    }
+
+    /**
+     * A stack trace shaped like a typical Spring request failure: application frames, CGLIB
+     * proxies, reflection and servlet container frames.
+     */
+    static String stackTrace(int frames) {
+        String[] templates = {
+                "\tat com.acme.orders.InventoryClient.reserve(InventoryClient.java:%d)",
+                "\tat com.acme.orders.OrderService.placeOrder(OrderService.java:%d)",
+                "\tat com.acme.orders.OrderService$$SpringCGLIB$$0.placeOrder(<generated>)",
+                "\tat java.base/jdk.internal.reflect.DirectMethodHandleAccessor.invoke(DirectMethodHandleAccessor.java:%d)",
+                "\tat org.springframework.aop.support.AopUtils.invokeJoinpointUsingReflection(AopUtils.java:%d)",
+                "\tat org.springframework.web.servlet.FrameworkServlet.processRequest(FrameworkServlet.java:%d)",
+                "\tat org.apache.catalina.core.ApplicationFilterChain.doFilter(ApplicationFilterChain.java:%d)",
+        };
+        StringBuilder trace = new StringBuilder("java.lang.IllegalStateException: Failed to reserve inventory for order 8d1f0c2e\n");
+        for (int i = 0; i < frames; i++) {
+            trace.append(String.format(templates[i % templates.length], 40 + i)).append('\n');
+        }
+        return trace.toString();
+    }
+
+    static Map<String, Object> metadata(int entries) {
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        for (int i = 0; i < entries; i++) {
+            metadata.put("key-" + i, i % 2 == 0 ? "value-" + i : i);
+        }
+        return metadata;
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.codestring.aegisbugle.benchmark;
+
+import io.github.codestring.aegisbugle.adapter.out.compression.CompressionCodec;
+import io.github.codestring.aegisbugle.adapter.out.compression.PayloadCompressor;
+import io.github.codestring.aegisbugle.adapter.out.serialization.AlertJsonWriter;
+import io.github.codestring.aegisbugle.application.core.id.MonotonicAlertIdGenerator;
+import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compression of a large serialized alert with each codec, as adapters do for payloads above the threshold.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompressionBenchmark {
+
+    @Param({"GZIP", "LZ4", "ZSTD"})
+    public CompressionCodec codec;
+
+    private PayloadCompressor compressor;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        compressor = new PayloadCompressor(codec, 0);
+        AlertEvent event = BenchmarkFixtures.alertEvent(100, 50);
+        event.ensureAlertId(new MonotonicAlertIdGenerator());
+        payload = new AlertJsonWriter(BenchmarkFixtures.objectMapper()).writeValueAsBytes(event);
+    }
+
+    @Benchmark
+    public byte[] compress() {
+        return compressor.compress(payload);
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.codestring.aegisbugle.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.codestring.aegisbugle.application.core.PublishException;
+import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import io.github.codestring.aegisbugle.application.core.model.BatchItemResult;
+import io.github.codestring.aegisbugle.application.core.model.BatchPublishResult;
+import io.github.codestring.aegisbugle.application.core.model.DeliveryReceipt;
+import io.github.codestring.aegisbugle.application.port.out.BuglePublisher;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Publisher that serializes alerts like the broker adapters do and hands the bytes to a Blackhole.
+ */
+class InMemoryPublisher implements BuglePublisher {
+
+    private final ObjectMapper objectMapper;
+    private final Blackhole blackhole;
+
+    InMemoryPublisher(ObjectMapper objectMapper, Blackhole blackhole) {
+        this.objectMapper = objectMapper;
+        this.blackhole = blackhole;
+    }
+
+    @Override
+    public void sendAlert(AlertEvent event, String topic) {
+        publish(event);
+    }
+
+    @Override
+    public <T> void sendAlert(T event, String topic) {
+        publish(event);
+    }
+
+    @Override
+    public CompletableFuture<DeliveryReceipt> sendAlertAsync(AlertEvent event, String topic) {
+        publish(event);
+        return CompletableFuture.completedFuture(DeliveryReceipt.builder().alertId(event.getAlertId()).topic(topic).build());
+    }
+
+    @Override
+    public <T> CompletableFuture<DeliveryReceipt> sendAlertAsync(T event, String topic) {
+        publish(event);
+        return CompletableFuture.completedFuture(DeliveryReceipt.builder().topic(topic).build());
+    }
+
+    @Override
+    public BatchPublishResult sendAlerts(Collection<AlertEvent> events, String topic) {
+        List<BatchItemResult> items = new ArrayList<>(events.size());
+        int index = 0;
+        for (AlertEvent event : events) {
+            items.add(BatchItemResult.success(index++, event.getAlertId(), sendAlertAsync(event, topic).join()));
+        }
+        return new BatchPublishResult(items);
+    }
+
+    private void publish(Object event) {
+        try {
+            blackhole.consume(objectMapper.writeValueAsBytes(event));
+        } catch (JsonProcessingException e) {
+            throw new PublishException(e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package io.github.codestring.aegisbugle.benchmark;
+
+import io.github.codestring.aegisbugle.adapter.out.KafkaPublisher;
+import io.github.codestring.aegisbugle.adapter.out.PulsarProducerCache;
+import io.github.codestring.aegisbugle.adapter.out.PulsarPublisher;
+import io.github.codestring.aegisbugle.adapter.out.RabbitMqPublisher;
+import io.github.codestring.aegisbugle.adapter.out.compression.PayloadCompressor;
+import io.github.codestring.aegisbugle.adapter.out.logging.LoggingPolicy;
+import io.github.codestring.aegisbugle.adapter.out.serialization.AlertSerializer;
+import io.github.codestring.aegisbugle.adapter.out.serialization.JsonAlertSerializer;
+import io.github.codestring.aegisbugle.application.core.id.MonotonicAlertIdGenerator;
+import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import io.github.codestring.aegisbugle.application.core.model.DeliveryReceipt;
+import io.github.codestring.aegisbugle.application.core.partition.PartitionKey;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.pulsar.client.api.MessageId;
+import org.apache.pulsar.client.api.Producer;
+import org.apache.pulsar.client.api.ProducerBuilder;
+import org.apache.pulsar.client.api.PulsarClient;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.mock.MockProducerFactory;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of each broker adapter up to the point where the payload leaves for the network, measured
+ * against in-process stub clients that acknowledge every send immediately.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PublisherBenchmark {
+
+    private static final int KAFKA_HISTORY_LIMIT = 10000;
+
+    private MockProducer<String, byte[]> mockProducer;
+    private KafkaPublisher kafkaPublisher;
+    private PulsarPublisher pulsarPublisher;
+    private RabbitMqPublisher rabbitMqPublisher;
+    private AlertEvent event;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        // KafkaTemplate closes a non-transactional producer after each send; keep the stub open
+        mockProducer = new MockProducer<>(true, new StringSerializer(), new ByteArraySerializer()) {
+            @Override
+            public void close(Duration timeout) {
+            }
+        };
+        AlertSerializer serializer = new JsonAlertSerializer(BenchmarkFixtures.objectMapper());
+        kafkaPublisher = new KafkaPublisher(new KafkaTemplate<>(new MockProducerFactory<>(() -> mockProducer)),
+                serializer, PayloadCompressor.NONE, new MonotonicAlertIdGenerator(), LoggingPolicy.DEFAULT,
+                PartitionKey.NONE);
+
+        pulsarPublisher = new PulsarPublisher(serializer, PayloadCompressor.NONE,
+                new PulsarProducerCache(stubPulsarClient(blackhole), 100, 300000, null, false),
+                new MonotonicAlertIdGenerator(), LoggingPolicy.DEFAULT, PartitionKey.NONE);
+
+        rabbitMqPublisher = new RabbitMqPublisher(new AckingRabbitTemplate(blackhole), BenchmarkFixtures.properties(),
+                serializer, PayloadCompressor.NONE, new MonotonicAlertIdGenerator(), LoggingPolicy.DEFAULT,
+                ForkJoinPool.commonPool());
+
+        event = BenchmarkFixtures.alertEvent(20, 5);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pulsarPublisher.close();
+    }
+
+    @Benchmark
+    public DeliveryReceipt kafkaSendAlertAsync() {
+        if (mockProducer.history().size() >= KAFKA_HISTORY_LIMIT) {
+            mockProducer.clear();
+        }
+        return kafkaPublisher.sendAlertAsync(BenchmarkFixtures.withoutId(event), BenchmarkFixtures.TOPIC).join();
+    }
+
+    @Benchmark
+    public DeliveryReceipt pulsarSendAlertAsync() {
+        return pulsarPublisher.sendAlertAsync(BenchmarkFixtures.withoutId(event), BenchmarkFixtures.TOPIC).join();
+    }
+
+    @Benchmark
+    public DeliveryReceipt rabbitMqSendAlertAsync() {
+        return rabbitMqPublisher.sendAlertAsync(BenchmarkFixtures.withoutId(event), BenchmarkFixtures.TOPIC).join();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static PulsarClient stubPulsarClient(Blackhole blackhole) {
+        Producer<byte[]> producer = (Producer<byte[]>) Proxy.newProxyInstance(Producer.class.getClassLoader(),
+                new Class<?>[]{Producer.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "sendAsync" -> {
+                        blackhole.consume(args[0]);
+                        yield CompletableFuture.completedFuture(MessageId.earliest);
+                    }
+                    case "send" -> {
+                        blackhole.consume(args[0]);
+                        yield MessageId.earliest;
+                    }
+                    case "flushAsync", "closeAsync" -> CompletableFuture.completedFuture(null);
+                    case "isConnected" -> true;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+        ProducerBuilder<byte[]> builder = (ProducerBuilder<byte[]>) Proxy.newProxyInstance(ProducerBuilder.class.getClassLoader(),
+                new Class<?>[]{ProducerBuilder.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("create")) {
+                        return producer;
+                    }
+                    if (method.getName().equals("createAsync")) {
+                        return CompletableFuture.completedFuture(producer);
+                    }
+                    return method.getReturnType().isInstance(proxy) ? proxy : null;
+                });
+        return (PulsarClient) Proxy.newProxyInstance(PulsarClient.class.getClassLoader(),
+                new Class<?>[]{PulsarClient.class}, (proxy, method, args) ->
+                        method.getName().equals("newProducer") ? builder : null);
+    }
+
+    /**
+     * RabbitTemplate that hands the converted message to the Blackhole and confirms it at once.
+     */
+    private static final class AckingRabbitTemplate extends RabbitTemplate {
+
+        private final Blackhole blackhole;
+
+        private AckingRabbitTemplate(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void send(String exchange, String routingKey, Message message, CorrelationData correlationData) {
+            blackhole.consume(message.getBody());
+            if (correlationData != null) {
+                correlationData.getFuture().complete(new CorrelationData.Confirm(true, null));
+            }
+        }
+    }
+}
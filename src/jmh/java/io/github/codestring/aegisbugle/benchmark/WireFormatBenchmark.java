@@ -0,0 +1,46 @@
+package io.github.codestring.aegisbugle.benchmark;
+
+import io.github.codestring.aegisbugle.adapter.out.serialization.AlertSerializer;
+import io.github.codestring.aegisbugle.adapter.out.serialization.AlertSerializers;
+import io.github.codestring.aegisbugle.application.core.id.MonotonicAlertIdGenerator;
+import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import io.github.codestring.aegisbugle.application.core.model.WireFormat;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding cost of each built-in wire format. The encoded size of the alert is printed once per
+ * trial, so throughput and payload size can be compared side by side.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"JSON", "CBOR", "SMILE"})
+    public WireFormat format;
+
+    @Param({"20", "100"})
+    public int stackFrames;
+
+    private AlertSerializer serializer;
+    private AlertEvent event;
+
+    @Setup
+    public void setUp() throws IOException {
+        serializer = AlertSerializers.forFormat(format, BenchmarkFixtures.objectMapper());
+        event = BenchmarkFixtures.alertEvent(stackFrames, 5);
+        event.ensureAlertId(new MonotonicAlertIdGenerator());
+        System.out.println(format + " payload with " + stackFrames + " frames: " + serializer.serialize(event).length + " bytes");
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return serializer.serialize(event);
+    }
+}
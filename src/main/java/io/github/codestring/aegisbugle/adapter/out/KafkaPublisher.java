@@ -1,65 +1,291 @@
 package io.github.codestring.aegisbugle.adapter.out;
 
-import io.github.codestring.aegisbugle.application.core.BugleAlertException;
+import io.github.codestring.aegisbugle.adapter.out.compression.PayloadCompressor;
+import io.github.codestring.aegisbugle.adapter.out.logging.LogRateLimiter;
+import io.github.codestring.aegisbugle.adapter.out.logging.LoggingPolicy;
+import io.github.codestring.aegisbugle.adapter.out.serialization.AlertSerializer;
+import io.github.codestring.aegisbugle.application.core.PublishException;
+import io.github.codestring.aegisbugle.application.core.id.AlertIdGenerator;
+import io.github.codestring.aegisbugle.application.core.model.AlertEnvelope;
 import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import io.github.codestring.aegisbugle.application.core.model.BatchPublishResult;
+import io.github.codestring.aegisbugle.application.core.model.DeliveryReceipt;
+import io.github.codestring.aegisbugle.application.core.partition.PartitionKeyStrategy;
 import io.github.codestring.aegisbugle.application.port.out.BuglePublisher;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.PartitionInfo;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * KafkaPublisher publishes alert events to a Kafka topic using Spring's KafkaTemplate.
  * <p>
  * Responsibilities:
- * - Ensures AlertEvent has a generated alertId before publishing.
- * - Logs publishing actions for observability.
- * - Supports sending both AlertEvent and generic event payloads via toString() serialization.
+ * - Ensures AlertEvent has an alertId before publishing, generating one only if it is missing.
+ * - Logs publishing actions for observability, rate-limited per call site by the {@link LoggingPolicy}.
+ * - Serializes both AlertEvent and generic event payloads with the configured {@link AlertSerializer}, so Kafka
+ *   consumers receive the same wire contract as Pulsar and RabbitMQ consumers. Payloads that are not JSON carry
+ *   their content type in a record header.
+ * - Publishes {@link AlertEnvelope}s with the payload the envelope has already encoded for this serializer,
+ *   so an envelope sent again, to another topic or by a retry, is not serialized a second time.
+ * - Compresses payloads above the {@link PayloadCompressor}'s threshold and marks them with a content encoding header.
+ * - Keys alert records with the {@link PartitionKeyStrategy}, so related alerts share a partition; unkeyed records
+ *   are spread by the producer's sticky partitioner.
+ * - Warms up a topic by creating the producer and fetching the topic's partition metadata.
  * <p>
  * Notes:
- * - If alertId generation fails, a RuntimeException is thrown wrapping BugleAlertException.
+ * - If serialization fails, a PublishException is thrown.
  *
  * @see io.github.codestring.aegisbugle.application.port.out.BuglePublisher
  * @see org.springframework.kafka.core.KafkaTemplate
  */
 
-@RequiredArgsConstructor
 @Slf4j
 public class KafkaPublisher implements BuglePublisher {
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final AlertSerializer serializer;
+    private final byte[] contentTypeHeader;
+    private final PayloadCompressor compressor;
+    private final byte[] contentEncodingHeader;
+    private final AlertIdGenerator idGenerator;
+    private final PartitionKeyStrategy keyStrategy;
+    private final LogRateLimiter sendLog;
+    private final LogRateLimiter batchLog;
+    private final LogRateLimiter errorLog;
+
+    public KafkaPublisher(KafkaTemplate<String, byte[]> kafkaTemplate, AlertSerializer serializer,
+                          PayloadCompressor compressor, AlertIdGenerator idGenerator, LoggingPolicy loggingPolicy,
+                          PartitionKeyStrategy keyStrategy) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.keyStrategy = keyStrategy;
+        this.serializer = serializer;
+        this.contentTypeHeader = serializer.isJson() ? null : serializer.contentType().getBytes(StandardCharsets.UTF_8);
+        this.compressor = compressor;
+        this.contentEncodingHeader = compressor.encoding() == null ? null
+                : compressor.encoding().getBytes(StandardCharsets.UTF_8);
+        this.idGenerator = idGenerator;
+        this.sendLog = loggingPolicy.limiter(log, "kafka-send");
+        this.batchLog = loggingPolicy.limiter(log, "kafka-batch");
+        this.errorLog = loggingPolicy.limiter(log, "kafka-error");
+    }
 
     /**
      * Publishes an AlertEvent to the given Kafka topic.
      * <p>
      * Steps:
-     * - Generates and sets the alertId on the event; wraps any BugleAlertException in a RuntimeException.
+     * - Assigns an alertId to the event if it does not have one yet.
      * - Logs the publish action for observability.
-     * - Sends the event payload via KafkaTemplate using event.toString() serialization.
+     * - Serializes the event straight to bytes and sends them via KafkaTemplate.
      *
-     * @param event the alert event to publish; must have a valid serviceName for ID generation
+     * @param event the alert event to publish
      * @param topic the Kafka topic to which the event is sent
-     * @throws RuntimeException if alertId generation fails
+     * @throws PublishException if the event cannot be serialized
      */
 
     @Override
     public void sendAlert(AlertEvent event, String topic) {
-        try {
-            event.setAlertId();
-        } catch (BugleAlertException e) {
-            throw new RuntimeException(e);
+        event.ensureAlertId(idGenerator);
+        if (sendLog.tryAcquire()) {
+            log.info("Sending alert to topic {}", topic);
         }
-        log.info("Sending alert to topic {}", topic);
-        kafkaTemplate.send(topic, event.toString());
+        sendRecord(topic, keyStrategy.keyFor(event), serialize(event));
     }
 
     /**
-     * Publish a generic event to a Kafka topic.
+     * Publish a generic event to a Kafka topic as serialized bytes.
      *
      */
 
     @Override
     public <T> void sendAlert(T event, String topic) {
-        log.info("Sending alert to topic with generics {}", topic);
-        kafkaTemplate.send(topic, event.toString());
+        if (sendLog.tryAcquire()) {
+            log.info("Sending alert to topic with generics {}", topic);
+        }
+        sendRecord(topic, null, serialize(event));
+    }
+
+    /**
+     * Publishes an AlertEvent to the given Kafka topic without waiting for the broker.
+     * <p>
+     * The returned future completes with the partition and offset assigned by the broker, or
+     * exceptionally with a PublishException if the send fails.
+     *
+     * @param event the alert event to publish
+     * @param topic the Kafka topic to which the event is sent
+     * @return a future of the delivery receipt
+     */
+    @Override
+    public CompletableFuture<DeliveryReceipt> sendAlertAsync(AlertEvent event, String topic) {
+        event.ensureAlertId(idGenerator);
+        log.debug("Sending alert asynchronously to topic {}", topic);
+        return send(event.getAlertId(), topic, keyStrategy.keyFor(event), event);
+    }
+
+    @Override
+    public <T> CompletableFuture<DeliveryReceipt> sendAlertAsync(T event, String topic) {
+        log.debug("Sending alert asynchronously to topic with generics {}", topic);
+        return send(null, topic, null, event);
+    }
+
+    @Override
+    public void sendEnvelope(AlertEnvelope envelope, String topic) {
+        if (sendLog.tryAcquire()) {
+            log.info("Sending alert to topic {}", topic);
+        }
+        sendRecord(topic, keyStrategy.keyFor(envelope), encode(envelope));
+    }
+
+    @Override
+    public CompletableFuture<DeliveryReceipt> sendEnvelopeAsync(AlertEnvelope envelope, String topic) {
+        log.debug("Sending alert asynchronously to topic {}", topic);
+        long start = System.nanoTime();
+        try {
+            return send(envelope.getAlertId(), topic, keyStrategy.keyFor(envelope), encode(envelope), start);
+        } catch (PublishException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Publishes a batch of AlertEvents to the given Kafka topic.
+     * <p>
+     * All records are handed to the producer first so that they share producer batches, then the
+     * producer is flushed once and the outcome of every record is collected.
+     *
+     * @param events the alert events to publish
+     * @param topic  the Kafka topic to which the events are sent
+     * @return the per-alert outcomes, in submission order
+     */
+    @Override
+    public BatchPublishResult sendAlerts(Collection<AlertEvent> events, String topic) {
+        if (batchLog.tryAcquire()) {
+            log.info("Sending batch of {} alerts to topic {}", events.size(), topic);
+        }
+        List<String> alertIds = new ArrayList<>(events.size());
+        List<CompletableFuture<DeliveryReceipt>> futures = new ArrayList<>(events.size());
+        for (AlertEvent event : events) {
+            futures.add(sendAlertAsync(event, topic));
+            alertIds.add(event.getAlertId());
+        }
+        try {
+            kafkaTemplate.flush();
+        } catch (RuntimeException e) {
+            if (errorLog.tryAcquire()) {
+                log.error("Failed to flush Kafka producer for topic {}", topic, e);
+            }
+        }
+        return BatchPublishResult.await(alertIds, futures);
+    }
+
+    /**
+     * Creates the producer and fetches the topic's partition metadata. Kafka already fails this for a
+     * topic it does not know and will not create, so verifying only adds a check that partitions were returned.
+     */
+    @Override
+    public void warmUp(String topic, boolean verify) {
+        List<PartitionInfo> partitions;
+        try {
+            partitions = kafkaTemplate.partitionsFor(topic);
+        } catch (RuntimeException e) {
+            throw new PublishException("Failed to fetch metadata of Kafka topic " + topic, e);
+        }
+        if (verify && (partitions == null || partitions.isEmpty())) {
+            throw new PublishException("Kafka topic " + topic + " has no partitions");
+        }
+        log.debug("Kafka producer ready for topic {} with {} partitions", topic,
+                partitions == null ? 0 : partitions.size());
+    }
+
+    private byte[] serialize(Object event) {
+        try {
+            return serializer.serialize(event);
+        } catch (IOException e) {
+            if (errorLog.tryAcquire()) {
+                log.error("Error serializing message for Kafka publication", e);
+            }
+            throw new PublishException("Error serializing message {}", e);
+        }
+    }
+
+    private byte[] encode(AlertEnvelope envelope) {
+        try {
+            return envelope.encode(serializer, serializer::serialize);
+        } catch (IOException e) {
+            if (errorLog.tryAcquire()) {
+                log.error("Error serializing message for Kafka publication", e);
+            }
+            throw new PublishException("Error serializing message {}", e);
+        }
+    }
+
+    private CompletableFuture<DeliveryReceipt> send(String alertId, String topic, String key, Object event) {
+        long start = System.nanoTime();
+        try {
+            return send(alertId, topic, key, serialize(event), start);
+        } catch (PublishException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private CompletableFuture<DeliveryReceipt> send(String alertId, String topic, String key, byte[] serialized,
+                                                    long start) {
+        CompletableFuture<DeliveryReceipt> receipt = new CompletableFuture<>();
+        try {
+            byte[] payload = compressor.compress(serialized);
+            sendRecord(topic, key, payload, payload != serialized).whenComplete((result, error) -> {
+                if (error != null) {
+                    receipt.completeExceptionally(new PublishException("Failed to publish message to Kafka", error));
+                } else {
+                    receipt.complete(toReceipt(alertId, topic, result, payload.length, start));
+                }
+            });
+        } catch (RuntimeException e) {
+            receipt.completeExceptionally(new PublishException("Failed to publish message to Kafka", e));
+        }
+        return receipt;
+    }
+
+    private CompletableFuture<SendResult<String, byte[]>> sendRecord(String topic, String key, byte[] serialized) {
+        byte[] payload = compressor.compress(serialized);
+        return sendRecord(topic, key, payload, payload != serialized);
+    }
+
+    private CompletableFuture<SendResult<String, byte[]>> sendRecord(String topic, String key, byte[] payload,
+                                                                     boolean compressed) {
+        if (contentTypeHeader == null && !compressed) {
+            return key == null ? kafkaTemplate.send(topic, payload) : kafkaTemplate.send(topic, key, payload);
+        }
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(topic, key, payload);
+        if (contentTypeHeader != null) {
+            record.headers().add(AlertSerializer.CONTENT_TYPE_HEADER, contentTypeHeader);
+        }
+        if (compressed) {
+            record.headers().add(PayloadCompressor.CONTENT_ENCODING_HEADER, contentEncodingHeader);
+        }
+        return kafkaTemplate.send(record);
+    }
+
+    private DeliveryReceipt toReceipt(String alertId, String topic, SendResult<String, byte[]> result,
+                                     int payloadBytes, long start) {
+        RecordMetadata metadata = result.getRecordMetadata();
+        return DeliveryReceipt.builder()
+                .alertId(alertId)
+                .topic(metadata != null ? metadata.topic() : topic)
+                .partition(metadata != null ? metadata.partition() : null)
+                .offset(metadata != null && metadata.hasOffset() ? metadata.offset() : null)
+                .latency(Duration.ofNanos(System.nanoTime() - start))
+                .payloadBytes(payloadBytes)
+                .build();
     }
 }
@@ -1,22 +1,80 @@
 package io.github.codestring.aegisbugle.adapter.out;
 
+import io.github.codestring.aegisbugle.adapter.out.logging.LogRateLimiter;
+import io.github.codestring.aegisbugle.adapter.out.logging.LoggingPolicy;
 import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import io.github.codestring.aegisbugle.application.core.model.BatchItemResult;
+import io.github.codestring.aegisbugle.application.core.model.BatchPublishResult;
+import io.github.codestring.aegisbugle.application.core.model.DeliveryReceipt;
 import io.github.codestring.aegisbugle.application.port.out.BuglePublisher;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @Component
 public class NoOpPublisher implements BuglePublisher {
+
+    private final LogRateLimiter warnLog;
+
+    public NoOpPublisher() {
+        this(LoggingPolicy.DEFAULT);
+    }
+
+    public NoOpPublisher(LoggingPolicy loggingPolicy) {
+        this.warnLog = loggingPolicy.limiter(log, "noop-send");
+    }
+
     @Override
     public void sendAlert(AlertEvent event, String topic) {
-        log.warn("Aegis Bugle Starter is included but 'aegis.bugle.broker-type' is not set or invalid. No messages will be published.");
-        log.info("See message sent {} to {}", event, topic);
+        warn(event, topic);
     }
 
     @Override
     public <T> void sendAlert(T event, String topic) {
-        log.warn("Aegis Bugle Starter is included but 'aegis.bugle.broker-type' is not set or invalid. No messages will be published.");
-        log.info("See message sent {} to {}", event, topic);
+        warn(event, topic);
+    }
+
+    @Override
+    public CompletableFuture<DeliveryReceipt> sendAlertAsync(AlertEvent event, String topic) {
+        sendAlert(event, topic);
+        return CompletableFuture.completedFuture(DeliveryReceipt.builder()
+                .alertId(event != null ? event.getAlertId() : null)
+                .topic(topic)
+                .latency(Duration.ZERO)
+                .build());
+    }
+
+    @Override
+    public <T> CompletableFuture<DeliveryReceipt> sendAlertAsync(T event, String topic) {
+        sendAlert(event, topic);
+        return CompletableFuture.completedFuture(DeliveryReceipt.builder()
+                .topic(topic)
+                .latency(Duration.ZERO)
+                .build());
+    }
+
+    @Override
+    public BatchPublishResult sendAlerts(Collection<AlertEvent> events, String topic) {
+        List<BatchItemResult> items = new ArrayList<>(events.size());
+        int index = 0;
+        for (AlertEvent event : events) {
+            items.add(BatchItemResult.success(index++, event.getAlertId(), sendAlertAsync(event, topic).join()));
+        }
+        return new BatchPublishResult(items);
+    }
+
+    private void warn(Object event, String topic) {
+        if (warnLog.tryAcquire()) {
+            log.warn("Aegis Bugle Starter is included but 'aegis.bugle.broker-type' is not set or invalid. No messages will be published.");
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("See message sent {} to {}", event, topic);
+        }
     }
 }
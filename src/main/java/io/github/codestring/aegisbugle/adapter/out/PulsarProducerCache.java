@@ -0,0 +1,220 @@
+package io.github.codestring.aegisbugle.adapter.out;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pulsar.client.api.BatcherBuilder;
+import org.apache.pulsar.client.api.CompressionType;
+import org.apache.pulsar.client.api.Producer;
+import org.apache.pulsar.client.api.ProducerBuilder;
+import org.apache.pulsar.client.api.PulsarClient;
+import org.apache.pulsar.client.api.PulsarClientException;
+import org.apache.pulsar.client.api.Schema;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PulsarProducerCache keeps one byte producer per topic so that alerts reuse an already
+ * registered producer instead of paying a topic lookup and producer handshake per message.
+ * <p>
+ * Responsibilities:
+ * - Creates producers lazily on first use of a topic and reuses them afterwards.
+ * - Evicts producers that have been idle longer than the configured idle timeout.
+ * - Bounds the number of live producers; when full, the least recently used producer is closed.
+ * - Closes every cached producer on {@link #close()}.
+ * <p>
+ * Producers use the configured batch-level compression type, if any, and batch per message key
+ * when key-based batching is enabled.
+ * <p>
+ * Idle producers are evicted whenever a new producer has to be created, and by a daemon timer every
+ * half idle timeout, so producers of topics that went quiet are closed even when no new topic comes along.
+ */
+@Slf4j
+public class PulsarProducerCache implements AutoCloseable {
+
+    private static final long MIN_EVICTION_INTERVAL_MS = 10;
+
+    private final PulsarClient pulsarClient;
+    private final int maxProducers;
+    private final long idleTimeoutNanos;
+    private final CompressionType compressionType;
+    private final boolean keyBasedBatching;
+    private final Map<String, CachedProducer> producers = new ConcurrentHashMap<>();
+    /** Runs {@link #evictIdle()} periodically; null when there is no idle timeout. */
+    private final ScheduledExecutorService evictionTimer;
+    private volatile boolean closed;
+
+    /**
+     * @param keyBasedBatching batch messages per key, so that consumers of a Key_Shared subscription
+     *                         receive each key's messages in order
+     */
+    public PulsarProducerCache(PulsarClient pulsarClient, int maxProducers, long idleTimeoutMs,
+                               CompressionType compressionType, boolean keyBasedBatching) {
+        if (maxProducers < 1) {
+            throw new IllegalArgumentException("maxProducers must be at least 1");
+        }
+        this.pulsarClient = pulsarClient;
+        this.maxProducers = maxProducers;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMs);
+        this.compressionType = compressionType;
+        this.keyBasedBatching = keyBasedBatching;
+        if (idleTimeoutMs > 0) {
+            long intervalMs = Math.max(idleTimeoutMs / 2, MIN_EVICTION_INTERVAL_MS);
+            this.evictionTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "aegis-bugle-pulsar-eviction");
+                thread.setDaemon(true);
+                return thread;
+            });
+            evictionTimer.scheduleWithFixedDelay(this::evictIdleQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        } else {
+            this.evictionTimer = null;
+        }
+    }
+
+    /**
+     * Returns the cached producer for the topic, creating and registering it if needed.
+     *
+     * @param topic the Pulsar topic
+     * @return the byte producer for the topic
+     * @throws PulsarClientException if the producer cannot be created
+     * @throws IllegalStateException if the cache has been closed
+     */
+    public Producer<byte[]> getProducer(String topic) throws PulsarClientException {
+        if (closed) {
+            throw new IllegalStateException("Pulsar producer cache is closed");
+        }
+        long now = System.nanoTime();
+        CachedProducer cached = producers.get(topic);
+        if (cached != null) {
+            cached.lastUsed = now;
+            return cached.producer;
+        }
+        return createProducer(topic, now);
+    }
+
+    private synchronized Producer<byte[]> createProducer(String topic, long now) throws PulsarClientException {
+        CachedProducer cached = producers.get(topic);
+        if (cached != null) {
+            cached.lastUsed = now;
+            return cached.producer;
+        }
+
+        evictIdle(now);
+        if (producers.size() >= maxProducers) {
+            evictLeastRecentlyUsed();
+        }
+
+        ProducerBuilder<byte[]> builder = pulsarClient.newProducer(Schema.BYTES).topic(topic);
+        if (compressionType != null) {
+            builder = builder.compressionType(compressionType);
+        }
+        if (keyBasedBatching) {
+            builder = builder.batcherBuilder(BatcherBuilder.KEY_BASED);
+        }
+        Producer<byte[]> producer = builder.create();
+        producers.put(topic, new CachedProducer(producer, now));
+        log.debug("Created Pulsar producer for topic {} ({} cached)", topic, producers.size());
+        return producer;
+    }
+
+    /**
+     * Drops and closes the cached producer for the topic, e.g. after the client reported it as closed.
+     * The next call to {@link #getProducer(String)} creates a fresh producer.
+     *
+     * @param topic the Pulsar topic
+     */
+    public void invalidate(String topic) {
+        CachedProducer removed = producers.remove(topic);
+        if (removed != null) {
+            closeQuietly(topic, removed.producer);
+        }
+    }
+
+    /**
+     * Closes and removes the topic's producer only if it is still the given one, so that sends that all
+     * failed on the same closed producer do not close the fresh producer the first of them created.
+     */
+    public void invalidate(String topic, Producer<byte[]> producer) {
+        CachedProducer cached = producers.get(topic);
+        if (cached != null && cached.producer == producer && producers.remove(topic, cached)) {
+            closeQuietly(topic, producer);
+        }
+    }
+
+    /**
+     * Closes producers that have not been used within the idle timeout.
+     */
+    public synchronized void evictIdle() {
+        evictIdle(System.nanoTime());
+    }
+
+    private void evictIdleQuietly() {
+        try {
+            evictIdle();
+        } catch (RuntimeException e) {
+            // a failing run must not cancel the timer
+            log.warn("Failed to evict idle Pulsar producers", e);
+        }
+    }
+
+    private void evictIdle(long now) {
+        producers.entrySet().removeIf(entry -> {
+            if (now - entry.getValue().lastUsed < idleTimeoutNanos) {
+                return false;
+            }
+            log.debug("Evicting idle Pulsar producer for topic {}", entry.getKey());
+            closeQuietly(entry.getKey(), entry.getValue().producer);
+            return true;
+        });
+    }
+
+    private void evictLeastRecentlyUsed() {
+        String eldestTopic = null;
+        long eldest = Long.MAX_VALUE;
+        for (Map.Entry<String, CachedProducer> entry : producers.entrySet()) {
+            if (entry.getValue().lastUsed < eldest) {
+                eldest = entry.getValue().lastUsed;
+                eldestTopic = entry.getKey();
+            }
+        }
+        if (eldestTopic != null) {
+            CachedProducer removed = producers.remove(eldestTopic);
+            log.debug("Pulsar producer cache is full, evicting producer for topic {}", eldestTopic);
+            closeQuietly(eldestTopic, removed.producer);
+        }
+    }
+
+    public int size() {
+        return producers.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (evictionTimer != null) {
+            evictionTimer.shutdownNow();
+        }
+        producers.forEach((topic, cached) -> closeQuietly(topic, cached.producer));
+        producers.clear();
+    }
+
+    private void closeQuietly(String topic, Producer<byte[]> producer) {
+        try {
+            producer.close();
+        } catch (PulsarClientException e) {
+            log.warn("Failed to close Pulsar producer for topic {}", topic, e);
+        }
+    }
+
+    private static final class CachedProducer {
+        private final Producer<byte[]> producer;
+        private volatile long lastUsed;
+
+        private CachedProducer(Producer<byte[]> producer, long lastUsed) {
+            this.producer = producer;
+            this.lastUsed = lastUsed;
+        }
+    }
+}
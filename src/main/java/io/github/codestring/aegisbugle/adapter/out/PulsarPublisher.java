@@ -1,53 +1,85 @@
 package io.github.codestring.aegisbugle.adapter.out;
 
-import io.github.codestring.aegisbugle.application.core.BugleAlertException;
+import io.github.codestring.aegisbugle.adapter.out.compression.PayloadCompressor;
+import io.github.codestring.aegisbugle.adapter.out.logging.LogRateLimiter;
+import io.github.codestring.aegisbugle.adapter.out.logging.LoggingPolicy;
+import io.github.codestring.aegisbugle.adapter.out.serialization.AlertSerializer;
 import io.github.codestring.aegisbugle.application.core.PublishException;
+import io.github.codestring.aegisbugle.application.core.id.AlertIdGenerator;
+import io.github.codestring.aegisbugle.application.core.model.AlertEnvelope;
 import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import io.github.codestring.aegisbugle.application.core.model.BatchPublishResult;
+import io.github.codestring.aegisbugle.application.core.model.DeliveryReceipt;
+import io.github.codestring.aegisbugle.application.core.partition.PartitionKeyStrategy;
 import io.github.codestring.aegisbugle.application.port.out.BuglePublisher;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pulsar.client.api.MessageId;
 import org.apache.pulsar.client.api.Producer;
-import org.apache.pulsar.client.api.PulsarClient;
 import org.apache.pulsar.client.api.PulsarClientException;
-import org.apache.pulsar.client.api.Schema;
-import org.apache.pulsar.shade.com.fasterxml.jackson.core.JsonProcessingException;
-import org.apache.pulsar.shade.com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.pulsar.client.api.TypedMessageBuilder;
 
-@RequiredArgsConstructor
-public class PulsarPublisher implements BuglePublisher {
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
-    private final PulsarClient pulsarClient;
-    private final ObjectMapper objectMapper;
+/**
+ * PulsarPublisher publishes alert events to Pulsar topics as byte payloads, encoded by the configured
+ * {@link AlertSerializer} so that Pulsar consumers receive the same wire contract as Kafka and RabbitMQ
+ * consumers. Payloads that are not JSON carry their content type in a message property, and payloads
+ * compressed by the {@link PayloadCompressor} carry their content encoding. {@link AlertEnvelope}s are sent
+ * with the payload they have already encoded for this serializer. Alert messages carry the key chosen by the
+ * {@link PartitionKeyStrategy}.
+ * <p>
+ * Producers are obtained from a {@link PulsarProducerCache} and reused across sends; they are
+ * closed when the publisher itself is closed. Warming up a topic creates its producer ahead of the first alert.
+ */
+@Slf4j
+public class PulsarPublisher implements BuglePublisher, AutoCloseable {
+
+    private final AlertSerializer serializer;
+    private final PayloadCompressor compressor;
+    private final PulsarProducerCache producerCache;
+    private final AlertIdGenerator idGenerator;
+    private final PartitionKeyStrategy keyStrategy;
+    private final LogRateLimiter errorLog;
+
+    public PulsarPublisher(AlertSerializer serializer, PayloadCompressor compressor, PulsarProducerCache producerCache,
+                           AlertIdGenerator idGenerator, LoggingPolicy loggingPolicy, PartitionKeyStrategy keyStrategy) {
+        this.serializer = serializer;
+        this.keyStrategy = keyStrategy;
+        this.compressor = compressor;
+        this.producerCache = producerCache;
+        this.idGenerator = idGenerator;
+        this.errorLog = loggingPolicy.limiter(log, "pulsar-error");
+    }
 
 
     /**
-     * Publishes an AlertEvent to the given Pulsar topic as a JSON-serialized byte payload.
+     * Publishes an AlertEvent to the given Pulsar topic as a serialized byte payload.
      * <p>
      * Steps:
-     * - Generates and assigns a unique alertId on the event.
-     * - Serializes the event to JSON using the configured ObjectMapper.
-     * - Creates a byte producer with Schema.BYTES and sends the payload to the specified topic.
+     * - Assigns an alertId to the event if it does not have one yet.
+     * - Serializes the event straight to JSON bytes.
+     * - Sends the payload through the cached Schema.BYTES producer for the topic.
      * <p>
      * Parameters:
-     * - event: the alert payload to publish; must contain a valid serviceName for ID generation.
+     * - event: the alert payload to publish.
      * - topic: the Pulsar topic to which the alert is sent.
      * <p>
      * Throws:
      * - PublishException if serialization or Pulsar client operations fail.
-     * - RuntimeException wrapping BugleAlertException if alertId generation fails.
      */
     @Override
     public void sendAlert(AlertEvent event, String topic) {
         try{
-            event.setAlertId();
-            String jsonResponse = objectMapper.writeValueAsString(event);
-            byte[] bytes = jsonResponse.getBytes();
-            try (Producer<byte[]> producer = pulsarClient.newProducer(Schema.BYTES).topic(topic).create()) {
-                producer.send(bytes);
-            }
-        } catch (JsonProcessingException | PulsarClientException e) {
+            event.ensureAlertId(idGenerator);
+            send(serializer.serialize(event), topic, keyStrategy.keyFor(event));
+        } catch (IOException e) {
             throw new PublishException(e.getMessage());
-        } catch (BugleAlertException e) {
-            throw new RuntimeException(e);
         }
     }
 
@@ -55,13 +87,201 @@ public class PulsarPublisher implements BuglePublisher {
     @Override
     public <T> void sendAlert(T event, String topic) {
         try {
-            String jsonResponse = objectMapper.writeValueAsString(event);
-            byte[] bytes = jsonResponse.getBytes();
-            try(Producer<byte[]> producer = pulsarClient.newProducer(Schema.BYTES).topic(topic).create()) {
-                producer.send(bytes);
-            }
-        }catch (JsonProcessingException | PulsarClientException ex){
+            send(serializer.serialize(event), topic, null);
+        }catch (IOException ex){
             throw new PublishException(ex.getMessage());
         }
     }
+
+    /**
+     * Publishes an AlertEvent to the given Pulsar topic using the producer's sendAsync.
+     * <p>
+     * The returned future completes with the broker-assigned message id, or exceptionally with a
+     * PublishException if serialization or the send fails. The caller is never blocked on the
+     * broker round-trip; only the first send to a topic waits for its producer to be created.
+     */
+    @Override
+    public CompletableFuture<DeliveryReceipt> sendAlertAsync(AlertEvent event, String topic) {
+        try {
+            event.ensureAlertId(idGenerator);
+            return sendAsync(event.getAlertId(), serializer.serialize(event), topic, keyStrategy.keyFor(event));
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new PublishException(e.getMessage(), e));
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<DeliveryReceipt> sendAlertAsync(T event, String topic) {
+        try {
+            return sendAsync(null, serializer.serialize(event), topic, null);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new PublishException(e.getMessage(), e));
+        }
+    }
+
+    @Override
+    public void sendEnvelope(AlertEnvelope envelope, String topic) {
+        try {
+            send(envelope.encode(serializer, serializer::serialize), topic, keyStrategy.keyFor(envelope));
+        } catch (IOException e) {
+            throw new PublishException(e.getMessage());
+        }
+    }
+
+    @Override
+    public CompletableFuture<DeliveryReceipt> sendEnvelopeAsync(AlertEnvelope envelope, String topic) {
+        try {
+            return sendAsync(envelope.getAlertId(), envelope.encode(serializer, serializer::serialize), topic,
+                    keyStrategy.keyFor(envelope));
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new PublishException(e.getMessage(), e));
+        }
+    }
+
+    /**
+     * Publishes a batch of AlertEvents to the given Pulsar topic.
+     * <p>
+     * Every alert goes through sendAsync on the topic's cached producer so that the client packs
+     * them into producer batches; the producer is then flushed once and each outcome collected.
+     *
+     * @param events the alert events to publish
+     * @param topic  the Pulsar topic to which the events are sent
+     * @return the per-alert outcomes, in submission order
+     */
+    @Override
+    public BatchPublishResult sendAlerts(Collection<AlertEvent> events, String topic) {
+        List<String> alertIds = new ArrayList<>(events.size());
+        List<CompletableFuture<DeliveryReceipt>> futures = new ArrayList<>(events.size());
+        for (AlertEvent event : events) {
+            futures.add(sendAlertAsync(event, topic));
+            alertIds.add(event.getAlertId());
+        }
+        try {
+            producerCache.getProducer(topic).flushAsync();
+        } catch (PulsarClientException | RuntimeException e) {
+            if (errorLog.tryAcquire()) {
+                log.error("Failed to flush Pulsar producer for topic {}", topic, e);
+            }
+        }
+        return BatchPublishResult.await(alertIds, futures);
+    }
+
+    /**
+     * Looks the topic up and registers its producer in the cache. Creating the producer already fails
+     * for a topic the broker does not know and will not create, so there is nothing more to verify.
+     */
+    @Override
+    public void warmUp(String topic, boolean verify) {
+        try {
+            producerCache.getProducer(topic);
+        } catch (PulsarClientException e) {
+            throw new PublishException("Failed to create Pulsar producer for topic " + topic, e);
+        }
+        log.debug("Pulsar producer ready for topic {}", topic);
+    }
+
+    private CompletableFuture<DeliveryReceipt> sendAsync(String alertId, byte[] serialized, String topic, String key) {
+        long start = System.nanoTime();
+        byte[] bytes = compressor.compress(serialized);
+        CompletableFuture<DeliveryReceipt> receipt = new CompletableFuture<>();
+        sendAsync(topic, bytes, bytes != serialized, key, true).whenComplete((messageId, error) -> {
+            if (error != null) {
+                Throwable cause = unwrap(error);
+                receipt.completeExceptionally(new PublishException(cause.getMessage(), cause));
+            } else {
+                receipt.complete(DeliveryReceipt.builder()
+                        .alertId(alertId)
+                        .topic(topic)
+                        .messageId(String.valueOf(messageId))
+                        .latency(Duration.ofNanos(System.nanoTime() - start))
+                        .payloadBytes(bytes.length)
+                        .build());
+            }
+        });
+        return receipt;
+    }
+
+    /**
+     * Sends on the topic's cached producer. A producer that was evicted or closed by the broker is
+     * dropped from the cache and the send is retried once on a fresh one, as {@link #send} does.
+     */
+    private CompletableFuture<MessageId> sendAsync(String topic, byte[] bytes, boolean compressed, String key,
+                                                   boolean retryIfClosed) {
+        Producer<byte[]> producer;
+        CompletableFuture<MessageId> sent;
+        try {
+            producer = producerCache.getProducer(topic);
+            sent = sendAsync(producer, bytes, compressed, key);
+        } catch (PulsarClientException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (!retryIfClosed) {
+            return sent;
+        }
+        // off the client's callback thread, since creating the fresh producer blocks
+        return sent.exceptionallyComposeAsync(error -> {
+            if (!(unwrap(error) instanceof PulsarClientException.AlreadyClosedException)) {
+                return CompletableFuture.failedFuture(error);
+            }
+            producerCache.invalidate(topic, producer);
+            return sendAsync(topic, bytes, compressed, key, false);
+        });
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private void send(byte[] serialized, String topic, String key) throws PulsarClientException {
+        byte[] bytes = compressor.compress(serialized);
+        boolean compressed = bytes != serialized;
+        Producer<byte[]> producer = producerCache.getProducer(topic);
+        try {
+            send(producer, bytes, compressed, key);
+        } catch (PulsarClientException.AlreadyClosedException e) {
+            // the cached producer was evicted or closed underneath us; retry once on a fresh one
+            producerCache.invalidate(topic, producer);
+            send(producerCache.getProducer(topic), bytes, compressed, key);
+        }
+    }
+
+    private void send(Producer<byte[]> producer, byte[] bytes, boolean compressed, String key)
+            throws PulsarClientException {
+        if (serializer.isJson() && !compressed && key == null) {
+            producer.send(bytes);
+        } else {
+            newMessage(producer, bytes, compressed, key).send();
+        }
+    }
+
+    private CompletableFuture<MessageId> sendAsync(Producer<byte[]> producer, byte[] bytes, boolean compressed,
+                                                   String key) {
+        if (serializer.isJson() && !compressed && key == null) {
+            return producer.sendAsync(bytes);
+        }
+        return newMessage(producer, bytes, compressed, key).sendAsync();
+    }
+
+    private TypedMessageBuilder<byte[]> newMessage(Producer<byte[]> producer, byte[] bytes, boolean compressed,
+                                                   String key) {
+        TypedMessageBuilder<byte[]> message = producer.newMessage().value(bytes);
+        if (key != null) {
+            message = message.key(key);
+        }
+        if (!serializer.isJson()) {
+            message = message.property(AlertSerializer.CONTENT_TYPE_HEADER, serializer.contentType());
+        }
+        if (compressed) {
+            message = message.property(PayloadCompressor.CONTENT_ENCODING_HEADER, compressor.encoding());
+        }
+        return message;
+    }
+
+    /**
+     * Closes all cached producers. Invoked by the container on context shutdown.
+     */
+    @Override
+    public void close() {
+        producerCache.close();
+    }
 }
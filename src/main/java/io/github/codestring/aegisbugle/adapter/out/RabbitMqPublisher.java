@@ -1,70 +1,164 @@
 package io.github.codestring.aegisbugle.adapter.out;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import io.github.codestring.aegisbugle.application.core.BugleAlertException;
+import io.github.codestring.aegisbugle.adapter.out.compression.PayloadCompressor;
+import io.github.codestring.aegisbugle.adapter.out.logging.LogRateLimiter;
+import io.github.codestring.aegisbugle.adapter.out.logging.LoggingPolicy;
+import io.github.codestring.aegisbugle.adapter.out.serialization.AlertSerializer;
 import io.github.codestring.aegisbugle.application.core.PublishException;
+import io.github.codestring.aegisbugle.application.core.id.AlertIdGenerator;
+import io.github.codestring.aegisbugle.application.core.model.AlertEnvelope;
 import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import io.github.codestring.aegisbugle.application.core.model.BatchPublishResult;
+import io.github.codestring.aegisbugle.application.core.model.DeliveryReceipt;
 import io.github.codestring.aegisbugle.application.core.model.FailureMessage;
 import io.github.codestring.aegisbugle.application.port.out.BuglePublisher;
 import io.github.codestring.aegisbugle.config.BugleProperties;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
 
 /**
  * RabbitMqPublisher publishes AlertEvent messages to RabbitMQ using Spring's RabbitTemplate.
  * <p>
  * Responsibilities:
- * - Validates routing key, generates alertId, serializes events, and sends to a resolved exchange.
- * - Logs publishing lifecycle and handles AMQP/serialization errors by throwing PublishException.
+ * - Validates routing key, assigns a missing alertId, serializes events once with the configured
+ *   {@link AlertSerializer} as an {@link AlertEnvelope} whose routing key stays outside the payload, and sends them as a prebuilt AMQP message, carrying the serializer's content
+ *   type, to a resolved exchange. Payloads above the {@link PayloadCompressor}'s threshold are compressed and
+ *   carry the codec in the AMQP content encoding.
+ * - Logs publishing lifecycle, rate-limited per call site by the {@link LoggingPolicy}, and handles
+ *   AMQP/serialization errors by throwing PublishException. Payload bodies are only logged at DEBUG.
  * - Publishes failure details to a configured failure destination when enabled via BugleProperties.
  * <p>
+ * Confirms:
+ * - Every alert is published with its own CorrelationData and mandatory flag, so the broker's
+ *   publisher confirm and any return for an unroutable message arrive asynchronously on it.
+ * - At most {@code maxOutstandingConfirms} messages may await a confirm at once. A send beyond that
+ *   blocks for up to the confirm timeout until an earlier confirm frees a slot.
+ * - A confirm frees its slot on the thread that delivers it, but the returned future is completed on the
+ *   callback executor. Whatever reacts to the outcome, such as a retry, a dead letter or a failure message,
+ *   therefore never blocks on the window or publishes from the connection's own thread.
+ * <p>
  * Methods:
- * - sendAlert(AlertEvent, String topic): Publishes an alert to the specified topic (exchange) or default exchange.
+ * - sendAlert(AlertEvent, String topic): Publishes an alert to the specified topic (exchange) or default exchange
+ *   without waiting for its confirm; a nack, return or missing confirm is logged and routed to the failure destination.
  * - sendAlert(T, String topic): Deprecated placeholder, no implementation.
+ * - sendAlertAsync(AlertEvent, String topic): Publishes with a correlated publisher confirm and completes on ack/nack.
+ * - sendEnvelope / sendEnvelopeAsync(AlertEnvelope, String topic): As above, reusing the envelope's encoded payload.
+ * - sendAlerts(Collection, String topic): Publishes a batch and waits for all confirms as one window.
+ * - sendFailureAsync(FailureMessage, String destination): Publishes a FailureMessage using the destination as routing key.
  * - publishFailure(String originalDestination, AlertEvent message, Throwable error): Sends a FailureMessage with error context.
+ * - warmUp(String topic, boolean verify): Opens the connection and a channel, optionally checking the exchange exists.
  * - getExchange(AlertEvent, String topic): Resolves exchange using provided topic or configured default.
  */
 
 @Slf4j
-@RequiredArgsConstructor
 public class RabbitMqPublisher implements BuglePublisher {
 
     private final RabbitTemplate rabbitTemplate;
     private final BugleProperties properties;
-    private final ObjectMapper objectMapper;
+    private final AlertSerializer serializer;
+    private final PayloadCompressor compressor;
+    private final AlertIdGenerator idGenerator;
+    /** Free slots in the window of unconfirmed messages; null when the window is unbounded. */
+    private final Semaphore confirmWindow;
+    private final Executor callbackExecutor;
+    private final LogRateLimiter publishLog;
+    private final LogRateLimiter errorLog;
+    private final LogRateLimiter failureLog;
 
+    /**
+     * @param callbackExecutor executor on which confirm outcomes are handed to the caller
+     */
+    public RabbitMqPublisher(RabbitTemplate rabbitTemplate, BugleProperties properties, AlertSerializer serializer,
+                             PayloadCompressor compressor, AlertIdGenerator idGenerator, LoggingPolicy loggingPolicy,
+                             Executor callbackExecutor) {
+        this.callbackExecutor = callbackExecutor;
+        this.rabbitTemplate = rabbitTemplate;
+        this.properties = properties;
+        this.serializer = serializer;
+        this.compressor = compressor;
+        this.idGenerator = idGenerator;
+        int window = properties.getRabbitmq().getMaxOutstandingConfirms();
+        this.confirmWindow = window > 0 ? new Semaphore(window) : null;
+        this.publishLog = loggingPolicy.limiter(log, "rabbitmq-publish");
+        this.errorLog = loggingPolicy.limiter(log, "rabbitmq-error");
+        this.failureLog = loggingPolicy.limiter(log, "rabbitmq-failure");
+    }
+
+    /**
+     * Publishes the alert without waiting for its confirm. The alert is sent as an {@link AlertEnvelope}
+     * snapshot with the routing key outside the payload, so the caller's event is not modified apart from
+     * a missing alertId being assigned.
+     */
     @Override
     public void sendAlert(AlertEvent event, String topic) {
+        if(StringUtils.isEmpty(event.getRoutingKey())) {
+            throw missingRoutingKey();
+        }
+        event.ensureAlertId(idGenerator);
+        sendEnvelope(AlertEnvelope.of(event), topic);
+    }
+
+    @Override
+    public void sendEnvelope(AlertEnvelope envelope, String topic) {
+        String routingKey = envelope.getRoutingKey();
         try {
-            if(StringUtils.isEmpty(event.getRoutingKey())) {
-                throw new PublishException("Routing key is required");
+            if(StringUtils.isEmpty(routingKey)) {
+                throw missingRoutingKey();
+            }
+            log.debug("Publishing message to RabbitMQ - Exchange: {}, Routing Key: {}", topic, routingKey);
+            String exchange = getExchange(null, topic);
+            Message message = toMessage(envelope.encodeWithoutRoutingKey(serializer, serializer::serialize));
+            String alertId = envelope.getAlertId();
+            publish(exchange, routingKey, message, new CorrelationData(alertId), alertId)
+                    .whenComplete((receipt, error) -> {
+                        if (error != null) {
+                            if (errorLog.tryAcquire()) {
+                                log.error("Alert {} was not confirmed by RabbitMQ - Exchange: {}, Routing Key: {}",
+                                        alertId, exchange, routingKey, error);
+                            }
+                            publishFailure(topic, envelope.toAlertEvent(), error);
+                        } else if (publishLog.tryAcquire()) {
+                            log.info("Successfully published message to RabbitMQ - Exchange: {}, Routing Key: {}, alertId: {}",
+                                    exchange, routingKey, alertId);
+                        }
+                    });
+            if (log.isDebugEnabled()) {
+                // only uncompressed JSON, which is marked with its charset, is readable as text
+                boolean text = StandardCharsets.UTF_8.name().equals(message.getMessageProperties().getContentEncoding());
+                log.debug("Published RabbitMQ payload for alert {}: {}", alertId, text
+                        ? new String(message.getBody(), StandardCharsets.UTF_8)
+                        : message.getBody().length + " bytes of " + serializer.contentType());
             }
-            event.setAlertId();
-            log.debug("Publishing message to RabbitMQ - Exchange: {}, Routing Key: {}",
-                    topic, event.getRoutingKey());
-            String routingKey = event.getRoutingKey();
-            String exchange = getExchange(event, topic);
-            event.setRoutingKey(null);
-            String messageJson = objectMapper.writeValueAsString(event);
-            rabbitTemplate.convertAndSend(exchange, routingKey, messageJson);
-            log.info("Successfully published message to RabbitMQ - Exchange: {}, Routing Key: {}, message: {}",
-                    exchange, routingKey, messageJson);
-
-            event.setRoutingKey(routingKey);
         }catch (AmqpException e){
-            log.error("Failed to publish message to RabbitMQ - Exchange: {}, Routing Key: {}",
-                    topic, event.getRoutingKey(), e);
+            if (errorLog.tryAcquire()) {
+                log.error("Failed to publish message to RabbitMQ - Exchange: {}, Routing Key: {}",
+                        topic, routingKey, e);
+            }
             throw new PublishException("Failed to publish message to RabbitMQ {}", e);
-        }catch (JsonProcessingException e){
-            log.error("Error serializing message for RabbitMQ publication", e);
+        }catch (IOException e){
+            if (errorLog.tryAcquire()) {
+                log.error("Error serializing message for RabbitMQ publication", e);
+            }
             throw new PublishException("Error serializing message {}", e);
-        } catch (BugleAlertException e) {
-            throw new RuntimeException(e);
         }
 
     }
@@ -76,43 +170,253 @@ public class RabbitMqPublisher implements BuglePublisher {
 
     }
 
+    /**
+     * Publishes an alert with a correlated publisher confirm.
+     * <p>
+     * The returned future completes with a receipt when the broker acks the message, or
+     * exceptionally with a PublishException on nack, AMQP failure, serialization failure or when
+     * no confirm arrives within the configured confirm timeout.
+     */
+    @Override
+    public CompletableFuture<DeliveryReceipt> sendAlertAsync(AlertEvent event, String topic) {
+        if (StringUtils.isEmpty(event.getRoutingKey())) {
+            return CompletableFuture.failedFuture(missingRoutingKey());
+        }
+        event.ensureAlertId(idGenerator);
+        return sendEnvelopeAsync(AlertEnvelope.of(event), topic);
+    }
+
+    @Override
+    public CompletableFuture<DeliveryReceipt> sendEnvelopeAsync(AlertEnvelope envelope, String topic) {
+        String routingKey = envelope.getRoutingKey();
+        if (StringUtils.isEmpty(routingKey)) {
+            return CompletableFuture.failedFuture(missingRoutingKey());
+        }
+        String exchange = getExchange(null, topic);
+        try {
+            Message message = toMessage(envelope.encodeWithoutRoutingKey(serializer, serializer::serialize));
+            return publish(exchange, routingKey, message, new CorrelationData(envelope.getAlertId()), envelope.getAlertId());
+        } catch (AmqpException e) {
+            if (errorLog.tryAcquire()) {
+                log.error("Failed to publish message to RabbitMQ - Exchange: {}, Routing Key: {}", exchange, routingKey, e);
+            }
+            return CompletableFuture.failedFuture(new PublishException("Failed to publish message to RabbitMQ {}", e));
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new PublishException("Error serializing message {}", e));
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<DeliveryReceipt> sendAlertAsync(T event, String topic) {
+        return CompletableFuture.failedFuture(
+                new PublishException("Generic payloads are not supported by RabbitMqPublisher"));
+    }
+
+    /**
+     * Publishes a batch of alerts with a single confirm window: every message is sent with its own
+     * correlation before any confirm is awaited, so the batch costs one round of confirms instead of one per message.
+     */
+    @Override
+    public BatchPublishResult sendAlerts(Collection<AlertEvent> events, String topic) {
+        List<String> alertIds = new ArrayList<>(events.size());
+        List<CompletableFuture<DeliveryReceipt>> futures = new ArrayList<>(events.size());
+        for (AlertEvent event : events) {
+            futures.add(sendAlertAsync(event, topic));
+            alertIds.add(event.getAlertId());
+        }
+        return BatchPublishResult.await(alertIds, futures);
+    }
+
+    /**
+     * Sends the message once a slot in the confirm window is free and returns a future of its confirm.
+     * The slot is released when the confirm arrives, times out, or the send itself fails; the future is
+     * completed afterwards on the callback executor.
+     *
+     * @throws AmqpException if the message cannot be handed to the broker
+     */
+    private CompletableFuture<DeliveryReceipt> publish(String exchange, String routingKey, Message message,
+                                                       CorrelationData correlationData, String alertId) {
+        long confirmTimeoutMs = properties.getRabbitmq().getConfirmTimeoutMs();
+        if (!acquireConfirmSlot(confirmTimeoutMs)) {
+            return CompletableFuture.failedFuture(new PublishException(
+                    "Timed out waiting for a free slot in the RabbitMQ publisher confirm window"));
+        }
+        long start = System.nanoTime();
+        try {
+            rabbitTemplate.send(exchange, routingKey, message, correlationData);
+        } catch (RuntimeException e) {
+            releaseConfirmSlot();
+            throw e;
+        }
+        return awaitConfirm(correlationData, alertId, exchange, message.getBody().length, confirmTimeoutMs, start);
+    }
+
+    /**
+     * Wraps an already serialized payload in an AMQP message, so the template's message converter is
+     * bypassed and the payload is encoded exactly once. Properties are built per message because
+     * RabbitTemplate records the publish sequence number in them. A compressed body carries its
+     * codec as content encoding.
+     */
+    private Message toMessage(byte[] serialized) {
+        byte[] body = compressor.compress(serialized);
+        MessageProperties messageProperties = new MessageProperties();
+        messageProperties.setContentType(serializer.contentType());
+        if (body != serialized) {
+            messageProperties.setContentEncoding(compressor.encoding());
+        } else if (serializer.isJson()) {
+            messageProperties.setContentEncoding(StandardCharsets.UTF_8.name());
+        }
+        messageProperties.setContentLength(body.length);
+        messageProperties.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+        return new Message(body, messageProperties);
+    }
+
+    private boolean acquireConfirmSlot(long timeoutMs) {
+        if (confirmWindow == null) {
+            return true;
+        }
+        try {
+            return confirmWindow.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void releaseConfirmSlot() {
+        if (confirmWindow != null) {
+            confirmWindow.release();
+        }
+    }
+
+    private CompletableFuture<DeliveryReceipt> awaitConfirm(CorrelationData correlationData, String alertId,
+                                                            String exchange, int payloadBytes,
+                                                            long confirmTimeoutMs, long start) {
+        CompletableFuture<DeliveryReceipt> receipt = new CompletableFuture<>();
+        correlationData.getFuture()
+                .orTimeout(confirmTimeoutMs, TimeUnit.MILLISECONDS)
+                .whenComplete((confirm, error) -> {
+                    releaseConfirmSlot();
+                    Runnable complete = () -> complete(receipt, confirm, error, correlationData, alertId, exchange,
+                            payloadBytes, start);
+                    try {
+                        callbackExecutor.execute(complete);
+                    } catch (RejectedExecutionException e) {
+                        // shutting down: nothing will publish from here any more
+                        complete.run();
+                    }
+                });
+        return receipt;
+    }
+
+    /**
+     * The alert cannot be sent without a routing key however often it is tried; the cause marks it as
+     * not retryable.
+     */
+    private static PublishException missingRoutingKey() {
+        return new PublishException("Routing key is required",
+                new IllegalArgumentException("RabbitMQ alerts need a routing key"));
+    }
+
+    private static void complete(CompletableFuture<DeliveryReceipt> receipt, CorrelationData.Confirm confirm,
+                                 Throwable error, CorrelationData correlationData, String alertId, String exchange,
+                                 int payloadBytes, long start) {
+        if (error != null) {
+            receipt.completeExceptionally(new PublishException("No publisher confirm received from RabbitMQ", error));
+        } else if (!confirm.isAck()) {
+            receipt.completeExceptionally(new PublishException("RabbitMQ nacked message: " + confirm.getReason()));
+        } else if (correlationData.getReturned() != null) {
+            // the return for an unroutable mandatory message always arrives before its ack
+            receipt.completeExceptionally(new PublishException("RabbitMQ returned unroutable message: "
+                    + correlationData.getReturned().getReplyText()));
+        } else {
+            receipt.complete(DeliveryReceipt.builder()
+                    .alertId(alertId)
+                    .topic(exchange)
+                    .messageId(correlationData.getId())
+                    .latency(Duration.ofNanos(System.nanoTime() - start))
+                    .payloadBytes(payloadBytes)
+                    .build());
+        }
+    }
+
+    /**
+     * Opens the connection and a channel, leaving the channel in the template's cache. With verify, the
+     * exchange is declared passively, which fails if it does not exist.
+     */
+    @Override
+    public void warmUp(String topic, boolean verify) {
+        String exchange = getExchange(null, topic);
+        try {
+            rabbitTemplate.execute(channel -> {
+                if (verify && exchange != null && !exchange.isEmpty()) {
+                    channel.exchangeDeclarePassive(exchange);
+                }
+                return null;
+            });
+        } catch (AmqpException e) {
+            throw new PublishException("Failed to prepare RabbitMQ exchange " + exchange, e);
+        }
+        log.debug("RabbitMQ channel ready for exchange {}", exchange);
+    }
+
+    /**
+     * Publishes a FailureMessage with a correlated publisher confirm. As in {@link #publishFailure},
+     * the message goes to the original exchange (or the default one) with the failure destination as routing key.
+     */
+    @Override
+    public CompletableFuture<DeliveryReceipt> sendFailureAsync(FailureMessage failure, String destination) {
+        String exchange = getExchange(null, failure.getOriginalDestination());
+        try {
+            Message message = toMessage(serializer.serialize(failure));
+            return publish(exchange, destination, message, new CorrelationData(), null);
+        } catch (AmqpException e) {
+            if (errorLog.tryAcquire()) {
+                log.error("Failed to publish failure message to RabbitMQ - Exchange: {}, Routing Key: {}", exchange, destination, e);
+            }
+            return CompletableFuture.failedFuture(new PublishException("Failed to publish message to RabbitMQ {}", e));
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new PublishException("Error serializing message {}", e));
+        }
+    }
+
     public void publishFailure(String originalDestination, AlertEvent message, Throwable error) {
         if (!properties.getFailure().isEnabled()) {
-            log.warn("Failure handling is disabled. Skipping failure message publication.");
+            if (failureLog.tryAcquire()) {
+                log.warn("Failure handling is disabled. Skipping failure message publication.");
+            }
             return;
         }
 
         try {
             String failureDestination = properties.getFailure().getDestination();
 
-            FailureMessage failureMessage = FailureMessage.builder()
-                    .originalDestination(originalDestination)
-                    .message(message)
-                    .errorMessage(error.getMessage())
-                    .errorClass(error.getClass().getName())
-                    .timestamp(System.currentTimeMillis())
-                    .build();
+            FailureMessage failureMessage = FailureMessage.from(originalDestination, message, error);
 
             log.debug("Publishing failure message to RabbitMQ - Queue: {}", failureDestination);
 
-            String messageJson = objectMapper.writeValueAsString(failureMessage);
+            Message failure = toMessage(serializer.serialize(failureMessage));
 
             // Publish to failure queue/exchange
             String exchange = getExchange(message, originalDestination);
-            rabbitTemplate.convertAndSend(exchange, failureDestination, messageJson);
+            rabbitTemplate.send(exchange, failureDestination, failure);
 
-            log.info("Successfully published failure message to RabbitMQ - Queue: {}",
-                    failureDestination);
+            if (failureLog.tryAcquire()) {
+                log.info("Successfully published failure message to RabbitMQ - Queue: {}",
+                        failureDestination);
+            }
 
         } catch (Exception e) {
-            log.error("Failed to publish failure message to RabbitMQ", e);
+            if (errorLog.tryAcquire()) {
+                log.error("Failed to publish failure message to RabbitMQ", e);
+            }
             // Don't throw exception here to avoid cascading failures
         }
     }
 
     public String getExchange(AlertEvent event, String topic) {
         String defaultExchange = properties.getRabbitmq().getDefaultExchange();
-        log.info("RabbitMQ Exchange is {}", defaultExchange);
+        log.debug("RabbitMQ Exchange is {}", defaultExchange);
         return topic != null ? topic : defaultExchange;
     }
 }
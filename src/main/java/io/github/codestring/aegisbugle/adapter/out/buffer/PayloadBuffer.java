@@ -0,0 +1,100 @@
+package io.github.codestring.aegisbugle.adapter.out.buffer;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A growable byte array that payloads are encoded and compressed into, handed out by a {@link PayloadBufferPool}.
+ * <p>
+ * Unlike a ByteArrayOutputStream it exposes its array, so writers that fill it directly, such as a block
+ * compressor, can reserve room with {@link #ensureCapacity(int)} and record what they wrote with
+ * {@link #setSize(int)}. Closing it has no effect; it goes back to its pool through
+ * {@link PayloadBufferPool#release(PayloadBuffer)}, after the payload was copied out with {@link #toByteArray()}.
+ */
+public final class PayloadBuffer extends OutputStream {
+
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private byte[] bytes;
+    private int size;
+    boolean held;
+
+    PayloadBuffer(int capacity) {
+        this.bytes = new byte[capacity];
+    }
+
+    @Override
+    public void write(int b) {
+        ensureCapacity(size + 1);
+        bytes[size++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        Objects.checkFromIndexSize(off, len, b.length);
+        ensureCapacity(size + len);
+        System.arraycopy(b, off, bytes, size, len);
+        size += len;
+    }
+
+    /**
+     * Grows the array, keeping its contents, so that it holds at least the given number of bytes.
+     *
+     * @throws OutOfMemoryError if the capacity exceeds the largest possible array
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity < 0 || capacity > MAX_CAPACITY) {
+            throw new OutOfMemoryError("Payload buffer cannot hold " + Integer.toUnsignedString(capacity) + " bytes");
+        }
+        if (capacity > bytes.length) {
+            bytes = Arrays.copyOf(bytes, (int) Math.max(capacity, Math.min(2L * bytes.length, MAX_CAPACITY)));
+        }
+    }
+
+    /**
+     * The backing array; bytes from 0 to {@link #size()} are the payload. It is replaced when the buffer grows.
+     */
+    public byte[] array() {
+        return bytes;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Sets how many bytes of the array are payload, after writing to {@link #array()} directly.
+     *
+     * @throws IndexOutOfBoundsException if the size is negative or beyond the array
+     */
+    public void setSize(int size) {
+        Objects.checkIndex(size, bytes.length + 1);
+        this.size = size;
+    }
+
+    /**
+     * @return a copy of the payload, owned by the caller
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(bytes, size);
+    }
+
+    int capacity() {
+        return bytes.length;
+    }
+
+    /**
+     * Empties the buffer, replacing the array with a smaller one if it grew beyond the given capacity.
+     */
+    void reset(int maxCapacity, int initialCapacity) {
+        size = 0;
+        if (bytes.length > maxCapacity) {
+            bytes = new byte[initialCapacity];
+        }
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.codestring.aegisbugle.adapter.out.buffer;
+
+/**
+ * PayloadBufferPool keeps one {@link PayloadBuffer} per thread, so that serializing and compressing an
+ * alert reuse the same array on every publish instead of allocating and growing new ones.
+ * <p>
+ * Behaviour:
+ * - A thread gets its own buffer back on every {@link #acquire()}. If that buffer is still held, for
+ *   instance by a serializer that calls another one, it gets a fresh buffer that is not kept.
+ * - A buffer that grew beyond {@code maxRetainedBytes} for an unusually large payload is shrunk on release,
+ *   so one huge alert does not pin its memory to the thread. With 0 no buffer is kept at all.
+ * - Only the copy of the finished payload is allocated per publish: the broker clients keep the array
+ *   they are given until the send completes, so it cannot be shared between sends.
+ * <p>
+ * Retained memory is at most {@code maxRetainedBytes} per thread that publishes. Threads that live for
+ * one task only, such as virtual threads, gain nothing from it.
+ */
+public class PayloadBufferPool {
+
+    public static final int DEFAULT_MAX_RETAINED_BYTES = 32 * 1024;
+
+    /**
+     * Shared pool for serializers and compressors that are not given one.
+     */
+    public static final PayloadBufferPool DEFAULT = new PayloadBufferPool(DEFAULT_MAX_RETAINED_BYTES);
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int maxRetainedBytes;
+    private final int initialCapacity;
+    private final ThreadLocal<PayloadBuffer> buffers;
+
+    /**
+     * @param maxRetainedBytes largest buffer a thread keeps between payloads; 0 keeps none
+     * @throws IllegalArgumentException if maxRetainedBytes is negative
+     */
+    public PayloadBufferPool(int maxRetainedBytes) {
+        if (maxRetainedBytes < 0) {
+            throw new IllegalArgumentException("maxRetainedBytes must not be negative: " + maxRetainedBytes);
+        }
+        this.maxRetainedBytes = maxRetainedBytes;
+        this.initialCapacity = Math.min(INITIAL_CAPACITY, maxRetainedBytes);
+        this.buffers = ThreadLocal.withInitial(() -> new PayloadBuffer(initialCapacity));
+    }
+
+    /**
+     * Returns an empty buffer for the calling thread. Every buffer acquired must be released.
+     */
+    public PayloadBuffer acquire() {
+        if (maxRetainedBytes == 0) {
+            return new PayloadBuffer(INITIAL_CAPACITY);
+        }
+        PayloadBuffer buffer = buffers.get();
+        if (buffer.held) {
+            return new PayloadBuffer(INITIAL_CAPACITY);
+        }
+        buffer.held = true;
+        return buffer;
+    }
+
+    /**
+     * Gives the buffer back for the next payload; its contents must not be used afterwards.
+     */
+    public void release(PayloadBuffer buffer) {
+        if (buffer.held) {
+            buffer.held = false;
+            buffer.reset(maxRetainedBytes, initialCapacity);
+        }
+    }
+
+    public int getMaxRetainedBytes() {
+        return maxRetainedBytes;
+    }
+}
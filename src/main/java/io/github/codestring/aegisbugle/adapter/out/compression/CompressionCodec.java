@@ -0,0 +1,21 @@
+package io.github.codestring.aegisbugle.adapter.out.compression;
+
+/**
+ * Codecs for payload compression. The encoding name is sent with every compressed payload.
+ */
+public enum CompressionCodec {
+    NONE(null),
+    GZIP("gzip"),
+    LZ4("lz4"),
+    ZSTD("zstd");
+
+    private final String encoding;
+
+    CompressionCodec(String encoding) {
+        this.encoding = encoding;
+    }
+
+    public String encoding() {
+        return encoding;
+    }
+}
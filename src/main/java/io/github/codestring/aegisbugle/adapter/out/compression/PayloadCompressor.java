@@ -0,0 +1,204 @@
+package io.github.codestring.aegisbugle.adapter.out.compression;
+
+import io.github.codestring.aegisbugle.adapter.out.buffer.PayloadBuffer;
+import io.github.codestring.aegisbugle.adapter.out.buffer.PayloadBufferPool;
+import org.springframework.util.ClassUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses serialized payloads that reach a size threshold, so that large alerts with long stack
+ * traces or metadata travel compressed while small alerts skip the CPU cost.
+ * <p>
+ * Adapters mark a compressed payload with its codec's encoding name in the
+ * {@link #CONTENT_ENCODING_HEADER} header or message property (on RabbitMQ, in the AMQP content
+ * encoding); a payload without it is not compressed. LZ4 uses the LZ4 frame format and needs
+ * {@code org.lz4:lz4-java}, ZSTD needs {@code com.github.luben:zstd-jni} on the classpath.
+ * <p>
+ * Payloads are compressed into a buffer from the {@link PayloadBufferPool}; only a payload that did
+ * shrink is copied out of it.
+ */
+public class PayloadCompressor {
+
+    public static final String CONTENT_ENCODING_HEADER = "contentEncoding";
+
+    public static final PayloadCompressor NONE = new PayloadCompressor(CompressionCodec.NONE, 0);
+
+    private final CompressionCodec codec;
+    private final int thresholdBytes;
+    private final PayloadBufferPool bufferPool;
+
+    public PayloadCompressor(CompressionCodec codec, int thresholdBytes) {
+        this(codec, thresholdBytes, PayloadBufferPool.DEFAULT);
+    }
+
+    public PayloadCompressor(CompressionCodec codec, int thresholdBytes, PayloadBufferPool bufferPool) {
+        this.codec = codec == null ? CompressionCodec.NONE : codec;
+        this.thresholdBytes = thresholdBytes;
+        this.bufferPool = bufferPool;
+        if (this.codec == CompressionCodec.LZ4) {
+            requireClass("net.jpountz.lz4.LZ4FrameOutputStream", "org.lz4:lz4-java");
+        } else if (this.codec == CompressionCodec.ZSTD) {
+            requireClass("com.github.luben.zstd.Zstd", "com.github.luben:zstd-jni");
+        }
+    }
+
+    /**
+     * @return the compressed payload, or the given array itself when it is below the threshold or
+     * compression would not make it smaller
+     */
+    public byte[] compress(byte[] payload) {
+        if (codec == CompressionCodec.NONE || payload.length < thresholdBytes) {
+            return payload;
+        }
+        PayloadBuffer buffer = bufferPool.acquire();
+        try {
+            switch (codec) {
+                case GZIP -> gzip(payload, buffer);
+                case LZ4 -> Lz4.compress(payload, buffer);
+                case ZSTD -> Zstd.compress(payload, buffer);
+                default -> throw new IllegalStateException("No compression for codec " + codec);
+            }
+            return buffer.size() < payload.length ? buffer.toByteArray() : payload;
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    /**
+     * @return the encoding name to send with payloads that {@link #compress(byte[])} compressed
+     */
+    public String encoding() {
+        return codec.encoding();
+    }
+
+    /**
+     * Reverses {@link #compress(byte[])} for a payload marked with the given encoding; a null
+     * encoding returns the payload unchanged.
+     *
+     * @throws IOException if the payload is not valid for the encoding
+     */
+    public static byte[] decompress(String encoding, byte[] payload) throws IOException {
+        if (encoding == null) {
+            return payload;
+        }
+        return switch (encoding) {
+            case "gzip" -> {
+                try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+                    yield in.readAllBytes();
+                }
+            }
+            case "lz4" -> Lz4.decompress(payload);
+            case "zstd" -> Zstd.decompress(payload);
+            default -> throw new IOException("Unsupported content encoding " + encoding);
+        };
+    }
+
+    private static void gzip(byte[] payload, PayloadBuffer out) {
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(payload);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void requireClass(String className, String artifact) {
+        if (!ClassUtils.isPresent(className, PayloadCompressor.class.getClassLoader())) {
+            throw new IllegalStateException("Payload compression needs " + artifact + " on the classpath");
+        }
+    }
+
+    /**
+     * Kept apart so that lz4-java is only linked when the LZ4 codec is used.
+     * <p>
+     * Writes the same LZ4 frame as an LZ4FrameOutputStream with 64 KB independent blocks and no checksums,
+     * but compresses each block straight into the buffer instead of through the stream's own block buffers.
+     */
+    private static final class Lz4 {
+
+        private static final int MAGIC = 0x184D2204;
+        private static final int BLOCK_SIZE = 64 * 1024;
+        private static final int UNCOMPRESSED_BLOCK = 0x80000000;
+        private static final net.jpountz.lz4.LZ4Compressor COMPRESSOR =
+                net.jpountz.lz4.LZ4Factory.fastestInstance().fastCompressor();
+        private static final byte[] FRAME_HEADER = frameHeader();
+
+        static void compress(byte[] payload, PayloadBuffer out) {
+            out.write(FRAME_HEADER, 0, FRAME_HEADER.length);
+            for (int offset = 0; offset < payload.length; offset += BLOCK_SIZE) {
+                int length = Math.min(BLOCK_SIZE, payload.length - offset);
+                int blockStart = out.size();
+                int maxLength = COMPRESSOR.maxCompressedLength(length);
+                out.ensureCapacity(blockStart + Integer.BYTES + maxLength);
+                byte[] block = out.array();
+                int compressed = COMPRESSOR.compress(payload, offset, length, block, blockStart + Integer.BYTES, maxLength);
+                if (compressed < length) {
+                    writeIntLE(block, blockStart, compressed);
+                } else {
+                    writeIntLE(block, blockStart, length | UNCOMPRESSED_BLOCK);
+                    System.arraycopy(payload, offset, block, blockStart + Integer.BYTES, length);
+                    compressed = length;
+                }
+                out.setSize(blockStart + Integer.BYTES + compressed);
+            }
+            // end mark
+            out.ensureCapacity(out.size() + Integer.BYTES);
+            writeIntLE(out.array(), out.size(), 0);
+            out.setSize(out.size() + Integer.BYTES);
+        }
+
+        private static byte[] frameHeader() {
+            // version 01 with independent blocks, 64 KB maximum block size
+            byte flags = 0x60;
+            byte blockDescriptor = 0x40;
+            int headerChecksum = net.jpountz.xxhash.XXHashFactory.fastestInstance().hash32()
+                    .hash(new byte[]{flags, blockDescriptor}, 0, 2, 0);
+            byte[] header = new byte[7];
+            writeIntLE(header, 0, MAGIC);
+            header[4] = flags;
+            header[5] = blockDescriptor;
+            header[6] = (byte) (headerChecksum >> 8);
+            return header;
+        }
+
+        private static void writeIntLE(byte[] bytes, int offset, int value) {
+            bytes[offset] = (byte) value;
+            bytes[offset + 1] = (byte) (value >> 8);
+            bytes[offset + 2] = (byte) (value >> 16);
+            bytes[offset + 3] = (byte) (value >> 24);
+        }
+
+        static byte[] decompress(byte[] payload) throws IOException {
+            try (net.jpountz.lz4.LZ4FrameInputStream in =
+                         new net.jpountz.lz4.LZ4FrameInputStream(new ByteArrayInputStream(payload))) {
+                return in.readAllBytes();
+            }
+        }
+    }
+
+    /**
+     * Kept apart so that zstd-jni is only linked when the ZSTD codec is used.
+     */
+    private static final class Zstd {
+
+        static void compress(byte[] payload, PayloadBuffer out) {
+            int bound = (int) com.github.luben.zstd.Zstd.compressBound(payload.length);
+            out.ensureCapacity(bound);
+            long size = com.github.luben.zstd.Zstd.compressByteArray(out.array(), 0, bound, payload, 0, payload.length,
+                    com.github.luben.zstd.Zstd.defaultCompressionLevel());
+            if (com.github.luben.zstd.Zstd.isError(size)) {
+                throw new com.github.luben.zstd.ZstdException(size);
+            }
+            out.setSize((int) size);
+        }
+
+        static byte[] decompress(byte[] payload) {
+            return com.github.luben.zstd.Zstd.decompress(payload,
+                    (int) com.github.luben.zstd.Zstd.getFrameContentSize(payload));
+        }
+    }
+}
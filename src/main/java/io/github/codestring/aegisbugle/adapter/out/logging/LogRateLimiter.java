@@ -0,0 +1,75 @@
+package io.github.codestring.aegisbugle.adapter.out.logging;
+
+import org.slf4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Decides whether a single log call site may write, so that an error storm cannot turn logging
+ * into the bottleneck of the publish path.
+ * <p>
+ * Within each interval the first {@code maxPerInterval} calls are written, then one call in
+ * {@code sampleRate}; the others are suppressed and counted. The first call of the next interval
+ * writes a summary line with the number of messages suppressed in the previous one.
+ * <p>
+ * Usage: {@code if (limiter.tryAcquire()) log.info(...)}, so suppressed calls do not even format
+ * their arguments.
+ */
+public class LogRateLimiter {
+
+    private final Logger log;
+    private final String site;
+    private final boolean rateLimited;
+    private final long intervalNanos;
+    private final int maxPerInterval;
+    private final int sampleRate;
+    private final LongSupplier clock;
+    private final AtomicLong intervalStart;
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    LogRateLimiter(Logger log, String site, LoggingPolicy policy, LongSupplier clock) {
+        this.log = log;
+        this.site = site;
+        this.rateLimited = policy.isRateLimited();
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(policy.getIntervalMs());
+        this.maxPerInterval = policy.getMaxPerInterval();
+        this.sampleRate = policy.getSampleRate();
+        this.clock = clock;
+        this.intervalStart = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * @return true if the caller should write its log message
+     */
+    public boolean tryAcquire() {
+        if (!rateLimited) {
+            return true;
+        }
+        long now = clock.getAsLong();
+        long start = intervalStart.get();
+        if (now - start >= intervalNanos && intervalStart.compareAndSet(start, now)) {
+            calls.set(0);
+            long dropped = suppressed.getAndSet(0);
+            if (dropped > 0) {
+                log.warn("{} '{}' log messages suppressed in last {} ms", dropped, site,
+                        TimeUnit.NANOSECONDS.toMillis(now - start));
+            }
+        }
+        long call = calls.incrementAndGet();
+        if (call <= maxPerInterval || (sampleRate > 0 && (call - maxPerInterval) % sampleRate == 0)) {
+            return true;
+        }
+        suppressed.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Number of messages suppressed so far in the current interval.
+     */
+    public long suppressedCount() {
+        return suppressed.get();
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.codestring.aegisbugle.adapter.out.logging;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.slf4j.Logger;
+
+/**
+ * Limits applied to log statements on the publish hot path, see {@link LogRateLimiter}.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class LoggingPolicy {
+
+    public static final LoggingPolicy DEFAULT = new LoggingPolicy(true, 10000, 10, 100);
+
+    /** When false every log call is written. */
+    private final boolean rateLimited;
+    private final long intervalMs;
+    /** Log calls written per interval before sampling starts. */
+    private final int maxPerInterval;
+    /** Beyond the limit, one call in this many is written; 0 or less writes none. */
+    private final int sampleRate;
+
+    public LogRateLimiter limiter(Logger log, String site) {
+        return new LogRateLimiter(log, site, this, System::nanoTime);
+    }
+}
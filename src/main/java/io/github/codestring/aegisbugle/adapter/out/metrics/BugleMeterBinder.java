@@ -0,0 +1,53 @@
+package io.github.codestring.aegisbugle.adapter.out.metrics;
+
+import io.github.codestring.aegisbugle.adapter.out.spool.SpoolReplayer;
+import io.github.codestring.aegisbugle.application.core.dispatch.AlertDispatcher;
+import io.github.codestring.aegisbugle.application.core.retry.RetryScheduler;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Binds gauges for the queues behind the publish pipeline. Components that are not enabled are
+ * passed as null and get no meters.
+ */
+@RequiredArgsConstructor
+public class BugleMeterBinder implements MeterBinder {
+
+    private final AlertDispatcher dispatcher;
+    private final SpoolReplayer spoolReplayer;
+    private final RetryScheduler retryScheduler;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (dispatcher != null) {
+            Gauge.builder("aegis.bugle.dispatch.queue.depth", dispatcher, AlertDispatcher::queueDepth)
+                    .description("Alerts waiting in the dispatch buffer")
+                    .register(registry);
+            Gauge.builder("aegis.bugle.dispatch.queue.capacity", dispatcher, AlertDispatcher::capacity)
+                    .description("Capacity of the dispatch buffer")
+                    .register(registry);
+            Gauge.builder("aegis.bugle.dispatch.in.flight", dispatcher, AlertDispatcher::inFlightCount)
+                    .description("Dispatched alerts submitted to the broker and awaiting their outcome")
+                    .register(registry);
+            FunctionCounter.builder("aegis.bugle.dispatch.dropped", dispatcher, AlertDispatcher::droppedCount)
+                    .description("Alerts discarded by the dispatch overflow policy")
+                    .register(registry);
+        }
+        if (spoolReplayer != null) {
+            Gauge.builder("aegis.bugle.spool.pending", spoolReplayer, SpoolReplayer::pendingAlerts)
+                    .description("Alerts held in the local spool waiting for replay")
+                    .register(registry);
+        }
+        if (retryScheduler != null) {
+            Gauge.builder("aegis.bugle.retry.pending", retryScheduler, RetryScheduler::pendingRetries)
+                    .description("Retries waiting for their backoff to elapse")
+                    .register(registry);
+            FunctionCounter.builder("aegis.bugle.retry.scheduled", retryScheduler, RetryScheduler::scheduledRetries)
+                    .description("Retries scheduled since startup")
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.codestring.aegisbugle.adapter.out.metrics;
+
+import io.github.codestring.aegisbugle.application.core.breaker.CircuitBreaker;
+import io.github.codestring.aegisbugle.application.core.breaker.CircuitBreakerListener;
+import io.github.codestring.aegisbugle.application.core.breaker.CircuitStateChangedEvent;
+import io.github.codestring.aegisbugle.application.core.breaker.PublishRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Locale;
+
+/**
+ * Exports circuit breaker state as meters.
+ * <p>
+ * Meters:
+ * - {@code aegis.bugle.circuit.state}: gauge per breaker; 0 closed, 1 half-open, 2 open.
+ * - {@code aegis.bugle.circuit.transitions}: counter tagged by breaker and the states left and entered.
+ * - {@code aegis.bugle.circuit.rejected}: counter of sends rejected without reaching the broker, tagged by reason.
+ */
+@RequiredArgsConstructor
+public class CircuitBreakerMetrics implements CircuitBreakerListener {
+
+    private final MeterRegistry registry;
+
+    @Override
+    public void onCreated(CircuitBreaker breaker) {
+        Gauge.builder("aegis.bugle.circuit.state", breaker, cb -> cb.getState().ordinal())
+                .description("Circuit state: 0 closed, 1 half-open, 2 open")
+                .tag("name", breaker.getName())
+                .register(registry);
+    }
+
+    @Override
+    public void onStateTransition(CircuitStateChangedEvent event) {
+        Counter.builder("aegis.bugle.circuit.transitions")
+                .description("Circuit state transitions")
+                .tag("name", event.getName())
+                .tag("from", tag(event.getFrom()))
+                .tag("to", tag(event.getTo()))
+                .register(registry)
+                .increment();
+    }
+
+    @Override
+    public void onRejected(String name, PublishRejectedException.Reason reason) {
+        Counter.builder("aegis.bugle.circuit.rejected")
+                .description("Sends rejected by an open circuit or a full bulkhead")
+                .tag("name", name)
+                .tag("reason", tag(reason))
+                .register(registry)
+                .increment();
+    }
+
+    private static String tag(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
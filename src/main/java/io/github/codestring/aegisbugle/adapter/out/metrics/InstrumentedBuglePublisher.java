@@ -0,0 +1,120 @@
+package io.github.codestring.aegisbugle.adapter.out.metrics;
+
+import io.github.codestring.aegisbugle.application.core.model.AlertEnvelope;
+import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import io.github.codestring.aegisbugle.application.core.model.AlertSeverity;
+import io.github.codestring.aegisbugle.application.core.model.BatchItemResult;
+import io.github.codestring.aegisbugle.application.core.model.BatchPublishResult;
+import io.github.codestring.aegisbugle.application.core.model.DeliveryReceipt;
+import io.github.codestring.aegisbugle.application.core.model.FailureMessage;
+import io.github.codestring.aegisbugle.application.port.out.BuglePublisher;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * InstrumentedBuglePublisher records {@link PublisherMetrics} around every call to the broker adapter.
+ * <p>
+ * It wraps the adapter directly, so each retry attempt is measured on its own. Asynchronous sends
+ * are timed until their future completes, and report the payload size from the adapter's receipt.
+ * Synchronous sends are timed until the adapter returns; they carry no receipt, so no payload size.
+ * Batch items are recorded individually with the batch's overall duration.
+ */
+@RequiredArgsConstructor
+public class InstrumentedBuglePublisher implements BuglePublisher {
+
+    private final BuglePublisher delegate;
+    private final PublisherMetrics metrics;
+
+    @Override
+    public void sendAlert(AlertEvent event, String topic) {
+        long start = System.nanoTime();
+        try {
+            delegate.sendAlert(event, topic);
+            metrics.recordSuccess(topic, event.getSeverity(), System.nanoTime() - start, null);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(topic, event.getSeverity(), System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public <T> void sendAlert(T event, String topic) {
+        long start = System.nanoTime();
+        try {
+            delegate.sendAlert(event, topic);
+            metrics.recordSuccess(topic, null, System.nanoTime() - start, null);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(topic, null, System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<DeliveryReceipt> sendAlertAsync(AlertEvent event, String topic) {
+        long start = System.nanoTime();
+        return record(delegate.sendAlertAsync(event, topic), topic, event.getSeverity(), start);
+    }
+
+    @Override
+    public <T> CompletableFuture<DeliveryReceipt> sendAlertAsync(T event, String topic) {
+        long start = System.nanoTime();
+        return record(delegate.sendAlertAsync(event, topic), topic, null, start);
+    }
+
+    @Override
+    public void sendEnvelope(AlertEnvelope envelope, String topic) {
+        long start = System.nanoTime();
+        try {
+            delegate.sendEnvelope(envelope, topic);
+            metrics.recordSuccess(topic, envelope.getSeverity(), System.nanoTime() - start, null);
+        } catch (RuntimeException e) {
+            metrics.recordFailure(topic, envelope.getSeverity(), System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<DeliveryReceipt> sendEnvelopeAsync(AlertEnvelope envelope, String topic) {
+        long start = System.nanoTime();
+        return record(delegate.sendEnvelopeAsync(envelope, topic), topic, envelope.getSeverity(), start);
+    }
+
+    @Override
+    public BatchPublishResult sendAlerts(Collection<AlertEvent> events, String topic) {
+        List<AlertEvent> alerts = new ArrayList<>(events);
+        long start = System.nanoTime();
+        BatchPublishResult result = delegate.sendAlerts(alerts, topic);
+        long duration = System.nanoTime() - start;
+        for (BatchItemResult item : result.getItems()) {
+            AlertSeverity severity = alerts.get(item.getIndex()).getSeverity();
+            if (item.isSuccess()) {
+                metrics.recordSuccess(topic, severity, duration, item.getReceipt().getPayloadBytes());
+            } else {
+                metrics.recordFailure(topic, severity, duration, item.getError());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<DeliveryReceipt> sendFailureAsync(FailureMessage failure, String destination) {
+        long start = System.nanoTime();
+        return record(delegate.sendFailureAsync(failure, destination), destination, null, start);
+    }
+
+    private CompletableFuture<DeliveryReceipt> record(CompletableFuture<DeliveryReceipt> future, String topic,
+                                                      AlertSeverity severity, long start) {
+        return future.whenComplete((receipt, error) -> {
+            long duration = System.nanoTime() - start;
+            if (error != null) {
+                metrics.recordFailure(topic, severity, duration, error);
+            } else {
+                metrics.recordSuccess(topic, severity, duration, receipt == null ? null : receipt.getPayloadBytes());
+            }
+        });
+    }
+}
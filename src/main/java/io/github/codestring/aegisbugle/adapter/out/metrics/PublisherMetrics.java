@@ -0,0 +1,130 @@
+package io.github.codestring.aegisbugle.adapter.out.metrics;
+
+import io.github.codestring.aegisbugle.application.core.PublishException;
+import io.github.codestring.aegisbugle.application.core.model.AlertSeverity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters recorded for every publish attempt, tagged by broker and topic.
+ * <p>
+ * Meters:
+ * - {@code aegis.bugle.publish.latency}: timer with p50/p99/p999, tagged by outcome.
+ * - {@code aegis.bugle.publish.payload.size}: serialized payload size in bytes, when the adapter reports it.
+ * - {@code aegis.bugle.publish}: counter tagged by severity, outcome and the failing exception class.
+ * <p>
+ * Topic names come from callers, so only the first {@code maxTopicTags} distinct topics get their
+ * own tag value; any further topic is tagged {@code other}. Meters are created once per tag
+ * combination and cached.
+ */
+public class PublisherMetrics {
+
+    static final String OTHER_TOPIC = "other";
+    private static final String NONE = "none";
+    private static final double[] PERCENTILES = {0.5, 0.99, 0.999};
+
+    private final MeterRegistry registry;
+    private final String broker;
+    private final int maxTopicTags;
+    private final Map<String, TopicMeters> topics = new ConcurrentHashMap<>();
+
+    public PublisherMetrics(MeterRegistry registry, String broker, int maxTopicTags) {
+        this.registry = registry;
+        this.broker = broker == null ? NONE : broker;
+        this.maxTopicTags = maxTopicTags;
+    }
+
+    /**
+     * Metrics sharing this registry and topic limit, tagged with another broker; used when alerts are
+     * routed to several brokers.
+     */
+    public PublisherMetrics forBroker(String broker) {
+        return new PublisherMetrics(registry, broker, maxTopicTags);
+    }
+
+    public void recordSuccess(String topic, AlertSeverity severity, long durationNanos, Integer payloadBytes) {
+        TopicMeters meters = meters(topic);
+        meters.success.record(durationNanos, TimeUnit.NANOSECONDS);
+        if (payloadBytes != null) {
+            meters.payloadSize.record(payloadBytes);
+        }
+        meters.counter(severity, "success", NONE).increment();
+    }
+
+    public void recordFailure(String topic, AlertSeverity severity, long durationNanos, Throwable error) {
+        TopicMeters meters = meters(topic);
+        meters.failure.record(durationNanos, TimeUnit.NANOSECONDS);
+        meters.counter(severity, "failure", exceptionTag(error)).increment();
+    }
+
+    private TopicMeters meters(String topic) {
+        String key = topic == null ? NONE : topic;
+        TopicMeters meters = topics.get(key);
+        if (meters != null) {
+            return meters;
+        }
+        if (topics.size() >= maxTopicTags) {
+            return topics.computeIfAbsent(OTHER_TOPIC, TopicMeters::new);
+        }
+        return topics.computeIfAbsent(key, TopicMeters::new);
+    }
+
+    /**
+     * Class name of the underlying error. Future and publish wrappers are skipped since every
+     * adapter reports failures as a PublishException.
+     */
+    static String exceptionTag(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException
+                || cause instanceof PublishException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause == null ? NONE : cause.getClass().getSimpleName();
+    }
+
+    private final class TopicMeters {
+        private final String topic;
+        private final Timer success;
+        private final Timer failure;
+        private final DistributionSummary payloadSize;
+        private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+        private TopicMeters(String topic) {
+            this.topic = topic;
+            this.success = timer("success");
+            this.failure = timer("failure");
+            this.payloadSize = DistributionSummary.builder("aegis.bugle.publish.payload.size")
+                    .description("Size of serialized alert payloads")
+                    .baseUnit("bytes")
+                    .tags("broker", broker, "topic", topic)
+                    .publishPercentiles(PERCENTILES)
+                    .register(registry);
+        }
+
+        private Timer timer(String outcome) {
+            return Timer.builder("aegis.bugle.publish.latency")
+                    .description("Time from handing an alert to the broker client until it is acknowledged")
+                    .tags("broker", broker, "topic", topic, "outcome", outcome)
+                    .publishPercentiles(PERCENTILES)
+                    .register(registry);
+        }
+
+        private Counter counter(AlertSeverity severity, String outcome, String exception) {
+            String severityTag = severity == null ? NONE : severity.name();
+            return counters.computeIfAbsent(severityTag + '|' + outcome + '|' + exception,
+                    key -> Counter.builder("aegis.bugle.publish")
+                            .description("Alerts published, by outcome")
+                            .tags("broker", broker, "topic", topic, "severity", severityTag,
+                                    "outcome", outcome, "exception", exception)
+                            .register(registry));
+        }
+    }
+}
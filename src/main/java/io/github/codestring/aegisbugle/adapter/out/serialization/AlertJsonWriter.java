@@ -0,0 +1,417 @@
+package io.github.codestring.aegisbugle.adapter.out.serialization;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.std.BeanSerializerBase;
+import io.github.codestring.aegisbugle.adapter.out.buffer.PayloadBuffer;
+import io.github.codestring.aegisbugle.adapter.out.buffer.PayloadBufferPool;
+import io.github.codestring.aegisbugle.application.core.model.AlertContext;
+import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import io.github.codestring.aegisbugle.application.core.model.FailureMessage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Array;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Streaming JSON writer for {@link AlertEvent} and {@link FailureMessage}, used by all broker adapters.
+ * <p>
+ * Property names, their order and which null values are left out are taken once from the bean serializer
+ * the given ObjectMapper built for each type, so naming strategies, {@code @JsonPropertyOrder}, alphabetical
+ * sorting and inclusion settings apply as usual. Names are pre-encoded as UTF-8 and a publish skips Jackson's
+ * reflective bean serialization, while the output stays byte-for-byte what the ObjectMapper produces:
+ * the ObjectMapper still decides how timestamps, severities and metadata values that are not plain strings,
+ * numbers or booleans are written. A type whose serializer the writer cannot follow, for instance one with a
+ * custom serializer, polymorphic type ids, a property it does not know or NON_EMPTY inclusion, is
+ * delegated to the ObjectMapper entirely, as is any other payload type.
+ * Alerts are encoded into the calling thread's buffer from the {@link PayloadBufferPool}, so the copy
+ * returned is the only array a publish allocates for its payload.
+ * <p>
+ * The service name, environment and {@link AlertContext} are the same on every alert of a service. The
+ * writer encodes the last value it saw for each of them once and splices the encoded bytes into later
+ * payloads carrying the same value, so per alert only the dynamic fields are written.
+ */
+public class AlertJsonWriter {
+
+    private enum AlertProperty {
+        ALERT_ID("alertId"),
+        SERVICE_NAME("serviceName"),
+        ERROR_CODE("errorCode"),
+        ERROR_MESSAGE("errorMessage"),
+        EXCEPTION_TYPE("exceptionType"),
+        STACK_TRACE("stackTrace"),
+        STACK_FINGERPRINT("stackFingerprint"),
+        OCCURRENCE_COUNT("occurrenceCount"),
+        TIMESTAMP("timestamp"),
+        SEVERITY("severity"),
+        ENVIRONMENT("environment"),
+        ROUTING_KEY("routingKey"),
+        METADATA("metadata"),
+        CONTEXT("context");
+
+        private final String javaName;
+
+        AlertProperty(String javaName) {
+            this.javaName = javaName;
+        }
+
+        static AlertProperty of(String javaName) {
+            for (AlertProperty property : values()) {
+                if (property.javaName.equals(javaName)) {
+                    return property;
+                }
+            }
+            return null;
+        }
+    }
+
+    private enum FailureProperty {
+        ORIGINAL_DESTINATION("originalDestination"),
+        MESSAGE("message"),
+        ERROR_MESSAGE("errorMessage"),
+        ERROR_CLASS("errorClass"),
+        TIMESTAMP("timestamp");
+
+        private final String javaName;
+
+        FailureProperty(String javaName) {
+            this.javaName = javaName;
+        }
+
+        static FailureProperty of(String javaName) {
+            for (FailureProperty property : values()) {
+                if (property.javaName.equals(javaName)) {
+                    return property;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final PayloadBufferPool bufferPool;
+    private final boolean isoTimestamps;
+    private final boolean streamMetadata;
+    private final boolean spliceStaticFields;
+    /** Null when alerts are delegated to the ObjectMapper. */
+    private final Layout<AlertProperty> alertLayout;
+    /** Null when failure messages are delegated to the ObjectMapper. */
+    private final Layout<FailureProperty> failureLayout;
+    private volatile Fragment serviceName;
+    private volatile Fragment environment;
+    private volatile Fragment context;
+
+    public AlertJsonWriter(ObjectMapper objectMapper) {
+        this(objectMapper, PayloadBufferPool.DEFAULT);
+    }
+
+    public AlertJsonWriter(ObjectMapper objectMapper, PayloadBufferPool bufferPool) {
+        this.objectMapper = objectMapper;
+        this.bufferPool = bufferPool;
+        this.isoTimestamps = !objectMapper.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.alertLayout = Layout.of(objectMapper, AlertEvent.class, AlertProperty::of, AlertProperty.class);
+        this.failureLayout = Layout.of(objectMapper, FailureMessage.class, FailureProperty::of, FailureProperty.class);
+        // sorted or filtered map entries are left to the ObjectMapper
+        this.streamMetadata = !objectMapper.isEnabled(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                && alertLayout != null && alertLayout.writesNullContent;
+        // raw values cannot be spliced into binary formats or indented output
+        this.spliceStaticFields = JsonFactory.FORMAT_NAME_JSON.equals(objectMapper.getFactory().getFormatName())
+                && !objectMapper.isEnabled(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    /**
+     * @return whether values of the type are streamed rather than delegated to the ObjectMapper
+     */
+    boolean streams(Class<?> type) {
+        return type == AlertEvent.class ? alertLayout != null : type == FailureMessage.class && failureLayout != null;
+    }
+
+    /**
+     * Serializes the value to JSON bytes, streaming alerts and failure messages.
+     *
+     * @throws JsonProcessingException if the value cannot be serialized
+     */
+    public byte[] writeValueAsBytes(Object value) throws JsonProcessingException {
+        if (!(value instanceof AlertEvent && alertLayout != null)
+                && !(value instanceof FailureMessage && failureLayout != null)) {
+            return objectMapper.writeValueAsBytes(value);
+        }
+        PayloadBuffer buffer = bufferPool.acquire();
+        try {
+            writeValue(buffer, value);
+            return buffer.toByteArray();
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    /**
+     * Serializes the value as JSON into the given stream, which is neither flushed beyond the
+     * written value nor closed.
+     *
+     * @throws JsonProcessingException if the value cannot be serialized
+     */
+    public void writeValue(OutputStream out, Object value) throws JsonProcessingException {
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (value instanceof AlertEvent alert && alertLayout != null) {
+                writeAlert(generator, alert);
+            } else if (value instanceof FailureMessage failure && failureLayout != null) {
+                writeFailure(generator, failure);
+            } else {
+                generator.writeObject(value);
+            }
+        } catch (JsonProcessingException e) {
+            throw e;
+        } catch (IOException e) {
+            throw JsonMappingException.fromUnexpectedIOE(e);
+        }
+    }
+
+    private void writeAlert(JsonGenerator generator, AlertEvent event) throws IOException {
+        generator.writeStartObject();
+        AlertProperty[] properties = alertLayout.properties;
+        for (int i = 0; i < properties.length; i++) {
+            Object value = alertValue(event, properties[i]);
+            if (value == null) {
+                if (!alertLayout.suppressNulls[i]) {
+                    generator.writeFieldName(alertLayout.names[i]);
+                    generator.writeNull();
+                }
+                continue;
+            }
+            generator.writeFieldName(alertLayout.names[i]);
+            switch (properties[i]) {
+                case SERVICE_NAME -> serviceName = writeStatic(generator, serviceName, value);
+                case ENVIRONMENT -> environment = writeStatic(generator, environment, value);
+                case CONTEXT -> context = writeStatic(generator, context, value);
+                case OCCURRENCE_COUNT -> generator.writeNumber((Long) value);
+                case TIMESTAMP -> writeInstant(generator, (Instant) value);
+                case METADATA -> writeMetadata(generator, event.getMetadata());
+                case SEVERITY -> generator.writeObject(value);
+                default -> generator.writeString((String) value);
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    private static Object alertValue(AlertEvent event, AlertProperty property) {
+        return switch (property) {
+            case ALERT_ID -> event.getAlertId();
+            case SERVICE_NAME -> event.getServiceName();
+            case ERROR_CODE -> event.getErrorCode();
+            case ERROR_MESSAGE -> event.getErrorMessage();
+            case EXCEPTION_TYPE -> event.getExceptionType();
+            case STACK_TRACE -> event.getStackTrace();
+            case STACK_FINGERPRINT -> event.getStackFingerprint();
+            case OCCURRENCE_COUNT -> event.getOccurrenceCount();
+            case TIMESTAMP -> event.getTimestamp();
+            case SEVERITY -> event.getSeverity();
+            case ENVIRONMENT -> event.getEnvironment();
+            case ROUTING_KEY -> event.getRoutingKey();
+            case METADATA -> event.getMetadata();
+            case CONTEXT -> event.getContext();
+        };
+    }
+
+    /**
+     * Writes the value from its encoded fragment, encoding it first unless it is the value of the given fragment.
+     *
+     * @return the fragment of the value, to be kept for the next alert
+     */
+    private Fragment writeStatic(JsonGenerator generator, Fragment fragment, Object value) throws IOException {
+        if (!spliceStaticFields) {
+            generator.writeObject(value);
+            return fragment;
+        }
+        if (fragment == null || !fragment.matches(value)) {
+            fragment = new Fragment(value, new SerializedString(objectMapper.writeValueAsString(value)));
+        }
+        generator.writeRawValue(fragment.json);
+        return fragment;
+    }
+
+    private void writeFailure(JsonGenerator generator, FailureMessage failure) throws IOException {
+        generator.writeStartObject();
+        FailureProperty[] properties = failureLayout.properties;
+        for (int i = 0; i < properties.length; i++) {
+            Object value = switch (properties[i]) {
+                case ORIGINAL_DESTINATION -> failure.getOriginalDestination();
+                case MESSAGE -> failure.getMessage();
+                case ERROR_MESSAGE -> failure.getErrorMessage();
+                case ERROR_CLASS -> failure.getErrorClass();
+                case TIMESTAMP -> failure.getTimestamp();
+            };
+            if (value == null && failureLayout.suppressNulls[i]) {
+                continue;
+            }
+            generator.writeFieldName(failureLayout.names[i]);
+            if (value instanceof AlertEvent alert && alertLayout != null) {
+                writeAlert(generator, alert);
+            } else {
+                writeScalar(generator, value);
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeInstant(JsonGenerator generator, Instant instant) throws IOException {
+        if (isoTimestamps) {
+            // same text as the JavaTimeModule's ISO_INSTANT formatting
+            generator.writeString(instant.toString());
+        } else {
+            generator.writeObject(instant);
+        }
+    }
+
+    private void writeMetadata(JsonGenerator generator, Map<String, Object> metadata) throws IOException {
+        if (!streamMetadata) {
+            generator.writeObject(metadata);
+            return;
+        }
+        generator.writeStartObject();
+        for (Map.Entry<String, Object> entry : metadata.entrySet()) {
+            generator.writeFieldName(entry.getKey());
+            writeScalar(generator, entry.getValue());
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeScalar(JsonGenerator generator, Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof String text) {
+            generator.writeString(text);
+        } else if (value instanceof Integer number) {
+            generator.writeNumber(number);
+        } else if (value instanceof Long number) {
+            generator.writeNumber(number);
+        } else if (value instanceof Boolean bool) {
+            generator.writeBoolean(bool);
+        } else {
+            generator.writeObject(value);
+        }
+    }
+
+    /**
+     * The properties of a type in the order, with the names and the null handling, of the ObjectMapper's
+     * bean serializer for it.
+     */
+    private static final class Layout<P extends Enum<P>> {
+        private final P[] properties;
+        private final SerializableString[] names;
+        private final boolean[] suppressNulls;
+        /** Whether map properties write null entries, as the streamed metadata does. */
+        private final boolean writesNullContent;
+
+        private Layout(P[] properties, SerializableString[] names, boolean[] suppressNulls, boolean writesNullContent) {
+            this.properties = properties;
+            this.names = names;
+            this.suppressNulls = suppressNulls;
+            this.writesNullContent = writesNullContent;
+        }
+
+        /**
+         * @return the layout of the type, or null if its values must be written by the ObjectMapper
+         */
+        @SuppressWarnings("unchecked")
+        static <P extends Enum<P>> Layout<P> of(ObjectMapper objectMapper, Class<?> type,
+                                                 Function<String, P> properties, Class<P> propertyType) {
+            SerializationConfig config = objectMapper.getSerializationConfig();
+            JavaType javaType = objectMapper.constructType(type);
+            BeanDescription description = config.introspect(javaType);
+            JsonInclude.Value inclusion = description.findPropertyInclusion(config.getDefaultPropertyInclusion(type));
+            if (!followsNullsOnly(inclusion.getValueInclusion())) {
+                return null;
+            }
+            Map<String, BeanPropertyDefinition> definitions = new HashMap<>();
+            for (BeanPropertyDefinition definition : description.findProperties()) {
+                definitions.put(definition.getName(), definition);
+            }
+            JsonSerializer<Object> serializer;
+            try {
+                SerializerProvider provider = objectMapper.getSerializerProviderInstance();
+                if (provider.findTypeSerializer(javaType) != null) {
+                    return null;
+                }
+                serializer = provider.findValueSerializer(javaType);
+            } catch (JsonMappingException e) {
+                return null;
+            }
+            if (!(serializer instanceof BeanSerializerBase beanSerializer)) {
+                return null;
+            }
+            List<P> order = new ArrayList<>();
+            List<SerializableString> names = new ArrayList<>();
+            List<Boolean> suppressNulls = new ArrayList<>();
+            for (Iterator<PropertyWriter> writers = beanSerializer.properties(); writers.hasNext(); ) {
+                PropertyWriter writer = writers.next();
+                BeanPropertyDefinition definition = definitions.get(writer.getName());
+                P property = definition == null ? null : properties.apply(definition.getInternalName());
+                if (property == null || !(writer instanceof BeanPropertyWriter beanWriter)
+                        || !followsNullsOnly(definition.findInclusion().getValueInclusion())) {
+                    return null;
+                }
+                order.add(property);
+                names.add(new SerializedString(writer.getName()));
+                suppressNulls.add(beanWriter.willSuppressNulls());
+            }
+            P[] propertyArray = order.toArray((P[]) Array.newInstance(propertyType, order.size()));
+            boolean[] suppress = new boolean[suppressNulls.size()];
+            for (int i = 0; i < suppress.length; i++) {
+                suppress[i] = suppressNulls.get(i);
+            }
+            JsonInclude.Include contentInclusion = inclusion.getContentInclusion();
+            return new Layout<>(propertyArray, names.toArray(new SerializableString[0]), suppress,
+                    contentInclusion == JsonInclude.Include.ALWAYS || contentInclusion == JsonInclude.Include.USE_DEFAULTS);
+        }
+
+        /**
+         * Whether the inclusion leaves out null values at most, which is all the writer reproduces.
+         */
+        private static boolean followsNullsOnly(JsonInclude.Include inclusion) {
+            return inclusion == JsonInclude.Include.ALWAYS || inclusion == JsonInclude.Include.USE_DEFAULTS
+                    || inclusion == JsonInclude.Include.NON_NULL || inclusion == JsonInclude.Include.NON_ABSENT;
+        }
+    }
+
+    /**
+     * A static value with its JSON encoding.
+     */
+    private static final class Fragment {
+        private final Object value;
+        private final SerializableString json;
+
+        private Fragment(Object value, SerializableString json) {
+            this.value = value;
+            this.json = json;
+        }
+
+        boolean matches(Object other) {
+            // contexts are shared instances; names are compared by content
+            return value == other || (value instanceof String && value.equals(other));
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package io.github.codestring.aegisbugle.adapter.out.serialization;
+
+import java.io.IOException;
+
+/**
+ * Encodes alert payloads for the broker adapters.
+ * <p>
+ * The built-in implementations cover the {@link io.github.codestring.aegisbugle.application.core.model.WireFormat}
+ * values; an application can register its own AlertSerializer bean (for example an Avro or Protobuf
+ * encoding of the AlertEvent contract) to replace them. Payloads that are not plain JSON carry their
+ * content type in the {@link #CONTENT_TYPE_HEADER} header or message property, so consumers that
+ * find no such header can keep assuming JSON.
+ */
+public interface AlertSerializer {
+
+    String CONTENT_TYPE_HEADER = "contentType";
+
+    String JSON_CONTENT_TYPE = "application/json";
+
+    /**
+     * @return the MIME type of the encoded payloads
+     */
+    String contentType();
+
+    /**
+     * Encodes an AlertEvent, FailureMessage or generic payload.
+     *
+     * @throws IOException if the value cannot be encoded
+     */
+    byte[] serialize(Object value) throws IOException;
+
+    default boolean isJson() {
+        return JSON_CONTENT_TYPE.equals(contentType());
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.codestring.aegisbugle.adapter.out.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.codestring.aegisbugle.adapter.out.buffer.PayloadBufferPool;
+import io.github.codestring.aegisbugle.application.core.model.WireFormat;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Creates the built-in {@link AlertSerializer} for a {@link WireFormat}.
+ * <p>
+ * The binary formats copy the given ObjectMapper's modules and settings onto their own factory,
+ * and need the optional {@code jackson-dataformat-cbor} or {@code jackson-dataformat-smile}
+ * dependency on the classpath.
+ */
+public final class AlertSerializers {
+
+    public static final String CBOR_CONTENT_TYPE = "application/cbor";
+    public static final String SMILE_CONTENT_TYPE = "application/x-jackson-smile";
+
+    private AlertSerializers() {
+    }
+
+    public static AlertSerializer forFormat(WireFormat format, ObjectMapper objectMapper) {
+        return forFormat(format, objectMapper, PayloadBufferPool.DEFAULT);
+    }
+
+    /**
+     * @param bufferPool buffers the payloads are encoded into before they are copied out
+     */
+    public static AlertSerializer forFormat(WireFormat format, ObjectMapper objectMapper, PayloadBufferPool bufferPool) {
+        return switch (format == null ? WireFormat.JSON : format) {
+            case JSON -> new JsonAlertSerializer(objectMapper, bufferPool);
+            case CBOR -> {
+                requireClass("com.fasterxml.jackson.dataformat.cbor.CBORFactory", "jackson-dataformat-cbor", format);
+                yield Cbor.serializer(objectMapper, bufferPool);
+            }
+            case SMILE -> {
+                requireClass("com.fasterxml.jackson.dataformat.smile.SmileFactory", "jackson-dataformat-smile", format);
+                yield Smile.serializer(objectMapper, bufferPool);
+            }
+        };
+    }
+
+    private static void requireClass(String className, String artifactId, WireFormat format) {
+        if (!ClassUtils.isPresent(className, AlertSerializers.class.getClassLoader())) {
+            throw new IllegalStateException("aegis.bugle.format=" + format + " requires com.fasterxml.jackson.dataformat:"
+                    + artifactId + " on the classpath");
+        }
+    }
+
+    /**
+     * Kept apart so that jackson-dataformat-cbor is only linked when the CBOR format is used.
+     */
+    private static final class Cbor {
+
+        static AlertSerializer serializer(ObjectMapper objectMapper, PayloadBufferPool bufferPool) {
+            return new JacksonBinaryAlertSerializer(
+                    objectMapper.copyWith(new com.fasterxml.jackson.dataformat.cbor.CBORFactory()), CBOR_CONTENT_TYPE,
+                    bufferPool);
+        }
+    }
+
+    /**
+     * Kept apart so that jackson-dataformat-smile is only linked when the Smile format is used.
+     */
+    private static final class Smile {
+
+        static AlertSerializer serializer(ObjectMapper objectMapper, PayloadBufferPool bufferPool) {
+            return new JacksonBinaryAlertSerializer(
+                    objectMapper.copyWith(new com.fasterxml.jackson.dataformat.smile.SmileFactory()), SMILE_CONTENT_TYPE,
+                    bufferPool);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.codestring.aegisbugle.adapter.out.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.codestring.aegisbugle.adapter.out.buffer.PayloadBuffer;
+import io.github.codestring.aegisbugle.adapter.out.buffer.PayloadBufferPool;
+
+import java.io.IOException;
+
+/**
+ * Encodes payloads with a Jackson binary data format such as CBOR or Smile. Field names and values
+ * follow the same {@code @JsonProperty} contract as the JSON encoding. Payloads are encoded into a
+ * buffer from the {@link PayloadBufferPool}.
+ */
+public class JacksonBinaryAlertSerializer implements AlertSerializer {
+
+    private final ObjectMapper binaryMapper;
+    private final String contentType;
+    private final PayloadBufferPool bufferPool;
+
+    public JacksonBinaryAlertSerializer(ObjectMapper binaryMapper, String contentType) {
+        this(binaryMapper, contentType, PayloadBufferPool.DEFAULT);
+    }
+
+    public JacksonBinaryAlertSerializer(ObjectMapper binaryMapper, String contentType, PayloadBufferPool bufferPool) {
+        this.binaryMapper = binaryMapper;
+        this.contentType = contentType;
+        this.bufferPool = bufferPool;
+    }
+
+    @Override
+    public String contentType() {
+        return contentType;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws IOException {
+        PayloadBuffer buffer = bufferPool.acquire();
+        try {
+            binaryMapper.writeValue(buffer, value);
+            return buffer.toByteArray();
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package io.github.codestring.aegisbugle.adapter.out.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.codestring.aegisbugle.adapter.out.buffer.PayloadBufferPool;
+
+import java.io.IOException;
+
+/**
+ * The default JSON encoding, written by an {@link AlertJsonWriter}.
+ */
+public class JsonAlertSerializer implements AlertSerializer {
+
+    private final AlertJsonWriter jsonWriter;
+
+    public JsonAlertSerializer(ObjectMapper objectMapper) {
+        this(objectMapper, PayloadBufferPool.DEFAULT);
+    }
+
+    public JsonAlertSerializer(ObjectMapper objectMapper, PayloadBufferPool bufferPool) {
+        this.jsonWriter = new AlertJsonWriter(objectMapper, bufferPool);
+    }
+
+    @Override
+    public String contentType() {
+        return JSON_CONTENT_TYPE;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws IOException {
+        return jsonWriter.writeValueAsBytes(value);
+    }
+}
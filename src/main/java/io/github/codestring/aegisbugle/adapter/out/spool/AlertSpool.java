@@ -0,0 +1,297 @@
+package io.github.codestring.aegisbugle.adapter.out.spool;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * AlertSpool is an append-only, memory-mapped, segmented log of alert payloads kept on local disk
+ * while the broker cannot take them.
+ * <p>
+ * Layout:
+ * - The directory holds segment files named {@code segment-<id>.log}, each mapped in full at a fixed size.
+ * - A record is {@code [int length][int crc32][short topicLength][topic][payload]}; the crc covers
+ *   everything after it. A zero length marks the end of written data in a segment.
+ * - A small {@code checkpoint} file holds the segment id and offset of the next record to replay.
+ * <p>
+ * Recovery: on open, the checkpoint is loaded, segments before it are deleted, and the last segment
+ * is scanned up to its first missing or corrupt record, which becomes the append position. Records
+ * that fail their crc while replaying are skipped together with the rest of their segment.
+ * <p>
+ * The spool never exceeds {@code maxTotalBytes}; appends that would need a segment beyond the cap
+ * are rejected.
+ */
+@Slf4j
+public class AlertSpool implements AutoCloseable {
+
+    static final int HEADER_BYTES = 8;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final Path directory;
+    private final int segmentSizeBytes;
+    private final int maxSegments;
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private final MappedByteBuffer checkpoint;
+    private final FileChannel checkpointChannel;
+    private final CRC32 crc = new CRC32();
+    private long readSegmentId;
+    private int readPosition;
+    private long pendingRecords;
+    private long rejectedRecords;
+
+    public AlertSpool(Path directory, int segmentSizeBytes, long maxTotalBytes) throws IOException {
+        if (segmentSizeBytes < 1024) {
+            throw new IllegalArgumentException("segmentSizeBytes must be at least 1024");
+        }
+        this.directory = directory;
+        this.segmentSizeBytes = segmentSizeBytes;
+        this.maxSegments = (int) Math.max(1, maxTotalBytes / segmentSizeBytes);
+        Files.createDirectories(directory);
+
+        this.checkpointChannel = FileChannel.open(directory.resolve(CHECKPOINT_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.checkpoint = checkpointChannel.map(FileChannel.MapMode.READ_WRITE, 0, Long.BYTES + Integer.BYTES);
+        recover();
+    }
+
+    private void recover() throws IOException {
+        List<Long> ids = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .forEach(ids::add);
+        }
+
+        readSegmentId = checkpoint.getLong(0);
+        readPosition = checkpoint.getInt(Long.BYTES);
+        for (long id : ids) {
+            if (id < readSegmentId) {
+                Files.deleteIfExists(segmentPath(id));
+            } else {
+                Segment segment = openSegment(id);
+                segment.writePosition = scanValidEnd(segment, id == readSegmentId ? readPosition : 0);
+                segments.addLast(segment);
+            }
+        }
+        if (segments.isEmpty()) {
+            segments.addLast(openSegment(Math.max(readSegmentId, 0)));
+            readSegmentId = segments.peekFirst().id;
+            readPosition = 0;
+        } else if (segments.peekFirst().id != readSegmentId) {
+            readSegmentId = segments.peekFirst().id;
+            readPosition = 0;
+        }
+        writeCheckpoint();
+        log.info("Opened alert spool at {} with {} pending alerts in {} segments", directory, pendingRecords, segments.size());
+    }
+
+    private int scanValidEnd(Segment segment, int from) {
+        int position = from;
+        while (true) {
+            int length = recordLength(segment, position);
+            if (length <= 0 || !crcMatches(segment, position, length)) {
+                return position;
+            }
+            pendingRecords++;
+            position += HEADER_BYTES + length;
+        }
+    }
+
+    /**
+     * Appends an alert payload. Cheap: a crc over the bytes and a copy into the mapped segment.
+     *
+     * @return false if the record does not fit in a segment or the spool is full
+     */
+    public synchronized boolean append(String topic, byte[] payload) {
+        byte[] topicBytes = topic == null ? new byte[0] : topic.getBytes(StandardCharsets.UTF_8);
+        int length = Short.BYTES + topicBytes.length + payload.length;
+        if (HEADER_BYTES + length + Integer.BYTES > segmentSizeBytes || topicBytes.length > Short.MAX_VALUE) {
+            rejectedRecords++;
+            log.warn("Alert of {} bytes does not fit in a spool segment of {} bytes", length, segmentSizeBytes);
+            return false;
+        }
+
+        Segment segment = segments.peekLast();
+        if (segment.writePosition + HEADER_BYTES + length + Integer.BYTES > segmentSizeBytes) {
+            if (segments.size() >= maxSegments) {
+                rejectedRecords++;
+                return false;
+            }
+            try {
+                segment.buffer.force();
+                segment = openSegment(segment.id + 1);
+                segments.addLast(segment);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to rotate alert spool segment", e);
+            }
+        }
+
+        crc.reset();
+        crc.update(topicBytes.length >>> 8);
+        crc.update(topicBytes.length);
+        crc.update(topicBytes);
+        crc.update(payload);
+
+        ByteBuffer buffer = segment.buffer;
+        int position = segment.writePosition;
+        buffer.putInt(position + HEADER_BYTES + length, 0);
+        buffer.putInt(position + Integer.BYTES, (int) crc.getValue());
+        buffer.putShort(position + HEADER_BYTES, (short) topicBytes.length);
+        buffer.put(position + HEADER_BYTES + Short.BYTES, topicBytes);
+        buffer.put(position + HEADER_BYTES + Short.BYTES + topicBytes.length, payload);
+        buffer.putInt(position, length);
+        segment.writePosition = position + HEADER_BYTES + length;
+        pendingRecords++;
+        return true;
+    }
+
+    /**
+     * Returns the oldest unreplayed record without removing it, or null if the spool is empty.
+     */
+    public synchronized SpoolRecord peek() {
+        while (true) {
+            Segment segment = segments.peekFirst();
+            int length = recordLength(segment, readPosition);
+            if (length > 0 && crcMatches(segment, readPosition, length)) {
+                return readRecord(segment, readPosition, length);
+            }
+            if (segments.size() == 1) {
+                if (readPosition < segment.writePosition) {
+                    log.error("Corrupt alert spool record at {}:{}, skipping to end of segment", segment.id, readPosition);
+                    readPosition = segment.writePosition;
+                    writeCheckpoint();
+                }
+                return null;
+            }
+            if (length != 0) {
+                log.error("Corrupt alert spool record at {}:{}, skipping rest of segment", segment.id, readPosition);
+            }
+            dropHeadSegment();
+        }
+    }
+
+    /**
+     * Marks the given record, previously returned by {@link #peek()}, as replayed.
+     */
+    public synchronized void commit(SpoolRecord record) {
+        if (record.getSegmentId() != readSegmentId || record.getPosition() != readPosition) {
+            throw new IllegalStateException("Spool record was already committed");
+        }
+        readPosition = record.getNextPosition();
+        pendingRecords = Math.max(0, pendingRecords - 1);
+        if (segments.size() > 1 && recordLength(segments.peekFirst(), readPosition) == 0) {
+            dropHeadSegment();
+        }
+        writeCheckpoint();
+    }
+
+    public synchronized long pendingRecords() {
+        return pendingRecords;
+    }
+
+    public synchronized long rejectedRecords() {
+        return rejectedRecords;
+    }
+
+    public synchronized long sizeBytes() {
+        return (long) segments.size() * segmentSizeBytes;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (Segment segment : segments) {
+            segment.buffer.force();
+            segment.channel.close();
+        }
+        checkpoint.force();
+        checkpointChannel.close();
+    }
+
+    private SpoolRecord readRecord(Segment segment, int position, int length) {
+        ByteBuffer buffer = segment.buffer;
+        int topicLength = buffer.getShort(position + HEADER_BYTES);
+        byte[] topicBytes = new byte[topicLength];
+        buffer.get(position + HEADER_BYTES + Short.BYTES, topicBytes);
+        byte[] payload = new byte[length - Short.BYTES - topicLength];
+        buffer.get(position + HEADER_BYTES + Short.BYTES + topicLength, payload);
+        String topic = topicLength == 0 ? null : new String(topicBytes, StandardCharsets.UTF_8);
+        return new SpoolRecord(topic, payload, segment.id, position, position + HEADER_BYTES + length);
+    }
+
+    private int recordLength(Segment segment, int position) {
+        if (position + HEADER_BYTES > segmentSizeBytes) {
+            return 0;
+        }
+        int length = segment.buffer.getInt(position);
+        if (length < 0 || position + HEADER_BYTES + length > segmentSizeBytes) {
+            return -1;
+        }
+        return length;
+    }
+
+    private boolean crcMatches(Segment segment, int position, int length) {
+        crc.reset();
+        crc.update(segment.buffer.slice(position + HEADER_BYTES, length));
+        return (int) crc.getValue() == segment.buffer.getInt(position + Integer.BYTES);
+    }
+
+    private void dropHeadSegment() {
+        Segment head = segments.pollFirst();
+        try {
+            head.channel.close();
+            Files.deleteIfExists(segmentPath(head.id));
+        } catch (IOException e) {
+            log.warn("Failed to delete replayed alert spool segment {}", head.id, e);
+        }
+        readSegmentId = segments.peekFirst().id;
+        readPosition = 0;
+        writeCheckpoint();
+    }
+
+    private void writeCheckpoint() {
+        checkpoint.putLong(0, readSegmentId);
+        checkpoint.putInt(Long.BYTES, readPosition);
+    }
+
+    private Segment openSegment(long id) throws IOException {
+        FileChannel channel = FileChannel.open(segmentPath(id),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSizeBytes);
+        return new Segment(id, channel, buffer);
+    }
+
+    private Path segmentPath(long id) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+    }
+
+    private static final class Segment {
+        private final long id;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int writePosition;
+
+        private Segment(long id, FileChannel channel, MappedByteBuffer buffer) {
+            this.id = id;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+}
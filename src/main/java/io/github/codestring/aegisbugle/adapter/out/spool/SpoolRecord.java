@@ -0,0 +1,18 @@
+package io.github.codestring.aegisbugle.adapter.out.spool;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A record read back from the {@link AlertSpool}: the destination topic, the serialized alert and
+ * its position in the log, which is handed back to {@link AlertSpool#commit(SpoolRecord)} once replayed.
+ */
+@Getter
+@AllArgsConstructor
+public class SpoolRecord {
+    private final String topic;
+    private final byte[] payload;
+    private final long segmentId;
+    private final int position;
+    private final int nextPosition;
+}
@@ -0,0 +1,212 @@
+package io.github.codestring.aegisbugle.adapter.out.spool;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import io.github.codestring.aegisbugle.application.core.retry.RetryableErrorClassifier;
+import io.github.codestring.aegisbugle.application.port.out.BuglePublisher;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * SpoolReplayer writes alerts a broker could not take into that broker's {@link AlertSpool} and drains them
+ * back to the broker from a background thread.
+ * <p>
+ * Responsibilities:
+ * - Serializes alerts to JSON and appends them to the spool of the broker they were meant for. With
+ *   several brokers each has its own spool, so a spooled alert is replayed only to the broker that
+ *   failed to take it, and one broker's backlog never holds up another's.
+ * - Tracks per broker whether it is currently considered available; while it is not, callers can
+ *   spool directly instead of waiting for a send to time out.
+ * - Every replay interval, publishes up to {@code replayRatePerSecond * interval} spooled alerts per broker,
+ *   oldest first, waiting for each acknowledgement. The first retryable failure marks the broker
+ *   unavailable and ends its pass; the next pass probes again with the same alert. An alert that fails
+ *   with an error that is not retryable would fail the same way on every pass, so it is logged and dropped.
+ */
+@Slf4j
+public class SpoolReplayer implements AutoCloseable {
+
+    private final Map<String, Lane> lanes = new LinkedHashMap<>();
+    private final ObjectMapper objectMapper;
+    private final RetryableErrorClassifier retryClassifier;
+    private final int alertsPerPass;
+    private final long sendTimeoutMs;
+    private final ScheduledExecutorService executor;
+
+    /**
+     * @param spools     the spool of each broker, by broker name
+     * @param publishers the publisher each broker's spooled alerts are replayed to, by broker name
+     * @throws IllegalArgumentException if a spool has no publisher
+     */
+    public SpoolReplayer(Map<String, AlertSpool> spools, Map<String, BuglePublisher> publishers,
+                         ObjectMapper objectMapper, RetryableErrorClassifier retryClassifier,
+                         int replayRatePerSecond, long replayIntervalMs, long sendTimeoutMs) {
+        spools.forEach((broker, spool) -> {
+            BuglePublisher publisher = publishers.get(broker);
+            if (publisher == null) {
+                throw new IllegalArgumentException("No publisher to replay the spool of broker " + broker);
+            }
+            lanes.put(broker, new Lane(broker, spool, publisher));
+        });
+        this.objectMapper = objectMapper;
+        this.retryClassifier = retryClassifier;
+        this.alertsPerPass = (int) Math.max(1, replayRatePerSecond * replayIntervalMs / 1000);
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "aegis-bugle-spool-replayer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::replaySafely, replayIntervalMs, replayIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Appends an alert to the broker's spool.
+     *
+     * @return false if the alert could not be serialized or the spool is full
+     * @throws IllegalArgumentException if the broker has no spool
+     */
+    public boolean spool(String broker, AlertEvent event, String topic) {
+        AlertSpool spool = lane(broker).spool;
+        try {
+            if (spool.append(topic, objectMapper.writeValueAsBytes(event))) {
+                return true;
+            }
+            log.error("Alert spool of broker {} is full, dropping alert {}", broker, event.getAlertId());
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.error("Failed to spool alert {}", event.getAlertId(), e);
+        }
+        return false;
+    }
+
+    public boolean isBrokerAvailable(String broker) {
+        return lane(broker).available;
+    }
+
+    public void markBrokerUnavailable(String broker) {
+        Lane lane = lane(broker);
+        if (lane.available) {
+            log.warn("Broker {} unavailable, its alerts will be spooled until replay succeeds", broker);
+        }
+        lane.available = false;
+    }
+
+    public long pendingAlerts() {
+        return lanes.values().stream().mapToLong(lane -> lane.spool.pendingRecords()).sum();
+    }
+
+    /**
+     * Runs one replay pass over every broker.
+     *
+     * @return the number of alerts replayed to the brokers
+     */
+    int replay() {
+        int replayed = 0;
+        for (Lane lane : lanes.values()) {
+            replayed += replay(lane);
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+        }
+        return replayed;
+    }
+
+    private int replay(Lane lane) {
+        int replayed = 0;
+        while (replayed < alertsPerPass) {
+            SpoolRecord record = lane.spool.peek();
+            if (record == null) {
+                lane.available = true;
+                break;
+            }
+            AlertEvent event;
+            try {
+                event = objectMapper.readValue(record.getPayload(), AlertEvent.class);
+            } catch (IOException e) {
+                log.error("Discarding unreadable spooled alert for topic {}", record.getTopic(), e);
+                lane.spool.commit(record);
+                continue;
+            }
+            try {
+                lane.publisher.sendAlertAsync(event, record.getTopic()).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException | TimeoutException | RuntimeException e) {
+                if (retryClassifier.isRetryable(e)) {
+                    markBrokerUnavailable(lane.broker);
+                    log.debug("Replay of spooled alert {} failed", event.getAlertId(), e);
+                    break;
+                }
+                log.error("Discarding spooled alert {} that broker {} cannot take", event.getAlertId(), lane.broker, e);
+                lane.spool.commit(record);
+                continue;
+            }
+            lane.spool.commit(record);
+            replayed++;
+            if (!lane.available) {
+                log.info("Broker {} available again, replaying {} spooled alerts", lane.broker,
+                        lane.spool.pendingRecords());
+                lane.available = true;
+            }
+        }
+        return replayed;
+    }
+
+    private Lane lane(String broker) {
+        Lane lane = lanes.get(broker);
+        if (lane == null) {
+            throw new IllegalArgumentException("No alert spool for broker " + broker);
+        }
+        return lane;
+    }
+
+    private void replaySafely() {
+        try {
+            replay();
+        } catch (RuntimeException e) {
+            log.error("Alert spool replay failed", e);
+        }
+    }
+
+    /**
+     * Stops the replayer thread and closes the spools; alerts still spooled are replayed after the next start.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Lane lane : lanes.values()) {
+            try {
+                lane.spool.close();
+            } catch (IOException e) {
+                log.warn("Failed to close alert spool of broker {}", lane.broker, e);
+            }
+        }
+    }
+
+    private static final class Lane {
+        private final String broker;
+        private final AlertSpool spool;
+        private final BuglePublisher publisher;
+        private volatile boolean available = true;
+
+        private Lane(String broker, AlertSpool spool, BuglePublisher publisher) {
+            this.broker = broker;
+            this.spool = spool;
+            this.publisher = publisher;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package io.github.codestring.aegisbugle.adapter.out.spool;
+
+import io.github.codestring.aegisbugle.application.core.PublishException;
+import io.github.codestring.aegisbugle.application.core.model.AlertEnvelope;
+import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import io.github.codestring.aegisbugle.application.core.model.BatchItemResult;
+import io.github.codestring.aegisbugle.application.core.model.BatchPublishResult;
+import io.github.codestring.aegisbugle.application.core.model.DeliveryReceipt;
+import io.github.codestring.aegisbugle.application.core.retry.RetryableErrorClassifier;
+import io.github.codestring.aegisbugle.application.port.out.BuglePublisher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * SpoolingBuglePublisher falls back to the local {@link AlertSpool} when the broker cannot take an alert.
+ * <p>
+ * Behaviour:
+ * - While the broker is considered available, alerts are sent through the wrapped publisher's
+ *   asynchronous API; an alert whose send fails with a retryable error is spooled and the broker is
+ *   marked unavailable.
+ * - An alert that fails with an error that is not retryable, such as a rejected or invalid alert, says
+ *   nothing about the broker and would fail again on replay. It is neither spooled nor does it mark the
+ *   broker unavailable; its failure is returned, after the retry stage has dead-lettered it.
+ * - While the broker is unavailable, alerts are spooled straight away instead of waiting on a
+ *   send that is expected to time out. The {@link SpoolReplayer} delivers them once it recovers.
+ * - Synchronous sends return as soon as the alert is handed to the broker client; they no longer
+ *   throw when the broker is down, since the alert is kept on disk.
+ * - Envelopes are handled like alerts; only an envelope that has to be spooled is turned back into an AlertEvent.
+ * - Generic payloads are passed through untouched and are not spooled.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class SpoolingBuglePublisher implements BuglePublisher {
+
+    private final BuglePublisher delegate;
+    private final SpoolReplayer replayer;
+    /** Name of the broker the delegate sends to, whose spool and availability this publisher uses. */
+    private final String broker;
+    private final RetryableErrorClassifier retryClassifier;
+
+    @Override
+    public void sendAlert(AlertEvent event, String topic) {
+        sendAlertAsync(event, topic);
+    }
+
+    @Override
+    public <T> void sendAlert(T event, String topic) {
+        delegate.sendAlert(event, topic);
+    }
+
+    /**
+     * Publishes the alert, spooling it if the broker is unavailable or fails to take it.
+     * <p>
+     * The returned future completes with a {@link DeliveryReceipt#isSpooled() spooled} receipt when
+     * the alert went to the spool, and exceptionally only if it could be neither sent nor spooled.
+     */
+    @Override
+    public CompletableFuture<DeliveryReceipt> sendAlertAsync(AlertEvent event, String topic) {
+        if (!replayer.isBrokerAvailable(broker)) {
+            return spool(event, topic, null);
+        }
+        CompletableFuture<DeliveryReceipt> sent;
+        try {
+            sent = delegate.sendAlertAsync(event, topic);
+        } catch (RuntimeException e) {
+            sent = CompletableFuture.failedFuture(e);
+        }
+        return sent.exceptionallyCompose(error -> onFailure(event, topic, error));
+    }
+
+    @Override
+    public <T> CompletableFuture<DeliveryReceipt> sendAlertAsync(T event, String topic) {
+        return delegate.sendAlertAsync(event, topic);
+    }
+
+    @Override
+    public void sendEnvelope(AlertEnvelope envelope, String topic) {
+        sendEnvelopeAsync(envelope, topic);
+    }
+
+    @Override
+    public CompletableFuture<DeliveryReceipt> sendEnvelopeAsync(AlertEnvelope envelope, String topic) {
+        if (!replayer.isBrokerAvailable(broker)) {
+            return spool(envelope.toAlertEvent(), topic, null);
+        }
+        CompletableFuture<DeliveryReceipt> sent;
+        try {
+            sent = delegate.sendEnvelopeAsync(envelope, topic);
+        } catch (RuntimeException e) {
+            sent = CompletableFuture.failedFuture(e);
+        }
+        return sent.exceptionallyCompose(error -> onFailure(envelope.toAlertEvent(), topic, error));
+    }
+
+    /**
+     * Publishes the batch; items that fail with a retryable error are spooled and reported as spooled successes.
+     */
+    @Override
+    public BatchPublishResult sendAlerts(Collection<AlertEvent> events, String topic) {
+        if (!replayer.isBrokerAvailable(broker)) {
+            List<BatchItemResult> items = new ArrayList<>(events.size());
+            int index = 0;
+            for (AlertEvent event : events) {
+                items.add(spoolItem(index++, event, topic, null));
+            }
+            return new BatchPublishResult(items);
+        }
+
+        List<AlertEvent> alerts = new ArrayList<>(events);
+        BatchPublishResult result = delegate.sendAlerts(alerts, topic);
+        if (result.isAllSucceeded()) {
+            return result;
+        }
+        List<BatchItemResult> items = new ArrayList<>(result.size());
+        for (BatchItemResult item : result.getItems()) {
+            if (item.isSuccess() || !retryClassifier.isRetryable(item.getError())) {
+                items.add(item);
+            } else {
+                replayer.markBrokerUnavailable(broker);
+                items.add(spoolItem(item.getIndex(), alerts.get(item.getIndex()), topic, item.getError()));
+            }
+        }
+        return new BatchPublishResult(items);
+    }
+
+    private CompletableFuture<DeliveryReceipt> onFailure(AlertEvent event, String topic, Throwable error) {
+        if (!retryClassifier.isRetryable(error)) {
+            return CompletableFuture.failedFuture(error);
+        }
+        replayer.markBrokerUnavailable(broker);
+        return spool(event, topic, error);
+    }
+
+    private CompletableFuture<DeliveryReceipt> spool(AlertEvent event, String topic, Throwable cause) {
+        if (replayer.spool(broker, event, topic)) {
+            return CompletableFuture.completedFuture(spooledReceipt(event, topic));
+        }
+        return CompletableFuture.failedFuture(new PublishException("Alert could not be published or spooled", cause));
+    }
+
+    private BatchItemResult spoolItem(int index, AlertEvent event, String topic, Throwable cause) {
+        if (replayer.spool(broker, event, topic)) {
+            return BatchItemResult.success(index, event.getAlertId(), spooledReceipt(event, topic));
+        }
+        return BatchItemResult.failure(index, event.getAlertId(),
+                new PublishException("Alert could not be published or spooled", cause));
+    }
+
+    private DeliveryReceipt spooledReceipt(AlertEvent event, String topic) {
+        return DeliveryReceipt.builder()
+                .alertId(event.getAlertId())
+                .topic(topic)
+                .spooled(true)
+                .build();
+    }
+}
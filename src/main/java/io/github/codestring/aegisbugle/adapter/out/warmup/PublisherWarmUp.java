@@ -0,0 +1,153 @@
+package io.github.codestring.aegisbugle.adapter.out.warmup;
+
+import io.github.codestring.aegisbugle.application.core.model.BrokerType;
+import io.github.codestring.aegisbugle.application.core.model.DestinationReadiness;
+import io.github.codestring.aegisbugle.application.port.out.BuglePublisher;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PublisherWarmUp prepares the configured destinations of every broker at startup, so the first alert
+ * after a deploy does not pay for connection setup, metadata lookups and producer creation.
+ * <p>
+ * Behaviour:
+ * - Starts with the application context and warms every destination on its own background thread, up
+ *   to {@code parallelism} at once, through {@link BuglePublisher#warmUp}. Startup does not wait for it.
+ * - Destinations still warming up after the timeout are reported as not ready and their threads are
+ *   interrupted. Alerts to them still work; they just pay for the setup themselves.
+ * - Logs a summary once every destination is done; {@link #readiness()} completes with the outcome of
+ *   each destination, e.g. for a readiness probe.
+ */
+@Slf4j
+public class PublisherWarmUp implements SmartLifecycle {
+
+    private final List<Target> targets;
+    private final boolean verify;
+    private final long timeoutMs;
+    private final int parallelism;
+    private final CompletableFuture<List<DestinationReadiness>> readiness = new CompletableFuture<>();
+    private volatile ExecutorService executor;
+    private volatile boolean running;
+
+    public PublisherWarmUp(List<Target> targets, boolean verify, long timeoutMs, int parallelism) {
+        this.targets = List.copyOf(targets);
+        this.verify = verify;
+        this.timeoutMs = timeoutMs;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Completes with the readiness of every destination once all of them are warm, failed or timed out.
+     */
+    public CompletableFuture<List<DestinationReadiness>> readiness() {
+        return readiness;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        if (targets.isEmpty()) {
+            readiness.complete(List.of());
+            return;
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService warmUpExecutor = Executors.newFixedThreadPool(Math.min(parallelism, targets.size()), runnable -> {
+            Thread thread = new Thread(runnable, "aegis-bugle-warm-up-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor = warmUpExecutor;
+        List<CompletableFuture<DestinationReadiness>> outcomes = new ArrayList<>(targets.size());
+        for (Target target : targets) {
+            outcomes.add(warmUp(target, warmUpExecutor));
+        }
+        CompletableFuture.allOf(outcomes.toArray(new CompletableFuture[0])).whenComplete((done, error) -> {
+            warmUpExecutor.shutdownNow();
+            List<DestinationReadiness> results = outcomes.stream().map(CompletableFuture::join).toList();
+            report(results);
+            readiness.complete(results);
+        });
+    }
+
+    private CompletableFuture<DestinationReadiness> warmUp(Target target, ExecutorService warmUpExecutor) {
+        long start = System.nanoTime();
+        return CompletableFuture.runAsync(() -> target.getPublisher().warmUp(target.getDestination(), verify),
+                        warmUpExecutor)
+                .orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .handle((done, error) -> {
+                    Duration duration = Duration.ofNanos(System.nanoTime() - start);
+                    if (error == null) {
+                        return DestinationReadiness.ready(target.getBroker(), target.getDestination(), duration);
+                    }
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    if (cause instanceof TimeoutException) {
+                        cause = new TimeoutException("Warm-up did not finish within " + timeoutMs + " ms");
+                    }
+                    return DestinationReadiness.notReady(target.getBroker(), target.getDestination(), duration, cause);
+                });
+    }
+
+    private void report(List<DestinationReadiness> results) {
+        long ready = results.stream().filter(DestinationReadiness::isReady).count();
+        for (DestinationReadiness result : results) {
+            if (result.isReady()) {
+                log.debug("Warmed up {} destination {} in {} ms", result.getBroker(), result.getDestination(),
+                        result.getDuration().toMillis());
+            } else {
+                log.warn("Could not warm up {} destination {}: {}", result.getBroker(), result.getDestination(),
+                        result.getError().toString());
+            }
+        }
+        log.info("Aegis Bugle warm-up finished, {} of {} destinations ready", ready, results.size());
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        ExecutorService warmUpExecutor = executor;
+        if (warmUpExecutor != null) {
+            warmUpExecutor.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts ahead of the web server and other late lifecycle beans, so warming up overlaps with them.
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    /**
+     * A destination to warm up on one broker.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Target {
+        private final BrokerType broker;
+        private final BuglePublisher publisher;
+        private final String destination;
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.codestring.aegisbugle.application.core.breaker;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the number of sends in flight to one broker, so callers do not pile up behind a broker
+ * that has stopped answering. A limit of 0 or less disables the bulkhead.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final long maxWaitMs;
+    /** Free slots; null when the bulkhead is unbounded. */
+    private final Semaphore permits;
+
+    public Bulkhead(String name, int maxConcurrent, long maxWaitMs) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaitMs = maxWaitMs;
+        this.permits = maxConcurrent > 0 ? new Semaphore(maxConcurrent) : null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Takes a slot, waiting up to the configured maximum wait for one to free up; 0 fails at once.
+     */
+    public boolean tryAcquire() {
+        if (permits == null) {
+            return true;
+        }
+        if (maxWaitMs <= 0) {
+            return permits.tryAcquire();
+        }
+        try {
+            return permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public void release() {
+        if (permits != null) {
+            permits.release();
+        }
+    }
+
+    public int inFlight() {
+        return permits == null ? 0 : maxConcurrent - permits.availablePermits();
+    }
+}
@@ -0,0 +1,163 @@
+package io.github.codestring.aegisbugle.application.core.breaker;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Consecutive-failure circuit breaker with half-open probing.
+ * <p>
+ * Behaviour:
+ * - CLOSED: every send is permitted. {@code failureThreshold} consecutive failures open the circuit;
+ *   any success resets the count.
+ * - OPEN: sends are rejected until {@code openDurationMs} has elapsed, then the circuit turns half-open.
+ * - HALF_OPEN: at most {@code halfOpenProbes} sends are let through at once. A failing probe opens the
+ *   circuit again; once {@code halfOpenProbes} probes have succeeded the circuit closes.
+ * <p>
+ * The closed state, which is the common case, only touches a volatile field and an atomic counter;
+ * the other states synchronize on the breaker. Listeners are notified after the lock is released.
+ * Outcomes of sends that were permitted before a transition are counted against the new state.
+ */
+public class CircuitBreaker {
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenProbes;
+    private final LongSupplier clock;
+    private final CircuitBreakerListener listener;
+
+    private volatile CircuitState state = CircuitState.CLOSED;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    /** Guarded by this. */
+    private long openedAt;
+    /** Guarded by this. */
+    private int probesInFlight;
+    /** Guarded by this. */
+    private int probeSuccesses;
+
+    public CircuitBreaker(String name, int failureThreshold, long openDurationMs, int halfOpenProbes,
+                          CircuitBreakerListener listener) {
+        this(name, failureThreshold, openDurationMs, halfOpenProbes, listener, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, int failureThreshold, long openDurationMs, int halfOpenProbes,
+                   CircuitBreakerListener listener, LongSupplier clock) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMs);
+        this.halfOpenProbes = Math.max(1, halfOpenProbes);
+        this.listener = listener;
+        this.clock = clock;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CircuitState getState() {
+        return state;
+    }
+
+    /**
+     * Returns whether a send may go ahead. A permitted send must be followed by exactly one call to
+     * {@link #onSuccess()}, {@link #onFailure()} or {@link #release()}.
+     */
+    public boolean tryAcquire() {
+        if (state == CircuitState.CLOSED) {
+            return true;
+        }
+        CircuitStateChangedEvent event = null;
+        boolean permitted;
+        synchronized (this) {
+            if (state == CircuitState.OPEN && clock.getAsLong() - openedAt >= openDurationNanos) {
+                event = transition(CircuitState.HALF_OPEN);
+                probesInFlight = 0;
+                probeSuccesses = 0;
+            }
+            if (state == CircuitState.HALF_OPEN) {
+                permitted = probesInFlight < halfOpenProbes;
+                if (permitted) {
+                    probesInFlight++;
+                }
+            } else {
+                permitted = state == CircuitState.CLOSED;
+            }
+        }
+        notify(event);
+        return permitted;
+    }
+
+    public void onSuccess() {
+        if (state == CircuitState.CLOSED) {
+            if (consecutiveFailures.get() != 0) {
+                consecutiveFailures.set(0);
+            }
+            return;
+        }
+        CircuitStateChangedEvent event = null;
+        synchronized (this) {
+            if (state == CircuitState.HALF_OPEN) {
+                releaseProbe();
+                if (++probeSuccesses >= halfOpenProbes) {
+                    consecutiveFailures.set(0);
+                    event = transition(CircuitState.CLOSED);
+                }
+            }
+        }
+        notify(event);
+    }
+
+    public void onFailure() {
+        if (state == CircuitState.CLOSED && consecutiveFailures.incrementAndGet() < failureThreshold) {
+            return;
+        }
+        CircuitStateChangedEvent event = null;
+        synchronized (this) {
+            if (state == CircuitState.HALF_OPEN
+                    || (state == CircuitState.CLOSED && consecutiveFailures.get() >= failureThreshold)) {
+                openedAt = clock.getAsLong();
+                event = transition(CircuitState.OPEN);
+            }
+        }
+        notify(event);
+    }
+
+    /**
+     * Returns a permit that was not used for a send, or whose outcome says nothing about the broker.
+     */
+    public void release() {
+        if (state == CircuitState.CLOSED) {
+            return;
+        }
+        synchronized (this) {
+            if (state == CircuitState.HALF_OPEN) {
+                releaseProbe();
+            }
+        }
+    }
+
+    private void releaseProbe() {
+        if (probesInFlight > 0) {
+            probesInFlight--;
+        }
+    }
+
+    private CircuitStateChangedEvent transition(CircuitState to) {
+        CircuitState from = state;
+        state = to;
+        return new CircuitStateChangedEvent(name, from, to, Instant.now());
+    }
+
+    private void notify(CircuitStateChangedEvent event) {
+        if (event != null && listener != null) {
+            listener.onStateTransition(event);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreaker(" + name + ", " + state + ")";
+    }
+}
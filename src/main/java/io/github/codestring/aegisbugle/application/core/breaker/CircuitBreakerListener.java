@@ -0,0 +1,17 @@
+package io.github.codestring.aegisbugle.application.core.breaker;
+
+/**
+ * Receives circuit breaker lifecycle notifications, e.g. to export them as metrics or application events.
+ * Callbacks run on the publishing thread and must not block.
+ */
+public interface CircuitBreakerListener {
+
+    default void onCreated(CircuitBreaker breaker) {
+    }
+
+    default void onStateTransition(CircuitStateChangedEvent event) {
+    }
+
+    default void onRejected(String name, PublishRejectedException.Reason reason) {
+    }
+}
@@ -0,0 +1,142 @@
+package io.github.codestring.aegisbugle.application.core.breaker;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates and holds the circuit breakers and bulkheads of every broker, and fans their events out to the listeners.
+ * <p>
+ * Each broker has a breaker of its own plus one per topic. Topic names come from callers, so only the
+ * first {@code maxTopicBreakers} distinct topics of a broker get their own breaker; further topics are
+ * guarded by the broker's breaker alone.
+ */
+@Slf4j
+public class CircuitBreakerRegistry {
+
+    private final int failureThreshold;
+    private final long openDurationMs;
+    private final int halfOpenProbes;
+    private final int maxConcurrentSends;
+    private final long maxWaitMs;
+    private final int maxTopicBreakers;
+    private final List<CircuitBreakerListener> listeners;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+    private final Map<String, Integer> topicBreakerCounts = new ConcurrentHashMap<>();
+    private final CircuitBreakerListener notifier = new Notifier();
+
+    public CircuitBreakerRegistry(int failureThreshold, long openDurationMs, int halfOpenProbes,
+                                  int maxConcurrentSends, long maxWaitMs, int maxTopicBreakers,
+                                  List<CircuitBreakerListener> listeners) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationMs = openDurationMs;
+        this.halfOpenProbes = halfOpenProbes;
+        this.maxConcurrentSends = maxConcurrentSends;
+        this.maxWaitMs = maxWaitMs;
+        this.maxTopicBreakers = maxTopicBreakers;
+        this.listeners = List.copyOf(listeners);
+    }
+
+    public CircuitBreaker breaker(String broker) {
+        CircuitBreaker breaker = breakers.get(broker);
+        return breaker != null ? breaker : register(broker);
+    }
+
+    /**
+     * The breaker for one topic of the broker, or the broker's own breaker once the broker has
+     * reached its limit of topic breakers.
+     */
+    public CircuitBreaker breaker(String broker, String topic) {
+        if (topic == null) {
+            return breaker(broker);
+        }
+        String name = broker + ':' + topic;
+        CircuitBreaker breaker = breakers.get(name);
+        if (breaker != null) {
+            return breaker;
+        }
+        if (topicBreakerCounts.merge(broker, 1, Integer::sum) > maxTopicBreakers) {
+            topicBreakerCounts.merge(broker, -1, Integer::sum);
+            return breaker(broker);
+        }
+        CircuitBreaker created = newBreaker(name);
+        CircuitBreaker existing = breakers.putIfAbsent(name, created);
+        if (existing != null) {
+            // another thread registered the topic first and has already counted it
+            topicBreakerCounts.merge(broker, -1, Integer::sum);
+            return existing;
+        }
+        notifier.onCreated(created);
+        return created;
+    }
+
+    public Bulkhead bulkhead(String broker) {
+        return bulkheads.computeIfAbsent(broker, name -> new Bulkhead(name, maxConcurrentSends, maxWaitMs));
+    }
+
+    public Collection<CircuitBreaker> breakers() {
+        return Collections.unmodifiableCollection(breakers.values());
+    }
+
+    /**
+     * Reports a send rejected by the named breaker or bulkhead to the listeners.
+     */
+    public void onRejected(String name, PublishRejectedException.Reason reason) {
+        notifier.onRejected(name, reason);
+    }
+
+    /**
+     * Registers a new breaker unless another thread got there first; only the registered one is announced.
+     */
+    private CircuitBreaker register(String name) {
+        CircuitBreaker created = newBreaker(name);
+        CircuitBreaker existing = breakers.putIfAbsent(name, created);
+        if (existing != null) {
+            return existing;
+        }
+        notifier.onCreated(created);
+        return created;
+    }
+
+    private CircuitBreaker newBreaker(String name) {
+        return new CircuitBreaker(name, failureThreshold, openDurationMs, halfOpenProbes, notifier);
+    }
+
+    /**
+     * Logs transitions and passes every notification on to the listeners.
+     */
+    private class Notifier implements CircuitBreakerListener {
+
+        @Override
+        public void onCreated(CircuitBreaker breaker) {
+            for (CircuitBreakerListener listener : listeners) {
+                listener.onCreated(breaker);
+            }
+        }
+
+        @Override
+        public void onStateTransition(CircuitStateChangedEvent event) {
+            if (event.getTo() == CircuitState.OPEN) {
+                log.warn("Circuit {} opened after repeated send failures, sends are rejected for {} ms",
+                        event.getName(), openDurationMs);
+            } else {
+                log.info("Circuit {} changed from {} to {}", event.getName(), event.getFrom(), event.getTo());
+            }
+            for (CircuitBreakerListener listener : listeners) {
+                listener.onStateTransition(event);
+            }
+        }
+
+        @Override
+        public void onRejected(String name, PublishRejectedException.Reason reason) {
+            for (CircuitBreakerListener listener : listeners) {
+                listener.onRejected(name, reason);
+            }
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package io.github.codestring.aegisbugle.application.core.breaker;
+
+import io.github.codestring.aegisbugle.application.core.model.AlertEnvelope;
+import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import io.github.codestring.aegisbugle.application.core.model.BatchItemResult;
+import io.github.codestring.aegisbugle.application.core.model.BatchPublishResult;
+import io.github.codestring.aegisbugle.application.core.model.DeliveryReceipt;
+import io.github.codestring.aegisbugle.application.core.model.FailureMessage;
+import io.github.codestring.aegisbugle.application.core.retry.RetryableErrorClassifier;
+import io.github.codestring.aegisbugle.application.port.out.BuglePublisher;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * CircuitBreakingBuglePublisher guards one broker publisher with circuit breakers and a bulkhead, so a
+ * sick broker costs callers nothing instead of a full client timeout per alert.
+ * <p>
+ * Behaviour:
+ * - A send needs a permit from the broker's breaker, from the topic's breaker and from the broker's
+ *   {@link Bulkhead}. Without all three it is rejected at once with a {@link PublishRejectedException}, or
+ *   handed to the fallback publisher when one is configured.
+ * - Errors the {@link RetryableErrorClassifier} accepts count as broker failures. Other errors, such as
+ *   invalid or unserializable alerts, say nothing about the broker and leave the breakers unchanged.
+ * - Asynchronous sends hold their bulkhead slot until their future completes; synchronous sends until
+ *   the delegate returns.
+ * - A batch needs a single permit and counts as a failure if any of its items failed with a broker error.
+ */
+@Slf4j
+public class CircuitBreakingBuglePublisher implements BuglePublisher {
+
+    private final BuglePublisher delegate;
+    private final String broker;
+    private final CircuitBreakerRegistry registry;
+    private final RetryableErrorClassifier classifier;
+    /** Takes rejected sends; null fails them with a PublishRejectedException. */
+    private final BuglePublisher fallback;
+    private final CircuitBreaker brokerBreaker;
+    private final Bulkhead bulkhead;
+
+    public CircuitBreakingBuglePublisher(BuglePublisher delegate, String broker, CircuitBreakerRegistry registry,
+                                         RetryableErrorClassifier classifier, BuglePublisher fallback) {
+        this.delegate = delegate;
+        this.broker = broker;
+        this.registry = registry;
+        this.classifier = classifier;
+        this.fallback = fallback;
+        this.brokerBreaker = registry.breaker(broker);
+        this.bulkhead = registry.bulkhead(broker);
+    }
+
+    @Override
+    public void sendAlert(AlertEvent event, String topic) {
+        guard(topic, () -> delegate.sendAlert(event, topic), publisher -> publisher.sendAlert(event, topic));
+    }
+
+    @Override
+    public <T> void sendAlert(T event, String topic) {
+        guard(topic, () -> delegate.sendAlert(event, topic), publisher -> publisher.sendAlert(event, topic));
+    }
+
+    @Override
+    public void sendEnvelope(AlertEnvelope envelope, String topic) {
+        guard(topic, () -> delegate.sendEnvelope(envelope, topic), publisher -> publisher.sendEnvelope(envelope, topic));
+    }
+
+    @Override
+    public CompletableFuture<DeliveryReceipt> sendAlertAsync(AlertEvent event, String topic) {
+        return guardAsync(topic, () -> delegate.sendAlertAsync(event, topic),
+                publisher -> publisher.sendAlertAsync(event, topic));
+    }
+
+    @Override
+    public <T> CompletableFuture<DeliveryReceipt> sendAlertAsync(T event, String topic) {
+        return guardAsync(topic, () -> delegate.sendAlertAsync(event, topic),
+                publisher -> publisher.sendAlertAsync(event, topic));
+    }
+
+    @Override
+    public CompletableFuture<DeliveryReceipt> sendEnvelopeAsync(AlertEnvelope envelope, String topic) {
+        return guardAsync(topic, () -> delegate.sendEnvelopeAsync(envelope, topic),
+                publisher -> publisher.sendEnvelopeAsync(envelope, topic));
+    }
+
+    @Override
+    public CompletableFuture<DeliveryReceipt> sendFailureAsync(FailureMessage failure, String destination) {
+        return guardAsync(destination, () -> delegate.sendFailureAsync(failure, destination),
+                publisher -> publisher.sendFailureAsync(failure, destination));
+    }
+
+    @Override
+    public BatchPublishResult sendAlerts(Collection<AlertEvent> events, String topic) {
+        CircuitBreaker topicBreaker = registry.breaker(broker, topic);
+        PublishRejectedException rejection = acquire(topicBreaker);
+        if (rejection != null) {
+            if (fallback != null) {
+                return fallback.sendAlerts(events, topic);
+            }
+            List<BatchItemResult> items = new ArrayList<>(events.size());
+            int index = 0;
+            for (AlertEvent event : events) {
+                items.add(BatchItemResult.failure(index++, event.getAlertId(), rejection));
+            }
+            return new BatchPublishResult(items);
+        }
+        BatchPublishResult result;
+        try {
+            result = delegate.sendAlerts(events, topic);
+        } catch (RuntimeException e) {
+            complete(topicBreaker, e);
+            throw e;
+        }
+        Throwable brokerError = result.getFailures().stream()
+                .map(BatchItemResult::getError)
+                .filter(classifier::isRetryable)
+                .findFirst()
+                .orElse(null);
+        complete(topicBreaker, brokerError);
+        return result;
+    }
+
+    private void guard(String topic, Runnable send, Consumer<BuglePublisher> fallbackSend) {
+        CircuitBreaker topicBreaker = registry.breaker(broker, topic);
+        PublishRejectedException rejection = acquire(topicBreaker);
+        if (rejection != null) {
+            if (fallback == null) {
+                throw rejection;
+            }
+            fallbackSend.accept(fallback);
+            return;
+        }
+        try {
+            send.run();
+        } catch (RuntimeException e) {
+            complete(topicBreaker, e);
+            throw e;
+        }
+        complete(topicBreaker, null);
+    }
+
+    private CompletableFuture<DeliveryReceipt> guardAsync(String topic, Supplier<CompletableFuture<DeliveryReceipt>> send,
+                                                          Function<BuglePublisher, CompletableFuture<DeliveryReceipt>> fallbackSend) {
+        CircuitBreaker topicBreaker = registry.breaker(broker, topic);
+        PublishRejectedException rejection = acquire(topicBreaker);
+        if (rejection != null) {
+            return fallback == null ? CompletableFuture.failedFuture(rejection) : fallbackSend.apply(fallback);
+        }
+        CompletableFuture<DeliveryReceipt> sent;
+        try {
+            sent = send.get();
+        } catch (RuntimeException e) {
+            sent = CompletableFuture.failedFuture(e);
+        }
+        return sent.whenComplete((receipt, error) -> complete(topicBreaker, error));
+    }
+
+    /**
+     * Takes the broker, topic and bulkhead permits, giving back those already taken when a later one is refused.
+     *
+     * @return null when the send may go ahead, otherwise the reason it may not
+     */
+    private PublishRejectedException acquire(CircuitBreaker topicBreaker) {
+        if (!brokerBreaker.tryAcquire()) {
+            return reject(brokerBreaker.getName(), PublishRejectedException.Reason.CIRCUIT_OPEN);
+        }
+        if (topicBreaker != brokerBreaker && !topicBreaker.tryAcquire()) {
+            brokerBreaker.release();
+            return reject(topicBreaker.getName(), PublishRejectedException.Reason.CIRCUIT_OPEN);
+        }
+        if (!bulkhead.tryAcquire()) {
+            brokerBreaker.release();
+            if (topicBreaker != brokerBreaker) {
+                topicBreaker.release();
+            }
+            return reject(bulkhead.getName(), PublishRejectedException.Reason.BULKHEAD_FULL);
+        }
+        return null;
+    }
+
+    private PublishRejectedException reject(String name, PublishRejectedException.Reason reason) {
+        registry.onRejected(name, reason);
+        log.debug("Send to {} rejected: {}", name, reason);
+        return new PublishRejectedException(name, reason);
+    }
+
+    private void complete(CircuitBreaker topicBreaker, Throwable error) {
+        bulkhead.release();
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause == null) {
+            brokerBreaker.onSuccess();
+            if (topicBreaker != brokerBreaker) {
+                topicBreaker.onSuccess();
+            }
+        } else if (classifier.isRetryable(cause)) {
+            brokerBreaker.onFailure();
+            if (topicBreaker != brokerBreaker) {
+                topicBreaker.onFailure();
+            }
+        } else {
+            brokerBreaker.release();
+            if (topicBreaker != brokerBreaker) {
+                topicBreaker.release();
+            }
+        }
+    }
+}
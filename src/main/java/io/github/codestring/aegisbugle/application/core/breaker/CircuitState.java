@@ -0,0 +1,13 @@
+package io.github.codestring.aegisbugle.application.core.breaker;
+
+/**
+ * State of a {@link CircuitBreaker}, ordered by severity so the ordinal can be exported as a gauge.
+ */
+public enum CircuitState {
+    /** Sends pass through; consecutive failures are counted. */
+    CLOSED,
+    /** A limited number of probe sends decide whether the circuit closes or opens again. */
+    HALF_OPEN,
+    /** Sends are rejected until the open duration has elapsed. */
+    OPEN
+}
@@ -0,0 +1,21 @@
+package io.github.codestring.aegisbugle.application.core.breaker;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * Published whenever a circuit breaker changes state. Within Spring it is also available as an application event.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CircuitStateChangedEvent {
+    /** Breaker name: the broker, or broker and topic separated by a colon. */
+    private final String name;
+    private final CircuitState from;
+    private final CircuitState to;
+    private final Instant timestamp;
+}
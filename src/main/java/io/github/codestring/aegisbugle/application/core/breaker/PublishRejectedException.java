@@ -0,0 +1,27 @@
+package io.github.codestring.aegisbugle.application.core.breaker;
+
+import io.github.codestring.aegisbugle.application.core.PublishException;
+import lombok.Getter;
+
+/**
+ * A send rejected before it reached the broker, because its circuit is open or the broker's bulkhead is full.
+ */
+@Getter
+public class PublishRejectedException extends PublishException {
+
+    public enum Reason {
+        CIRCUIT_OPEN,
+        BULKHEAD_FULL
+    }
+
+    private final String breakerName;
+    private final Reason reason;
+
+    public PublishRejectedException(String breakerName, Reason reason) {
+        super(reason == Reason.CIRCUIT_OPEN
+                ? "Circuit " + breakerName + " is open, alert was not sent"
+                : "Too many sends in flight to " + breakerName + ", alert was not sent");
+        this.breakerName = breakerName;
+        this.reason = reason;
+    }
+}
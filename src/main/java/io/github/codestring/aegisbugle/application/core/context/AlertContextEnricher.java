@@ -0,0 +1,88 @@
+package io.github.codestring.aegisbugle.application.core.context;
+
+import io.github.codestring.aegisbugle.application.core.model.AlertContext;
+import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import io.github.codestring.aegisbugle.config.BugleProperties;
+import org.apache.commons.lang3.StringUtils;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * AlertContextEnricher stamps every alert with the static context of the service that raises it.
+ * <p>
+ * Behaviour:
+ * - Sets the service name and environment, and the {@link AlertContext} if one is given.
+ * - Everything is resolved once, when the enricher is created, and every alert gets the very same
+ *   instances. The JSON writer recognizes them, encodes them once and splices the encoded bytes into
+ *   each payload instead of writing the fields again.
+ */
+public class AlertContextEnricher {
+
+    private final String serviceName;
+    private final String environment;
+    private final AlertContext context;
+
+    /**
+     * @param context added to every alert; null adds none
+     */
+    public AlertContextEnricher(String serviceName, String environment, AlertContext context) {
+        this.serviceName = serviceName;
+        this.environment = environment;
+        this.context = context;
+    }
+
+    /**
+     * Enricher for the configured service name and environment, with the context of this process if
+     * {@code aegis.bugle.context.enabled} is set.
+     *
+     * @param buildVersion version of the application build, used unless one is configured; may be null
+     */
+    public static AlertContextEnricher from(BugleProperties properties, String buildVersion) {
+        BugleProperties.Context context = properties.getContext();
+        return new AlertContextEnricher(properties.getServiceName(),
+                properties.getEnvironment() == null ? null : properties.getEnvironment().name(),
+                context.isEnabled() ? resolveContext(context, buildVersion, System.getenv()) : null);
+    }
+
+    /**
+     * Resolves the context of this process. Configured values win; the others are taken from the
+     * environment variables, the local host name and the running JVM.
+     */
+    public static AlertContext resolveContext(BugleProperties.Context properties, String buildVersion,
+                                              Map<String, String> environment) {
+        String host = StringUtils.firstNonBlank(properties.getHost(), environment.get("HOSTNAME"),
+                environment.get("COMPUTERNAME"));
+        String pod = StringUtils.firstNonBlank(properties.getPod(), environment.get("POD_NAME"),
+                environment.containsKey("KUBERNETES_SERVICE_HOST") ? environment.get("HOSTNAME") : null);
+        return AlertContext.builder()
+                .host(host == null ? localHostName() : host)
+                .pod(pod)
+                .instanceId(StringUtils.firstNonBlank(properties.getInstanceId(), UUID.randomUUID().toString()))
+                .buildVersion(StringUtils.firstNonBlank(properties.getBuildVersion(), buildVersion))
+                .jvm((System.getProperty("java.vendor", "") + " " + Runtime.version()).trim())
+                .build();
+    }
+
+    public void enrich(AlertEvent alert) {
+        alert.setServiceName(serviceName);
+        alert.setEnvironment(environment);
+        if (context != null) {
+            alert.setContext(context);
+        }
+    }
+
+    public AlertContext getContext() {
+        return context;
+    }
+
+    private static String localHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package io.github.codestring.aegisbugle.application.core.dispatch;
+
+import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import io.github.codestring.aegisbugle.application.core.model.BatchPublishResult;
+import io.github.codestring.aegisbugle.application.port.out.BuglePublisher;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * AlertDispatcher decouples callers from the broker by queueing alerts in a bounded
+ * {@link AlertRingBuffer} and publishing them from dedicated consumer threads.
+ * <p>
+ * Responsibilities:
+ * - Accepts alerts from any number of threads without locking or allocating.
+ * - Applies the configured {@link OverflowPolicy} when the buffer is full.
+ * - Drains the buffer in batches on one or more daemon consumer threads and hands each run of
+ *   alerts for the same topic to the downstream BuglePublisher as one asynchronous batch, so a consumer
+ *   never waits for broker acknowledgements or retry backoffs.
+ * - Caps the alerts submitted but not yet completed at {@code maxInFlight}; a consumer waits for earlier
+ *   batches to complete before submitting beyond it, and the buffer's overflow policy takes over.
+ * - On {@link #close()}, stops accepting alerts, publishes what is still queued, waits for the batches in
+ *   flight and stops the consumers.
+ */
+@Slf4j
+public class AlertDispatcher implements AutoCloseable {
+
+    private static final long SHUTDOWN_TIMEOUT_MS = 10000;
+
+    public static final int DEFAULT_MAX_IN_FLIGHT = 1024;
+
+    private final AlertRingBuffer ringBuffer;
+    private final BuglePublisher publisher;
+    private final WaitStrategy waitStrategy;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+    private final int batchSize;
+    private final int maxInFlight;
+    /** Free slots for alerts submitted to the publisher whose outcome is still pending. */
+    private final Semaphore inFlight;
+    private final List<Thread> consumers = new ArrayList<>();
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean running = true;
+
+    public AlertDispatcher(BuglePublisher publisher, int capacity, WaitStrategy waitStrategy,
+                           OverflowPolicy overflowPolicy, long blockTimeoutMs, int consumerThreads, int batchSize) {
+        this(publisher, capacity, waitStrategy, overflowPolicy, blockTimeoutMs, consumerThreads, batchSize,
+                Math.max(batchSize, DEFAULT_MAX_IN_FLIGHT));
+    }
+
+    /**
+     * @param maxInFlight most alerts submitted to the publisher and not yet completed; at least batchSize
+     */
+    public AlertDispatcher(BuglePublisher publisher, int capacity, WaitStrategy waitStrategy,
+                           OverflowPolicy overflowPolicy, long blockTimeoutMs, int consumerThreads, int batchSize,
+                           int maxInFlight) {
+        if (consumerThreads < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("consumerThreads and batchSize must be at least 1");
+        }
+        if (maxInFlight < batchSize) {
+            throw new IllegalArgumentException("maxInFlight must be at least batchSize");
+        }
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.ringBuffer = new AlertRingBuffer(capacity);
+        this.publisher = publisher;
+        this.waitStrategy = waitStrategy;
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs);
+        this.batchSize = batchSize;
+        for (int i = 0; i < consumerThreads; i++) {
+            Thread consumer = new Thread(this::consume, "aegis-bugle-dispatcher-" + i);
+            consumer.setDaemon(true);
+            consumers.add(consumer);
+            consumer.start();
+        }
+    }
+
+    /**
+     * Queues an alert for publication.
+     *
+     * @param event the alert to publish
+     * @param topic the destination topic
+     * @return true if the alert was queued, false if it was dropped by the overflow policy
+     */
+    public boolean dispatch(AlertEvent event, String topic) {
+        if (!running) {
+            dropped.increment();
+            return false;
+        }
+        if (ringBuffer.offer(event, topic)) {
+            return true;
+        }
+        return switch (overflowPolicy) {
+            case DROP_NEWEST -> drop();
+            case DROP_OLDEST -> offerDroppingOldest(event, topic);
+            case BLOCK -> offerBlocking(event, topic);
+        };
+    }
+
+    private boolean offerDroppingOldest(AlertEvent event, String topic) {
+        while (!ringBuffer.offer(event, topic)) {
+            if (ringBuffer.discardOldest()) {
+                dropped.increment();
+            }
+        }
+        return true;
+    }
+
+    private boolean offerBlocking(AlertEvent event, String topic) {
+        long deadline = System.nanoTime() + blockTimeoutNanos;
+        int attempt = 0;
+        while (System.nanoTime() - deadline < 0) {
+            attempt = waitStrategy.idle(attempt);
+            if (ringBuffer.offer(event, topic)) {
+                return true;
+            }
+        }
+        return drop();
+    }
+
+    private boolean drop() {
+        dropped.increment();
+        return false;
+    }
+
+    private void consume() {
+        AlertEvent[] events = new AlertEvent[batchSize];
+        String[] topics = new String[batchSize];
+        int idle = 0;
+        while (running || ringBuffer.size() > 0) {
+            int drained = ringBuffer.drainTo(events, topics, batchSize);
+            if (drained == 0) {
+                if (!running) {
+                    break;
+                }
+                idle = waitStrategy.idle(idle);
+                continue;
+            }
+            idle = 0;
+            publishBatch(events, topics, drained);
+        }
+    }
+
+    private void publishBatch(AlertEvent[] events, String[] topics, int count) {
+        int runStart = 0;
+        for (int i = 1; i <= count; i++) {
+            if (i == count || !Objects.equals(topics[i], topics[runStart])) {
+                publishRun(events, topics[runStart], runStart, i);
+                runStart = i;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            events[i] = null;
+            topics[i] = null;
+        }
+    }
+
+    private void publishRun(AlertEvent[] events, String topic, int from, int to) {
+        int count = to - from;
+        inFlight.acquireUninterruptibly(count);
+        CompletableFuture<BatchPublishResult> sent;
+        try {
+            sent = publisher.sendAlertsAsync(new ArrayList<>(Arrays.asList(events).subList(from, to)), topic);
+        } catch (RuntimeException e) {
+            sent = CompletableFuture.failedFuture(e);
+        }
+        sent.whenComplete((result, error) -> {
+            inFlight.release(count);
+            if (error != null) {
+                log.error("Failed to publish dispatched alerts to topic {}", topic, error);
+            } else if (!result.isAllSucceeded()) {
+                log.error("Failed to publish {} of {} dispatched alerts to topic {}",
+                        result.failureCount(), result.size(), topic, result.getFailures().get(0).getError());
+            }
+        });
+    }
+
+    /**
+     * Number of alerts currently waiting in the buffer.
+     */
+    public int queueDepth() {
+        return ringBuffer.size();
+    }
+
+    public int capacity() {
+        return ringBuffer.capacity();
+    }
+
+    /**
+     * Number of alerts submitted to the publisher whose outcome is still pending.
+     */
+    public int inFlightCount() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    /**
+     * Total number of alerts discarded by the overflow policy or after shutdown.
+     */
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        long deadline = System.currentTimeMillis() + SHUTDOWN_TIMEOUT_MS;
+        for (Thread consumer : consumers) {
+            try {
+                consumer.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        if (ringBuffer.size() > 0) {
+            log.warn("Alert dispatcher stopped with {} alerts still queued", ringBuffer.size());
+        }
+        try {
+            if (inFlight.tryAcquire(maxInFlight, Math.max(1, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS)) {
+                inFlight.release(maxInFlight);
+            } else {
+                log.warn("Alert dispatcher stopped with {} alerts still in flight", inFlightCount());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package io.github.codestring.aegisbugle.application.core.dispatch;
+
+import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded, lock-free, multi-producer multi-consumer queue of (alert, topic) pairs.
+ * <p>
+ * All slots are allocated up front. Each slot carries a sequence number that tells producers
+ * and consumers whose turn it is, so enqueueing is a single CAS on the tail cursor followed by
+ * plain slot writes published through the slot's sequence. Neither side allocates.
+ * <p>
+ * The capacity is rounded up to the next power of two.
+ */
+final class AlertRingBuffer {
+
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final AlertEvent[] events;
+    private final String[] topics;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    AlertRingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 2) {
+            throw new IllegalArgumentException("capacity must be at least 2");
+        }
+        int capacity = Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.mask = capacity - 1;
+        this.sequences = new AtomicLongArray(capacity);
+        this.events = new AlertEvent[capacity];
+        this.topics = new String[capacity];
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Enqueues the alert if there is space.
+     *
+     * @return false if the buffer is full
+     */
+    boolean offer(AlertEvent event, String topic) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    events[index] = event;
+                    topics[index] = topic;
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Moves up to {@code max} queued alerts into the given arrays, oldest first.
+     *
+     * @return the number of alerts moved
+     */
+    int drainTo(AlertEvent[] eventsOut, String[] topicsOut, int max) {
+        int count = 0;
+        while (count < max && poll(eventsOut, topicsOut, count)) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Removes and discards the oldest queued alert.
+     *
+     * @return false if the buffer was empty
+     */
+    boolean discardOldest() {
+        return poll(null, null, 0);
+    }
+
+    private boolean poll(AlertEvent[] eventsOut, String[] topicsOut, int outIndex) {
+        long position = head.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    if (eventsOut != null) {
+                        eventsOut[outIndex] = events[index];
+                        topicsOut[outIndex] = topics[index];
+                    }
+                    events[index] = null;
+                    topics[index] = null;
+                    sequences.set(index, position + mask + 1);
+                    return true;
+                }
+                position = head.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
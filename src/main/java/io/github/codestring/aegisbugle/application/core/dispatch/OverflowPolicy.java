@@ -0,0 +1,14 @@
+package io.github.codestring.aegisbugle.application.core.dispatch;
+
+/**
+ * What the dispatcher does with a new alert when its ring buffer is full.
+ * <p>
+ * - DROP_OLDEST: discards the oldest queued alert to make room for the new one.
+ * - DROP_NEWEST: discards the new alert and leaves the queue untouched.
+ * - BLOCK: waits up to the configured block timeout for space, then discards the new alert.
+ */
+public enum OverflowPolicy {
+    DROP_OLDEST,
+    DROP_NEWEST,
+    BLOCK
+}
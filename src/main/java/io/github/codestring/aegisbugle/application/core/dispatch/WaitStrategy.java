@@ -0,0 +1,54 @@
+package io.github.codestring.aegisbugle.application.core.dispatch;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How a thread waits while the alert ring buffer is empty (consumers) or full (blocking producers).
+ * <p>
+ * - BUSY_SPIN: lowest latency, burns a core per waiting thread.
+ * - YIELDING: spins briefly, then yields the CPU between checks.
+ * - SLEEPING: spins, yields, then parks, backing off from 100 µs to 1 ms per check; the default and the
+ *   cheapest when idle, at the cost of up to a millisecond before an idle consumer sees a new alert.
+ */
+public enum WaitStrategy {
+    BUSY_SPIN,
+    YIELDING,
+    SLEEPING;
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 200;
+    private static final long MIN_PARK_NANOS = 100_000L;
+    private static final long MAX_PARK_NANOS = 1_000_000L;
+    /** Attempts after which every strategy waits the same way, so counting further is pointless. */
+    private static final int LAST_ATTEMPT = YIELD_TRIES + 4;
+
+    /**
+     * Waits once.
+     *
+     * @param attempt number of consecutive unsuccessful attempts so far, starting at 0
+     * @return the attempt number to pass next time; it stops growing once waiting no longer changes, so it
+     * cannot overflow however long the thread stays idle
+     */
+    int idle(int attempt) {
+        switch (this) {
+            case BUSY_SPIN -> Thread.onSpinWait();
+            case YIELDING -> {
+                if (attempt < SPIN_TRIES) {
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+            case SLEEPING -> {
+                if (attempt < SPIN_TRIES) {
+                    Thread.onSpinWait();
+                } else if (attempt < YIELD_TRIES) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(Math.min(MIN_PARK_NANOS << (attempt - YIELD_TRIES), MAX_PARK_NANOS));
+                }
+            }
+        }
+        return attempt < LAST_ATTEMPT ? attempt + 1 : attempt;
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.codestring.aegisbugle.application.core.fingerprint;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Counts occurrences of stack trace fingerprints within a time window.
+ * <p>
+ * The first occurrence of a fingerprint opens a window of {@code ttlMs}; later occurrences inside
+ * it only increment the counter. Once the window has passed, the next occurrence opens a new one
+ * and counts as a first occurrence again, so the full trace is shipped at least once per window.
+ * <p>
+ * At most {@code maxEntries} fingerprints are tracked. When the cache is full, expired windows are
+ * purged first and then the oldest windows are dropped; a dropped fingerprint simply counts as new
+ * the next time it is seen.
+ */
+public class StackTraceDeduplicator {
+
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier clock;
+
+    public StackTraceDeduplicator(long ttlMs, int maxEntries) {
+        this(ttlMs, maxEntries, System::nanoTime);
+    }
+
+    StackTraceDeduplicator(long ttlMs, int maxEntries, LongSupplier clock) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    /**
+     * Records an occurrence of the fingerprint.
+     *
+     * @return the occurrence number within the current window, starting at 1
+     */
+    public long record(String fingerprint) {
+        long now = clock.getAsLong();
+        Window window = windows.compute(fingerprint, (key, existing) ->
+                existing == null || now - existing.openedAt >= ttlNanos ? new Window(now) : existing);
+        long occurrence = window.count.incrementAndGet();
+        if (occurrence == 1 && windows.size() > maxEntries) {
+            evict(now);
+        }
+        return occurrence;
+    }
+
+    public int size() {
+        return windows.size();
+    }
+
+    private void evict(long now) {
+        windows.values().removeIf(window -> now - window.openedAt >= ttlNanos);
+        while (windows.size() > maxEntries) {
+            String oldestKey = null;
+            long oldestAge = -1;
+            for (Map.Entry<String, Window> entry : windows.entrySet()) {
+                long age = now - entry.getValue().openedAt;
+                if (age > oldestAge) {
+                    oldestAge = age;
+                    oldestKey = entry.getKey();
+                }
+            }
+            if (oldestKey == null) {
+                return;
+            }
+            windows.remove(oldestKey);
+        }
+    }
+
+    private static final class Window {
+        private final long openedAt;
+        private final AtomicLong count = new AtomicLong();
+
+        private Window(long openedAt) {
+            this.openedAt = openedAt;
+        }
+    }
+}
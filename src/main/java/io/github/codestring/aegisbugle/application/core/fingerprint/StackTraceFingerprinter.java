@@ -0,0 +1,93 @@
+package io.github.codestring.aegisbugle.application.core.fingerprint;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.regex.Pattern;
+
+/**
+ * Computes a stable fingerprint of a rendered Java stack trace.
+ * <p>
+ * Only the frames ({@code at ...} lines) and the exception types of {@code Caused by:} lines take
+ * part; exception messages are ignored because they usually carry ids and values. Each frame is
+ * normalized before hashing:
+ * - line numbers are dropped, so redeploys with shifted lines keep the same fingerprint;
+ * - generated class names (lambdas, JDK proxies, CGLIB and ByteBuddy subclasses, reflection
+ *   accessors) lose their per-run suffixes;
+ * - module and class loader prefixes such as {@code java.base/} are removed.
+ * <p>
+ * The fingerprint is the first 16 bytes of the SHA-256 of the normalized frames, in hex.
+ */
+public final class StackTraceFingerprinter {
+
+    private static final Pattern LINE_NUMBER = Pattern.compile(":\\d+\\)");
+    private static final Pattern LAMBDA = Pattern.compile("\\$\\$Lambda[$/][^.(]*");
+    private static final Pattern LAMBDA_METHOD = Pattern.compile("lambda\\$([\\w$]*?)\\$\\d+");
+    private static final Pattern PROXY = Pattern.compile("\\$Proxy\\d+");
+    private static final Pattern PROXY_PACKAGE = Pattern.compile("jdk\\.proxy\\d+");
+    private static final Pattern GENERATED_SUBCLASS =
+            Pattern.compile("\\$\\$(EnhancerBySpringCGLIB|FastClassBySpringCGLIB|SpringCGLIB|ByteBuddy|HibernateProxy)\\$\\$[\\w$]*");
+    private static final Pattern ACCESSOR = Pattern.compile("(GeneratedMethodAccessor|GeneratedConstructorAccessor|GeneratedSerializationConstructorAccessor)\\d+");
+    private static final Pattern MODULE_PREFIX = Pattern.compile("^at [\\w.@-]*/+");
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final int FINGERPRINT_BYTES = 16;
+
+    private StackTraceFingerprinter() {
+    }
+
+    /**
+     * @param stackTrace a stack trace as rendered by {@link Throwable#printStackTrace()}
+     * @return the fingerprint, or null if the trace has no frames
+     */
+    public static String fingerprint(String stackTrace) {
+        if (stackTrace == null || stackTrace.isEmpty()) {
+            return null;
+        }
+        MessageDigest digest = sha256();
+        boolean hasFrames = false;
+        for (String rawLine : stackTrace.split("\\R")) {
+            String line = normalize(rawLine.trim());
+            if (line != null) {
+                digest.update(line.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+                hasFrames = true;
+            }
+        }
+        return hasFrames ? hex(digest.digest()) : null;
+    }
+
+    static String normalize(String line) {
+        if (line.startsWith("at ")) {
+            String frame = MODULE_PREFIX.matcher(line).replaceFirst("at ");
+            frame = LINE_NUMBER.matcher(frame).replaceAll(")");
+            frame = LAMBDA.matcher(frame).replaceAll("\\$\\$Lambda");
+            frame = LAMBDA_METHOD.matcher(frame).replaceAll("lambda\\$$1");
+            frame = PROXY.matcher(frame).replaceAll("\\$Proxy");
+            frame = PROXY_PACKAGE.matcher(frame).replaceAll("jdk.proxy");
+            frame = GENERATED_SUBCLASS.matcher(frame).replaceAll("\\$\\$$1");
+            return ACCESSOR.matcher(frame).replaceAll("$1");
+        }
+        if (line.startsWith("Caused by: ")) {
+            int messageStart = line.indexOf(':', "Caused by: ".length());
+            return messageStart < 0 ? line : line.substring(0, messageStart);
+        }
+        return null;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String hex(byte[] hash) {
+        char[] chars = new char[FINGERPRINT_BYTES * 2];
+        for (int i = 0; i < FINGERPRINT_BYTES; i++) {
+            chars[i * 2] = HEX[(hash[i] >> 4) & 0xf];
+            chars[i * 2 + 1] = HEX[hash[i] & 0xf];
+        }
+        return new String(chars);
+    }
+}
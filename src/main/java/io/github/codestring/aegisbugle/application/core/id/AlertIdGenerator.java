@@ -0,0 +1,12 @@
+package io.github.codestring.aegisbugle.application.core.id;
+
+/**
+ * Generates alert ids.
+ * <p>
+ * The alert service assigns an id once per alert; publishers only generate one for alerts that
+ * arrive without it. Register a bean of this type to replace {@link MonotonicAlertIdGenerator}.
+ */
+@FunctionalInterface
+public interface AlertIdGenerator {
+    String nextId();
+}
@@ -0,0 +1,37 @@
+package io.github.codestring.aegisbugle.application.core.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+/**
+ * Where an alert was raised: the host, pod, process and build of the service instance.
+ * <p>
+ * Resolved once at startup by the {@link io.github.codestring.aegisbugle.application.core.context.AlertContextEnricher}
+ * and shared by every alert of the instance, so it is never modified.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Builder
+@ToString
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AlertContext {
+    @JsonProperty("host")
+    private String host;
+
+    /** Kubernetes pod name; absent outside Kubernetes. */
+    @JsonProperty("pod")
+    private String pod;
+
+    /** Identifies this run of the service; a new one is generated at every start unless configured. */
+    @JsonProperty("instance_id")
+    private String instanceId;
+
+    @JsonProperty("build_version")
+    private String buildVersion;
+
+    /** Vendor and version of the running JVM. */
+    @JsonProperty("jvm")
+    private String jvm;
+}
@@ -0,0 +1,203 @@
+package io.github.codestring.aegisbugle.application.core.model;
+
+import io.github.codestring.aegisbugle.application.core.id.AlertIdGenerator;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * AlertEnvelope is an immutable, thread-safe alert ready to be published.
+ * <p>
+ * The envelope takes a snapshot of an {@link AlertEvent} when it is created and never changes it
+ * afterwards; the caller's event is not touched. Its encoded payload is the event as the serializer
+ * writes it, routing key included, so an alert looks the same on the wire whether it was sent as an
+ * event or as an envelope. RabbitMQ, which addresses messages by routing key and leaves it out of the
+ * body, encodes with {@link #encodeWithoutRoutingKey(Object, Encoder)} instead of stripping it itself.
+ * <p>
+ * The encoded payload is cached on the envelope per format: the first send in a given format
+ * serializes it, every later send in that format (another destination, a retry, a different async
+ * lane) reuses the same bytes. One envelope may therefore be handed to any number of concurrent sends.
+ */
+public final class AlertEnvelope {
+
+    private static final Encoded[] NO_ENCODINGS = new Encoded[0];
+
+    /** Private snapshot of the alert; never exposed to callers. */
+    private final AlertEvent payload;
+    /** The snapshot without routing key, created on the first encoding that needs it. */
+    private volatile AlertEvent payloadWithoutRoutingKey;
+    /** Copy-on-write cache of encoded payloads; at most one entry per format and routing key inclusion. */
+    private volatile Encoded[] encodings = NO_ENCODINGS;
+
+    private AlertEnvelope(AlertEvent payload) {
+        this.payload = payload;
+    }
+
+    /**
+     * Creates an envelope from a snapshot of the event. The event must already carry an alertId.
+     *
+     * @throws IllegalArgumentException if the event has no alertId
+     */
+    public static AlertEnvelope of(AlertEvent event) {
+        if (StringUtils.isEmpty(event.getAlertId())) {
+            throw new IllegalArgumentException("An alert envelope requires an alertId");
+        }
+        return new AlertEnvelope(snapshot(event, event.getAlertId()));
+    }
+
+    /**
+     * Creates an envelope from a snapshot of the event, taking the id from the generator if the event
+     * has none. The generated id is only recorded on the envelope, not on the event.
+     */
+    public static AlertEnvelope of(AlertEvent event, AlertIdGenerator idGenerator) {
+        String alertId = StringUtils.isEmpty(event.getAlertId()) ? idGenerator.nextId() : event.getAlertId();
+        return new AlertEnvelope(snapshot(event, alertId));
+    }
+
+    public String getAlertId() {
+        return payload.getAlertId();
+    }
+
+    public String getRoutingKey() {
+        return payload.getRoutingKey();
+    }
+
+    public String getServiceName() {
+        return payload.getServiceName();
+    }
+
+    public String getErrorCode() {
+        return payload.getErrorCode();
+    }
+
+    public AlertSeverity getSeverity() {
+        return payload.getSeverity();
+    }
+
+    public String getEnvironment() {
+        return payload.getEnvironment();
+    }
+
+    public String getStackFingerprint() {
+        return payload.getStackFingerprint();
+    }
+
+    /**
+     * Returns the payload encoded by the encoder, encoding it on the first call for the given format
+     * and returning the cached bytes on later calls. Formats are compared by identity, so a format is
+     * typically the serializer instance itself.
+     * <p>
+     * Two threads encoding the same format at the same time may both run the encoder; the result is
+     * the same either way and one of them is kept. The returned array is shared and must not be modified.
+     *
+     * @param format  identifies the encoding, compared by identity
+     * @param encoder encodes the payload; it must not modify the AlertEvent it is given
+     */
+    public byte[] encode(Object format, Encoder encoder) throws IOException {
+        return encode(format, encoder, true);
+    }
+
+    /**
+     * Like {@link #encode(Object, Encoder)}, but encodes the payload without its routing key, for brokers
+     * that carry the routing key as message metadata. Both encodings of a format are cached separately.
+     */
+    public byte[] encodeWithoutRoutingKey(Object format, Encoder encoder) throws IOException {
+        return encode(format, encoder, payload.getRoutingKey() == null);
+    }
+
+    private byte[] encode(Object format, Encoder encoder, boolean withRoutingKey) throws IOException {
+        Encoded[] current = encodings;
+        for (Encoded encoded : current) {
+            if (encoded.format == format && encoded.withRoutingKey == withRoutingKey) {
+                return encoded.bytes;
+            }
+        }
+        byte[] bytes = encoder.encode(withRoutingKey ? payload : payloadWithoutRoutingKey());
+        cache(format, withRoutingKey, bytes);
+        return bytes;
+    }
+
+    private AlertEvent payloadWithoutRoutingKey() {
+        AlertEvent stripped = payloadWithoutRoutingKey;
+        if (stripped == null) {
+            stripped = snapshot(payload, payload.getAlertId());
+            stripped.setRoutingKey(null);
+            stripped.setMetadata(payload.getMetadata());
+            payloadWithoutRoutingKey = stripped;
+        }
+        return stripped;
+    }
+
+    /**
+     * Returns a new, mutable AlertEvent with the envelope's content, for APIs that still take events.
+     * Changes to it do not affect the envelope.
+     */
+    public AlertEvent toAlertEvent() {
+        AlertEvent event = snapshot(payload, payload.getAlertId());
+        if (payload.getMetadata() != null) {
+            event.setMetadata(new LinkedHashMap<>(payload.getMetadata()));
+        }
+        return event;
+    }
+
+    @Override
+    public String toString() {
+        return "AlertEnvelope(payload=" + payload + ")";
+    }
+
+    private synchronized void cache(Object format, boolean withRoutingKey, byte[] bytes) {
+        Encoded[] current = encodings;
+        for (Encoded encoded : current) {
+            if (encoded.format == format && encoded.withRoutingKey == withRoutingKey) {
+                return;
+            }
+        }
+        Encoded[] next = new Encoded[current.length + 1];
+        System.arraycopy(current, 0, next, 0, current.length);
+        next[current.length] = new Encoded(format, withRoutingKey, bytes);
+        encodings = next;
+    }
+
+    private static AlertEvent snapshot(AlertEvent event, String alertId) {
+        return AlertEvent.builder()
+                .alertId(alertId)
+                .serviceName(event.getServiceName())
+                .errorCode(event.getErrorCode())
+                .errorMessage(event.getErrorMessage())
+                .exceptionType(event.getExceptionType())
+                .stackTrace(event.getStackTrace())
+                .stackFingerprint(event.getStackFingerprint())
+                .occurrenceCount(event.getOccurrenceCount())
+                .timestamp(event.getTimestamp())
+                .severity(event.getSeverity())
+                .environment(event.getEnvironment())
+                .metadata(event.getMetadata() == null ? null
+                        : Collections.unmodifiableMap(new LinkedHashMap<>(event.getMetadata())))
+                .context(event.getContext())
+                .routingKey(event.getRoutingKey())
+                .build();
+    }
+
+    /**
+     * Encodes an alert payload into its wire representation.
+     */
+    @FunctionalInterface
+    public interface Encoder {
+        byte[] encode(AlertEvent payload) throws IOException;
+    }
+
+    private static final class Encoded {
+        private final Object format;
+        private final boolean withRoutingKey;
+        private final byte[] bytes;
+
+        private Encoded(Object format, boolean withRoutingKey, byte[] bytes) {
+            this.format = format;
+            this.withRoutingKey = withRoutingKey;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package io.github.codestring.aegisbugle.application.core.model;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.github.codestring.aegisbugle.application.core.BugleAlertException;
+import io.github.codestring.aegisbugle.application.core.id.AlertIdGenerator;
 import lombok.*;
 import org.apache.commons.lang3.StringUtils;
 
@@ -36,6 +37,14 @@ public class AlertEvent {
     @JsonProperty("stack_trace")
     private String stackTrace;
 
+    /** Normalized hash of the stack trace frames; set when stack trace fingerprinting is enabled. */
+    @JsonProperty("stack_fingerprint")
+    private String stackFingerprint;
+
+    /** Occurrence of the fingerprint within the current window; the stack trace is only sent with the first. */
+    @JsonProperty("occurrence_count")
+    private Long occurrenceCount;
+
     @JsonProperty("timestamp")
     private Instant timestamp;
 
@@ -51,6 +60,24 @@ public class AlertEvent {
     @JsonProperty("metadata")
     private Map<String, Object> metadata;
 
+    /** Host, pod, instance and build of the service that raised the alert; set when context enrichment is enabled. */
+    @JsonProperty("context")
+    private AlertContext context;
+
+    /**
+     * Assigns an id from the generator unless the alert already has one, so an alert keeps the
+     * same id across retries, spooling and replay.
+     */
+    public void ensureAlertId(AlertIdGenerator generator) {
+        if (StringUtils.isEmpty(this.alertId)) {
+            this.alertId = generator.nextId();
+        }
+    }
+
+    /**
+     * @deprecated replaced by {@link #ensureAlertId(AlertIdGenerator)}; this always regenerates the id.
+     */
+    @Deprecated
     public void setAlertId() throws BugleAlertException {
         this.alertId = generateAlertId();
     }
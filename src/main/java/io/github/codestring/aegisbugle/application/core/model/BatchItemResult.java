@@ -0,0 +1,33 @@
+package io.github.codestring.aegisbugle.application.core.model;
+
+import lombok.*;
+
+/**
+ * Outcome of a single alert within a batch publish.
+ * <p>
+ * Exactly one of receipt and error is set.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Builder
+@ToString
+public class BatchItemResult {
+    /** Position of the alert in the submitted collection. */
+    private int index;
+    private String alertId;
+    private DeliveryReceipt receipt;
+    private Throwable error;
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    public static BatchItemResult success(int index, String alertId, DeliveryReceipt receipt) {
+        return new BatchItemResult(index, alertId, receipt, null);
+    }
+
+    public static BatchItemResult failure(int index, String alertId, Throwable error) {
+        return new BatchItemResult(index, alertId, null, error);
+    }
+}
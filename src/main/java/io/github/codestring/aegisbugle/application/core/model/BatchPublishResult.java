@@ -0,0 +1,79 @@
+package io.github.codestring.aegisbugle.application.core.model;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Per-item outcomes of a batch publish, ordered by the position of each alert in the submitted collection.
+ */
+@Getter
+@ToString
+public class BatchPublishResult {
+    private final List<BatchItemResult> items;
+
+    public BatchPublishResult(List<BatchItemResult> items) {
+        List<BatchItemResult> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator.comparingInt(BatchItemResult::getIndex));
+        this.items = Collections.unmodifiableList(sorted);
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    public long successCount() {
+        return items.stream().filter(BatchItemResult::isSuccess).count();
+    }
+
+    public long failureCount() {
+        return items.size() - successCount();
+    }
+
+    public boolean isAllSucceeded() {
+        return items.stream().allMatch(BatchItemResult::isSuccess);
+    }
+
+    public List<BatchItemResult> getFailures() {
+        return items.stream().filter(item -> !item.isSuccess()).toList();
+    }
+
+    /**
+     * Collects the outcome of every send future once all of them are complete, without blocking.
+     * Futures are matched to alert ids by position.
+     *
+     * @param alertIds the alert id of each submitted alert, in submission order
+     * @param futures  the delivery future of each submitted alert, in submission order
+     */
+    public static CompletableFuture<BatchPublishResult> collect(List<String> alertIds,
+                                                                List<CompletableFuture<DeliveryReceipt>> futures) {
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .handle((done, error) -> await(alertIds, futures));
+    }
+
+    /**
+     * Waits for every send future and collects its outcome. Futures are matched to alert ids by position.
+     *
+     * @param alertIds the alert id of each submitted alert, in submission order
+     * @param futures  the delivery future of each submitted alert, in submission order
+     */
+    public static BatchPublishResult await(List<String> alertIds, List<CompletableFuture<DeliveryReceipt>> futures) {
+        List<BatchItemResult> items = new ArrayList<>(futures.size());
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                items.add(BatchItemResult.success(i, alertIds.get(i), futures.get(i).join()));
+            } catch (CompletionException e) {
+                items.add(BatchItemResult.failure(i, alertIds.get(i), e.getCause() != null ? e.getCause() : e));
+            } catch (RuntimeException e) {
+                items.add(BatchItemResult.failure(i, alertIds.get(i), e));
+            }
+        }
+        return new BatchPublishResult(items);
+    }
+}
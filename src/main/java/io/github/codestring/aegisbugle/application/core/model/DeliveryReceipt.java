@@ -0,0 +1,36 @@
+package io.github.codestring.aegisbugle.application.core.model;
+
+import lombok.*;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Broker acknowledgement for a published alert.
+ * <p>
+ * Only the coordinates the broker reports are populated: Kafka fills partition and offset,
+ * Pulsar fills messageId, RabbitMQ confirms carry neither. A spooled receipt means the broker
+ * was unavailable and the alert was written to the local spool for later replay instead. A
+ * dead-lettered receipt means delivery to the requested topic was given up and the alert was
+ * published to the failure destination, which is then the receipt's topic. payloadBytes is the
+ * size of the serialized payload handed to the broker client, when the adapter knows it.
+ * destinations is only set when the alert was fanned out to several brokers, and holds the
+ * outcome at each of them.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Builder
+@ToString
+public class DeliveryReceipt {
+    private String alertId;
+    private String topic;
+    private Integer partition;
+    private Long offset;
+    private String messageId;
+    private Duration latency;
+    private Integer payloadBytes;
+    private boolean spooled;
+    private boolean deadLettered;
+    private List<DestinationResult> destinations;
+}
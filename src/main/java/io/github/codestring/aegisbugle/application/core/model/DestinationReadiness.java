@@ -0,0 +1,37 @@
+package io.github.codestring.aegisbugle.application.core.model;
+
+import lombok.*;
+
+import java.time.Duration;
+
+/**
+ * Outcome of warming up one broker destination at startup.
+ * <p>
+ * A destination that is not ready has an error, which is a timeout if warming it up took too long.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Builder
+@ToString
+public class DestinationReadiness {
+    /** Broker of the destination; null when no broker is configured. */
+    private BrokerType broker;
+    /** Topic, or RabbitMQ exchange, that was warmed up. */
+    private String destination;
+    private Duration duration;
+    private Throwable error;
+
+    public boolean isReady() {
+        return error == null;
+    }
+
+    public static DestinationReadiness ready(BrokerType broker, String destination, Duration duration) {
+        return new DestinationReadiness(broker, destination, duration, null);
+    }
+
+    public static DestinationReadiness notReady(BrokerType broker, String destination, Duration duration,
+                                                Throwable error) {
+        return new DestinationReadiness(broker, destination, duration, error);
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.codestring.aegisbugle.application.core.model;
+
+import lombok.*;
+
+/**
+ * Outcome of an alert at one broker destination when it is fanned out to several brokers.
+ * <p>
+ * Exactly one of receipt and error is set.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Builder
+@ToString
+public class DestinationResult {
+    private BrokerType broker;
+    /** Topic, or RabbitMQ exchange, the alert was sent to on this broker. */
+    private String topic;
+    private DeliveryReceipt receipt;
+    private Throwable error;
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    public static DestinationResult success(BrokerType broker, String topic, DeliveryReceipt receipt) {
+        return new DestinationResult(broker, topic, receipt, null);
+    }
+
+    public static DestinationResult failure(BrokerType broker, String topic, Throwable error) {
+        return new DestinationResult(broker, topic, null, error);
+    }
+}
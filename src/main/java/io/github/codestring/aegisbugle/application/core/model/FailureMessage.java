@@ -13,4 +13,14 @@ public class FailureMessage {
     private String errorMessage;
     private String errorClass;
     private Long timestamp;
+
+    public static FailureMessage from(String originalDestination, Object message, Throwable error) {
+        return FailureMessage.builder()
+                .originalDestination(originalDestination)
+                .message(message)
+                .errorMessage(error.getMessage())
+                .errorClass(error.getClass().getName())
+                .timestamp(System.currentTimeMillis())
+                .build();
+    }
 }
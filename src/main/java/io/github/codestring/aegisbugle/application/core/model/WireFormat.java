@@ -0,0 +1,7 @@
+package io.github.codestring.aegisbugle.application.core.model;
+
+public enum WireFormat {
+    JSON,
+    CBOR,
+    SMILE
+}
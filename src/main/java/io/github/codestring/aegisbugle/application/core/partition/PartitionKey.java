@@ -0,0 +1,36 @@
+package io.github.codestring.aegisbugle.application.core.partition;
+
+import io.github.codestring.aegisbugle.application.core.model.AlertEnvelope;
+import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+
+/**
+ * Built-in partition key strategies.
+ * <p>
+ * STACK_FINGERPRINT only keys alerts when stack trace fingerprinting is enabled; other alerts stay unkeyed.
+ */
+public enum PartitionKey implements PartitionKeyStrategy {
+    NONE,
+    SERVICE_NAME,
+    ERROR_CODE,
+    STACK_FINGERPRINT;
+
+    @Override
+    public String keyFor(AlertEvent event) {
+        return switch (this) {
+            case NONE -> null;
+            case SERVICE_NAME -> event.getServiceName();
+            case ERROR_CODE -> event.getErrorCode();
+            case STACK_FINGERPRINT -> event.getStackFingerprint();
+        };
+    }
+
+    @Override
+    public String keyFor(AlertEnvelope envelope) {
+        return switch (this) {
+            case NONE -> null;
+            case SERVICE_NAME -> envelope.getServiceName();
+            case ERROR_CODE -> envelope.getErrorCode();
+            case STACK_FINGERPRINT -> envelope.getStackFingerprint();
+        };
+    }
+}
@@ -0,0 +1,32 @@
+package io.github.codestring.aegisbugle.application.core.partition;
+
+import io.github.codestring.aegisbugle.application.core.model.AlertEnvelope;
+import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+
+import java.util.function.Function;
+
+/**
+ * Chooses the message key of an alert. Alerts with the same key go to the same Kafka partition and are
+ * batched together by Pulsar's key-based batcher, so their order is kept; a null key leaves the alert
+ * unkeyed and the broker spreads it freely.
+ * <p>
+ * The built-in strategies are the {@link PartitionKey} values. Register a bean of this type, e.g. from
+ * {@link #of(Function)}, to replace the configured one.
+ */
+@FunctionalInterface
+public interface PartitionKeyStrategy {
+
+    String keyFor(AlertEvent event);
+
+    /**
+     * Key of an envelope. By default the envelope is unwrapped into a copy of its alert; strategies
+     * that only need the envelope's own fields override this to skip the copy.
+     */
+    default String keyFor(AlertEnvelope envelope) {
+        return keyFor(envelope.toAlertEvent());
+    }
+
+    static PartitionKeyStrategy of(Function<AlertEvent, String> key) {
+        return key::apply;
+    }
+}
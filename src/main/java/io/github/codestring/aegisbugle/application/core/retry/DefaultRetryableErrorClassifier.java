@@ -0,0 +1,32 @@
+package io.github.codestring.aegisbugle.application.core.retry;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.github.codestring.aegisbugle.application.core.BugleAlertException;
+import io.github.codestring.aegisbugle.application.core.breaker.PublishRejectedException;
+
+/**
+ * Treats every error as retryable except those that will fail the same way on every attempt:
+ * invalid alerts, serialization errors and unsupported operations anywhere in the cause chain.
+ * <p>
+ * Sends a circuit breaker or bulkhead rejected are not retried either: the breaker already decided the
+ * broker should not be tried now, and retrying within the backoff would only be rejected again.
+ */
+public class DefaultRetryableErrorClassifier implements RetryableErrorClassifier {
+
+    @Override
+    public boolean isRetryable(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof BugleAlertException
+                    || cause instanceof PublishRejectedException
+                    || cause instanceof JsonProcessingException
+                    || cause instanceof IllegalArgumentException
+                    || cause instanceof UnsupportedOperationException) {
+                return false;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return true;
+    }
+}
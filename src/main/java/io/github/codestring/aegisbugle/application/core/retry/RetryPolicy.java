@@ -0,0 +1,36 @@
+package io.github.codestring.aegisbugle.application.core.retry;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with jitter.
+ * <p>
+ * The nominal delay before retry {@code n} (starting at 1) is
+ * {@code initialBackoffMs * multiplier^(n-1)}, capped at {@code maxBackoffMs}. The actual delay is
+ * drawn uniformly from the upper half of that window so that alerts failing together do not
+ * retry in lockstep.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class RetryPolicy {
+    private final int maxRetries;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final double multiplier;
+
+    /**
+     * @param retry the retry about to be made, starting at 1
+     * @return the delay before it, in milliseconds
+     */
+    public long backoffMillis(int retry) {
+        double nominal = initialBackoffMs * Math.pow(multiplier, retry - 1);
+        long capped = (long) Math.min(nominal, maxBackoffMs);
+        long half = capped / 2;
+        return half + ThreadLocalRandom.current().nextLong(capped - half + 1);
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.codestring.aegisbugle.application.core.retry;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shared scheduler on which all delayed retries run, so that no caller thread sleeps through a backoff.
+ * <p>
+ * Retry tasks only start an asynchronous send and return; a single thread is enough for most services.
+ * As an {@link Executor} it also runs broker callbacks that must not stay on the client's I/O thread.
+ */
+@Slf4j
+public class RetryScheduler implements Executor, AutoCloseable {
+
+    private final ScheduledExecutorService executor;
+    private final LongAdder scheduled = new LongAdder();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    public RetryScheduler(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "aegis-bugle-retry-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs the task after the given delay.
+     *
+     * @return false if the scheduler is shut down and the task will not run
+     */
+    public boolean schedule(Runnable task, long delayMs) {
+        try {
+            pending.incrementAndGet();
+            executor.schedule(() -> {
+                pending.decrementAndGet();
+                task.run();
+            }, delayMs, TimeUnit.MILLISECONDS);
+            scheduled.increment();
+            return true;
+        } catch (RuntimeException e) {
+            pending.decrementAndGet();
+            log.warn("Retry scheduler is shut down, retry not scheduled");
+            return false;
+        }
+    }
+
+    /**
+     * Runs the task as soon as a thread is free.
+     *
+     * @throws RejectedExecutionException if the scheduler is shut down
+     */
+    @Override
+    public void execute(Runnable task) {
+        executor.execute(task);
+    }
+
+    /**
+     * Number of retries waiting for their backoff to elapse.
+     */
+    public int pendingRetries() {
+        return pending.get();
+    }
+
+    /**
+     * Total number of retries scheduled since startup.
+     */
+    public long scheduledRetries() {
+        return scheduled.sum();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,11 @@
+package io.github.codestring.aegisbugle.application.core.retry;
+
+/**
+ * Decides whether a failed send is worth retrying.
+ * <p>
+ * Register a bean of this type to replace {@link DefaultRetryableErrorClassifier}.
+ */
+@FunctionalInterface
+public interface RetryableErrorClassifier {
+    boolean isRetryable(Throwable error);
+}
@@ -0,0 +1,253 @@
+package io.github.codestring.aegisbugle.application.core.retry;
+
+import io.github.codestring.aegisbugle.application.core.model.AlertEnvelope;
+import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import io.github.codestring.aegisbugle.application.core.model.BatchItemResult;
+import io.github.codestring.aegisbugle.application.core.model.BatchPublishResult;
+import io.github.codestring.aegisbugle.application.core.model.DeliveryReceipt;
+import io.github.codestring.aegisbugle.application.core.model.FailureMessage;
+import io.github.codestring.aegisbugle.application.port.out.BuglePublisher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * RetryingBuglePublisher retries failed alert sends with exponential backoff and jitter, and routes
+ * alerts it gives up on to the failure destination as a {@link FailureMessage}.
+ * <p>
+ * Behaviour:
+ * - Only errors the {@link RetryableErrorClassifier} accepts are retried, at most
+ *   {@link RetryPolicy#getMaxRetries()} times. Each retry is scheduled on the shared
+ *   {@link RetryScheduler}; no caller thread waits out a backoff.
+ * - Once retries are exhausted, or straight away for non-retryable errors, the alert is published to
+ *   the failure destination through {@link BuglePublisher#sendFailureAsync}. The async future then
+ *   completes with a dead-lettered receipt, or exceptionally with the original error if that fails too.
+ * - Synchronous sends go through the adapter's asynchronous API as well, so failures the broker reports
+ *   after the call returned, such as a failed Kafka send future or a negative RabbitMQ confirm, are
+ *   retried and routed to the failure destination like any other. The caller returns once the first
+ *   attempt is handed over; the final outcome is logged. An error the adapter throws straight away that
+ *   is not retryable, such as an invalid alert, is routed to the failure destination and rethrown.
+ * - Envelopes are retried as the same instance, so every attempt reuses the payload the adapter encoded
+ *   on the first one.
+ * - Batches retry their failed items and wait for the final outcome of each.
+ * - Generic payloads are passed through untouched.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RetryingBuglePublisher implements BuglePublisher {
+
+    private final BuglePublisher delegate;
+    private final RetryPolicy policy;
+    private final RetryableErrorClassifier classifier;
+    private final RetryScheduler scheduler;
+    /** Destination for alerts that cannot be delivered; null disables failure routing. */
+    private final String failureDestination;
+
+    @Override
+    public void sendAlert(AlertEvent event, String topic) {
+        sendSync(delivery(event), topic);
+    }
+
+    @Override
+    public void sendEnvelope(AlertEnvelope envelope, String topic) {
+        sendSync(delivery(envelope), topic);
+    }
+
+    @Override
+    public <T> void sendAlert(T event, String topic) {
+        delegate.sendAlert(event, topic);
+    }
+
+    @Override
+    public CompletableFuture<DeliveryReceipt> sendAlertAsync(AlertEvent event, String topic) {
+        CompletableFuture<DeliveryReceipt> outcome = new CompletableFuture<>();
+        attempt(delivery(event), topic, 0, outcome);
+        return outcome;
+    }
+
+    @Override
+    public CompletableFuture<DeliveryReceipt> sendEnvelopeAsync(AlertEnvelope envelope, String topic) {
+        CompletableFuture<DeliveryReceipt> outcome = new CompletableFuture<>();
+        attempt(delivery(envelope), topic, 0, outcome);
+        return outcome;
+    }
+
+    @Override
+    public <T> CompletableFuture<DeliveryReceipt> sendAlertAsync(T event, String topic) {
+        return delegate.sendAlertAsync(event, topic);
+    }
+
+    @Override
+    public BatchPublishResult sendAlerts(Collection<AlertEvent> events, String topic) {
+        List<AlertEvent> alerts = new ArrayList<>(events);
+        BatchPublishResult result = delegate.sendAlerts(alerts, topic);
+        if (result.isAllSucceeded()) {
+            return result;
+        }
+
+        List<String> alertIds = new ArrayList<>(result.size());
+        List<CompletableFuture<DeliveryReceipt>> outcomes = new ArrayList<>(result.size());
+        for (BatchItemResult item : result.getItems()) {
+            alertIds.add(item.getAlertId());
+            if (item.isSuccess()) {
+                outcomes.add(CompletableFuture.completedFuture(item.getReceipt()));
+            } else {
+                CompletableFuture<DeliveryReceipt> outcome = new CompletableFuture<>();
+                onFailure(delivery(alerts.get(item.getIndex())), topic, item.getError(), 0, outcome);
+                outcomes.add(outcome);
+            }
+        }
+        return BatchPublishResult.await(alertIds, outcomes);
+    }
+
+    @Override
+    public CompletableFuture<DeliveryReceipt> sendFailureAsync(FailureMessage failure, String destination) {
+        return delegate.sendFailureAsync(failure, destination);
+    }
+
+    private void sendSync(Delivery delivery, String topic) {
+        CompletableFuture<DeliveryReceipt> outcome = new CompletableFuture<>();
+        outcome.whenComplete((receipt, error) -> {
+            if (error != null) {
+                log.error("Alert {} for topic {} could not be delivered", delivery.alertId(), topic, error);
+            }
+        });
+        CompletableFuture<DeliveryReceipt> sent;
+        try {
+            sent = delivery.sendAsync(topic);
+        } catch (RuntimeException e) {
+            if (!classifier.isRetryable(e)) {
+                deadLetter(delivery, topic, e, new CompletableFuture<>());
+                throw e;
+            }
+            sent = CompletableFuture.failedFuture(e);
+        }
+        whenSent(delivery, topic, 0, sent, outcome);
+    }
+
+    private void attempt(Delivery delivery, String topic, int retriesDone, CompletableFuture<DeliveryReceipt> outcome) {
+        CompletableFuture<DeliveryReceipt> sent;
+        try {
+            sent = delivery.sendAsync(topic);
+        } catch (RuntimeException e) {
+            sent = CompletableFuture.failedFuture(e);
+        }
+        whenSent(delivery, topic, retriesDone, sent, outcome);
+    }
+
+    private void whenSent(Delivery delivery, String topic, int retriesDone, CompletableFuture<DeliveryReceipt> sent,
+                          CompletableFuture<DeliveryReceipt> outcome) {
+        sent.whenComplete((receipt, error) -> {
+            if (error == null) {
+                outcome.complete(receipt);
+            } else {
+                onFailure(delivery, topic, unwrap(error), retriesDone, outcome);
+            }
+        });
+    }
+
+    private void onFailure(Delivery delivery, String topic, Throwable error, int retriesDone,
+                           CompletableFuture<DeliveryReceipt> outcome) {
+        if (retriesDone < policy.getMaxRetries() && classifier.isRetryable(error)) {
+            int retry = retriesDone + 1;
+            long delay = policy.backoffMillis(retry);
+            log.debug("Send of alert {} to topic {} failed, retry {} of {} in {} ms",
+                    delivery.alertId(), topic, retry, policy.getMaxRetries(), delay);
+            if (scheduler.schedule(() -> attempt(delivery, topic, retry, outcome), delay)) {
+                return;
+            }
+        }
+        deadLetter(delivery, topic, error, outcome);
+    }
+
+    private void deadLetter(Delivery delivery, String topic, Throwable error, CompletableFuture<DeliveryReceipt> outcome) {
+        if (failureDestination == null) {
+            outcome.completeExceptionally(error);
+            return;
+        }
+        String alertId = delivery.alertId();
+        log.warn("Giving up on alert {} for topic {}, routing it to failure destination {}",
+                alertId, topic, failureDestination, error);
+        CompletableFuture<DeliveryReceipt> routed;
+        try {
+            routed = delegate.sendFailureAsync(FailureMessage.from(topic, delivery.toAlertEvent(), error), failureDestination);
+        } catch (RuntimeException e) {
+            routed = CompletableFuture.failedFuture(e);
+        }
+        routed.whenComplete((receipt, routingError) -> {
+            if (routingError != null) {
+                log.error("Failed to route alert {} to failure destination {}", alertId, failureDestination, routingError);
+                outcome.completeExceptionally(error);
+            } else {
+                outcome.complete(DeliveryReceipt.builder()
+                        .alertId(alertId)
+                        .topic(failureDestination)
+                        .partition(receipt.getPartition())
+                        .offset(receipt.getOffset())
+                        .messageId(receipt.getMessageId())
+                        .latency(receipt.getLatency())
+                        .deadLettered(true)
+                        .build());
+            }
+        });
+    }
+
+    private Delivery delivery(AlertEvent event) {
+        return new Delivery() {
+            @Override
+            public String alertId() {
+                // read on every use, since the adapter assigns a missing id on the first attempt
+                return event.getAlertId();
+            }
+
+            @Override
+            public CompletableFuture<DeliveryReceipt> sendAsync(String topic) {
+                return delegate.sendAlertAsync(event, topic);
+            }
+
+            @Override
+            public AlertEvent toAlertEvent() {
+                return event;
+            }
+        };
+    }
+
+    private Delivery delivery(AlertEnvelope envelope) {
+        return new Delivery() {
+            @Override
+            public String alertId() {
+                return envelope.getAlertId();
+            }
+
+            @Override
+            public CompletableFuture<DeliveryReceipt> sendAsync(String topic) {
+                return delegate.sendEnvelopeAsync(envelope, topic);
+            }
+
+            @Override
+            public AlertEvent toAlertEvent() {
+                return envelope.toAlertEvent();
+            }
+        };
+    }
+
+    /**
+     * An alert being delivered, sent either as a plain event or as an envelope.
+     */
+    private interface Delivery {
+        String alertId();
+
+        CompletableFuture<DeliveryReceipt> sendAsync(String topic);
+
+        AlertEvent toAlertEvent();
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
@@ -0,0 +1,48 @@
+package io.github.codestring.aegisbugle.application.core.routing;
+
+import io.github.codestring.aegisbugle.application.core.model.AlertEnvelope;
+import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import io.github.codestring.aegisbugle.application.core.model.AlertSeverity;
+import io.github.codestring.aegisbugle.application.core.model.BrokerType;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A routing rule: alerts matching its severities, error codes and environments are sent to its brokers.
+ * <p>
+ * An empty condition matches any value. A route without brokers matches alerts in order to drop them.
+ */
+@Getter
+@ToString
+public class AlertRoute {
+    private final Set<AlertSeverity> severities;
+    private final Set<String> errorCodes;
+    private final Set<String> environments;
+    private final List<BrokerType> brokers;
+
+    public AlertRoute(Collection<AlertSeverity> severities, Collection<String> errorCodes,
+                      Collection<String> environments, Collection<BrokerType> brokers) {
+        this.severities = severities == null ? Set.of() : Set.copyOf(severities);
+        this.errorCodes = errorCodes == null ? Set.of() : Set.copyOf(errorCodes);
+        this.environments = environments == null ? Set.of() : Set.copyOf(environments);
+        this.brokers = brokers == null ? List.of() : List.copyOf(brokers.stream().distinct().toList());
+    }
+
+    public boolean matches(AlertEnvelope envelope) {
+        return matches(envelope.getSeverity(), envelope.getErrorCode(), envelope.getEnvironment());
+    }
+
+    public boolean matches(AlertEvent event) {
+        return matches(event.getSeverity(), event.getErrorCode(), event.getEnvironment());
+    }
+
+    private boolean matches(AlertSeverity severity, String errorCode, String environment) {
+        return (severities.isEmpty() || severities.contains(severity))
+                && (errorCodes.isEmpty() || errorCodes.contains(errorCode))
+                && (environments.isEmpty() || environments.contains(environment));
+    }
+}
@@ -0,0 +1,254 @@
+package io.github.codestring.aegisbugle.application.core.routing;
+
+import io.github.codestring.aegisbugle.application.core.PublishException;
+import io.github.codestring.aegisbugle.application.core.id.AlertIdGenerator;
+import io.github.codestring.aegisbugle.application.core.model.AlertEnvelope;
+import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import io.github.codestring.aegisbugle.application.core.model.BatchPublishResult;
+import io.github.codestring.aegisbugle.application.core.model.BrokerType;
+import io.github.codestring.aegisbugle.application.core.model.DeliveryReceipt;
+import io.github.codestring.aegisbugle.application.core.model.DestinationResult;
+import io.github.codestring.aegisbugle.application.core.model.FailureMessage;
+import io.github.codestring.aegisbugle.application.port.out.BuglePublisher;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiFunction;
+
+/**
+ * RoutingBuglePublisher fans alerts out to the broker publishers selected by a list of {@link AlertRoute}s.
+ * <p>
+ * Behaviour:
+ * - Routes are evaluated in order; the first one matching the alert's severity, error code and
+ *   environment selects its brokers. Alerts no route matches go to the default brokers.
+ * - Every selected broker is handed the same immutable {@link AlertEnvelope} through its asynchronous
+ *   API, so the sends run concurrently and the payload is serialized once per wire format, not once per broker.
+ * - The receipt lists the outcome at each destination. It completes exceptionally only when every
+ *   destination failed; a partial failure completes normally and is reported per destination, so a
+ *   caller that retries or spools failures does not send the alert again to brokers that took it.
+ * - A broker may be given its own destination name in place of the alert's topic, such as a RabbitMQ exchange.
+ * - Synchronous sends return once every destination has been handed the alert; failures are logged.
+ * - Generic payloads and failure messages go to the default brokers.
+ */
+@Slf4j
+public class RoutingBuglePublisher implements BuglePublisher {
+
+    private final Map<BrokerType, BuglePublisher> publishers;
+    private final List<AlertRoute> routes;
+    private final List<BrokerType> defaultBrokers;
+    private final Map<BrokerType, String> topics;
+    private final AlertIdGenerator idGenerator;
+
+    /**
+     * @param publishers     the publisher of each broker alerts can be routed to
+     * @param routes         routing rules, evaluated in order
+     * @param defaultBrokers brokers for alerts no route matches; empty means every broker in publishers
+     * @param topics         destination per broker used instead of the alert's topic; brokers without
+     *                       an entry use the alert's topic
+     * @throws IllegalArgumentException if a route or the defaults name a broker without a publisher
+     */
+    public RoutingBuglePublisher(Map<BrokerType, BuglePublisher> publishers, List<AlertRoute> routes,
+                                 List<BrokerType> defaultBrokers, Map<BrokerType, String> topics,
+                                 AlertIdGenerator idGenerator) {
+        if (publishers.isEmpty()) {
+            throw new IllegalArgumentException("Routing requires at least one broker publisher");
+        }
+        this.publishers = new EnumMap<>(publishers);
+        this.routes = List.copyOf(routes);
+        this.defaultBrokers = defaultBrokers == null || defaultBrokers.isEmpty()
+                ? List.copyOf(this.publishers.keySet()) : List.copyOf(defaultBrokers.stream().distinct().toList());
+        this.topics = topics == null || topics.isEmpty() ? Map.of() : new EnumMap<>(topics);
+        this.idGenerator = idGenerator;
+        for (AlertRoute route : this.routes) {
+            requirePublishers(route.getBrokers());
+        }
+        requirePublishers(this.defaultBrokers);
+    }
+
+    /**
+     * Returns a router with the same routes whose broker publishers are replaced by the stage's result,
+     * for instance to give each broker its own retries.
+     */
+    public RoutingBuglePublisher mapPublishers(BiFunction<BrokerType, BuglePublisher, BuglePublisher> stage) {
+        Map<BrokerType, BuglePublisher> mapped = new EnumMap<>(BrokerType.class);
+        publishers.forEach((broker, publisher) -> mapped.put(broker, stage.apply(broker, publisher)));
+        return new RoutingBuglePublisher(mapped, routes, defaultBrokers, topics, idGenerator);
+    }
+
+    /**
+     * The publisher of the broker, or null if alerts cannot be routed to it.
+     */
+    public BuglePublisher publisher(BrokerType broker) {
+        return publishers.get(broker);
+    }
+
+    /**
+     * Brokers alerts can be routed to.
+     */
+    public Set<BrokerType> brokers() {
+        return Collections.unmodifiableSet(publishers.keySet());
+    }
+
+    /**
+     * Destination an alert for the topic is sent to on the broker.
+     */
+    public String destination(BrokerType broker, String topic) {
+        return topics.getOrDefault(broker, topic);
+    }
+
+    /**
+     * Brokers the alert is sent to: those of the first matching route, or the default brokers.
+     */
+    public List<BrokerType> brokersFor(AlertEnvelope envelope) {
+        for (AlertRoute route : routes) {
+            if (route.matches(envelope)) {
+                return route.getBrokers();
+            }
+        }
+        return defaultBrokers;
+    }
+
+    /**
+     * Brokers the alert would be sent to, for checking an alert before its envelope is built.
+     */
+    public List<BrokerType> brokersFor(AlertEvent event) {
+        for (AlertRoute route : routes) {
+            if (route.matches(event)) {
+                return route.getBrokers();
+            }
+        }
+        return defaultBrokers;
+    }
+
+    @Override
+    public void sendAlert(AlertEvent event, String topic) {
+        event.ensureAlertId(idGenerator);
+        sendEnvelope(AlertEnvelope.of(event), topic);
+    }
+
+    @Override
+    public <T> void sendAlert(T event, String topic) {
+        logFailure(null, topic, fanOut(defaultBrokers, null, topic,
+                (publisher, destination) -> publisher.sendAlertAsync(event, destination)));
+    }
+
+    @Override
+    public CompletableFuture<DeliveryReceipt> sendAlertAsync(AlertEvent event, String topic) {
+        event.ensureAlertId(idGenerator);
+        return sendEnvelopeAsync(AlertEnvelope.of(event), topic);
+    }
+
+    @Override
+    public <T> CompletableFuture<DeliveryReceipt> sendAlertAsync(T event, String topic) {
+        return fanOut(defaultBrokers, null, topic, (publisher, destination) -> publisher.sendAlertAsync(event, destination));
+    }
+
+    @Override
+    public void sendEnvelope(AlertEnvelope envelope, String topic) {
+        logFailure(envelope.getAlertId(), topic, sendEnvelopeAsync(envelope, topic));
+    }
+
+    @Override
+    public CompletableFuture<DeliveryReceipt> sendEnvelopeAsync(AlertEnvelope envelope, String topic) {
+        return fanOut(brokersFor(envelope), envelope.getAlertId(), topic,
+                (publisher, destination) -> publisher.sendEnvelopeAsync(envelope, destination));
+    }
+
+    /**
+     * Publishes each alert of the batch to its own route. Alerts of one batch may go to different
+     * brokers, so they are sent individually and the broker clients batch them as they arrive.
+     */
+    @Override
+    public BatchPublishResult sendAlerts(Collection<AlertEvent> events, String topic) {
+        List<String> alertIds = new ArrayList<>(events.size());
+        List<CompletableFuture<DeliveryReceipt>> futures = new ArrayList<>(events.size());
+        for (AlertEvent event : events) {
+            futures.add(sendAlertAsync(event, topic));
+            alertIds.add(event.getAlertId());
+        }
+        return BatchPublishResult.await(alertIds, futures);
+    }
+
+    @Override
+    public CompletableFuture<DeliveryReceipt> sendFailureAsync(FailureMessage failure, String destination) {
+        return fanOut(defaultBrokers, null, destination,
+                (publisher, ignored) -> publisher.sendFailureAsync(failure, destination));
+    }
+
+    /**
+     * Warms up the destination on every broker in turn, failing on the first broker that cannot be prepared.
+     */
+    @Override
+    public void warmUp(String destination, boolean verify) {
+        publishers.forEach((broker, publisher) -> publisher.warmUp(destination(broker, destination), verify));
+    }
+
+    private CompletableFuture<DeliveryReceipt> fanOut(List<BrokerType> brokers, String alertId, String topic,
+                                                      BiFunction<BuglePublisher, String, CompletableFuture<DeliveryReceipt>> send) {
+        long start = System.nanoTime();
+        List<CompletableFuture<DestinationResult>> results = new ArrayList<>(brokers.size());
+        for (BrokerType broker : brokers) {
+            String destination = destination(broker, topic);
+            CompletableFuture<DeliveryReceipt> sent;
+            try {
+                sent = send.apply(publishers.get(broker), destination);
+            } catch (RuntimeException e) {
+                sent = CompletableFuture.failedFuture(e);
+            }
+            results.add(sent.handle((receipt, error) -> error == null
+                    ? DestinationResult.success(broker, destination, receipt)
+                    : DestinationResult.failure(broker, destination, unwrap(error))));
+        }
+        return CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).thenCompose(done -> {
+            List<DestinationResult> destinations = results.stream().map(CompletableFuture::join).toList();
+            if (!destinations.isEmpty() && destinations.stream().noneMatch(DestinationResult::isSuccess)) {
+                PublishException error = new PublishException("Alert could not be delivered to any destination",
+                        destinations.get(0).getError());
+                destinations.stream().skip(1).forEach(result -> error.addSuppressed(result.getError()));
+                return CompletableFuture.failedFuture(error);
+            }
+            return CompletableFuture.completedFuture(DeliveryReceipt.builder()
+                    .alertId(alertId)
+                    .topic(topic)
+                    .latency(Duration.ofNanos(System.nanoTime() - start))
+                    .destinations(destinations)
+                    .build());
+        });
+    }
+
+    private void logFailure(String alertId, String topic, CompletableFuture<DeliveryReceipt> outcome) {
+        outcome.whenComplete((receipt, error) -> {
+            if (error != null) {
+                log.error("Alert {} for topic {} could not be delivered to any destination", alertId, topic, error);
+            } else {
+                for (DestinationResult result : receipt.getDestinations()) {
+                    if (!result.isSuccess()) {
+                        log.error("Alert {} could not be delivered to {} topic {}", alertId, result.getBroker(),
+                                result.getTopic(), result.getError());
+                    }
+                }
+            }
+        });
+    }
+
+    private void requirePublishers(List<BrokerType> brokers) {
+        for (BrokerType broker : brokers) {
+            if (!publishers.containsKey(broker)) {
+                throw new IllegalArgumentException("No publisher configured for routed broker " + broker);
+            }
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
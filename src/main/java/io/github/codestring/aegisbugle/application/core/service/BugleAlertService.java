@@ -2,59 +2,193 @@ package io.github.codestring.aegisbugle.application.core.service;
 
 import io.github.codestring.aegisbugle.adapter.out.mapper.AlertMapper;
 import io.github.codestring.aegisbugle.application.core.BugleAlertException;
+import io.github.codestring.aegisbugle.application.core.context.AlertContextEnricher;
+import io.github.codestring.aegisbugle.application.core.dispatch.AlertDispatcher;
+import io.github.codestring.aegisbugle.application.core.fingerprint.StackTraceDeduplicator;
+import io.github.codestring.aegisbugle.application.core.fingerprint.StackTraceFingerprinter;
+import io.github.codestring.aegisbugle.application.core.id.AlertIdGenerator;
+import io.github.codestring.aegisbugle.application.core.model.AlertEnvelope;
 import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import io.github.codestring.aegisbugle.application.core.model.BatchItemResult;
+import io.github.codestring.aegisbugle.application.core.model.BatchPublishResult;
 import io.github.codestring.aegisbugle.application.core.model.BrokerType;
 import io.github.codestring.aegisbugle.application.core.model.BugleEvent;
+import io.github.codestring.aegisbugle.application.core.model.DeliveryReceipt;
+import io.github.codestring.aegisbugle.application.core.routing.RoutingBuglePublisher;
 import io.github.codestring.aegisbugle.application.port.in.BugleFailureAlertUseCase;
 import io.github.codestring.aegisbugle.application.port.out.BuglePublisher;
 import io.github.codestring.aegisbugle.config.BugleProperties;
-import lombok.RequiredArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 
-@RequiredArgsConstructor
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@Slf4j
+@AllArgsConstructor
 public class BugleAlertService implements BugleFailureAlertUseCase {
 
     private final BugleProperties properties;
     private final BuglePublisher buglePublisher;
     private final AlertMapper alertMapper;
-
+    /** Optional; when present, synchronous alerts are queued instead of published on the caller's thread. */
+    private final AlertDispatcher alertDispatcher;
+    /** Optional; when present, repeated stack traces are replaced by their fingerprint and occurrence count. */
+    private final StackTraceDeduplicator stackTraceDeduplicator;
+    private final AlertIdGenerator idGenerator;
+    /** Stamps every alert with the service name, environment and optional static context. */
+    private final AlertContextEnricher contextEnricher;
+    /**
+     * Optional; when present, alerts are validated against the brokers their route selects instead of the
+     * configured broker type.
+     */
+    private final RoutingBuglePublisher router;
 
     /**
      * Raises a failure alert for the given BugleEvent.
      * <p>
      * Validates the incoming event, maps it to an AlertEvent, enriches it with
-     * service name and environment, generates a unique alertId, and publishes it
-     * to the broker using the event's topic.
+     * service name, environment and static context, generates a unique alertId, and publishes it
+     * to the broker using the event's topic as an immutable {@link AlertEnvelope}, so retries
+     * reuse the payload encoded for the first attempt. In dispatch mode the alert is queued and
+     * published by the dispatcher's consumer threads instead.
      *
      * @param event the failure event to process and publish
-     * @throws BugleAlertException if validation fails or alertId generation is invalid
+     * @throws BugleAlertException if validation fails
      */
     @Override
     public void raiseFailureAlert(BugleEvent event) throws BugleAlertException {
+        AlertEvent alert = toAlertEvent(event);
+        if (alertDispatcher == null) {
+            buglePublisher.sendEnvelope(AlertEnvelope.of(alert), event.getTopic());
+        } else if (!alertDispatcher.dispatch(alert, event.getTopic())) {
+            log.debug("Alert {} dropped, dispatch queue is full", alert.getAlertId());
+        }
+    }
+
+    /**
+     * Raises a failure alert for the given BugleEvent without blocking on the broker.
+     * <p>
+     * Validation, mapping and alertId generation happen on the calling thread exactly as in
+     * {@link #raiseFailureAlert(BugleEvent)}; delivery is reported through the returned future.
+     *
+     * @param event the failure event to process and publish
+     * @return a future completed with the broker's delivery receipt, or exceptionally with a PublishException
+     * @throws BugleAlertException if validation fails
+     */
+    @Override
+    public CompletableFuture<DeliveryReceipt> raiseFailureAlertAsync(BugleEvent event) throws BugleAlertException {
+        return buglePublisher.sendEnvelopeAsync(AlertEnvelope.of(toAlertEvent(event)), event.getTopic());
+    }
+
+    /**
+     * Raises failure alerts for many BugleEvents at once.
+     * <p>
+     * Each event is validated and mapped individually; events that fail validation are reported
+     * as failed items without affecting the others. Valid alerts are grouped by topic and each group
+     * is published with a single {@link BuglePublisher#sendAlerts} call so the broker can batch them.
+     * Batches always publish directly and bypass dispatch mode, since the caller waits for outcomes.
+     *
+     * @param events the failure events to process and publish
+     * @return per-event outcomes, indexed by each event's position in the given collection
+     */
+    @Override
+    public BatchPublishResult raiseFailureAlerts(Collection<BugleEvent> events) {
+        List<BatchItemResult> results = new ArrayList<>(events.size());
+        Map<String, List<AlertEvent>> alertsByTopic = new LinkedHashMap<>();
+        Map<String, List<Integer>> indexesByTopic = new LinkedHashMap<>();
+        int index = 0;
+        for (BugleEvent event : events) {
+            try {
+                AlertEvent alert = toAlertEvent(event);
+                alertsByTopic.computeIfAbsent(event.getTopic(), topic -> new ArrayList<>()).add(alert);
+                indexesByTopic.computeIfAbsent(event.getTopic(), topic -> new ArrayList<>()).add(index);
+            } catch (BugleAlertException e) {
+                results.add(BatchItemResult.failure(index, null, e));
+            }
+            index++;
+        }
+
+        alertsByTopic.forEach((topic, alerts) -> {
+            List<Integer> indexes = indexesByTopic.get(topic);
+            for (BatchItemResult item : buglePublisher.sendAlerts(alerts, topic).getItems()) {
+                results.add(new BatchItemResult(indexes.get(item.getIndex()), item.getAlertId(),
+                        item.getReceipt(), item.getError()));
+            }
+        });
+        return new BatchPublishResult(results);
+    }
+
+    private AlertEvent toAlertEvent(BugleEvent event) throws BugleAlertException {
         validateEventMessage(event);
 
         AlertEvent alert = alertMapper.toAlertEvent(event);
-        alert.setServiceName(properties.getServiceName());
-        alert.setAlertId();
-        alert.setEnvironment(properties.getEnvironment().name());
-        buglePublisher.sendAlert(alert, event.getTopic());
+        contextEnricher.enrich(alert);
+        validateDestination(event, alert);
+        alert.ensureAlertId(idGenerator);
+        fingerprintStackTrace(alert);
+        return alert;
+    }
+
+    /**
+     * Tags the alert with its stack trace fingerprint and occurrence count, and drops the trace
+     * itself for every occurrence after the first in the current window.
+     */
+    private void fingerprintStackTrace(AlertEvent alert) {
+        if (stackTraceDeduplicator == null) {
+            return;
+        }
+        String fingerprint = StackTraceFingerprinter.fingerprint(alert.getStackTrace());
+        if (fingerprint == null) {
+            return;
+        }
+        long occurrence = stackTraceDeduplicator.record(fingerprint);
+        alert.setStackFingerprint(fingerprint);
+        alert.setOccurrenceCount(occurrence);
+        if (occurrence > 1) {
+            alert.setStackTrace(null);
+        }
     }
 
     private void validateEventMessage(BugleEvent event) throws BugleAlertException {
-        if (!properties.getBrokerType().equals(BrokerType.RABBITMQ) || empty(event.getTopic())) {
-            throw new BugleAlertException("Invalid topic provided");
-        } else if (empty(event.getErrorCode())) {
+        if (empty(event.getErrorCode())) {
             throw new BugleAlertException("Invalid error code provided");
         } else if (empty(event.getErrorMessage())) {
             throw new BugleAlertException("Invalid error message provided");
         } else if (empty(event.getExceptionType())) {
             throw new BugleAlertException("Invalid exception type provided");
-        } else if (empty(event.getSeverity().name())) {
+        } else if (event.getSeverity() == null) {
             throw new BugleAlertException("Invalid severity provided");
-        } else if (properties.getBrokerType().equals(BrokerType.RABBITMQ) || empty(event.getExchange()) || empty(event.getRoutingKey())) {
-            throw new BugleAlertException("Invalid exchange or routing key provided");
         }
+    }
+
+    /**
+     * Checks that every broker the alert goes to can address it: RabbitMQ needs a routing key, the other
+     * brokers a topic. With routing, these are the brokers of the alert's route, which is why the
+     * check runs once the alert has its environment.
+     */
+    private void validateDestination(BugleEvent event, AlertEvent alert) throws BugleAlertException {
+        if (router == null) {
+            validateDestination(event, properties.getBrokerType(), event.getTopic());
+            return;
+        }
+        for (BrokerType broker : router.brokersFor(alert)) {
+            validateDestination(event, broker, router.destination(broker, event.getTopic()));
+        }
+    }
 
+    private void validateDestination(BugleEvent event, BrokerType broker, String topic) throws BugleAlertException {
+        if (broker != BrokerType.RABBITMQ && empty(topic)) {
+            throw new BugleAlertException("Invalid topic provided");
+        } else if (broker == BrokerType.RABBITMQ && empty(event.getRoutingKey())) {
+            // the topic is the exchange, and without one the configured default exchange is used
+            throw new BugleAlertException("Invalid routing key provided");
+        }
     }
 
     private boolean empty(String value){
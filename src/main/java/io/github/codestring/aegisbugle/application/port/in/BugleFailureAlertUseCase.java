@@ -1,8 +1,15 @@
 package io.github.codestring.aegisbugle.application.port.in;
 
 import io.github.codestring.aegisbugle.application.core.BugleAlertException;
+import io.github.codestring.aegisbugle.application.core.model.BatchPublishResult;
 import io.github.codestring.aegisbugle.application.core.model.BugleEvent;
+import io.github.codestring.aegisbugle.application.core.model.DeliveryReceipt;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 
 public interface BugleFailureAlertUseCase {
     void raiseFailureAlert(BugleEvent event) throws BugleAlertException;
+    CompletableFuture<DeliveryReceipt> raiseFailureAlertAsync(BugleEvent event) throws BugleAlertException;
+    BatchPublishResult raiseFailureAlerts(Collection<BugleEvent> events);
 }
@@ -1,8 +1,90 @@
 package io.github.codestring.aegisbugle.application.port.out;
 
+import io.github.codestring.aegisbugle.application.core.PublishException;
+import io.github.codestring.aegisbugle.application.core.model.AlertEnvelope;
 import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import io.github.codestring.aegisbugle.application.core.model.BatchPublishResult;
+import io.github.codestring.aegisbugle.application.core.model.DeliveryReceipt;
+import io.github.codestring.aegisbugle.application.core.model.FailureMessage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface BuglePublisher {
     void sendAlert(AlertEvent event, String topic);
     <T> void sendAlert(T event, String topic);
+
+    /**
+     * Publishes the alert without blocking the caller. The returned future completes with the
+     * broker's receipt once the message is acknowledged, or exceptionally with a PublishException.
+     */
+    CompletableFuture<DeliveryReceipt> sendAlertAsync(AlertEvent event, String topic);
+    <T> CompletableFuture<DeliveryReceipt> sendAlertAsync(T event, String topic);
+
+    /**
+     * Publishes an immutable alert envelope. Envelopes are never modified by publishers, so the same
+     * instance may be sent to several destinations, retried and sent from several threads at once.
+     * By default the envelope is unwrapped into a fresh AlertEvent; adapters override this to reuse
+     * the payload the envelope has already encoded.
+     */
+    default void sendEnvelope(AlertEnvelope envelope, String topic) {
+        sendAlert(envelope.toAlertEvent(), topic);
+    }
+
+    /**
+     * Asynchronous variant of {@link #sendEnvelope(AlertEnvelope, String)}, with the same contract as
+     * {@link #sendAlertAsync(AlertEvent, String)}.
+     */
+    default CompletableFuture<DeliveryReceipt> sendEnvelopeAsync(AlertEnvelope envelope, String topic) {
+        return sendAlertAsync(envelope.toAlertEvent(), topic);
+    }
+
+    /**
+     * Publishes many alerts to one topic using the broker's native batching and waits for all of
+     * them. Failures are reported per item in the result rather than thrown.
+     */
+    BatchPublishResult sendAlerts(Collection<AlertEvent> events, String topic);
+
+    /**
+     * Asynchronous variant of {@link #sendAlerts(Collection, String)}: submits every alert without waiting
+     * and completes once each of them has an outcome. By default every alert goes through
+     * {@link #sendAlertAsync(AlertEvent, String)}, so decorators retry and guard them one by one while the
+     * broker clients still batch the sends.
+     */
+    default CompletableFuture<BatchPublishResult> sendAlertsAsync(Collection<AlertEvent> events, String topic) {
+        List<String> alertIds = new ArrayList<>(events.size());
+        List<CompletableFuture<DeliveryReceipt>> futures = new ArrayList<>(events.size());
+        for (AlertEvent event : events) {
+            CompletableFuture<DeliveryReceipt> future;
+            try {
+                future = sendAlertAsync(event, topic);
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            futures.add(future);
+            alertIds.add(event.getAlertId());
+        }
+        return BatchPublishResult.collect(alertIds, futures);
+    }
+
+    /**
+     * Publishes a FailureMessage for an alert that could not be delivered to the configured failure
+     * destination. By default it is sent like any other payload with the destination as topic;
+     * brokers that address messages differently override this.
+     */
+    default CompletableFuture<DeliveryReceipt> sendFailureAsync(FailureMessage failure, String destination) {
+        return sendAlertAsync(failure, destination);
+    }
+
+    /**
+     * Prepares the destination so that the first alert sent to it does not pay for connection setup,
+     * metadata lookups or producer creation. With verify, also fails if the destination does not exist.
+     * Blocks until done; by default there is nothing to prepare.
+     *
+     * @throws PublishException if the destination cannot be prepared
+     */
+    default void warmUp(String destination, boolean verify) {
+    }
 }
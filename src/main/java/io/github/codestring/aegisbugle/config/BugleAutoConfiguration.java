@@ -3,48 +3,97 @@ package io.github.codestring.aegisbugle.config;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import io.github.codestring.aegisbugle.adapter.out.*;
+import io.github.codestring.aegisbugle.adapter.out.buffer.PayloadBufferPool;
+import io.github.codestring.aegisbugle.adapter.out.compression.PayloadCompressor;
+import io.github.codestring.aegisbugle.adapter.out.logging.LoggingPolicy;
 import io.github.codestring.aegisbugle.adapter.out.mapper.AlertMapper;
 import io.github.codestring.aegisbugle.adapter.out.mapper.AlertMapperImpl;
+import io.github.codestring.aegisbugle.adapter.out.metrics.BugleMeterBinder;
+import io.github.codestring.aegisbugle.adapter.out.metrics.CircuitBreakerMetrics;
+import io.github.codestring.aegisbugle.adapter.out.metrics.InstrumentedBuglePublisher;
+import io.github.codestring.aegisbugle.adapter.out.metrics.PublisherMetrics;
+import io.github.codestring.aegisbugle.adapter.out.serialization.AlertSerializer;
+import io.github.codestring.aegisbugle.adapter.out.serialization.AlertSerializers;
+import io.github.codestring.aegisbugle.adapter.out.spool.AlertSpool;
+import io.github.codestring.aegisbugle.adapter.out.spool.SpoolReplayer;
+import io.github.codestring.aegisbugle.adapter.out.spool.SpoolingBuglePublisher;
+import io.github.codestring.aegisbugle.adapter.out.warmup.PublisherWarmUp;
+import io.github.codestring.aegisbugle.application.core.breaker.CircuitBreakerListener;
+import io.github.codestring.aegisbugle.application.core.breaker.CircuitBreakerRegistry;
+import io.github.codestring.aegisbugle.application.core.breaker.CircuitBreakingBuglePublisher;
+import io.github.codestring.aegisbugle.application.core.breaker.CircuitStateChangedEvent;
+import io.github.codestring.aegisbugle.application.core.context.AlertContextEnricher;
+import io.github.codestring.aegisbugle.application.core.dispatch.AlertDispatcher;
+import io.github.codestring.aegisbugle.application.core.fingerprint.StackTraceDeduplicator;
+import io.github.codestring.aegisbugle.application.core.id.AlertIdGenerator;
+import io.github.codestring.aegisbugle.application.core.id.MonotonicAlertIdGenerator;
+import io.github.codestring.aegisbugle.application.core.model.BrokerType;
+import io.github.codestring.aegisbugle.application.core.partition.PartitionKey;
+import io.github.codestring.aegisbugle.application.core.partition.PartitionKeyStrategy;
+import io.github.codestring.aegisbugle.application.core.retry.DefaultRetryableErrorClassifier;
+import io.github.codestring.aegisbugle.application.core.retry.RetryPolicy;
+import io.github.codestring.aegisbugle.application.core.retry.RetryScheduler;
+import io.github.codestring.aegisbugle.application.core.retry.RetryableErrorClassifier;
+import io.github.codestring.aegisbugle.application.core.retry.RetryingBuglePublisher;
+import io.github.codestring.aegisbugle.application.core.routing.AlertRoute;
+import io.github.codestring.aegisbugle.application.core.routing.RoutingBuglePublisher;
 import io.github.codestring.aegisbugle.application.core.service.BugleAlertService;
 import io.github.codestring.aegisbugle.application.port.out.BuglePublisher;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.pulsar.client.api.CompressionType;
 import org.apache.pulsar.client.api.PulsarClient;
 import org.apache.pulsar.client.api.PulsarClientException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
-import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.info.BuildProperties;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.context.annotation.Primary;
 import org.springframework.core.annotation.Order;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.pulsar.core.PulsarTemplate;
+import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 @Slf4j
-@AutoConfiguration
+@AutoConfiguration(afterName = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
 @RequiredArgsConstructor
 @EnableConfigurationProperties(BugleProperties.class)
+@ImportRuntimeHints(BugleRuntimeHints.class)
 @ConditionalOnProperty(prefix = "aegis.bugle", name = "enabled", havingValue = "true", matchIfMissing = true)
 public class BugleAutoConfiguration {
     private final BugleProperties properties;
 
     @Bean
     @ConditionalOnClass(PulsarTemplate.class)
-    @ConditionalOnProperty(prefix = "aegis.bugle", name = "broker-type", havingValue = "pulsar")
+    @ConditionalOnBroker(BrokerType.PULSAR)
     public PulsarClient pulsarClient() throws PulsarClientException {
         log.info("Creating Pulsar client with properties {}", properties);
         return PulsarClient.builder().
@@ -57,63 +106,349 @@ public class BugleAutoConfiguration {
     }
 
     @Bean
-    public BugleAlertService alertService(BuglePublisher buglePublisher, @Autowired AlertMapper mapper){
+    public BugleAlertService alertService(BuglePublisher buglePublisher, @Autowired AlertMapper mapper,
+                                          BugleDeliveryPipeline deliveryPipeline,
+                                          ObjectProvider<AlertDispatcher> alertDispatcher,
+                                          ObjectProvider<StackTraceDeduplicator> stackTraceDeduplicator,
+                                          AlertIdGenerator alertIdGenerator,
+                                          AlertContextEnricher alertContextEnricher){
         log.info("Creating alert service with properties {}", properties);
-        return new BugleAlertService(properties, buglePublisher, mapper);
+        return new BugleAlertService(properties, deliveryPipeline.getPublisher(), mapper,
+                alertDispatcher.getIfAvailable(), stackTraceDeduplicator.getIfAvailable(), alertIdGenerator,
+                alertContextEnricher, buglePublisher instanceof RoutingBuglePublisher router ? router : null);
     }
 
     @Bean
-    @ConditionalOnProperty(prefix = "aegis.bugle", name = "broker-type", havingValue = "kafka")
-    public KafkaPublisher kafkaPublisher() {
+    @ConditionalOnMissingBean
+    public AlertContextEnricher alertContextEnricher(ObjectProvider<BuildProperties> buildProperties) {
+        BuildProperties build = buildProperties.getIfAvailable();
+        AlertContextEnricher enricher = AlertContextEnricher.from(properties, build == null ? null : build.getVersion());
+        if (enricher.getContext() != null) {
+            log.info("Aegis Bugle alerts carry the context {}", enricher.getContext());
+        }
+        return enricher;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public AlertIdGenerator alertIdGenerator() {
+        return new MonotonicAlertIdGenerator();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public PayloadBufferPool payloadBufferPool() {
+        return new PayloadBufferPool(properties.getBuffers().getMaxRetainedBytes());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public AlertSerializer alertSerializer(ObjectMapper objectMapper, PayloadBufferPool payloadBufferPool) {
+        log.info("Aegis Bugle alert payloads are encoded as {}", properties.getFormat());
+        return AlertSerializers.forFormat(properties.getFormat(), objectMapper, payloadBufferPool);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public PartitionKeyStrategy partitionKeyStrategy() {
+        return properties.getPartitionKey();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public LoggingPolicy loggingPolicy() {
+        BugleProperties.Logging logging = properties.getLogging();
+        return new LoggingPolicy(logging.isRateLimited(), logging.getIntervalMs(), logging.getMaxPerInterval(),
+                logging.getSampleRate());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "aegis.bugle.fingerprint", name = "enabled", havingValue = "true")
+    public StackTraceDeduplicator stackTraceDeduplicator() {
+        BugleProperties.Fingerprint fingerprint = properties.getFingerprint();
+        log.info("Aegis Bugle stack trace fingerprinting enabled with properties {}", fingerprint);
+        return new StackTraceDeduplicator(fingerprint.getTtlMs(), fingerprint.getMaxEntries());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "aegis.bugle.dispatch", name = "enabled", havingValue = "true")
+    public AlertDispatcher alertDispatcher(BugleDeliveryPipeline deliveryPipeline) {
+        BugleProperties.Dispatch dispatch = properties.getDispatch();
+        log.info("Aegis Bugle dispatch mode enabled with properties {}", dispatch);
+        return new AlertDispatcher(deliveryPipeline.getPublisher(), dispatch.getCapacity(), dispatch.getWaitStrategy(),
+                dispatch.getOverflowPolicy(), dispatch.getBlockTimeoutMs(), dispatch.getConsumerThreads(),
+                dispatch.getBatchSize(), dispatch.getMaxInFlight());
+    }
+
+    /**
+     * Spools alerts a broker cannot take and replays them to that broker. With routing, every routed broker
+     * has its own spool in a subdirectory named after it, so an alert is only replayed to the broker it was
+     * spooled for; each of them may grow to the configured maximum size.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "aegis.bugle.spool", name = "enabled", havingValue = "true")
+    public SpoolReplayer spoolReplayer(BuglePublisher buglePublisher, ObjectMapper objectMapper,
+                                       RetryableErrorClassifier retryClassifier) throws IOException {
+        BugleProperties.Spool spool = properties.getSpool();
+        log.info("Aegis Bugle spool enabled with properties {}", spool);
+        Path directory = Path.of(spool.getDirectory());
+        Map<String, AlertSpool> spools = new LinkedHashMap<>();
+        Map<String, BuglePublisher> publishers = new LinkedHashMap<>();
+        if (buglePublisher instanceof RoutingBuglePublisher router) {
+            for (BrokerType broker : router.brokers()) {
+                String name = brokerName(broker);
+                spools.put(name, new AlertSpool(directory.resolve(name), spool.getSegmentSizeBytes(),
+                        spool.getMaxTotalBytes()));
+                publishers.put(name, router.publisher(broker));
+            }
+        } else {
+            String name = brokerName(properties.getBrokerType());
+            spools.put(name, new AlertSpool(directory, spool.getSegmentSizeBytes(), spool.getMaxTotalBytes()));
+            publishers.put(name, buglePublisher);
+        }
+        return new SpoolReplayer(spools, publishers, objectMapper, retryClassifier, spool.getReplayRatePerSecond(),
+                spool.getReplayIntervalMs(), spool.getReplaySendTimeoutMs());
+    }
+
+    private static String brokerName(BrokerType broker) {
+        return broker == null ? "none" : broker.name().toLowerCase(Locale.ROOT);
+    }
+
+    @Bean
+    public RetryScheduler retryScheduler() {
+        return new RetryScheduler(properties.getFailure().getRetryThreads());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public RetryableErrorClassifier retryableErrorClassifier() {
+        return new DefaultRetryableErrorClassifier();
+    }
+
+    /**
+     * Holds the circuit breakers and bulkheads of every broker. State transitions are published as
+     * {@link CircuitStateChangedEvent} application events and passed to every CircuitBreakerListener bean.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "aegis.bugle.circuit-breaker", name = "enabled", havingValue = "true")
+    public CircuitBreakerRegistry circuitBreakerRegistry(ObjectProvider<CircuitBreakerListener> circuitBreakerListeners,
+                                                         ApplicationEventPublisher eventPublisher) {
+        BugleProperties.CircuitBreaker circuitBreaker = properties.getCircuitBreaker();
+        log.info("Aegis Bugle circuit breakers enabled with properties {}", circuitBreaker);
+        List<CircuitBreakerListener> listeners = new ArrayList<>(circuitBreakerListeners.orderedStream().toList());
+        listeners.add(new CircuitBreakerListener() {
+            @Override
+            public void onStateTransition(CircuitStateChangedEvent event) {
+                eventPublisher.publishEvent(event);
+            }
+        });
+        return new CircuitBreakerRegistry(circuitBreaker.getFailureThreshold(), circuitBreaker.getOpenDurationMs(),
+                circuitBreaker.getHalfOpenProbes(), circuitBreaker.getMaxConcurrentSends(),
+                circuitBreaker.getMaxWaitMs(), circuitBreaker.getMaxTopicBreakers(), listeners);
+    }
+
+    /**
+     * Wraps the broker publisher once with the delivery stages shared by the alert service and dispatcher:
+     * metrics around each broker call when available, circuit breakers when enabled, retries, then the
+     * local spool for alerts that still cannot be delivered. The broker publisher itself stays the only
+     * BuglePublisher bean, so injecting BuglePublisher bypasses these stages.
+     * When alerts are routed to several brokers, every broker gets its own metrics, circuit breakers,
+     * retries and spool, so a failing broker neither delays nor duplicates delivery to the others. Sends its
+     * circuit rejects may then be diverted to the fallback broker.
+     */
+    @Bean
+    public BugleDeliveryPipeline bugleDeliveryPipeline(BuglePublisher buglePublisher, RetryScheduler retryScheduler,
+                                                       RetryableErrorClassifier retryClassifier,
+                                                       ObjectProvider<SpoolReplayer> spoolReplayer,
+                                                       ObjectProvider<PublisherMetrics> publisherMetrics,
+                                                       ObjectProvider<CircuitBreakerRegistry> circuitBreakerRegistry) {
+        return new BugleDeliveryPipeline(alertPipeline(buglePublisher, retryScheduler, retryClassifier,
+                spoolReplayer.getIfAvailable(), publisherMetrics.getIfAvailable(),
+                circuitBreakerRegistry.getIfAvailable()));
+    }
+
+    private BuglePublisher alertPipeline(BuglePublisher buglePublisher, RetryScheduler retryScheduler,
+                                         RetryableErrorClassifier retryClassifier, SpoolReplayer replayer,
+                                         PublisherMetrics metrics, CircuitBreakerRegistry breakers) {
+        if (buglePublisher instanceof RoutingBuglePublisher router) {
+            BrokerType fallbackBroker = properties.getCircuitBreaker().getFallbackBroker();
+            BuglePublisher fallbackPublisher = fallbackBroker == null || router.publisher(fallbackBroker) == null
+                    ? null : brokerPipeline(router.publisher(fallbackBroker), fallbackBroker, metrics, breakers, null,
+                    retryScheduler, retryClassifier);
+            return router.mapPublishers((broker, brokerPublisher) -> spooling(broker == fallbackBroker
+                    ? fallbackPublisher
+                    : brokerPipeline(brokerPublisher, broker, metrics, breakers, fallbackPublisher, retryScheduler,
+                    retryClassifier), brokerName(broker), replayer, retryClassifier));
+        }
+        String name = brokerName(properties.getBrokerType());
+        return spooling(deliveryPipeline(buglePublisher, name, metrics, breakers, null, retryScheduler,
+                retryClassifier), name, replayer, retryClassifier);
+    }
+
+    private static BuglePublisher spooling(BuglePublisher publisher, String broker, SpoolReplayer replayer,
+                                           RetryableErrorClassifier retryClassifier) {
+        return replayer == null ? publisher : new SpoolingBuglePublisher(publisher, replayer, broker, retryClassifier);
+    }
+
+    /**
+     * The delivery pipeline of one routed broker. Its fallback is the fallback broker's own pipeline, so
+     * diverted sends are counted, guarded and retried as that broker's sends.
+     */
+    private BuglePublisher brokerPipeline(BuglePublisher brokerPublisher, BrokerType broker, PublisherMetrics metrics,
+                                          CircuitBreakerRegistry breakers, BuglePublisher fallback,
+                                          RetryScheduler retryScheduler, RetryableErrorClassifier retryClassifier) {
+        String name = brokerName(broker);
+        return deliveryPipeline(brokerPublisher, name, metrics == null ? null : metrics.forBroker(name), breakers,
+                fallback, retryScheduler, retryClassifier);
+    }
+
+    private BuglePublisher deliveryPipeline(BuglePublisher buglePublisher, String broker, PublisherMetrics metrics,
+                                            CircuitBreakerRegistry breakers, BuglePublisher fallback,
+                                            RetryScheduler retryScheduler, RetryableErrorClassifier retryClassifier) {
+        if (metrics != null) {
+            buglePublisher = new InstrumentedBuglePublisher(buglePublisher, metrics);
+        }
+        if (breakers != null) {
+            buglePublisher = new CircuitBreakingBuglePublisher(buglePublisher, broker, breakers, retryClassifier,
+                    fallback);
+        }
+        BugleProperties.Failure failure = properties.getFailure();
+        RetryPolicy retryPolicy = new RetryPolicy(failure.getMaxRetries() == null ? 0 : failure.getMaxRetries(),
+                failure.getInitialBackoffMs(), failure.getMaxBackoffMs(), failure.getBackoffMultiplier());
+        return new RetryingBuglePublisher(buglePublisher, retryPolicy, retryClassifier,
+                retryScheduler, failure.isEnabled() ? failure.getDestination() : null);
+    }
+
+    /**
+     * Routes alerts across every broker whose client is configured. It is the primary BuglePublisher,
+     * with the broker publishers as its destinations.
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = "aegis.bugle.routing", name = "enabled", havingValue = "true")
+    public RoutingBuglePublisher routingBuglePublisher(ObjectProvider<KafkaPublisher> kafkaPublisher,
+                                                       ObjectProvider<PulsarPublisher> pulsarPublisher,
+                                                       ObjectProvider<RabbitMqPublisher> rabbitMqPublisher,
+                                                       AlertIdGenerator alertIdGenerator) {
+        BugleProperties.Routing routing = properties.getRouting();
+        log.info("Aegis Bugle routing enabled with properties {}", routing);
+        Map<BrokerType, BuglePublisher> publishers = new EnumMap<>(BrokerType.class);
+        kafkaPublisher.ifAvailable(publisher -> publishers.put(BrokerType.KAFKA, publisher));
+        pulsarPublisher.ifAvailable(publisher -> publishers.put(BrokerType.PULSAR, publisher));
+        rabbitMqPublisher.ifAvailable(publisher -> publishers.put(BrokerType.RABBITMQ, publisher));
+        List<AlertRoute> routes = routing.getRoutes().stream()
+                .map(route -> new AlertRoute(route.getSeverities(), route.getErrorCodes(),
+                        route.getEnvironments().stream().map(Enum::name).toList(), route.getBrokers()))
+                .toList();
+        return new RoutingBuglePublisher(publishers, routes, routing.getDefaultBrokers(), routing.getTopics(),
+                alertIdGenerator);
+    }
+
+    /**
+     * Warms up the configured destinations of every broker publisher at startup. Routed brokers are
+     * warmed up at their own destination when one is configured for them.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "aegis.bugle.warm-up", name = "enabled", havingValue = "true")
+    public PublisherWarmUp publisherWarmUp(BuglePublisher buglePublisher) {
+        BugleProperties.WarmUp warmUp = properties.getWarmUp();
+        log.info("Aegis Bugle warm-up enabled with properties {}", warmUp);
+        List<PublisherWarmUp.Target> targets = new ArrayList<>();
+        if (buglePublisher instanceof RoutingBuglePublisher router) {
+            for (BrokerType broker : router.brokers()) {
+                warmUp.getDestinations().stream()
+                        .map(destination -> router.destination(broker, destination))
+                        .distinct()
+                        .forEach(destination -> targets.add(
+                                new PublisherWarmUp.Target(broker, router.publisher(broker), destination)));
+            }
+        } else {
+            for (String destination : warmUp.getDestinations()) {
+                targets.add(new PublisherWarmUp.Target(properties.getBrokerType(), buglePublisher, destination));
+            }
+        }
+        return new PublisherWarmUp(targets, warmUp.isVerify(), warmUp.getTimeoutMs(), warmUp.getParallelism());
+    }
+
+    @Bean
+    @ConditionalOnBroker(BrokerType.KAFKA)
+    public KafkaPublisher kafkaPublisher(AlertSerializer alertSerializer, AlertIdGenerator alertIdGenerator,
+                                         LoggingPolicy loggingPolicy, PartitionKeyStrategy partitionKeyStrategy,
+                                         PayloadBufferPool payloadBufferPool,
+                                         KafkaTemplate<String, byte[]> kafkaTemplate) {
         log.info("Aegis Bugle Starter 'aegis.bugle.broker-type' is kafka. Message will be sent via kafka");
-        return new KafkaPublisher(kafkaTemplate());
+        return new KafkaPublisher(kafkaTemplate, alertSerializer,
+                payloadCompressor(properties.getKafka().getCompression(), payloadBufferPool), alertIdGenerator,
+                loggingPolicy, partitionKeyStrategy);
     }
 
     @Bean
-    @ConditionalOnProperty(prefix = "aegis.bugle", name = "broker-type", havingValue = "pulsar")
-    public PulsarPublisher pulsarPublisher() throws PulsarClientException {
+    @ConditionalOnBroker(BrokerType.PULSAR)
+    public PulsarPublisher pulsarPublisher(AlertSerializer alertSerializer, AlertIdGenerator alertIdGenerator,
+                                           LoggingPolicy loggingPolicy, PartitionKeyStrategy partitionKeyStrategy,
+                                           PayloadBufferPool payloadBufferPool, PulsarClient pulsarClient) {
         log.info("Aegis Bugle Starter 'aegis.bugle.broker-type' is pulsar. Message will be sent via pulsar");
 
-        org.apache.pulsar.shade.com.fasterxml.jackson.databind.ObjectMapper objectMapper = new
-                org.apache.pulsar.shade.com.fasterxml.jackson.databind.ObjectMapper();
-        return new PulsarPublisher(pulsarClient(), objectMapper);
+        BugleProperties.Pulsar pulsar = properties.getPulsar();
+        PulsarProducerCache producerCache = new PulsarProducerCache(pulsarClient,
+                pulsar.getProducerCacheMaxSize(), pulsar.getProducerCacheIdleTimeoutMs(),
+                StringUtils.hasText(pulsar.getCompressionType())
+                        ? CompressionType.valueOf(pulsar.getCompressionType().trim().toUpperCase(Locale.ROOT)) : null,
+                partitionKeyStrategy != PartitionKey.NONE);
+        return new PulsarPublisher(alertSerializer, payloadCompressor(pulsar.getCompression(), payloadBufferPool),
+                producerCache, alertIdGenerator, loggingPolicy, partitionKeyStrategy);
     }
 
     @Bean
-    @ConditionalOnProperty(prefix = "aegis.bugle", name = "broker-type", havingValue = "rabbitmq")
-    public RabbitMqPublisher rabbitMqPublisher(){
+    @ConditionalOnBroker(BrokerType.RABBITMQ)
+    public RabbitMqPublisher rabbitMqPublisher(AlertSerializer alertSerializer, AlertIdGenerator alertIdGenerator,
+                                               LoggingPolicy loggingPolicy, PayloadBufferPool payloadBufferPool,
+                                               RetryScheduler retryScheduler, RabbitTemplate rabbitTemplate){
         log.info("Aegis Bugle Starter 'aegis.bugle.broker-type' is rabbitmq. Message will be sent via rabbitmq");
         return new RabbitMqPublisher(
-                rabbitTemplate(rabbitConnectionFactory(), jsonMessageConverter(objectMapper())),
-                properties, objectMapper());
+                rabbitTemplate, properties, alertSerializer,
+                payloadCompressor(properties.getRabbitmq().getCompression(), payloadBufferPool),
+                alertIdGenerator, loggingPolicy, retryScheduler);
+    }
+
+    private static PayloadCompressor payloadCompressor(BugleProperties.Compression compression,
+                                                       PayloadBufferPool payloadBufferPool) {
+        return new PayloadCompressor(compression.getCodec(), compression.getThresholdBytes(), payloadBufferPool);
     }
 
     @Bean
     @ConditionalOnMissingBean(BuglePublisher.class)
-    public NoOpPublisher noOpPublisher() {
+    public NoOpPublisher noOpPublisher(LoggingPolicy loggingPolicy) {
         log.warn("Aegis Bugle Starter is included but 'aegis.bugle.broker-type' is not set or invalid. No messages will be published.");
-        return new NoOpPublisher();
+        return new NoOpPublisher(loggingPolicy);
     }
 
     @Bean
-    @ConditionalOnProperty(prefix = "aegis.bugle", name = "broker-type", havingValue = "kafka")
-    public ProducerFactory<String, String> producerFactory() {
+    @ConditionalOnBroker(BrokerType.KAFKA)
+    public ProducerFactory<String, byte[]> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, properties.getKafka().getBootstrapServers());
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, properties.getKafka().getKeySerializer());
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, properties.getKafka().getValueSerializer());
+        // alerts are serialized to JSON bytes by the publisher, so the value serializer is fixed
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        if (StringUtils.hasText(properties.getKafka().getCompressionType())) {
+            configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, properties.getKafka().getCompressionType());
+        }
+        if (properties.getKafka().isPartitionerIgnoreKeys()) {
+            configProps.put(ProducerConfig.PARTITIONER_IGNORE_KEYS_CONFIG, true);
+        }
         return new DefaultKafkaProducerFactory<>(configProps);
     }
 
     @Bean
-    @ConditionalOnProperty(prefix = "aegis.bugle", name = "broker-type", havingValue = "kafka")
-    public KafkaTemplate<String, String> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    @ConditionalOnBroker(BrokerType.KAFKA)
+    public KafkaTemplate<String, byte[]> kafkaTemplate(ProducerFactory<String, byte[]> producerFactory) {
+        return new KafkaTemplate<>(producerFactory);
     }
 
     @Bean
     @ConditionalOnClass(RabbitTemplate.class)
-    @ConditionalOnProperty(prefix = "aegis.bugle", name = "broker-type", havingValue = "rabbitmq")
+    @ConditionalOnBroker(BrokerType.RABBITMQ)
     public CachingConnectionFactory rabbitConnectionFactory() {
         log.info("Creating RabbitMQ connection factory with properties {}", properties.getRabbitmq());
         CachingConnectionFactory connectionFactory = new CachingConnectionFactory();
@@ -132,23 +467,23 @@ public class BugleAutoConfiguration {
             connectionFactory.setConnectionTimeout(rabbitProps.getConnectionTimeoutMs());
         }
 
-        return connectionFactory;
-    }
+        connectionFactory.setPublisherConfirmType(CachingConnectionFactory.ConfirmType.CORRELATED);
+        connectionFactory.setPublisherReturns(true);
+        connectionFactory.setChannelCacheSize(rabbitProps.getChannelCacheSize());
 
-    @Bean
-    @ConditionalOnProperty(prefix = "aegis.bugle", name = "broker-type", havingValue = "rabbitmq")
-    @ConditionalOnMissingBean(MessageConverter.class)
-    public MessageConverter jsonMessageConverter(ObjectMapper objectMapper) {
-        return new Jackson2JsonMessageConverter(objectMapper);
+        return connectionFactory;
     }
 
     @Bean
-    @ConditionalOnProperty(prefix = "aegis.bugle", name = "broker-type", havingValue = "rabbitmq")
-    public RabbitTemplate rabbitTemplate(CachingConnectionFactory connectionFactory,
-                                         MessageConverter messageConverter) {
+    @ConditionalOnBroker(BrokerType.RABBITMQ)
+    public RabbitTemplate rabbitTemplate(CachingConnectionFactory connectionFactory) {
         log.info("Creating RabbitMQ template");
         RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
-        rabbitTemplate.setMessageConverter(messageConverter);
+        // no message converter: the publisher builds each AMQP message from the serialized alert itself
+        // unroutable alerts come back as returns instead of being silently dropped by the exchange
+        rabbitTemplate.setMandatory(true);
+        rabbitTemplate.setReturnsCallback(returned -> log.warn("RabbitMQ returned unroutable message - Exchange: {}, Routing Key: {}, Reply: {}",
+                returned.getExchange(), returned.getRoutingKey(), returned.getReplyText()));
 
         return rabbitTemplate;
     }
@@ -168,4 +503,31 @@ public class BugleAutoConfiguration {
     public AlertMapper alertMapper() {
         return new AlertMapperImpl();
     }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    @ConditionalOnBean(MeterRegistry.class)
+    @ConditionalOnProperty(prefix = "aegis.bugle.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+    static class MetricsConfiguration {
+
+        @Bean
+        public PublisherMetrics publisherMetrics(MeterRegistry meterRegistry, BugleProperties properties) {
+            String broker = properties.getBrokerType() == null ? null
+                    : properties.getBrokerType().name().toLowerCase(Locale.ROOT);
+            return new PublisherMetrics(meterRegistry, broker, properties.getMetrics().getMaxTopicTags());
+        }
+
+        @Bean
+        public BugleMeterBinder bugleMeterBinder(ObjectProvider<AlertDispatcher> alertDispatcher,
+                                                 ObjectProvider<SpoolReplayer> spoolReplayer,
+                                                 RetryScheduler retryScheduler) {
+            return new BugleMeterBinder(alertDispatcher.getIfAvailable(), spoolReplayer.getIfAvailable(), retryScheduler);
+        }
+
+        @Bean
+        @ConditionalOnProperty(prefix = "aegis.bugle.circuit-breaker", name = "enabled", havingValue = "true")
+        public CircuitBreakerMetrics circuitBreakerMetrics(MeterRegistry meterRegistry) {
+            return new CircuitBreakerMetrics(meterRegistry);
+        }
+    }
 }
@@ -0,0 +1,21 @@
+package io.github.codestring.aegisbugle.config;
+
+import io.github.codestring.aegisbugle.application.port.out.BuglePublisher;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * BugleDeliveryPipeline holds the publisher the alert service and the dispatcher deliver through: the broker
+ * publisher wrapped with metrics, circuit breakers, retries and the local spool, as far as they are enabled.
+ * <p>
+ * The pipeline is built once and shared, so both see the same breakers and spool. It is deliberately not a
+ * {@link BuglePublisher} bean: injecting {@code BuglePublisher} yields the broker publisher itself, or the
+ * routing publisher when routing is enabled, and bypasses every stage of the pipeline. Code that publishes
+ * on its own and wants those stages should inject this bean and send through {@link #getPublisher()}.
+ */
+@Getter
+@RequiredArgsConstructor
+public class BugleDeliveryPipeline {
+
+    private final BuglePublisher publisher;
+}
@@ -1,13 +1,29 @@
 package io.github.codestring.aegisbugle.config;
 
+import io.github.codestring.aegisbugle.application.core.dispatch.OverflowPolicy;
+import io.github.codestring.aegisbugle.application.core.dispatch.WaitStrategy;
+import io.github.codestring.aegisbugle.adapter.out.buffer.PayloadBufferPool;
+import io.github.codestring.aegisbugle.adapter.out.compression.CompressionCodec;
+import io.github.codestring.aegisbugle.application.core.model.AlertSeverity;
 import io.github.codestring.aegisbugle.application.core.model.BrokerType;
+import io.github.codestring.aegisbugle.application.core.model.WireFormat;
 import io.github.codestring.aegisbugle.application.core.model.Environment;
+import io.github.codestring.aegisbugle.application.core.partition.PartitionKey;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.*;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.DeprecatedConfigurationProperty;
 import org.springframework.validation.annotation.Validated;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 
 @ConfigurationProperties(prefix = "aegis.bugle")
 @Getter
@@ -20,12 +36,28 @@ public class BugleProperties {
     @NotEmpty(message = "The serviceName property (aegis.bugle.service-name) is mandatory and cannot be empty.")
     private String serviceName;
     private BrokerType brokerType;
+    /** Broker clients to create in addition to the broker type, for routing alerts across several brokers. */
+    private List<BrokerType> brokers = new ArrayList<>();
+    /** Wire format of alert payloads; payloads that are not JSON carry a contentType header. */
+    private WireFormat format = WireFormat.JSON;
+    /** Message key of Kafka and Pulsar alerts; alerts with the same key keep their order on one partition. */
+    private PartitionKey partitionKey = PartitionKey.NONE;
     private boolean enabled;
     private Pulsar pulsar = new Pulsar();
     private Kafka kafka = new Kafka();
     private RabbitMq rabbitmq = new RabbitMq();
     private Environment environment;
     private Failure failure = new Failure();
+    private Dispatch dispatch = new Dispatch();
+    private Spool spool = new Spool();
+    private Fingerprint fingerprint = new Fingerprint();
+    private Metrics metrics = new Metrics();
+    private Logging logging = new Logging();
+    private Routing routing = new Routing();
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+    private WarmUp warmUp = new WarmUp();
+    private Buffers buffers = new Buffers();
+    private Context context = new Context();
 
     @Getter
     @Setter
@@ -40,6 +72,26 @@ public class BugleProperties {
         private int maxLookupRequestMs = 10000;
         private int lookupTimeout = 10000;
         private int keepAliveIntervalMs = 10000;
+
+        /**
+         * Maximum number of per-topic producers kept open; the least recently used one is closed beyond this
+         */
+        @Builder.Default
+        private int producerCacheMaxSize = 100;
+
+        /**
+         * Idle time after which a cached producer is closed
+         */
+        @Builder.Default
+        private long producerCacheIdleTimeoutMs = 300000;
+
+        /**
+         * Batch-level compression of the Pulsar producers: NONE, LZ4, ZLIB, ZSTD or SNAPPY; unset keeps the client default
+         */
+        private String compressionType;
+
+        @Builder.Default
+        private Compression compression = new Compression();
     }
 
     @Setter
@@ -51,7 +103,30 @@ public class BugleProperties {
     public static class Kafka{
         private String bootstrapServers = "localhost:9092";
         private String keySerializer = StringSerializer.class.getName();
-        private String valueSerializer = StringSerializer.class.getName();
+        private String valueSerializer = ByteArraySerializer.class.getName();
+
+        /**
+         * Batch-level compression of the Kafka producer (compression.type): none, gzip, snappy, lz4 or zstd; unset keeps the client default
+         */
+        private String compressionType;
+
+        /**
+         * Spread keyed alerts with the sticky partitioner instead of hashing their key (partitioner.ignore.keys);
+         * the key is still sent to consumers
+         */
+        private boolean partitionerIgnoreKeys;
+
+        @Builder.Default
+        private Compression compression = new Compression();
+
+        /**
+         * Alerts are always serialized to JSON bytes and sent with a ByteArraySerializer; this value is ignored.
+         */
+        @Deprecated
+        @DeprecatedConfigurationProperty(reason = "Alerts are serialized to JSON bytes by the publisher")
+        public String getValueSerializer() {
+            return valueSerializer;
+        }
     }
 
     @Setter
@@ -68,6 +143,47 @@ public class BugleProperties {
         private String virtualHost = "/";
         private int connectionTimeoutMs = 10000;
         private String defaultExchange;
+
+        /**
+         * Time to wait for a publisher confirm before an asynchronous send is failed
+         */
+        @Builder.Default
+        private long confirmTimeoutMs = 10000;
+
+        /**
+         * Maximum number of published messages awaiting a publisher confirm; 0 or less removes the limit
+         */
+        @Builder.Default
+        private int maxOutstandingConfirms = 1000;
+
+        /**
+         * Number of channels kept open for concurrent publishing
+         */
+        @Builder.Default
+        private int channelCacheSize = 25;
+
+        @Builder.Default
+        private Compression compression = new Compression();
+    }
+
+    @Setter
+    @Getter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @ToString
+    public static class Compression {
+        /**
+         * Codec used to compress individual alert payloads before they are sent
+         */
+        @Builder.Default
+        private CompressionCodec codec = CompressionCodec.NONE;
+
+        /**
+         * Payloads smaller than this are sent uncompressed
+         */
+        @Builder.Default
+        private int thresholdBytes = 4096;
     }
 
     @Setter
@@ -84,5 +200,399 @@ public class BugleProperties {
          * Maximum retry attempts before sending to failure destination
          */
         private Integer maxRetries = 3;
+
+        /**
+         * Delay before the first retry; later retries back off exponentially with jitter
+         */
+        @Builder.Default
+        private long initialBackoffMs = 200;
+
+        @Builder.Default
+        private long maxBackoffMs = 10000;
+
+        @Builder.Default
+        private double backoffMultiplier = 2.0;
+
+        /**
+         * Threads of the shared scheduler that runs delayed retries and hands on RabbitMQ confirm outcomes
+         */
+        @Builder.Default
+        private int retryThreads = 1;
+    }
+
+    @Setter
+    @Getter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @ToString
+    public static class Dispatch {
+        /**
+         * Queue alerts in a ring buffer and publish them from background threads instead of the caller's thread
+         */
+        @Builder.Default
+        private boolean enabled = false;
+
+        /**
+         * Ring buffer capacity, rounded up to a power of two
+         */
+        @Builder.Default
+        private int capacity = 4096;
+
+        @Builder.Default
+        private WaitStrategy waitStrategy = WaitStrategy.SLEEPING;
+
+        @Builder.Default
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_NEWEST;
+
+        /**
+         * Maximum time a caller waits for space when the overflow policy is BLOCK
+         */
+        @Builder.Default
+        private long blockTimeoutMs = 50;
+
+        @Builder.Default
+        private int consumerThreads = 1;
+
+        /**
+         * Maximum number of alerts a consumer thread drains from the buffer at once
+         */
+        @Builder.Default
+        private int batchSize = 64;
+
+        /**
+         * Maximum number of dispatched alerts submitted to the broker and awaiting their outcome, retries included
+         */
+        @Builder.Default
+        private int maxInFlight = 1024;
+    }
+
+    @Setter
+    @Getter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @ToString
+    public static class Spool {
+        /**
+         * Keep alerts the broker cannot take in a local memory-mapped log and replay them once it recovers
+         */
+        @Builder.Default
+        private boolean enabled = false;
+
+        @Builder.Default
+        private String directory = System.getProperty("java.io.tmpdir") + "/aegis-bugle-spool";
+
+        /**
+         * Size of each memory-mapped segment file; a single alert must fit in one segment
+         */
+        @Builder.Default
+        private int segmentSizeBytes = 16 * 1024 * 1024;
+
+        /**
+         * Upper bound on the disk space used by the spool; alerts are dropped once it is reached
+         */
+        @Builder.Default
+        private long maxTotalBytes = 256L * 1024 * 1024;
+
+        /**
+         * Maximum number of spooled alerts replayed to the broker per second
+         */
+        @Builder.Default
+        private int replayRatePerSecond = 100;
+
+        @Builder.Default
+        private long replayIntervalMs = 1000;
+
+        /**
+         * Time to wait for the broker to acknowledge a replayed alert before the broker is considered down
+         */
+        @Builder.Default
+        private long replaySendTimeoutMs = 10000;
+    }
+
+    @Setter
+    @Getter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @ToString
+    public static class Fingerprint {
+        /**
+         * Send a repeated stack trace only with its first occurrence per window; later alerts carry the
+         * stack fingerprint and occurrence count instead
+         */
+        @Builder.Default
+        private boolean enabled = false;
+
+        /**
+         * Length of the window after which a fingerprint's full stack trace is sent again
+         */
+        @Builder.Default
+        private long ttlMs = 300000;
+
+        /**
+         * Maximum number of fingerprints tracked at once
+         */
+        @Builder.Default
+        private int maxEntries = 10000;
+    }
+
+    @Setter
+    @Getter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @ToString
+    public static class Metrics {
+        /**
+         * Record publish metrics when Micrometer and a MeterRegistry are available
+         */
+        @Builder.Default
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of distinct topic tag values; alerts to further topics are tagged "other"
+         */
+        @Builder.Default
+        private int maxTopicTags = 50;
+    }
+
+    @Setter
+    @Getter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @ToString
+    public static class Logging {
+        /**
+         * Rate-limit and sample per-message log statements in the publishers
+         */
+        @Builder.Default
+        private boolean rateLimited = true;
+
+        /**
+         * Length of the rate-limit interval in milliseconds
+         */
+        @Builder.Default
+        private long intervalMs = 10000;
+
+        /**
+         * Log statements written per call site and interval before sampling starts
+         */
+        @Builder.Default
+        private int maxPerInterval = 10;
+
+        /**
+         * Beyond the limit, write one statement in this many; 0 or less suppresses the rest
+         */
+        @Builder.Default
+        private int sampleRate = 100;
+    }
+
+    @Setter
+    @Getter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @ToString
+    public static class Routing {
+        /**
+         * Fan alerts out to the configured brokers according to the routes instead of publishing to the broker type only
+         */
+        @Builder.Default
+        private boolean enabled = false;
+
+        /**
+         * Routing rules, evaluated in order; the first rule matching an alert selects its brokers
+         */
+        @Builder.Default
+        private List<Route> routes = new ArrayList<>();
+
+        /**
+         * Brokers for alerts no route matches; empty sends them to every configured broker
+         */
+        @Builder.Default
+        private List<BrokerType> defaultBrokers = new ArrayList<>();
+
+        /**
+         * Destination per broker used instead of the alert's topic, e.g. the RabbitMQ exchange
+         */
+        @Builder.Default
+        private Map<BrokerType, String> topics = new EnumMap<>(BrokerType.class);
+    }
+
+    @Setter
+    @Getter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @ToString
+    public static class Route {
+        /**
+         * Severities the route applies to; empty matches any
+         */
+        @Builder.Default
+        private Set<AlertSeverity> severities = new LinkedHashSet<>();
+
+        /**
+         * Error codes the route applies to; empty matches any
+         */
+        @Builder.Default
+        private Set<String> errorCodes = new LinkedHashSet<>();
+
+        /**
+         * Environments the route applies to; empty matches any
+         */
+        @Builder.Default
+        private Set<Environment> environments = new LinkedHashSet<>();
+
+        /**
+         * Brokers matching alerts are sent to; empty drops them
+         */
+        @Builder.Default
+        private List<BrokerType> brokers = new ArrayList<>();
+    }
+
+    @Setter
+    @Getter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @ToString
+    public static class CircuitBreaker {
+        /**
+         * Guard each broker and topic with a circuit breaker and each broker with a bulkhead
+         */
+        @Builder.Default
+        private boolean enabled = false;
+
+        /**
+         * Consecutive broker failures that open a circuit
+         */
+        @Builder.Default
+        private int failureThreshold = 5;
+
+        /**
+         * How long an open circuit rejects sends before letting probes through
+         */
+        @Builder.Default
+        private long openDurationMs = 30000;
+
+        /**
+         * Probe sends let through a half-open circuit; all must succeed to close it
+         */
+        @Builder.Default
+        private int halfOpenProbes = 1;
+
+        /**
+         * Sends in flight per broker before further sends are rejected; 0 disables the bulkhead
+         */
+        @Builder.Default
+        private int maxConcurrentSends = 100;
+
+        /**
+         * How long a send may wait for a free bulkhead slot; 0 rejects it at once
+         */
+        @Builder.Default
+        private long maxWaitMs = 0;
+
+        /**
+         * Topics per broker given a circuit breaker of their own; further topics share the broker's
+         */
+        @Builder.Default
+        private int maxTopicBreakers = 50;
+
+        /**
+         * Broker that takes sends rejected by another broker's circuit or bulkhead when routing is enabled;
+         * unset fails them
+         */
+        private BrokerType fallbackBroker;
+    }
+
+    @Setter
+    @Getter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @ToString
+    public static class WarmUp {
+        /**
+         * Prepare producers, channels and topic metadata for the destinations at startup
+         */
+        @Builder.Default
+        private boolean enabled = false;
+
+        /**
+         * Topics, or RabbitMQ exchanges, alerts are sent to
+         */
+        @Builder.Default
+        private List<String> destinations = new ArrayList<>();
+
+        /**
+         * Also check that each destination exists, e.g. by declaring the RabbitMQ exchange passively
+         */
+        @Builder.Default
+        private boolean verify = false;
+
+        /**
+         * How long the warm-up may take before the remaining destinations are reported as not ready
+         */
+        @Builder.Default
+        private long timeoutMs = 10000;
+
+        /**
+         * Destinations warmed up at once
+         */
+        @Builder.Default
+        private int parallelism = 4;
+    }
+
+    @Setter
+    @Getter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @ToString
+    public static class Buffers {
+        /**
+         * Largest serialization buffer each publishing thread keeps for the next alert; 0 allocates a new one per alert
+         */
+        @Builder.Default
+        private int maxRetainedBytes = PayloadBufferPool.DEFAULT_MAX_RETAINED_BYTES;
+    }
+
+    @Setter
+    @Getter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @ToString
+    public static class Context {
+        /**
+         * Add a context object with host, pod, instance id, build version and JVM to every alert
+         */
+        @Builder.Default
+        private boolean enabled = false;
+
+        /**
+         * Host name; defaults to the HOSTNAME variable or the local host name
+         */
+        private String host;
+
+        /**
+         * Pod name; defaults to the POD_NAME variable, or the host name when running in Kubernetes
+         */
+        private String pod;
+
+        /**
+         * Instance id; defaults to a random id generated at startup
+         */
+        private String instanceId;
+
+        /**
+         * Build version; defaults to the version in META-INF/build-info.properties
+         */
+        private String buildVersion;
     }
 }
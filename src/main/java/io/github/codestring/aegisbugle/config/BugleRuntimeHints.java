@@ -0,0 +1,63 @@
+package io.github.codestring.aegisbugle.config;
+
+import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import io.github.codestring.aegisbugle.application.core.model.BugleEvent;
+import io.github.codestring.aegisbugle.application.core.model.FailureMessage;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.boot.context.properties.bind.BindableRuntimeHintsRegistrar;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+
+/**
+ * Native image hints for what the starter reaches through reflection or loads as resources.
+ * <p>
+ * Hints:
+ * - Jackson binding of the alert payloads: CBOR, Smile, the spool and the RabbitMQ message converter
+ *   serialize them through bean introspection.
+ * - Binding of {@link BugleProperties} and its nested classes.
+ * - The pure Java LZ4 and xxHash implementations lz4-java looks up by name, and the native libraries
+ *   lz4-java and zstd-jni extract from their jars. They are only registered when the library is present.
+ * <p>
+ * The broker clients ship their own hints with spring-kafka, spring-pulsar and spring-rabbit; the
+ * alert mapper is generated at compile time and created without reflection.
+ */
+class BugleRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final String LZ4 = "net.jpountz.lz4.LZ4FrameOutputStream";
+    private static final String ZSTD = "com.github.luben.zstd.Zstd";
+    private static final List<String> LZ4_IMPLEMENTATIONS = List.of(
+            "net.jpountz.lz4.LZ4JavaSafeCompressor",
+            "net.jpountz.lz4.LZ4JavaSafeFastDecompressor",
+            "net.jpountz.lz4.LZ4JavaSafeSafeDecompressor",
+            "net.jpountz.lz4.LZ4HCJavaSafeCompressor",
+            "net.jpountz.lz4.LZ4JavaUnsafeCompressor",
+            "net.jpountz.lz4.LZ4JavaUnsafeFastDecompressor",
+            "net.jpountz.lz4.LZ4JavaUnsafeSafeDecompressor",
+            "net.jpountz.lz4.LZ4HCJavaUnsafeCompressor",
+            "net.jpountz.xxhash.XXHash32JavaSafe",
+            "net.jpountz.xxhash.XXHash32JavaUnsafe",
+            "net.jpountz.xxhash.StreamingXXHash32JavaSafe$Factory",
+            "net.jpountz.xxhash.StreamingXXHash32JavaUnsafe$Factory");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                AlertEvent.class, BugleEvent.class, FailureMessage.class);
+        BindableRuntimeHintsRegistrar.forTypes(BugleProperties.class).registerHints(hints, classLoader);
+
+        if (ClassUtils.isPresent(LZ4, classLoader)) {
+            for (String implementation : LZ4_IMPLEMENTATIONS) {
+                hints.reflection().registerType(TypeReference.of(implementation), MemberCategory.DECLARED_FIELDS);
+            }
+            hints.resources().registerPattern("net/jpountz/util/*/*/liblz4-java.*");
+        }
+        if (ClassUtils.isPresent(ZSTD, classLoader)) {
+            hints.resources().registerPattern("*/*/libzstd-jni-*");
+        }
+    }
+}
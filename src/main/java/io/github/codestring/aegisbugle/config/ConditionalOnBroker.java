@@ -0,0 +1,22 @@
+package io.github.codestring.aegisbugle.config;
+
+import io.github.codestring.aegisbugle.application.core.model.BrokerType;
+import org.springframework.context.annotation.Conditional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Matches when the broker is the configured {@code aegis.bugle.broker-type} or one of the
+ * {@code aegis.bugle.brokers}, so the clients of several brokers can be created side by side.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Conditional(OnBrokerCondition.class)
+public @interface ConditionalOnBroker {
+    BrokerType value();
+}
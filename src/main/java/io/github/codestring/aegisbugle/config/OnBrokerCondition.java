@@ -0,0 +1,44 @@
+package io.github.codestring.aegisbugle.config;
+
+import io.github.codestring.aegisbugle.application.core.model.BrokerType;
+import org.springframework.boot.autoconfigure.condition.ConditionMessage;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Condition behind {@link ConditionalOnBroker}. Values are compared as strings, ignoring case, so an
+ * unknown broker type only disables the broker instead of failing the condition.
+ */
+class OnBrokerCondition extends SpringBootCondition {
+
+    @Override
+    public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+        Map<String, Object> attributes = metadata.getAnnotationAttributes(ConditionalOnBroker.class.getName());
+        BrokerType broker = (BrokerType) attributes.get("value");
+        ConditionMessage.Builder message = ConditionMessage.forCondition(ConditionalOnBroker.class, broker);
+
+        Binder binder = Binder.get(context.getEnvironment());
+        String brokerType = binder.bind("aegis.bugle.broker-type", String.class).orElse(null);
+        if (matches(broker, brokerType)) {
+            return ConditionOutcome.match(message.because("aegis.bugle.broker-type is " + brokerType));
+        }
+        List<String> brokers = binder.bind("aegis.bugle.brokers", Bindable.listOf(String.class)).orElse(List.of());
+        for (String value : brokers) {
+            if (matches(broker, value)) {
+                return ConditionOutcome.match(message.because("aegis.bugle.brokers contains " + value));
+            }
+        }
+        return ConditionOutcome.noMatch(message.because("the broker is neither the broker type nor listed in aegis.bugle.brokers"));
+    }
+
+    private static boolean matches(BrokerType broker, String value) {
+        return value != null && broker.name().equalsIgnoreCase(value.trim());
+    }
+}
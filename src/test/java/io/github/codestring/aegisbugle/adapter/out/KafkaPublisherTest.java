@@ -1,8 +1,32 @@
 package io.github.codestring.aegisbugle.adapter.out;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.github.codestring.aegisbugle.TestEvent;
+import io.github.codestring.aegisbugle.adapter.out.compression.PayloadCompressor;
+import io.github.codestring.aegisbugle.adapter.out.logging.LoggingPolicy;
+import io.github.codestring.aegisbugle.adapter.out.serialization.AlertSerializer;
+import io.github.codestring.aegisbugle.adapter.out.serialization.AlertSerializers;
+import io.github.codestring.aegisbugle.adapter.out.serialization.JsonAlertSerializer;
+import io.github.codestring.aegisbugle.application.core.PublishException;
+import io.github.codestring.aegisbugle.application.core.id.MonotonicAlertIdGenerator;
+import io.github.codestring.aegisbugle.application.core.partition.PartitionKey;
 import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
 import io.github.codestring.aegisbugle.application.core.model.AlertSeverity;
+import io.github.codestring.aegisbugle.application.core.model.BatchPublishResult;
+import io.github.codestring.aegisbugle.application.core.model.DeliveryReceipt;
+import io.github.codestring.aegisbugle.application.core.model.WireFormat;
+import io.github.codestring.aegisbugle.application.core.retry.DefaultRetryableErrorClassifier;
+import io.github.codestring.aegisbugle.application.core.retry.RetryPolicy;
+import io.github.codestring.aegisbugle.application.core.retry.RetryScheduler;
+import io.github.codestring.aegisbugle.application.core.retry.RetryingBuglePublisher;
+import io.github.codestring.aegisbugle.application.core.model.AlertEnvelope;
+import io.github.codestring.aegisbugle.application.core.partition.PartitionKeyStrategy;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -11,12 +35,20 @@ import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static io.github.codestring.aegisbugle.application.core.model.AlertSeverity.CRITICAL;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -24,19 +56,23 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class KafkaPublisherTest {
     @Mock
-    private KafkaTemplate<String, String> kafkaTemplate;
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
 
     @Captor
     private ArgumentCaptor<String> topicCaptor;
 
     @Captor
-    private ArgumentCaptor<String> messageCaptor;
+    private ArgumentCaptor<byte[]> messageCaptor;
 
     private KafkaPublisher kafkaPublisher;
 
     @BeforeEach
     void setUp() {
-        kafkaPublisher = new KafkaPublisher(kafkaTemplate);
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.findAndRegisterModules();
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        kafkaPublisher = new KafkaPublisher(kafkaTemplate, new JsonAlertSerializer(objectMapper), PayloadCompressor.NONE,
+                new MonotonicAlertIdGenerator(), LoggingPolicy.DEFAULT, PartitionKey.NONE);
     }
 
     @Test
@@ -56,7 +92,35 @@ class KafkaPublisherTest {
         kafkaPublisher.sendAlert(alertEvent, topic);
 
         // Then
-        verify(kafkaTemplate, times(1)).send(eq(topic), anyString());
+        verify(kafkaTemplate, times(1)).send(eq(topic), any(byte[].class));
+    }
+
+    @Test
+    void shouldRetryFailedSendFutureOfSynchronousAlertAndThenDeadLetterIt() {
+        // Given
+        AlertEvent alertEvent = AlertEvent.builder()
+                .alertId("alert-123")
+                .serviceName("test-service")
+                .errorCode("ERR_001")
+                .build();
+        RecordMetadata metadata = new RecordMetadata(new TopicPartition("failures", 0), 3L, 0, 0L, 0, 0);
+        when(kafkaTemplate.send(eq("alerts"), any(byte[].class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
+        when(kafkaTemplate.send(eq("failures"), any(byte[].class))).thenReturn(CompletableFuture.completedFuture(
+                new SendResult<>(new ProducerRecord<>("failures", new byte[0]), metadata)));
+        RetryScheduler scheduler = new RetryScheduler(1);
+        RetryingBuglePublisher publisher = new RetryingBuglePublisher(kafkaPublisher, new RetryPolicy(2, 1, 5, 2.0),
+                new DefaultRetryableErrorClassifier(), scheduler, "failures");
+
+        // When
+        publisher.sendEnvelope(AlertEnvelope.of(alertEvent), "alerts");
+
+        // Then
+        verify(kafkaTemplate, timeout(5000)).send(eq("failures"), messageCaptor.capture());
+        verify(kafkaTemplate, times(3)).send(eq("alerts"), any(byte[].class));
+        assertThat(new String(messageCaptor.getValue(), StandardCharsets.UTF_8))
+                .contains("\"originalDestination\":\"alerts\"", "alert-123", "Failed to publish message to Kafka");
+        scheduler.close();
     }
 
     @Test
@@ -72,6 +136,73 @@ class KafkaPublisherTest {
         verify(kafkaTemplate, times(1)).send(topicCaptor.capture(), messageCaptor.capture());
 
         assertThat(topicCaptor.getValue()).isEqualTo(topic);
+        assertThat(new String(messageCaptor.getValue(), StandardCharsets.UTF_8))
+                .isEqualTo("{\"id\":\"test-id\",\"data\":\"test-data\"}");
+    }
+
+    @Test
+    void shouldKeepExistingAlertId() {
+        // Given
+        AlertEvent alertEvent = AlertEvent.builder()
+                .alertId("01J9Z3K4QW8X0000000000000A")
+                .serviceName("test-service")
+                .build();
+        when(kafkaTemplate.send(anyString(), any(byte[].class))).thenReturn(new CompletableFuture<>());
+
+        // When
+        kafkaPublisher.sendAlertAsync(alertEvent, "test-topic");
+
+        // Then
+        assertThat(alertEvent.getAlertId()).isEqualTo("01J9Z3K4QW8X0000000000000A");
+    }
+
+    @Test
+    void shouldSendAlertEventAsJsonBytes() throws Exception {
+        // Given
+        AlertEvent alertEvent = AlertEvent.builder()
+                .serviceName("json-service")
+                .errorCode("ERR_JSON")
+                .errorMessage("Json test")
+                .severity(AlertSeverity.LOW)
+                .timestamp(Instant.parse("2024-01-01T10:15:30Z"))
+                .build();
+
+        // When
+        kafkaPublisher.sendAlert(alertEvent, "json-topic");
+
+        // Then
+        verify(kafkaTemplate).send(eq("json-topic"), messageCaptor.capture());
+        JsonNode json = new ObjectMapper().readTree(messageCaptor.getValue());
+        assertThat(json.get("alert_id").asText()).isEqualTo(alertEvent.getAlertId());
+        assertThat(json.get("service_name").asText()).isEqualTo("json-service");
+        assertThat(json.get("error_code").asText()).isEqualTo("ERR_JSON");
+        assertThat(json.get("severity").asText()).isEqualTo("LOW");
+        assertThat(json.get("timestamp").asText()).isEqualTo("2024-01-01T10:15:30Z");
+        assertThat(json.has("stack_trace")).isFalse();
+    }
+
+    @Test
+    void shouldSendTheSameBytesForAnEventAndItsEnvelope() {
+        // Given
+        AlertEvent alertEvent = AlertEvent.builder()
+                .alertId("alert-1")
+                .serviceName("json-service")
+                .errorCode("ERR_JSON")
+                .severity(AlertSeverity.HIGH)
+                .timestamp(Instant.parse("2024-01-01T10:15:30Z"))
+                .routingKey("alerts.high")
+                .metadata(Map.of("orderId", "ord-1"))
+                .build();
+
+        // When
+        kafkaPublisher.sendAlert(alertEvent, "alerts");
+        kafkaPublisher.sendEnvelope(AlertEnvelope.of(alertEvent), "alerts");
+
+        // Then
+        verify(kafkaTemplate, times(2)).send(eq("alerts"), messageCaptor.capture());
+        List<byte[]> payloads = messageCaptor.getAllValues();
+        assertThat(payloads.get(1)).isEqualTo(payloads.get(0));
+        assertThat(new String(payloads.get(0), StandardCharsets.UTF_8)).contains("alerts.high");
     }
 
     @Test
@@ -90,7 +221,7 @@ class KafkaPublisherTest {
         kafkaPublisher.sendAlert(alertEvent, topic);
 
         // Then
-        verify(kafkaTemplate).send(eq(topic), anyString());
+        verify(kafkaTemplate).send(eq(topic), any(byte[].class));
         verifyNoMoreInteractions(kafkaTemplate);
     }
 
@@ -106,6 +237,144 @@ class KafkaPublisherTest {
         kafkaPublisher.sendAlert(alertEvent, null);
 
         // Then
-        verify(kafkaTemplate).send(isNull(), anyString());
+        verify(kafkaTemplate).send(isNull(), any(byte[].class));
+    }
+
+    @Test
+    void shouldCompleteAsyncSendWithPartitionAndOffset() {
+        // Given
+        AlertEvent alertEvent = AlertEvent.builder()
+                .serviceName("test-service")
+                .errorCode("ERR_003")
+                .build();
+        String topic = "alerts";
+        RecordMetadata metadata = new RecordMetadata(new TopicPartition(topic, 2), 41L, 0, 0L, 0, 0);
+        SendResult<String, byte[]> sendResult = new SendResult<>(new ProducerRecord<>(topic, new byte[0]), metadata);
+        when(kafkaTemplate.send(eq(topic), any(byte[].class))).thenReturn(CompletableFuture.completedFuture(sendResult));
+
+        // When
+        DeliveryReceipt receipt = kafkaPublisher.sendAlertAsync(alertEvent, topic).join();
+
+        // Then
+        assertThat(receipt.getTopic()).isEqualTo(topic);
+        assertThat(receipt.getPartition()).isEqualTo(2);
+        assertThat(receipt.getOffset()).isEqualTo(41L);
+        assertThat(receipt.getAlertId()).isEqualTo(alertEvent.getAlertId()).isNotNull();
+        assertThat(receipt.getLatency()).isNotNull();
+    }
+
+    @Test
+    void shouldMarkNonJsonPayloadsWithContentTypeHeader() {
+        // Given
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.findAndRegisterModules();
+        KafkaPublisher cborPublisher = new KafkaPublisher(kafkaTemplate,
+                AlertSerializers.forFormat(WireFormat.CBOR, objectMapper), PayloadCompressor.NONE,
+                new MonotonicAlertIdGenerator(), LoggingPolicy.DEFAULT, PartitionKey.NONE);
+        AlertEvent alertEvent = AlertEvent.builder()
+                .serviceName("test-service")
+                .errorCode("ERR_003")
+                .build();
+        String topic = "alerts";
+        ArgumentCaptor<ProducerRecord<String, byte[]>> recordCaptor = ArgumentCaptor.forClass(ProducerRecord.class);
+        when(kafkaTemplate.send(recordCaptor.capture())).thenReturn(new CompletableFuture<>());
+
+        // When
+        cborPublisher.sendAlertAsync(alertEvent, topic);
+
+        // Then
+        ProducerRecord<String, byte[]> record = recordCaptor.getValue();
+        assertThat(record.topic()).isEqualTo(topic);
+        assertThat(new String(record.headers().lastHeader(AlertSerializer.CONTENT_TYPE_HEADER).value(), StandardCharsets.UTF_8))
+                .isEqualTo(AlertSerializers.CBOR_CONTENT_TYPE);
+        verify(kafkaTemplate, never()).send(anyString(), any(byte[].class));
+    }
+
+    @Test
+    void shouldCompleteAsyncSendExceptionallyWhenKafkaFails() {
+        // Given
+        AlertEvent alertEvent = AlertEvent.builder()
+                .serviceName("test-service")
+                .build();
+        String topic = "alerts";
+        when(kafkaTemplate.send(eq(topic), any(byte[].class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        // When
+        CompletableFuture<DeliveryReceipt> receipt = kafkaPublisher.sendAlertAsync(alertEvent, topic);
+
+        // Then
+        assertThatThrownBy(receipt::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(PublishException.class);
+    }
+
+    @Test
+    void shouldSendBatchAndFlushOnceWithPerItemOutcomes() {
+        // Given
+        String topic = "alerts";
+        RecordMetadata metadata = new RecordMetadata(new TopicPartition(topic, 0), 7L, 0, 0L, 0, 0);
+        SendResult<String, byte[]> sendResult = new SendResult<>(new ProducerRecord<>(topic, new byte[0]), metadata);
+        when(kafkaTemplate.send(eq(topic), any(byte[].class)))
+                .thenReturn(CompletableFuture.completedFuture(sendResult))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("record too large")))
+                .thenReturn(CompletableFuture.completedFuture(sendResult));
+        List<AlertEvent> events = List.of(
+                AlertEvent.builder().serviceName("test-service").errorCode("ERR_1").build(),
+                AlertEvent.builder().serviceName("test-service").errorCode("ERR_2").build(),
+                AlertEvent.builder().serviceName("test-service").errorCode("ERR_3").build());
+
+        // When
+        BatchPublishResult result = kafkaPublisher.sendAlerts(events, topic);
+
+        // Then
+        verify(kafkaTemplate, times(3)).send(eq(topic), any(byte[].class));
+        verify(kafkaTemplate, times(1)).flush();
+        assertThat(result.size()).isEqualTo(3);
+        assertThat(result.successCount()).isEqualTo(2);
+        assertThat(result.getFailures()).singleElement()
+                .satisfies(item -> {
+                    assertThat(item.getIndex()).isEqualTo(1);
+                    assertThat(item.getAlertId()).isEqualTo(events.get(1).getAlertId());
+                    assertThat(item.getError()).isInstanceOf(PublishException.class);
+                });
+    }
+
+    @Test
+    void shouldWarmUpTopicByFetchingPartitionMetadata() {
+        // Given
+        when(kafkaTemplate.partitionsFor("alerts"))
+                .thenReturn(List.of(new PartitionInfo("alerts", 0, null, null, null)));
+        when(kafkaTemplate.partitionsFor("missing")).thenReturn(List.of());
+
+        // When
+        kafkaPublisher.warmUp("alerts", true);
+
+        // Then
+        verify(kafkaTemplate).partitionsFor("alerts");
+        assertThatThrownBy(() -> kafkaPublisher.warmUp("missing", true))
+                .isInstanceOf(PublishException.class)
+                .hasMessageContaining("missing");
+    }
+
+    @Test
+    void shouldKeyAlertRecordsWithPartitionKeyStrategy() {
+        // Given
+        KafkaPublisher keyedPublisher = new KafkaPublisher(kafkaTemplate,
+                AlertSerializers.forFormat(WireFormat.JSON, new ObjectMapper().findAndRegisterModules()),
+                PayloadCompressor.NONE, new MonotonicAlertIdGenerator(), LoggingPolicy.DEFAULT,
+                PartitionKeyStrategy.of(event -> event.getServiceName() + "/" + event.getErrorCode()));
+        AlertEvent alertEvent = AlertEvent.builder().alertId("alert-1").serviceName("billing").errorCode("ERR_001").build();
+        when(kafkaTemplate.send(eq("alerts"), eq("billing/ERR_001"), any(byte[].class)))
+                .thenReturn(new CompletableFuture<>());
+        when(kafkaTemplate.send(eq("alerts"), any(byte[].class))).thenReturn(new CompletableFuture<>());
+
+        // When
+        keyedPublisher.sendAlertAsync(alertEvent, "alerts");
+        keyedPublisher.sendAlertAsync(new TestEvent("test-id", "test-data"), "alerts");
+
+        // Then
+        verify(kafkaTemplate).send(eq("alerts"), eq("billing/ERR_001"), any(byte[].class));
+        verify(kafkaTemplate).send(eq("alerts"), any(byte[].class));
     }
-}
\ No newline at end of file
+}
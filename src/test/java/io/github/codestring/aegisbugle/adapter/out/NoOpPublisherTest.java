@@ -2,9 +2,13 @@ package io.github.codestring.aegisbugle.adapter.out;
 
 import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
 import io.github.codestring.aegisbugle.application.core.model.AlertSeverity;
+import io.github.codestring.aegisbugle.application.core.model.BatchPublishResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 
 class NoOpPublisherTest {
@@ -72,4 +76,19 @@ class NoOpPublisherTest {
         assertThatCode(() -> noOpPublisher.sendAlert(null, null))
                 .doesNotThrowAnyException();
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldReportEveryBatchItemAsSucceeded() {
+        // Given
+        List<AlertEvent> events = List.of(
+                AlertEvent.builder().alertId("alert-1").build(),
+                AlertEvent.builder().alertId("alert-2").build());
+
+        // When
+        BatchPublishResult result = noOpPublisher.sendAlerts(events, "test-topic");
+
+        // Then
+        assertThat(result.isAllSucceeded()).isTrue();
+        assertThat(result.size()).isEqualTo(2);
+    }
+}
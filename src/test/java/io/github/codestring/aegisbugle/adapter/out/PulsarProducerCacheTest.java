@@ -0,0 +1,127 @@
+package io.github.codestring.aegisbugle.adapter.out;
+
+import org.apache.pulsar.client.api.Producer;
+import org.apache.pulsar.client.api.ProducerBuilder;
+import org.apache.pulsar.client.api.PulsarClient;
+import org.apache.pulsar.client.api.Schema;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PulsarProducerCacheTest {
+
+    @Mock
+    private PulsarClient pulsarClient;
+
+    @Mock
+    private ProducerBuilder<byte[]> producerBuilder;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(pulsarClient.newProducer(any(Schema.class))).thenReturn(producerBuilder);
+        when(producerBuilder.topic(anyString())).thenReturn(producerBuilder);
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedProducerWhenFull() throws Exception {
+        // Given
+        Producer<byte[]> first = mock(Producer.class);
+        Producer<byte[]> second = mock(Producer.class);
+        Producer<byte[]> third = mock(Producer.class);
+        when(producerBuilder.create()).thenReturn(first, second, third);
+        PulsarProducerCache cache = new PulsarProducerCache(pulsarClient, 2, 60000, null, false);
+
+        // When
+        cache.getProducer("topic-a");
+        cache.getProducer("topic-b");
+        cache.getProducer("topic-a");
+        cache.getProducer("topic-c");
+
+        // Then
+        assertThat(cache.size()).isEqualTo(2);
+        verify(second).close();
+        verify(first, never()).close();
+        verify(third, never()).close();
+    }
+
+    @Test
+    void shouldEvictIdleProducersOnATimerWithoutFurtherUse() throws Exception {
+        // Given
+        Producer<byte[]> idle = mock(Producer.class);
+        when(producerBuilder.create()).thenReturn(idle);
+        PulsarProducerCache cache = new PulsarProducerCache(pulsarClient, 10, 50, null, false);
+
+        // When
+        cache.getProducer("topic-a");
+
+        // Then
+        verify(idle, timeout(5000)).close();
+        assertThat(cache.size()).isZero();
+        cache.close();
+    }
+
+    @Test
+    void shouldInvalidateOnlyTheProducerThatFailed() throws Exception {
+        // Given
+        Producer<byte[]> closed = mock(Producer.class);
+        Producer<byte[]> fresh = mock(Producer.class);
+        when(producerBuilder.create()).thenReturn(closed, fresh);
+        PulsarProducerCache cache = new PulsarProducerCache(pulsarClient, 10, 0, null, false);
+        cache.getProducer("topic-a");
+        cache.invalidate("topic-a", closed);
+        cache.getProducer("topic-a");
+
+        // When
+        cache.invalidate("topic-a", closed);
+
+        // Then
+        verify(closed).close();
+        verify(fresh, never()).close();
+        assertThat(cache.getProducer("topic-a")).isSameAs(fresh);
+    }
+
+    @Test
+    void shouldEvictIdleProducers() throws Exception {
+        // Given
+        Producer<byte[]> producer = mock(Producer.class);
+        when(producerBuilder.create()).thenReturn(producer);
+        PulsarProducerCache cache = new PulsarProducerCache(pulsarClient, 10, 0, null, false);
+        cache.getProducer("topic-a");
+
+        // When
+        cache.evictIdle();
+
+        // Then
+        assertThat(cache.size()).isZero();
+        verify(producer).close();
+    }
+
+    @Test
+    void shouldCloseAllProducersAndRejectUseAfterClose() throws Exception {
+        // Given
+        Producer<byte[]> first = mock(Producer.class);
+        Producer<byte[]> second = mock(Producer.class);
+        when(producerBuilder.create()).thenReturn(first, second);
+        PulsarProducerCache cache = new PulsarProducerCache(pulsarClient, 10, 60000, null, false);
+        cache.getProducer("topic-a");
+        cache.getProducer("topic-b");
+
+        // When
+        cache.close();
+
+        // Then
+        verify(first).close();
+        verify(second).close();
+        assertThatThrownBy(() -> cache.getProducer("topic-a"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -1,12 +1,19 @@
 package io.github.codestring.aegisbugle.adapter.out;
 
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.codestring.aegisbugle.TestEvent;
+import io.github.codestring.aegisbugle.adapter.out.compression.PayloadCompressor;
+import io.github.codestring.aegisbugle.adapter.out.logging.LoggingPolicy;
+import io.github.codestring.aegisbugle.adapter.out.serialization.JsonAlertSerializer;
 import io.github.codestring.aegisbugle.application.core.PublishException;
+import io.github.codestring.aegisbugle.application.core.id.MonotonicAlertIdGenerator;
 import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
 import io.github.codestring.aegisbugle.application.core.model.AlertSeverity;
+import io.github.codestring.aegisbugle.application.core.model.BatchPublishResult;
+import io.github.codestring.aegisbugle.application.core.model.DeliveryReceipt;
+import io.github.codestring.aegisbugle.application.core.partition.PartitionKey;
 import org.apache.pulsar.client.api.*;
-import org.apache.pulsar.shade.com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,6 +24,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -45,7 +55,9 @@ class PulsarPublisherTest {
         void setUp() {
             objectMapper = new ObjectMapper();
             objectMapper.findAndRegisterModules(); // For LocalDateTime support
-            pulsarPublisher = new PulsarPublisher(pulsarClient, objectMapper);
+            pulsarPublisher = new PulsarPublisher(new JsonAlertSerializer(objectMapper), PayloadCompressor.NONE,
+                    new PulsarProducerCache(pulsarClient, 100, 300000, null, false), new MonotonicAlertIdGenerator(),
+                    LoggingPolicy.DEFAULT, PartitionKey.NONE);
         }
 
         @Test
@@ -74,7 +86,7 @@ class PulsarPublisherTest {
             verify(producerBuilder).topic(topic);
             verify(producerBuilder).create();
             verify(producer).send(any(byte[].class));
-            verify(producer).close();
+            verify(producer, never()).close();
         }
 
     @Test
@@ -141,7 +153,7 @@ class PulsarPublisherTest {
     }
 
     @Test
-    void shouldCloseProducerAfterSuccessfulSend() throws Exception {
+    void shouldReuseProducerAcrossSendsToSameTopic() throws Exception {
         // Given
         AlertEvent alertEvent = AlertEvent.builder()
                 .alertId("alert-999")
@@ -156,11 +168,62 @@ class PulsarPublisherTest {
 
         // When
         pulsarPublisher.sendAlert(alertEvent, topic);
+        pulsarPublisher.sendAlert(alertEvent, topic);
+        pulsarPublisher.sendAlert(alertEvent, topic);
+
+        // Then
+        verify(producerBuilder, times(1)).create();
+        verify(producer, times(3)).send(any(byte[].class));
+        verify(producer, never()).close();
+    }
+
+    @Test
+    void shouldCloseCachedProducersWhenPublisherIsClosed() throws Exception {
+        // Given
+        AlertEvent alertEvent = AlertEvent.builder()
+                .alertId("alert-999")
+                .serviceName("test-service")
+                .build();
+        String topic = "test-topic";
+
+        when(pulsarClient.newProducer(any(Schema.class))).thenReturn(producerBuilder);
+        when(producerBuilder.topic(topic)).thenReturn(producerBuilder);
+        when(producerBuilder.create()).thenReturn(producer);
+        when(producer.send(any(byte[].class))).thenReturn(mock(MessageId.class));
+        pulsarPublisher.sendAlert(alertEvent, topic);
+
+        // When
+        pulsarPublisher.close();
 
         // Then
         verify(producer).close();
     }
 
+    @Test
+    void shouldRecreateProducerWhenCachedProducerIsAlreadyClosed() throws Exception {
+        // Given
+        AlertEvent alertEvent = AlertEvent.builder()
+                .alertId("alert-1000")
+                .serviceName("test-service")
+                .build();
+        String topic = "test-topic";
+        Producer<byte[]> freshProducer = mock(Producer.class);
+
+        when(pulsarClient.newProducer(any(Schema.class))).thenReturn(producerBuilder);
+        when(producerBuilder.topic(topic)).thenReturn(producerBuilder);
+        when(producerBuilder.create()).thenReturn(producer, freshProducer);
+        when(producer.send(any(byte[].class)))
+                .thenThrow(new PulsarClientException.AlreadyClosedException("Producer already closed"));
+        when(freshProducer.send(any(byte[].class))).thenReturn(mock(MessageId.class));
+
+        // When
+        pulsarPublisher.sendAlert(alertEvent, topic);
+
+        // Then
+        verify(producer).close();
+        verify(freshProducer).send(any(byte[].class));
+    }
+
     @Test
     void shouldSerializeAlertEventCorrectly() throws Exception {
         // Given
@@ -192,5 +255,130 @@ class PulsarPublisherTest {
         assertThat(messageJson).contains("MEDIUM");
     }
 
+    @Test
+    void shouldSendAlertAsynchronouslyWithoutBlocking() throws Exception {
+        // Given
+        AlertEvent alertEvent = AlertEvent.builder()
+                .serviceName("test-service")
+                .errorCode("ERR_ASYNC")
+                .build();
+        String topic = "async-topic";
+        MessageId messageId = mock(MessageId.class);
+
+        when(pulsarClient.newProducer(any(Schema.class))).thenReturn(producerBuilder);
+        when(producerBuilder.topic(topic)).thenReturn(producerBuilder);
+        when(producerBuilder.create()).thenReturn(producer);
+        when(producer.sendAsync(any(byte[].class))).thenReturn(CompletableFuture.completedFuture(messageId));
+
+        // When
+        DeliveryReceipt receipt = pulsarPublisher.sendAlertAsync(alertEvent, topic).join();
 
+        // Then
+        verify(producer, never()).send(any(byte[].class));
+        assertThat(receipt.getTopic()).isEqualTo(topic);
+        assertThat(receipt.getMessageId()).isEqualTo(messageId.toString());
+        assertThat(receipt.getAlertId()).isEqualTo(alertEvent.getAlertId());
+    }
+
+    @Test
+    void shouldRecreateProducerWhenAsyncSendFindsItAlreadyClosed() throws Exception {
+        // Given
+        AlertEvent alertEvent = AlertEvent.builder()
+                .serviceName("test-service")
+                .build();
+        String topic = "async-topic";
+        Producer<byte[]> freshProducer = mock(Producer.class);
+        MessageId messageId = mock(MessageId.class);
+
+        when(pulsarClient.newProducer(any(Schema.class))).thenReturn(producerBuilder);
+        when(producerBuilder.topic(topic)).thenReturn(producerBuilder);
+        when(producerBuilder.create()).thenReturn(producer, freshProducer);
+        when(producer.sendAsync(any(byte[].class))).thenReturn(CompletableFuture.failedFuture(
+                new PulsarClientException.AlreadyClosedException("Producer already closed")));
+        when(freshProducer.sendAsync(any(byte[].class))).thenReturn(CompletableFuture.completedFuture(messageId));
+
+        // When
+        DeliveryReceipt receipt = pulsarPublisher.sendAlertAsync(alertEvent, topic).join();
+        DeliveryReceipt next = pulsarPublisher.sendAlertAsync(alertEvent, topic).join();
+
+        // Then
+        verify(producer).close();
+        verify(producer).sendAsync(any(byte[].class));
+        verify(freshProducer, times(2)).sendAsync(any(byte[].class));
+        assertThat(receipt.getMessageId()).isEqualTo(messageId.toString());
+        assertThat(next.getMessageId()).isEqualTo(messageId.toString());
+    }
+
+    @Test
+    void shouldCompleteAsyncSendExceptionallyWhenSendFails() throws Exception {
+        // Given
+        AlertEvent alertEvent = AlertEvent.builder()
+                .serviceName("test-service")
+                .build();
+        String topic = "async-topic";
+
+        when(pulsarClient.newProducer(any(Schema.class))).thenReturn(producerBuilder);
+        when(producerBuilder.topic(topic)).thenReturn(producerBuilder);
+        when(producerBuilder.create()).thenReturn(producer);
+        when(producer.sendAsync(any(byte[].class)))
+                .thenReturn(CompletableFuture.failedFuture(new PulsarClientException("Send failed")));
+
+        // When/Then
+        assertThatThrownBy(() -> pulsarPublisher.sendAlertAsync(alertEvent, topic).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(PublishException.class)
+                .hasMessageContaining("Send failed");
+    }
+
+    @Test
+    void shouldSendBatchThroughOneProducerWithSendAsync() throws Exception {
+        // Given
+        String topic = "batch-topic";
+        when(pulsarClient.newProducer(any(Schema.class))).thenReturn(producerBuilder);
+        when(producerBuilder.topic(topic)).thenReturn(producerBuilder);
+        when(producerBuilder.create()).thenReturn(producer);
+        when(producer.sendAsync(any(byte[].class)))
+                .thenReturn(CompletableFuture.completedFuture(mock(MessageId.class)));
+        List<AlertEvent> events = List.of(
+                AlertEvent.builder().serviceName("test-service").errorCode("ERR_1").build(),
+                AlertEvent.builder().serviceName("test-service").errorCode("ERR_2").build());
+
+        // When
+        BatchPublishResult result = pulsarPublisher.sendAlerts(events, topic);
+
+        // Then
+        verify(producerBuilder, times(1)).create();
+        verify(producer, times(2)).sendAsync(any(byte[].class));
+        verify(producer).flushAsync();
+        assertThat(result.isAllSucceeded()).isTrue();
+        assertThat(result.getItems()).extracting(item -> item.getAlertId())
+                .containsExactly(events.get(0).getAlertId(), events.get(1).getAlertId());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldKeyAlertMessagesAndBatchProducerByKey() throws Exception {
+        // Given
+        PulsarPublisher keyedPublisher = new PulsarPublisher(new JsonAlertSerializer(objectMapper),
+                PayloadCompressor.NONE, new PulsarProducerCache(pulsarClient, 10, 60000, null, true),
+                new MonotonicAlertIdGenerator(), LoggingPolicy.DEFAULT, PartitionKey.ERROR_CODE);
+        TypedMessageBuilder<byte[]> message = mock(TypedMessageBuilder.class);
+        when(pulsarClient.newProducer(any(Schema.class))).thenReturn(producerBuilder);
+        when(producerBuilder.topic("alerts")).thenReturn(producerBuilder);
+        when(producerBuilder.batcherBuilder(BatcherBuilder.KEY_BASED)).thenReturn(producerBuilder);
+        when(producerBuilder.create()).thenReturn(producer);
+        when(producer.newMessage()).thenReturn(message);
+        when(message.value(any())).thenReturn(message);
+        when(message.key("ERR_001")).thenReturn(message);
+        when(message.sendAsync()).thenReturn(CompletableFuture.completedFuture(mock(MessageId.class)));
+
+        // When
+        keyedPublisher.sendAlertAsync(AlertEvent.builder().alertId("alert-1").errorCode("ERR_001").build(), "alerts")
+                .join();
+
+        // Then
+        verify(producerBuilder).batcherBuilder(BatcherBuilder.KEY_BASED);
+        verify(message).key("ERR_001");
+        verify(producer, never()).sendAsync(any(byte[].class));
+    }
 }
@@ -1,9 +1,19 @@
 package io.github.codestring.aegisbugle.adapter.out;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.codestring.aegisbugle.adapter.out.compression.CompressionCodec;
+import io.github.codestring.aegisbugle.adapter.out.compression.PayloadCompressor;
+import io.github.codestring.aegisbugle.adapter.out.logging.LoggingPolicy;
+import io.github.codestring.aegisbugle.adapter.out.serialization.JsonAlertSerializer;
 import io.github.codestring.aegisbugle.application.core.PublishException;
+import io.github.codestring.aegisbugle.application.core.id.MonotonicAlertIdGenerator;
+import io.github.codestring.aegisbugle.application.core.model.AlertEnvelope;
 import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
 import io.github.codestring.aegisbugle.application.core.model.AlertSeverity;
+import io.github.codestring.aegisbugle.application.core.model.BatchPublishResult;
+import io.github.codestring.aegisbugle.application.core.model.DeliveryReceipt;
+import io.github.codestring.aegisbugle.application.core.model.FailureMessage;
+import io.github.codestring.aegisbugle.application.core.retry.DefaultRetryableErrorClassifier;
 import io.github.codestring.aegisbugle.config.BugleProperties;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,13 +24,30 @@ import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -48,7 +75,7 @@ class RabbitMQPublisherTest {
     private ArgumentCaptor<String> routingKeyCaptor;
 
     @Captor
-    private ArgumentCaptor<String> messageCaptor;
+    private ArgumentCaptor<Message> messageCaptor;
 
     private ObjectMapper objectMapper;
     private RabbitMqPublisher rabbitMQPublisher;
@@ -60,7 +87,8 @@ class RabbitMQPublisherTest {
 
         when(properties.getRabbitmq()).thenReturn(rabbitMqProperties);
 
-        rabbitMQPublisher = new RabbitMqPublisher(rabbitTemplate, properties, objectMapper);
+        rabbitMQPublisher = new RabbitMqPublisher(rabbitTemplate, properties, new JsonAlertSerializer(objectMapper),
+                PayloadCompressor.NONE, new MonotonicAlertIdGenerator(), LoggingPolicy.DEFAULT, ForkJoinPool.commonPool());
     }
 
     @Test
@@ -83,10 +111,11 @@ class RabbitMQPublisherTest {
         rabbitMQPublisher.sendAlert(alertEvent, exchange);
 
         // Then
-        verify(rabbitTemplate, times(1)).convertAndSend(
+        verify(rabbitTemplate, times(1)).send(
                 eq(exchange),
                 eq(alertEvent.getRoutingKey()),
-                messageCaptor.capture()
+                messageCaptor.capture(),
+                any(CorrelationData.class)
         );
     }
 
@@ -105,10 +134,11 @@ class RabbitMQPublisherTest {
         rabbitMQPublisher.sendAlert(alertEvent, null);
 
         // Then
-        verify(rabbitTemplate).convertAndSend(
+        verify(rabbitTemplate).send(
                 eq("test-exchange1"),
                 eq(alertEvent.getRoutingKey()),
-                messageCaptor.capture()
+                messageCaptor.capture(),
+                any(CorrelationData.class)
         );
     }
 
@@ -154,13 +184,14 @@ class RabbitMQPublisherTest {
         rabbitMQPublisher.sendAlert(alertEvent, destination);
 
         // Then
-        verify(rabbitTemplate).convertAndSend(
+        verify(rabbitTemplate).send(
                 anyString(),
                 anyString(),
-                messageCaptor.capture()
+                messageCaptor.capture(),
+                any(CorrelationData.class)
         );
 
-        String sentMessage = messageCaptor.getValue();
+        String sentMessage = new String(messageCaptor.getValue().getBody(), StandardCharsets.UTF_8);
         assertThat(sentMessage).contains("alert-serialize");
         assertThat(sentMessage).contains("serialize-service");
         assertThat(sentMessage).contains("ERR_SER");
@@ -179,7 +210,7 @@ class RabbitMQPublisherTest {
 
         when(rabbitMqProperties.getDefaultExchange()).thenReturn("test-exchange");
         doThrow(new AmqpException("Connection lost"))
-                .when(rabbitTemplate).convertAndSend(anyString(), anyString(), anyString());
+                .when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
 
         // When/Then
         assertThatThrownBy(() -> rabbitMQPublisher.sendAlert(alertEvent, destination))
@@ -188,6 +219,25 @@ class RabbitMQPublisherTest {
                 .hasCauseInstanceOf(AmqpException.class);
     }
 
+    @Test
+    void shouldFailAlertWithoutRoutingKeyAsNotRetryable() {
+        // Given
+        AlertEvent alertEvent = AlertEvent.builder()
+                .serviceName("test-service")
+                .build();
+
+        // When
+        CompletableFuture<DeliveryReceipt> receipt = rabbitMQPublisher.sendAlertAsync(alertEvent, "test-exchange");
+
+        // Then
+        assertThatThrownBy(receipt::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(PublishException.class)
+                .hasMessageContaining("Routing key is required")
+                .satisfies(error -> assertThat(new DefaultRetryableErrorClassifier().isRetryable(error)).isFalse());
+        verifyNoInteractions(rabbitTemplate);
+    }
+
 //    @Test
 //    void shouldPublishFailureMessageWhenEnabled() throws Exception {
 //        // Given
@@ -258,4 +308,275 @@ class RabbitMQPublisherTest {
 //
 //        verify(rabbitTemplate).convertAndSend(anyString(), anyString(), anyString());
 //    }
+
+    @Test
+    void shouldCompleteAsyncSendWhenBrokerAcks() {
+        // Given
+        AlertEvent alertEvent = AlertEvent.builder()
+                .serviceName("test-service")
+                .routingKey("test-routing-key")
+                .build();
+        when(rabbitMqProperties.getConfirmTimeoutMs()).thenReturn(1000L);
+        doAnswer(invocation -> {
+            CorrelationData correlationData = invocation.getArgument(3);
+            correlationData.getFuture().complete(new CorrelationData.Confirm(true, null));
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+
+        // When
+        DeliveryReceipt receipt = rabbitMQPublisher.sendAlertAsync(alertEvent, "test-exchange").join();
+
+        // Then
+        assertThat(receipt.getTopic()).isEqualTo("test-exchange");
+        assertThat(receipt.getAlertId()).isEqualTo(alertEvent.getAlertId()).isNotNull();
+        assertThat(alertEvent.getRoutingKey()).isEqualTo("test-routing-key");
+    }
+
+    @Test
+    void shouldCompleteAsyncSendExceptionallyWhenBrokerNacks() {
+        // Given
+        AlertEvent alertEvent = AlertEvent.builder()
+                .serviceName("test-service")
+                .routingKey("test-routing-key")
+                .build();
+        when(rabbitMqProperties.getConfirmTimeoutMs()).thenReturn(1000L);
+        doAnswer(invocation -> {
+            CorrelationData correlationData = invocation.getArgument(3);
+            correlationData.getFuture().complete(new CorrelationData.Confirm(false, "queue full"));
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+
+        // When
+        CompletableFuture<DeliveryReceipt> receipt = rabbitMQPublisher.sendAlertAsync(alertEvent, "test-exchange");
+
+        // Then
+        assertThatThrownBy(receipt::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(PublishException.class)
+                .hasMessageContaining("queue full");
+    }
+
+    @Test
+    void shouldSendBatchBeforeAwaitingConfirms() {
+        // Given
+        List<CorrelationData> pending = new ArrayList<>();
+        when(rabbitMqProperties.getConfirmTimeoutMs()).thenReturn(1000L);
+        doAnswer(invocation -> {
+            pending.add(invocation.getArgument(3));
+            if (pending.size() == 3) {
+                pending.get(0).getFuture().complete(new CorrelationData.Confirm(true, null));
+                pending.get(1).getFuture().complete(new CorrelationData.Confirm(false, "rejected"));
+                pending.get(2).getFuture().complete(new CorrelationData.Confirm(true, null));
+            }
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+        List<AlertEvent> events = List.of(
+                AlertEvent.builder().serviceName("test-service").routingKey("rk").build(),
+                AlertEvent.builder().serviceName("test-service").routingKey("rk").build(),
+                AlertEvent.builder().serviceName("test-service").routingKey("rk").build());
+
+        // When
+        BatchPublishResult result = rabbitMQPublisher.sendAlerts(events, "test-exchange");
+
+        // Then
+        assertThat(result.successCount()).isEqualTo(2);
+        assertThat(result.getFailures()).singleElement()
+                .satisfies(item -> assertThat(item.getIndex()).isEqualTo(1));
+    }
+
+    @Test
+    void shouldSendFailureMessageWithDestinationAsRoutingKey() throws Exception {
+        // Given
+        AlertEvent alertEvent = AlertEvent.builder().serviceName("test-service").routingKey("rk").build();
+        FailureMessage failure = FailureMessage.from("test-exchange", alertEvent, new PublishException("nacked"));
+        when(rabbitMqProperties.getConfirmTimeoutMs()).thenReturn(1000L);
+        doAnswer(invocation -> {
+            CorrelationData correlationData = invocation.getArgument(3);
+            correlationData.getFuture().complete(new CorrelationData.Confirm(true, null));
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+
+        // When
+        rabbitMQPublisher.sendFailureAsync(failure, "aegis-bugle-failures").join();
+
+        // Then
+        verify(rabbitTemplate).send(exchangeCaptor.capture(), routingKeyCaptor.capture(),
+                messageCaptor.capture(), any(CorrelationData.class));
+        assertThat(exchangeCaptor.getValue()).isEqualTo("test-exchange");
+        assertThat(routingKeyCaptor.getValue()).isEqualTo("aegis-bugle-failures");
+        assertThat(objectMapper.readTree(messageCaptor.getValue().getBody()).get("errorMessage").asText()).isEqualTo("nacked");
+    }
+
+    @Test
+    void shouldFailAsyncSendWhenMessageIsReturnedAsUnroutable() {
+        // Given
+        AlertEvent alertEvent = AlertEvent.builder().serviceName("test-service").routingKey("rk").build();
+        when(rabbitMqProperties.getConfirmTimeoutMs()).thenReturn(1000L);
+        doAnswer(invocation -> {
+            CorrelationData correlationData = invocation.getArgument(3);
+            correlationData.setReturned(new ReturnedMessage(new Message(new byte[0]), 312, "NO_ROUTE", "test-exchange", "rk"));
+            correlationData.getFuture().complete(new CorrelationData.Confirm(true, null));
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+
+        // When
+        CompletableFuture<DeliveryReceipt> receipt = rabbitMQPublisher.sendAlertAsync(alertEvent, "test-exchange");
+
+        // Then
+        assertThatThrownBy(receipt::join)
+                .hasCauseInstanceOf(PublishException.class)
+                .hasMessageContaining("NO_ROUTE");
+    }
+
+    @Test
+    void shouldHoldSendsBeyondConfirmWindowUntilAnEarlierConfirmArrives() throws Exception {
+        // Given
+        List<CorrelationData> pending = new CopyOnWriteArrayList<>();
+        when(rabbitMqProperties.getMaxOutstandingConfirms()).thenReturn(1);
+        when(rabbitMqProperties.getConfirmTimeoutMs()).thenReturn(5000L);
+        doAnswer(invocation -> pending.add(invocation.getArgument(3)))
+                .when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+        RabbitMqPublisher publisher = new RabbitMqPublisher(rabbitTemplate, properties, new JsonAlertSerializer(objectMapper),
+                PayloadCompressor.NONE, new MonotonicAlertIdGenerator(), LoggingPolicy.DEFAULT, ForkJoinPool.commonPool());
+        AlertEvent first = AlertEvent.builder().serviceName("test-service").routingKey("rk").build();
+        AlertEvent second = AlertEvent.builder().serviceName("test-service").routingKey("rk").build();
+
+        // When
+        CompletableFuture<DeliveryReceipt> firstReceipt = publisher.sendAlertAsync(first, "test-exchange");
+        CompletableFuture<CompletableFuture<DeliveryReceipt>> secondSend =
+                CompletableFuture.supplyAsync(() -> publisher.sendAlertAsync(second, "test-exchange"));
+        Thread.sleep(200);
+        boolean heldWhileWindowFull = !secondSend.isDone() && pending.size() == 1;
+        pending.get(0).getFuture().complete(new CorrelationData.Confirm(true, null));
+        CompletableFuture<DeliveryReceipt> secondReceipt = secondSend.get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(heldWhileWindowFull).isTrue();
+        assertThat(firstReceipt.join().getAlertId()).isEqualTo(first.getAlertId());
+        assertThat(pending).hasSize(2);
+        assertThat(secondReceipt).isNotDone();
+    }
+
+    @Test
+    void shouldHandConfirmOutcomesToTheCallbackExecutorBeforePublishingFailures() throws Exception {
+        // Given
+        ExecutorService callbacks = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "bugle-callback"));
+        List<String> sendThreads = new CopyOnWriteArrayList<>();
+        when(properties.getFailure()).thenReturn(failureProperties);
+        when(failureProperties.isEnabled()).thenReturn(true);
+        when(failureProperties.getDestination()).thenReturn("aegis-bugle-failures");
+        when(rabbitMqProperties.getConfirmTimeoutMs()).thenReturn(1000L);
+        doAnswer(invocation -> {
+            CorrelationData correlationData = invocation.getArgument(3);
+            correlationData.getFuture().complete(new CorrelationData.Confirm(false, "queue full"));
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+        doAnswer(invocation -> sendThreads.add(Thread.currentThread().getName()))
+                .when(rabbitTemplate).send(anyString(), anyString(), any(Message.class));
+        RabbitMqPublisher publisher = new RabbitMqPublisher(rabbitTemplate, properties, new JsonAlertSerializer(objectMapper),
+                PayloadCompressor.NONE, new MonotonicAlertIdGenerator(), LoggingPolicy.DEFAULT, callbacks);
+        AlertEvent alertEvent = AlertEvent.builder().serviceName("test-service").routingKey("rk").build();
+
+        CountDownLatch callbacksHeld = new CountDownLatch(1);
+        callbacks.execute(() -> {
+            try {
+                callbacksHeld.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // When
+        publisher.sendAlert(alertEvent, "test-exchange");
+        CompletableFuture<DeliveryReceipt> receipt = publisher.sendAlertAsync(alertEvent, "test-exchange");
+        boolean completedOnConfirmThread = receipt.isDone();
+        CompletableFuture<String> outcomeThread = receipt.handle((result, error) -> Thread.currentThread().getName());
+        callbacksHeld.countDown();
+
+        // Then
+        verify(rabbitTemplate, timeout(5000)).send(eq("test-exchange"), eq("aegis-bugle-failures"), any(Message.class));
+        assertThat(completedOnConfirmThread).isFalse();
+        assertThat(outcomeThread.get(5, TimeUnit.SECONDS)).isEqualTo("bugle-callback");
+        assertThat(sendThreads).containsExactly("bugle-callback");
+        callbacks.shutdown();
+    }
+
+    @Test
+    void shouldSendAlertJsonEncodedOnceWithJsonMessageProperties() {
+        // Given
+        AlertEvent alertEvent = AlertEvent.builder()
+                .alertId("alert-bytes")
+                .serviceName("test-service")
+                .errorCode("ERR_001")
+                .errorMessage("Disk \"data\" full")
+                .severity(AlertSeverity.HIGH)
+                .routingKey("rk")
+                .build();
+        when(rabbitMqProperties.getConfirmTimeoutMs()).thenReturn(1000L);
+
+        // When
+        rabbitMQPublisher.sendAlertAsync(alertEvent, "test-exchange");
+
+        // Then
+        verify(rabbitTemplate).send(eq("test-exchange"), eq("rk"), messageCaptor.capture(), any(CorrelationData.class));
+        Message message = messageCaptor.getValue();
+        assertThat(message.getBody()).isEqualTo(("{\"alert_id\":\"alert-bytes\",\"service_name\":\"test-service\","
+                + "\"error_code\":\"ERR_001\",\"error_message\":\"Disk \\\"data\\\" full\",\"severity\":\"HIGH\"}")
+                .getBytes(StandardCharsets.UTF_8));
+        assertThat(message.getMessageProperties().getContentType()).isEqualTo(MessageProperties.CONTENT_TYPE_JSON);
+        assertThat(message.getMessageProperties().getContentEncoding()).isEqualTo("UTF-8");
+        assertThat(message.getMessageProperties().getContentLength()).isEqualTo(message.getBody().length);
+        assertThat(message.getMessageProperties().getDeliveryMode()).isEqualTo(MessageDeliveryMode.PERSISTENT);
+    }
+
+    @Test
+    void shouldCompressLargeAlertsAndMarkContentEncoding() throws Exception {
+        // Given
+        RabbitMqPublisher publisher = new RabbitMqPublisher(rabbitTemplate, properties, new JsonAlertSerializer(objectMapper),
+                new PayloadCompressor(CompressionCodec.GZIP, 1024), new MonotonicAlertIdGenerator(), LoggingPolicy.DEFAULT,
+                ForkJoinPool.commonPool());
+        AlertEvent alertEvent = AlertEvent.builder()
+                .alertId("alert-large")
+                .serviceName("test-service")
+                .stackTrace("\tat com.example.orders.OrderService.pay(OrderService.java:42)\n".repeat(100))
+                .routingKey("rk")
+                .build();
+        when(rabbitMqProperties.getConfirmTimeoutMs()).thenReturn(1000L);
+
+        // When
+        publisher.sendAlertAsync(alertEvent, "test-exchange");
+
+        // Then
+        verify(rabbitTemplate).send(eq("test-exchange"), eq("rk"), messageCaptor.capture(), any(CorrelationData.class));
+        Message message = messageCaptor.getValue();
+        assertThat(message.getMessageProperties().getContentEncoding()).isEqualTo("gzip");
+        assertThat(message.getMessageProperties().getContentType()).isEqualTo(MessageProperties.CONTENT_TYPE_JSON);
+        assertThat(objectMapper.readValue(PayloadCompressor.decompress("gzip", message.getBody()), AlertEvent.class)
+                .getStackTrace()).isEqualTo(alertEvent.getStackTrace());
+    }
+
+    @Test
+    void shouldSendOneEnvelopeToSeveralExchangesWithASingleEncoding() {
+        // Given
+        AlertEvent alertEvent = AlertEvent.builder()
+                .alertId("alert-shared")
+                .serviceName("test-service")
+                .routingKey("rk")
+                .build();
+        AlertEnvelope envelope = AlertEnvelope.of(alertEvent);
+        when(rabbitMqProperties.getConfirmTimeoutMs()).thenReturn(1000L);
+
+        // When
+        rabbitMQPublisher.sendEnvelopeAsync(envelope, "primary");
+        rabbitMQPublisher.sendEnvelopeAsync(envelope, "secondary");
+
+        // Then
+        verify(rabbitTemplate, times(2)).send(exchangeCaptor.capture(), eq("rk"), messageCaptor.capture(),
+                any(CorrelationData.class));
+        assertThat(exchangeCaptor.getAllValues()).containsExactly("primary", "secondary");
+        List<Message> messages = messageCaptor.getAllValues();
+        assertThat(messages.get(1).getBody()).isSameAs(messages.get(0).getBody());
+        assertThat(new String(messages.get(0).getBody(), StandardCharsets.UTF_8)).doesNotContain("routingKey");
+        assertThat(alertEvent.getRoutingKey()).isEqualTo("rk");
+    }
 }
@@ -0,0 +1,48 @@
+package io.github.codestring.aegisbugle.adapter.out.buffer;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PayloadBufferPoolTest {
+
+    @Test
+    void shouldHandTheSameBufferToAThreadUntilItIsHeld() {
+        // Given
+        PayloadBufferPool pool = new PayloadBufferPool(4096);
+        PayloadBuffer first = pool.acquire();
+        first.write("alert".getBytes(StandardCharsets.UTF_8), 0, 5);
+        byte[] payload = first.toByteArray();
+        pool.release(first);
+
+        // When
+        PayloadBuffer second = pool.acquire();
+        PayloadBuffer nested = pool.acquire();
+
+        // Then
+        assertThat(payload).asString(StandardCharsets.UTF_8).isEqualTo("alert");
+        assertThat(second).isSameAs(first);
+        assertThat(second.size()).isZero();
+        assertThat(nested).isNotSameAs(second);
+        pool.release(nested);
+        pool.release(second);
+    }
+
+    @Test
+    void shouldShrinkBuffersThatGrewBeyondTheRetainedSize() {
+        // Given
+        PayloadBufferPool pool = new PayloadBufferPool(4096);
+        PayloadBuffer buffer = pool.acquire();
+        buffer.write(new byte[10_000], 0, 10_000);
+
+        // When
+        pool.release(buffer);
+
+        // Then
+        assertThat(buffer.capacity()).isLessThanOrEqualTo(4096);
+        assertThat(pool.acquire()).isSameAs(buffer);
+        assertThat(new PayloadBufferPool(0).acquire()).isNotSameAs(new PayloadBufferPool(0).acquire());
+    }
+}
@@ -0,0 +1,86 @@
+package io.github.codestring.aegisbugle.adapter.out.compression;
+
+import net.jpountz.lz4.LZ4FrameOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PayloadCompressorTest {
+
+    @ParameterizedTest
+    @EnumSource(value = CompressionCodec.class, names = {"GZIP", "LZ4", "ZSTD"})
+    void shouldCompressLargePayloadsAndRestoreThem(CompressionCodec codec) throws Exception {
+        // Given
+        PayloadCompressor compressor = new PayloadCompressor(codec, 1024);
+        byte[] payload = stackTrace(200);
+
+        // When
+        byte[] compressed = compressor.compress(payload);
+
+        // Then
+        assertThat(compressed).isNotSameAs(payload);
+        assertThat(compressed.length).isLessThan(payload.length / 4);
+        assertThat(compressor.encoding()).isEqualTo(codec.encoding());
+        assertThat(PayloadCompressor.decompress(compressor.encoding(), compressed)).isEqualTo(payload);
+    }
+
+    @Test
+    void shouldLeavePayloadsBelowThresholdUntouched() {
+        // Given
+        PayloadCompressor compressor = new PayloadCompressor(CompressionCodec.GZIP, 4096);
+        byte[] payload = stackTrace(5);
+
+        // When / Then
+        assertThat(payload.length).isLessThan(4096);
+        assertThat(compressor.compress(payload)).isSameAs(payload);
+        assertThat(PayloadCompressor.NONE.compress(stackTrace(200))).hasSize(stackTrace(200).length);
+    }
+
+    @Test
+    void shouldKeepPayloadUncompressedWhenCompressionDoesNotShrinkIt() {
+        // Given
+        PayloadCompressor compressor = new PayloadCompressor(CompressionCodec.GZIP, 16);
+        byte[] payload = new byte[512];
+        ThreadLocalRandom.current().nextBytes(payload);
+
+        // When / Then
+        assertThat(compressor.compress(payload)).isSameAs(payload);
+    }
+
+    @Test
+    void shouldWriteTheSameLz4FrameAsTheFrameStream() throws Exception {
+        // Given
+        PayloadCompressor compressor = new PayloadCompressor(CompressionCodec.LZ4, 0);
+        byte[] random = new byte[70_000];
+        ThreadLocalRandom.current().nextBytes(random);
+        byte[] payload = new byte[200_000];
+        System.arraycopy(random, 0, payload, 0, random.length);
+        byte[] trace = stackTrace(4000);
+        System.arraycopy(trace, 0, payload, random.length, payload.length - random.length);
+
+        // When
+        byte[] compressed = compressor.compress(payload);
+
+        // Then
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        try (LZ4FrameOutputStream lz4 = new LZ4FrameOutputStream(expected, LZ4FrameOutputStream.BLOCKSIZE.SIZE_64KB)) {
+            lz4.write(payload);
+        }
+        assertThat(compressed).isEqualTo(expected.toByteArray());
+        assertThat(PayloadCompressor.decompress("lz4", compressed)).isEqualTo(payload);
+    }
+
+    private static byte[] stackTrace(int frames) {
+        StringBuilder trace = new StringBuilder("java.lang.IllegalStateException: Payment failed");
+        for (int i = 0; i < frames; i++) {
+            trace.append("\n\tat com.example.orders.OrderService.step").append(i % 7).append("(OrderService.java:42)");
+        }
+        return trace.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.codestring.aegisbugle.adapter.out.logging;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LogRateLimiterTest {
+
+    @Mock
+    private Logger log;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void shouldAllowBurstThenSampleTheRest() {
+        // Given
+        LogRateLimiter limiter = new LogRateLimiter(log, "send", new LoggingPolicy(true, 1000, 3, 5), clock::get);
+
+        // When
+        int allowed = 0;
+        for (int i = 0; i < 23; i++) {
+            if (limiter.tryAcquire()) {
+                allowed++;
+            }
+        }
+
+        // Then
+        assertThat(allowed).isEqualTo(3 + 4);
+        assertThat(limiter.suppressedCount()).isEqualTo(16);
+        verifyNoInteractions(log);
+    }
+
+    @Test
+    void shouldSummarizeSuppressedMessagesWhenNextIntervalStarts() {
+        // Given
+        LogRateLimiter limiter = new LogRateLimiter(log, "send", new LoggingPolicy(true, 1000, 1, 0), clock::get);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire();
+        }
+
+        // When
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1500));
+        boolean allowed = limiter.tryAcquire();
+
+        // Then
+        assertThat(allowed).isTrue();
+        assertThat(limiter.suppressedCount()).isZero();
+        verify(log).warn(anyString(), eq(4L), eq("send"), eq(1500L));
+        verify(log, never()).warn(anyString(), eq(0L), anyString(), anyLong());
+    }
+
+    @Test
+    void shouldAllowEveryCallWhenNotRateLimited() {
+        // Given
+        LogRateLimiter limiter = new LogRateLimiter(log, "send", new LoggingPolicy(false, 1000, 1, 0), clock::get);
+
+        // When / Then
+        for (int i = 0; i < 100; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+        assertThat(limiter.suppressedCount()).isZero();
+    }
+}
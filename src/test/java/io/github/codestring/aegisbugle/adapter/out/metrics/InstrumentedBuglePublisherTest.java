@@ -0,0 +1,98 @@
+package io.github.codestring.aegisbugle.adapter.out.metrics;
+
+import io.github.codestring.aegisbugle.application.core.PublishException;
+import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import io.github.codestring.aegisbugle.application.core.model.AlertSeverity;
+import io.github.codestring.aegisbugle.application.core.model.DeliveryReceipt;
+import io.github.codestring.aegisbugle.application.port.out.BuglePublisher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InstrumentedBuglePublisherTest {
+
+    @Mock
+    private BuglePublisher delegate;
+
+    private MeterRegistry registry;
+    private InstrumentedBuglePublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        publisher = new InstrumentedBuglePublisher(delegate, new PublisherMetrics(registry, "kafka", 2));
+    }
+
+    @Test
+    void shouldRecordLatencyPayloadSizeAndSuccessCount() {
+        // Given
+        AlertEvent event = AlertEvent.builder().alertId("alert-1").severity(AlertSeverity.HIGH).build();
+        when(delegate.sendAlertAsync(event, "alerts")).thenReturn(CompletableFuture.completedFuture(
+                DeliveryReceipt.builder().alertId("alert-1").payloadBytes(512).build()));
+
+        // When
+        publisher.sendAlertAsync(event, "alerts").join();
+
+        // Then
+        assertThat(registry.get("aegis.bugle.publish.latency")
+                .tags("broker", "kafka", "topic", "alerts", "outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(registry.get("aegis.bugle.publish.payload.size").tags("topic", "alerts").summary().totalAmount())
+                .isEqualTo(512);
+        assertThat(registry.get("aegis.bugle.publish")
+                .tags("severity", "HIGH", "outcome", "success", "exception", "none").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldTagFailuresWithUnderlyingExceptionClass() {
+        // Given
+        AlertEvent event = AlertEvent.builder().alertId("alert-1").severity(AlertSeverity.LOW).build();
+        when(delegate.sendAlertAsync(event, "alerts")).thenReturn(CompletableFuture.failedFuture(
+                new PublishException("Failed to publish message to Kafka", new TimeoutException("expired"))));
+        doThrow(new PublishException("Routing key is required")).when(delegate).sendAlert(event, "alerts");
+
+        // When
+        publisher.sendAlertAsync(event, "alerts");
+        assertThatThrownBy(() -> publisher.sendAlert(event, "alerts")).isInstanceOf(PublishException.class);
+
+        // Then
+        assertThat(registry.get("aegis.bugle.publish")
+                .tags("outcome", "failure", "exception", "TimeoutException").counter().count()).isEqualTo(1);
+        assertThat(registry.get("aegis.bugle.publish")
+                .tags("outcome", "failure", "exception", "PublishException").counter().count()).isEqualTo(1);
+        assertThat(registry.get("aegis.bugle.publish.latency").tags("outcome", "failure").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldBoundTopicTagValues() {
+        // Given
+        when(delegate.sendAlertAsync(any(AlertEvent.class), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(DeliveryReceipt.builder().build()));
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            publisher.sendAlertAsync(AlertEvent.builder().build(), "topic-" + i);
+        }
+
+        // Then
+        assertThat(registry.find("aegis.bugle.publish.latency").timers())
+                .extracting(timer -> timer.getId().getTag("topic"))
+                .containsOnly("topic-0", "topic-1", PublisherMetrics.OTHER_TOPIC);
+        assertThat(registry.get("aegis.bugle.publish.latency").tags("topic", PublisherMetrics.OTHER_TOPIC)
+                .timer().count()).isEqualTo(8);
+    }
+}
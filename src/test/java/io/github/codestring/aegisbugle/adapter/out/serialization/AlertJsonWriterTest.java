@@ -0,0 +1,195 @@
+package io.github.codestring.aegisbugle.adapter.out.serialization;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.github.codestring.aegisbugle.TestEvent;
+import io.github.codestring.aegisbugle.application.core.model.AlertContext;
+import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import io.github.codestring.aegisbugle.application.core.model.AlertSeverity;
+import io.github.codestring.aegisbugle.application.core.model.FailureMessage;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AlertJsonWriterTest {
+
+    @Test
+    void shouldWriteAlertExactlyAsObjectMapper() throws Exception {
+        // Given
+        ObjectMapper objectMapper = isoMapper();
+        AlertJsonWriter writer = new AlertJsonWriter(objectMapper);
+        AlertEvent event = fullAlert();
+
+        // When
+        byte[] json = writer.writeValueAsBytes(event);
+
+        // Then
+        assertThat(new String(json, StandardCharsets.UTF_8))
+                .isEqualTo(objectMapper.writeValueAsString(event))
+                .startsWith("{\"routingKey\":\"alerts.critical\",\"alert_id\":\"alert-1\"");
+    }
+
+    @Test
+    void shouldStreamEveryPropertyTheObjectMapperWrites() {
+        // Given
+        AlertJsonWriter writer = new AlertJsonWriter(isoMapper());
+
+        // When / Then: a property the writer does not know, e.g. a new AlertEvent field, turns streaming off
+        assertThat(writer.streams(AlertEvent.class)).isTrue();
+        assertThat(writer.streams(FailureMessage.class)).isTrue();
+    }
+
+    @Test
+    void shouldFollowNamingStrategyAndOrderingOfTheObjectMapper() throws Exception {
+        // Given
+        ObjectMapper objectMapper = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+                .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+                .build();
+        AlertJsonWriter writer = new AlertJsonWriter(objectMapper);
+        AlertEvent event = fullAlert();
+        FailureMessage failure = FailureMessage.from("alerts", event, new IllegalStateException("broker down"));
+        ObjectMapper nonEmpty = isoMapper();
+        nonEmpty.setSerializationInclusion(JsonInclude.Include.NON_EMPTY);
+        AlertJsonWriter delegating = new AlertJsonWriter(nonEmpty);
+        FailureMessage empty = FailureMessage.builder().originalDestination("alerts").errorMessage("").build();
+
+        // When
+        byte[] alertJson = writer.writeValueAsBytes(event);
+        byte[] failureJson = writer.writeValueAsBytes(failure);
+
+        // Then
+        assertThat(writer.streams(AlertEvent.class)).isTrue();
+        assertThat(alertJson).isEqualTo(objectMapper.writeValueAsBytes(event));
+        assertThat(failureJson).isEqualTo(objectMapper.writeValueAsBytes(failure));
+        assertThat(new String(alertJson, StandardCharsets.UTF_8)).startsWith("{\"alert_id\":\"alert-1\"")
+                .contains("\"routing_key\":\"alerts.critical\"");
+        assertThat(delegating.streams(FailureMessage.class)).isFalse();
+        assertThat(delegating.writeValueAsBytes(empty)).isEqualTo(nonEmpty.writeValueAsBytes(empty));
+    }
+
+    @Test
+    void shouldSpliceEncodedStaticFieldsExactlyAsObjectMapper() throws Exception {
+        // Given
+        ObjectMapper objectMapper = isoMapper();
+        AlertJsonWriter writer = new AlertJsonWriter(objectMapper);
+        AlertContext context = AlertContext.builder().host("node-1").pod("orders-7d9f").instanceId("i-1")
+                .jvm("Eclipse Adoptium 17.0.12+7").build();
+        AlertEvent first = fullAlert();
+        first.setContext(context);
+        AlertEvent second = fullAlert();
+        second.setContext(context);
+        second.setErrorCode("ERR_002");
+        AlertEvent moved = fullAlert();
+        moved.setServiceName("billing-service");
+        moved.setContext(AlertContext.builder().host("node-2").build());
+
+        // When
+        writer.writeValueAsBytes(first);
+        byte[] spliced = writer.writeValueAsBytes(second);
+        byte[] changed = writer.writeValueAsBytes(moved);
+
+        // Then
+        assertThat(spliced).isEqualTo(objectMapper.writeValueAsBytes(second));
+        assertThat(new String(spliced, StandardCharsets.UTF_8)).endsWith(
+                ",\"context\":{\"host\":\"node-1\",\"pod\":\"orders-7d9f\",\"instance_id\":\"i-1\","
+                        + "\"jvm\":\"Eclipse Adoptium 17.0.12+7\"}}");
+        assertThat(changed).isEqualTo(objectMapper.writeValueAsBytes(moved));
+    }
+
+    @Test
+    void shouldSkipNullAlertFieldsAndHonourNumericTimestamps() throws Exception {
+        // Given
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        AlertJsonWriter writer = new AlertJsonWriter(objectMapper);
+        AlertEvent event = AlertEvent.builder()
+                .serviceName("order-service")
+                .timestamp(Instant.parse("2025-01-01T10:15:30.123456Z"))
+                .build();
+
+        // When
+        byte[] json = writer.writeValueAsBytes(event);
+
+        // Then
+        assertThat(json).isEqualTo(objectMapper.writeValueAsBytes(event));
+    }
+
+    @Test
+    void shouldWriteFailureMessageExactlyAsObjectMapper() throws Exception {
+        // Given
+        ObjectMapper objectMapper = isoMapper();
+        AlertJsonWriter writer = new AlertJsonWriter(objectMapper);
+        FailureMessage withAlert = FailureMessage.from("alerts", fullAlert(), new IllegalStateException("broker down"));
+        FailureMessage withNulls = FailureMessage.builder().originalDestination("alerts").build();
+
+        // When / Then
+        assertThat(writer.writeValueAsBytes(withAlert)).isEqualTo(objectMapper.writeValueAsBytes(withAlert));
+        assertThat(writer.writeValueAsBytes(withNulls)).isEqualTo(objectMapper.writeValueAsBytes(withNulls));
+    }
+
+    @Test
+    void shouldDelegateOtherPayloadsToObjectMapperAndWriteIntoGivenStream() throws Exception {
+        // Given
+        ObjectMapper objectMapper = isoMapper();
+        AlertJsonWriter writer = new AlertJsonWriter(objectMapper);
+        TestEvent event = new TestEvent("test-id", "test-message");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        writer.writeValue(out, fullAlert());
+
+        // Then
+        assertThat(writer.writeValueAsBytes(event)).isEqualTo(objectMapper.writeValueAsBytes(event));
+        assertThat(out.toByteArray()).isEqualTo(objectMapper.writeValueAsBytes(fullAlert()));
+    }
+
+    private static ObjectMapper isoMapper() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return objectMapper;
+    }
+
+    private static AlertEvent fullAlert() {
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("orderId", "o-42");
+        metadata.put("attempt", 3);
+        metadata.put("amount", new BigDecimal("12.50"));
+        metadata.put("retryable", true);
+        metadata.put("missing", null);
+        metadata.put("tags", List.of("a", "b"));
+        metadata.put("quote", "line \"one\"\nline two ✓");
+        return AlertEvent.builder()
+                .alertId("alert-1")
+                .serviceName("order-service")
+                .errorCode("ERR_001")
+                .errorMessage("Payment failed")
+                .exceptionType("java.lang.IllegalStateException")
+                .stackTrace("java.lang.IllegalStateException: Payment failed\n\tat com.example.Orders.pay(Orders.java:42)")
+                .stackFingerprint("f00d")
+                .occurrenceCount(2L)
+                .timestamp(Instant.parse("2025-01-01T10:15:30Z"))
+                .severity(AlertSeverity.CRITICAL)
+                .environment("PROD")
+                .routingKey("alerts.critical")
+                .metadata(metadata)
+                .build();
+    }
+}
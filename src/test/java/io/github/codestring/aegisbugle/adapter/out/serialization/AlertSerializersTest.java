@@ -0,0 +1,90 @@
+package io.github.codestring.aegisbugle.adapter.out.serialization;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import io.github.codestring.aegisbugle.application.core.model.AlertSeverity;
+import io.github.codestring.aegisbugle.application.core.model.WireFormat;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AlertSerializersTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void shouldEncodeTheSameContractInEveryFormat() throws Exception {
+        // Given
+        AlertEvent event = alert(20, 10);
+        JsonNode expected = objectMapper.readTree(objectMapper.writeValueAsBytes(event));
+
+        // When
+        byte[] cbor = AlertSerializers.forFormat(WireFormat.CBOR, objectMapper).serialize(event);
+        byte[] smile = AlertSerializers.forFormat(WireFormat.SMILE, objectMapper).serialize(event);
+
+        // Then
+        assertThat(objectMapper.copyWith(new CBORFactory()).readTree(cbor)).isEqualTo(expected);
+        assertThat(objectMapper.copyWith(new SmileFactory()).readTree(smile)).isEqualTo(expected);
+    }
+
+    @Test
+    void shouldProduceSmallerPayloadsThanJson() throws Exception {
+        // Given
+        AlertEvent event = alert(20, 10);
+        AlertSerializer json = AlertSerializers.forFormat(WireFormat.JSON, objectMapper);
+        AlertSerializer cbor = AlertSerializers.forFormat(WireFormat.CBOR, objectMapper);
+        AlertSerializer smile = AlertSerializers.forFormat(WireFormat.SMILE, objectMapper);
+
+        // When
+        int jsonSize = json.serialize(event).length;
+        int cborSize = cbor.serialize(event).length;
+        int smileSize = smile.serialize(event).length;
+
+        // Then
+        assertThat(cborSize).isLessThan(jsonSize);
+        assertThat(smileSize).isLessThan(jsonSize);
+    }
+
+    @Test
+    void shouldDescribeContentTypes() {
+        assertThat(AlertSerializers.forFormat(null, objectMapper).isJson()).isTrue();
+        assertThat(AlertSerializers.forFormat(WireFormat.CBOR, objectMapper).contentType())
+                .isEqualTo(AlertSerializers.CBOR_CONTENT_TYPE);
+        assertThat(AlertSerializers.forFormat(WireFormat.SMILE, objectMapper).contentType())
+                .isEqualTo(AlertSerializers.SMILE_CONTENT_TYPE);
+    }
+
+    private static AlertEvent alert(int frames, int metadataEntries) {
+        StringBuilder stackTrace = new StringBuilder("java.lang.IllegalStateException: Payment failed");
+        for (int i = 0; i < frames; i++) {
+            stackTrace.append("\n\tat com.example.orders.OrderService.step").append(i).append("(OrderService.java:").append(40 + i).append(')');
+        }
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        for (int i = 0; i < metadataEntries; i++) {
+            metadata.put("key" + i, i % 2 == 0 ? "value-" + i : i);
+        }
+        return AlertEvent.builder()
+                .alertId("alert-1")
+                .serviceName("order-service")
+                .errorCode("ERR_001")
+                .errorMessage("Payment failed")
+                .exceptionType("java.lang.IllegalStateException")
+                .stackTrace(stackTrace.toString())
+                .timestamp(Instant.parse("2025-01-01T10:15:30Z"))
+                .severity(AlertSeverity.HIGH)
+                .environment("PROD")
+                .metadata(metadata)
+                .build();
+    }
+}
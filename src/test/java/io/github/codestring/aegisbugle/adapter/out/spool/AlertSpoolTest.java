@@ -0,0 +1,149 @@
+package io.github.codestring.aegisbugle.adapter.out.spool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AlertSpoolTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReplayAppendedRecordsInOrder() throws Exception {
+        // Given
+        try (AlertSpool spool = new AlertSpool(directory, 4096, 65536)) {
+            spool.append("topic-a", bytes("first"));
+            spool.append("topic-b", bytes("second"));
+
+            // When
+            SpoolRecord first = spool.peek();
+            spool.commit(first);
+            SpoolRecord second = spool.peek();
+            spool.commit(second);
+
+            // Then
+            assertThat(first.getTopic()).isEqualTo("topic-a");
+            assertThat(new String(first.getPayload(), StandardCharsets.UTF_8)).isEqualTo("first");
+            assertThat(second.getTopic()).isEqualTo("topic-b");
+            assertThat(new String(second.getPayload(), StandardCharsets.UTF_8)).isEqualTo("second");
+            assertThat(spool.peek()).isNull();
+            assertThat(spool.pendingRecords()).isZero();
+        }
+    }
+
+    @Test
+    void shouldRotateSegmentsAndDeleteReplayedOnes() throws Exception {
+        // Given
+        try (AlertSpool spool = new AlertSpool(directory, 1024, 65536)) {
+            for (int i = 0; i < 10; i++) {
+                assertThat(spool.append("topic", new byte[300])).isTrue();
+            }
+            assertThat(segmentCount()).isGreaterThan(1);
+
+            // When
+            SpoolRecord record;
+            int replayed = 0;
+            while ((record = spool.peek()) != null) {
+                spool.commit(record);
+                replayed++;
+            }
+
+            // Then
+            assertThat(replayed).isEqualTo(10);
+            assertThat(segmentCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void shouldRejectAppendsBeyondSizeCap() throws Exception {
+        // Given
+        try (AlertSpool spool = new AlertSpool(directory, 1024, 2048)) {
+            int accepted = 0;
+
+            // When
+            for (int i = 0; i < 10; i++) {
+                if (spool.append("topic", new byte[300])) {
+                    accepted++;
+                }
+            }
+
+            // Then
+            assertThat(accepted).isEqualTo(6);
+            assertThat(spool.rejectedRecords()).isEqualTo(4);
+            assertThat(spool.append("topic", new byte[2000])).isFalse();
+        }
+    }
+
+    @Test
+    void shouldRecoverUnreplayedRecordsAfterRestart() throws Exception {
+        // Given
+        try (AlertSpool spool = new AlertSpool(directory, 4096, 65536)) {
+            spool.append("topic", bytes("replayed"));
+            spool.append("topic", bytes("pending-1"));
+            spool.append("topic", bytes("pending-2"));
+            spool.commit(spool.peek());
+        }
+
+        // When
+        try (AlertSpool reopened = new AlertSpool(directory, 4096, 65536)) {
+            reopened.append("topic", bytes("pending-3"));
+
+            // Then
+            assertThat(reopened.pendingRecords()).isEqualTo(3);
+            for (String expected : new String[]{"pending-1", "pending-2", "pending-3"}) {
+                SpoolRecord record = reopened.peek();
+                assertThat(new String(record.getPayload(), StandardCharsets.UTF_8)).isEqualTo(expected);
+                reopened.commit(record);
+            }
+            assertThat(reopened.peek()).isNull();
+        }
+    }
+
+    @Test
+    void shouldTruncateAtCorruptRecordOnRecovery() throws Exception {
+        // Given
+        try (AlertSpool spool = new AlertSpool(directory, 4096, 65536)) {
+            spool.append("topic", bytes("intact"));
+            spool.append("topic", bytes("torn"));
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(path -> path.getFileName().toString().startsWith("segment-")).findFirst().orElseThrow();
+        }
+        int secondRecordPayload = AlertSpool.HEADER_BYTES + 2 + 5 + 6 + AlertSpool.HEADER_BYTES + 2 + 5;
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(secondRecordPayload);
+            file.write('X');
+        }
+
+        // When
+        try (AlertSpool reopened = new AlertSpool(directory, 4096, 65536)) {
+            reopened.append("topic", bytes("after-crash"));
+
+            // Then
+            SpoolRecord first = reopened.peek();
+            reopened.commit(first);
+            SpoolRecord second = reopened.peek();
+            assertThat(new String(first.getPayload(), StandardCharsets.UTF_8)).isEqualTo("intact");
+            assertThat(new String(second.getPayload(), StandardCharsets.UTF_8)).isEqualTo("after-crash");
+        }
+    }
+
+    private long segmentCount() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith("segment-")).count();
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,152 @@
+package io.github.codestring.aegisbugle.adapter.out.spool;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.codestring.aegisbugle.application.core.PublishException;
+import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import io.github.codestring.aegisbugle.application.core.model.DeliveryReceipt;
+import io.github.codestring.aegisbugle.application.core.retry.DefaultRetryableErrorClassifier;
+import io.github.codestring.aegisbugle.application.port.out.BuglePublisher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SpoolReplayerTest {
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private BuglePublisher publisher;
+
+    @Mock
+    private BuglePublisher pulsarPublisher;
+
+    private SpoolReplayer replayer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        replayer = new SpoolReplayer(
+                Map.of("kafka", new AlertSpool(directory.resolve("kafka"), 4096, 65536),
+                        "pulsar", new AlertSpool(directory.resolve("pulsar"), 4096, 65536)),
+                Map.of("kafka", publisher, "pulsar", pulsarPublisher),
+                new ObjectMapper().findAndRegisterModules(), new DefaultRetryableErrorClassifier(), 1, 2000, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        replayer.close();
+    }
+
+    @Test
+    void shouldReplaySpooledAlertsUpToRateLimit() {
+        // Given
+        replayer.spool("kafka", alert("alert-1"), "alerts");
+        replayer.spool("kafka", alert("alert-2"), "alerts");
+        replayer.spool("kafka", alert("alert-3"), "alerts");
+        when(publisher.sendAlertAsync(any(AlertEvent.class), eq("alerts")))
+                .thenReturn(CompletableFuture.completedFuture(new DeliveryReceipt()));
+        ArgumentCaptor<AlertEvent> captor = ArgumentCaptor.forClass(AlertEvent.class);
+
+        // When
+        int replayed = replayer.replay();
+
+        // Then
+        assertThat(replayed).isEqualTo(2);
+        assertThat(replayer.pendingAlerts()).isEqualTo(1);
+        verify(publisher, times(2)).sendAlertAsync(captor.capture(), eq("alerts"));
+        assertThat(captor.getAllValues()).extracting(AlertEvent::getAlertId).containsExactly("alert-1", "alert-2");
+    }
+
+    @Test
+    void shouldKeepAlertAndMarkBrokerUnavailableWhenReplayFails() {
+        // Given
+        replayer.spool("kafka", alert("alert-1"), "alerts");
+        when(publisher.sendAlertAsync(any(AlertEvent.class), eq("alerts")))
+                .thenReturn(CompletableFuture.failedFuture(new PublishException("broker down")));
+
+        // When
+        int replayed = replayer.replay();
+
+        // Then
+        assertThat(replayed).isZero();
+        assertThat(replayer.isBrokerAvailable("kafka")).isFalse();
+        assertThat(replayer.pendingAlerts()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldMarkBrokerAvailableOnceReplaySucceeds() {
+        // Given
+        replayer.markBrokerUnavailable("kafka");
+        replayer.spool("kafka", alert("alert-1"), "alerts");
+        when(publisher.sendAlertAsync(any(AlertEvent.class), eq("alerts")))
+                .thenReturn(CompletableFuture.completedFuture(new DeliveryReceipt()));
+
+        // When
+        replayer.replay();
+
+        // Then
+        assertThat(replayer.isBrokerAvailable("kafka")).isTrue();
+        assertThat(replayer.pendingAlerts()).isZero();
+    }
+
+    @Test
+    void shouldDiscardSpooledAlertTheBrokerCannotTakeAndKeepReplaying() {
+        // Given
+        replayer.spool("kafka", alert("alert-1"), "alerts");
+        replayer.spool("kafka", alert("alert-2"), "alerts");
+        when(publisher.sendAlertAsync(any(AlertEvent.class), eq("alerts")))
+                .thenReturn(CompletableFuture.failedFuture(new PublishException("Record too large",
+                        new IllegalArgumentException("record of 2 MB exceeds the limit"))))
+                .thenReturn(CompletableFuture.completedFuture(new DeliveryReceipt()));
+
+        // When
+        int replayed = replayer.replay();
+
+        // Then
+        assertThat(replayed).isEqualTo(1);
+        assertThat(replayer.isBrokerAvailable("kafka")).isTrue();
+        assertThat(replayer.pendingAlerts()).isZero();
+    }
+
+    @Test
+    void shouldReplayAlertsOnlyToTheBrokerTheyWereSpooledFor() {
+        // Given
+        replayer.spool("kafka", alert("alert-1"), "alerts");
+        replayer.spool("pulsar", alert("alert-2"), "alerts");
+        when(publisher.sendAlertAsync(any(AlertEvent.class), eq("alerts")))
+                .thenReturn(CompletableFuture.failedFuture(new PublishException("broker down")));
+        when(pulsarPublisher.sendAlertAsync(any(AlertEvent.class), eq("alerts")))
+                .thenReturn(CompletableFuture.completedFuture(new DeliveryReceipt()));
+        ArgumentCaptor<AlertEvent> captor = ArgumentCaptor.forClass(AlertEvent.class);
+
+        // When
+        int replayed = replayer.replay();
+
+        // Then
+        assertThat(replayed).isEqualTo(1);
+        verify(pulsarPublisher).sendAlertAsync(captor.capture(), eq("alerts"));
+        assertThat(captor.getValue().getAlertId()).isEqualTo("alert-2");
+        assertThat(replayer.isBrokerAvailable("kafka")).isFalse();
+        assertThat(replayer.isBrokerAvailable("pulsar")).isTrue();
+        assertThat(replayer.pendingAlerts()).isEqualTo(1);
+    }
+
+    private static AlertEvent alert(String alertId) {
+        return AlertEvent.builder().alertId(alertId).serviceName("test-service").errorCode("E1").build();
+    }
+}
@@ -0,0 +1,166 @@
+package io.github.codestring.aegisbugle.adapter.out.spool;
+
+import io.github.codestring.aegisbugle.application.core.PublishException;
+import io.github.codestring.aegisbugle.application.core.breaker.PublishRejectedException;
+import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import io.github.codestring.aegisbugle.application.core.model.BatchItemResult;
+import io.github.codestring.aegisbugle.application.core.model.BatchPublishResult;
+import io.github.codestring.aegisbugle.application.core.model.DeliveryReceipt;
+import io.github.codestring.aegisbugle.application.core.retry.DefaultRetryableErrorClassifier;
+import io.github.codestring.aegisbugle.application.port.out.BuglePublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SpoolingBuglePublisherTest {
+
+    @Mock
+    private BuglePublisher delegate;
+
+    @Mock
+    private SpoolReplayer replayer;
+
+    private SpoolingBuglePublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        publisher = new SpoolingBuglePublisher(delegate, replayer, "kafka", new DefaultRetryableErrorClassifier());
+    }
+
+    @Test
+    void shouldReturnBrokerReceiptWhenSendSucceeds() {
+        // Given
+        AlertEvent event = alert("alert-1");
+        DeliveryReceipt receipt = DeliveryReceipt.builder().alertId("alert-1").build();
+        when(replayer.isBrokerAvailable("kafka")).thenReturn(true);
+        when(delegate.sendAlertAsync(event, "alerts")).thenReturn(CompletableFuture.completedFuture(receipt));
+
+        // When
+        DeliveryReceipt result = publisher.sendAlertAsync(event, "alerts").join();
+
+        // Then
+        assertThat(result).isSameAs(receipt);
+        verify(replayer, never()).spool(any(), any(), any());
+    }
+
+    @Test
+    void shouldSpoolAlertAndMarkBrokerUnavailableWhenSendFails() {
+        // Given
+        AlertEvent event = alert("alert-1");
+        when(replayer.isBrokerAvailable("kafka")).thenReturn(true);
+        when(replayer.spool("kafka", event, "alerts")).thenReturn(true);
+        when(delegate.sendAlertAsync(event, "alerts"))
+                .thenReturn(CompletableFuture.failedFuture(new PublishException("broker down")));
+
+        // When
+        DeliveryReceipt result = publisher.sendAlertAsync(event, "alerts").join();
+
+        // Then
+        assertThat(result.isSpooled()).isTrue();
+        assertThat(result.getAlertId()).isEqualTo("alert-1");
+        verify(replayer).markBrokerUnavailable("kafka");
+    }
+
+    @Test
+    void shouldNeitherSpoolNorMarkBrokerUnavailableWhenAlertIsRejected() {
+        // Given
+        AlertEvent event = alert("alert-1");
+        when(replayer.isBrokerAvailable("kafka")).thenReturn(true);
+        when(delegate.sendAlertAsync(event, "alerts"))
+                .thenReturn(CompletableFuture.failedFuture(new PublishException("Routing key is required",
+                        new IllegalArgumentException("no routing key"))));
+
+        // When
+        CompletableFuture<DeliveryReceipt> result = publisher.sendAlertAsync(event, "alerts");
+
+        // Then
+        assertThat(result).isCompletedExceptionally();
+        verify(replayer, never()).spool(any(), any(), any());
+        verify(replayer, never()).markBrokerUnavailable(any());
+    }
+
+    @Test
+    void shouldSpoolWithoutSendingWhileBrokerIsUnavailable() {
+        // Given
+        AlertEvent event = alert("alert-1");
+        when(replayer.isBrokerAvailable("kafka")).thenReturn(false);
+        when(replayer.spool("kafka", event, "alerts")).thenReturn(true);
+
+        // When
+        publisher.sendAlert(event, "alerts");
+
+        // Then
+        verify(replayer).spool("kafka", event, "alerts");
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    void shouldFailWhenAlertCanNeitherBeSentNorSpooled() {
+        // Given
+        AlertEvent event = alert("alert-1");
+        when(replayer.isBrokerAvailable("kafka")).thenReturn(false);
+        when(replayer.spool("kafka", event, "alerts")).thenReturn(false);
+
+        // When
+        CompletableFuture<DeliveryReceipt> result = publisher.sendAlertAsync(event, "alerts");
+
+        // Then
+        assertThat(result).isCompletedExceptionally();
+    }
+
+    @Test
+    void shouldSpoolOnlyFailedItemsOfBatch() {
+        // Given
+        AlertEvent first = alert("alert-1");
+        AlertEvent second = alert("alert-2");
+        when(replayer.isBrokerAvailable("kafka")).thenReturn(true);
+        when(replayer.spool("kafka", second, "alerts")).thenReturn(true);
+        when(delegate.sendAlerts(anyCollection(), eq("alerts"))).thenReturn(new BatchPublishResult(List.of(
+                BatchItemResult.success(0, "alert-1", new DeliveryReceipt()),
+                BatchItemResult.failure(1, "alert-2", new PublishException("nack")))));
+
+        // When
+        BatchPublishResult result = publisher.sendAlerts(List.of(first, second), "alerts");
+
+        // Then
+        assertThat(result.isAllSucceeded()).isTrue();
+        assertThat(result.getItems().get(0).getReceipt().isSpooled()).isFalse();
+        assertThat(result.getItems().get(1).getReceipt().isSpooled()).isTrue();
+        verify(replayer, never()).spool("kafka", first, "alerts");
+    }
+
+    @Test
+    void shouldKeepRejectedItemsOfBatchAsFailures() {
+        // Given
+        AlertEvent first = alert("alert-1");
+        AlertEvent second = alert("alert-2");
+        when(replayer.isBrokerAvailable("kafka")).thenReturn(true);
+        when(delegate.sendAlerts(anyCollection(), eq("alerts"))).thenReturn(new BatchPublishResult(List.of(
+                BatchItemResult.success(0, "alert-1", new DeliveryReceipt()),
+                BatchItemResult.failure(1, "alert-2", new PublishRejectedException("kafka", PublishRejectedException.Reason.CIRCUIT_OPEN)))));
+
+        // When
+        BatchPublishResult result = publisher.sendAlerts(List.of(first, second), "alerts");
+
+        // Then
+        assertThat(result.getItems()).extracting(BatchItemResult::isSuccess).containsExactly(true, false);
+        verify(replayer, never()).spool(any(), any(), any());
+        verify(replayer, never()).markBrokerUnavailable(any());
+    }
+
+    private static AlertEvent alert(String alertId) {
+        return AlertEvent.builder().alertId(alertId).serviceName("test-service").build();
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.codestring.aegisbugle.adapter.out.warmup;
+
+import io.github.codestring.aegisbugle.application.core.PublishException;
+import io.github.codestring.aegisbugle.application.core.model.BrokerType;
+import io.github.codestring.aegisbugle.application.core.model.DestinationReadiness;
+import io.github.codestring.aegisbugle.application.port.out.BuglePublisher;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PublisherWarmUpTest {
+
+    @Mock
+    private BuglePublisher kafka;
+
+    @Mock
+    private BuglePublisher rabbitMq;
+
+    @Test
+    void shouldReportReadinessOfEveryDestination() throws Exception {
+        // Given
+        doThrow(new PublishException("exchange not found")).when(rabbitMq).warmUp("paging", true);
+        PublisherWarmUp warmUp = new PublisherWarmUp(List.of(
+                new PublisherWarmUp.Target(BrokerType.KAFKA, kafka, "alerts"),
+                new PublisherWarmUp.Target(BrokerType.RABBITMQ, rabbitMq, "paging")), true, 5000, 2);
+
+        // When
+        warmUp.start();
+        List<DestinationReadiness> readiness = warmUp.readiness().get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertThat(readiness).extracting(DestinationReadiness::getDestination).containsExactly("alerts", "paging");
+        assertThat(readiness).extracting(DestinationReadiness::isReady).containsExactly(true, false);
+        assertThat(readiness.get(1).getError()).hasMessage("exchange not found");
+        verify(kafka).warmUp("alerts", true);
+    }
+
+    @Test
+    void shouldReportSlowDestinationsAsNotReadyAfterTimeout() throws Exception {
+        // Given
+        CountDownLatch released = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            released.await();
+            return null;
+        }).when(kafka).warmUp("slow", false);
+        PublisherWarmUp warmUp = new PublisherWarmUp(List.of(
+                new PublisherWarmUp.Target(BrokerType.KAFKA, kafka, "slow"),
+                new PublisherWarmUp.Target(BrokerType.KAFKA, kafka, "fast")), false, 100, 2);
+
+        // When
+        warmUp.start();
+        List<DestinationReadiness> readiness = warmUp.readiness().get(5, TimeUnit.SECONDS);
+        released.countDown();
+
+        // Then
+        assertThat(warmUp.isRunning()).isTrue();
+        assertThat(readiness).extracting(DestinationReadiness::isReady).containsExactly(false, true);
+        assertThat(readiness.get(0).getError()).isInstanceOf(TimeoutException.class);
+    }
+}
@@ -0,0 +1,102 @@
+package io.github.codestring.aegisbugle.application.core.breaker;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final List<CircuitStateChangedEvent> transitions = new ArrayList<>();
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        CircuitBreakerListener listener = new CircuitBreakerListener() {
+            @Override
+            public void onStateTransition(CircuitStateChangedEvent event) {
+                transitions.add(event);
+            }
+        };
+        breaker = new CircuitBreaker("kafka", 3, 1000, 2, listener, clock::get);
+    }
+
+    @Test
+    void shouldOpenAfterConsecutiveFailuresOnly() {
+        // Given
+        fail(2);
+        succeed(1);
+        fail(2);
+
+        // When
+        boolean closedPermit = breaker.tryAcquire();
+        breaker.onFailure();
+
+        // Then
+        assertThat(closedPermit).isTrue();
+        assertThat(breaker.getState()).isEqualTo(CircuitState.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(transitions).extracting(CircuitStateChangedEvent::getTo).containsExactly(CircuitState.OPEN);
+    }
+
+    @Test
+    void shouldLetLimitedProbesThroughAfterOpenDurationAndCloseWhenTheySucceed() {
+        // Given
+        fail(3);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+
+        // When
+        boolean first = breaker.tryAcquire();
+        boolean second = breaker.tryAcquire();
+        boolean third = breaker.tryAcquire();
+        breaker.onSuccess();
+        breaker.onSuccess();
+
+        // Then
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        assertThat(third).isFalse();
+        assertThat(breaker.getState()).isEqualTo(CircuitState.CLOSED);
+        assertThat(transitions).extracting(CircuitStateChangedEvent::getTo)
+                .containsExactly(CircuitState.OPEN, CircuitState.HALF_OPEN, CircuitState.CLOSED);
+    }
+
+    @Test
+    void shouldReopenWhenProbeFailsAndFreeProbeSlotOnRelease() {
+        // Given
+        fail(3);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        breaker.tryAcquire();
+        breaker.tryAcquire();
+
+        // When
+        breaker.release();
+        boolean afterRelease = breaker.tryAcquire();
+        breaker.onFailure();
+
+        // Then
+        assertThat(afterRelease).isTrue();
+        assertThat(breaker.getState()).isEqualTo(CircuitState.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    private void fail(int times) {
+        for (int i = 0; i < times; i++) {
+            breaker.tryAcquire();
+            breaker.onFailure();
+        }
+    }
+
+    private void succeed(int times) {
+        for (int i = 0; i < times; i++) {
+            breaker.tryAcquire();
+            breaker.onSuccess();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package io.github.codestring.aegisbugle.application.core.breaker;
+
+import io.github.codestring.aegisbugle.application.core.BugleAlertException;
+import io.github.codestring.aegisbugle.application.core.PublishException;
+import io.github.codestring.aegisbugle.application.core.model.AlertEnvelope;
+import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import io.github.codestring.aegisbugle.application.core.model.DeliveryReceipt;
+import io.github.codestring.aegisbugle.application.core.retry.DefaultRetryableErrorClassifier;
+import io.github.codestring.aegisbugle.application.port.out.BuglePublisher;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CircuitBreakingBuglePublisherTest {
+
+    @Mock
+    private BuglePublisher delegate;
+
+    @Mock
+    private BuglePublisher fallback;
+
+    private final List<PublishRejectedException.Reason> rejections = new ArrayList<>();
+
+    @Test
+    void shouldRejectAtOnceWhileCircuitIsOpen() {
+        // Given
+        CircuitBreakingBuglePublisher publisher = publisher(100, null);
+        when(delegate.sendEnvelopeAsync(any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new PublishException("broker down")));
+        publisher.sendEnvelopeAsync(envelope(), "alerts");
+        publisher.sendEnvelopeAsync(envelope(), "alerts");
+
+        // When
+        CompletableFuture<DeliveryReceipt> rejected = publisher.sendEnvelopeAsync(envelope(), "alerts");
+
+        // Then
+        assertThatThrownBy(rejected::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(PublishRejectedException.class);
+        assertThatThrownBy(() -> publisher.sendEnvelope(envelope(), "other"))
+                .isInstanceOf(PublishRejectedException.class)
+                .hasMessageContaining("kafka");
+        verify(delegate, times(2)).sendEnvelopeAsync(any(), any());
+        assertThat(rejections).containsExactly(PublishRejectedException.Reason.CIRCUIT_OPEN,
+                PublishRejectedException.Reason.CIRCUIT_OPEN);
+    }
+
+    @Test
+    void shouldNotCountNonRetryableErrorsAsBrokerFailures() {
+        // Given
+        CircuitBreakerRegistry registry = registry(100);
+        CircuitBreakingBuglePublisher publisher = new CircuitBreakingBuglePublisher(delegate, "kafka", registry,
+                new DefaultRetryableErrorClassifier(), null);
+        when(delegate.sendEnvelopeAsync(any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new BugleAlertException("invalid alert")));
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            publisher.sendEnvelopeAsync(envelope(), "alerts");
+        }
+
+        // Then
+        assertThat(registry.breakers()).allMatch(breaker -> breaker.getState() == CircuitState.CLOSED);
+        assertThat(registry.bulkhead("kafka").inFlight()).isZero();
+    }
+
+    @Test
+    void shouldDivertRejectedSendsToFallback() {
+        // Given
+        CircuitBreakingBuglePublisher publisher = publisher(100, fallback);
+        AlertEnvelope envelope = envelope();
+        when(delegate.sendEnvelopeAsync(any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new PublishException("broker down")));
+        when(fallback.sendEnvelopeAsync(envelope, "alerts"))
+                .thenReturn(CompletableFuture.completedFuture(DeliveryReceipt.builder().build()));
+        publisher.sendEnvelopeAsync(envelope, "alerts");
+        publisher.sendEnvelopeAsync(envelope, "alerts");
+
+        // When
+        CompletableFuture<DeliveryReceipt> diverted = publisher.sendEnvelopeAsync(envelope, "alerts");
+
+        // Then
+        assertThat(diverted).isCompleted();
+        verify(fallback).sendEnvelopeAsync(envelope, "alerts");
+    }
+
+    @Test
+    void shouldRejectSendsBeyondBulkheadUntilInFlightSendCompletes() {
+        // Given
+        CircuitBreakingBuglePublisher publisher = publisher(1, null);
+        CompletableFuture<DeliveryReceipt> inFlight = new CompletableFuture<>();
+        when(delegate.sendEnvelopeAsync(any(), any()))
+                .thenReturn(inFlight)
+                .thenReturn(CompletableFuture.completedFuture(DeliveryReceipt.builder().build()));
+        publisher.sendEnvelopeAsync(envelope(), "alerts");
+
+        // When
+        CompletableFuture<DeliveryReceipt> rejected = publisher.sendEnvelopeAsync(envelope(), "alerts");
+        inFlight.complete(DeliveryReceipt.builder().build());
+        CompletableFuture<DeliveryReceipt> accepted = publisher.sendEnvelopeAsync(envelope(), "alerts");
+
+        // Then
+        assertThatThrownBy(rejected::join).hasCauseInstanceOf(PublishRejectedException.class);
+        assertThat(accepted).isCompleted();
+        assertThat(rejections).containsExactly(PublishRejectedException.Reason.BULKHEAD_FULL);
+    }
+
+    private CircuitBreakingBuglePublisher publisher(int maxConcurrentSends, BuglePublisher fallback) {
+        return new CircuitBreakingBuglePublisher(delegate, "kafka", registry(maxConcurrentSends),
+                new DefaultRetryableErrorClassifier(), fallback);
+    }
+
+    private CircuitBreakerRegistry registry(int maxConcurrentSends) {
+        CircuitBreakerListener listener = new CircuitBreakerListener() {
+            @Override
+            public void onRejected(String name, PublishRejectedException.Reason reason) {
+                rejections.add(reason);
+            }
+        };
+        return new CircuitBreakerRegistry(2, 60000, 1, maxConcurrentSends, 0, 10, List.of(listener));
+    }
+
+    private static AlertEnvelope envelope() {
+        return AlertEnvelope.of(AlertEvent.builder().alertId("alert-1").errorCode("ERR_001").build());
+    }
+}
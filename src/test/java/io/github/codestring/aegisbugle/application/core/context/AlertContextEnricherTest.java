@@ -0,0 +1,61 @@
+package io.github.codestring.aegisbugle.application.core.context;
+
+import io.github.codestring.aegisbugle.application.core.model.AlertContext;
+import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import io.github.codestring.aegisbugle.application.core.model.Environment;
+import io.github.codestring.aegisbugle.config.BugleProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AlertContextEnricherTest {
+
+    @Test
+    void shouldResolveContextFromPropertiesEnvironmentAndJvm() {
+        // Given
+        BugleProperties.Context properties = new BugleProperties.Context();
+        properties.setBuildVersion("2.4.1");
+        Map<String, String> environment = Map.of("HOSTNAME", "orders-7d9f", "KUBERNETES_SERVICE_HOST", "10.0.0.1");
+
+        // When
+        AlertContext context = AlertContextEnricher.resolveContext(properties, "2.4.0", environment);
+
+        // Then
+        assertThat(context.getHost()).isEqualTo("orders-7d9f");
+        assertThat(context.getPod()).isEqualTo("orders-7d9f");
+        assertThat(context.getInstanceId()).isNotBlank()
+                .isNotEqualTo(AlertContextEnricher.resolveContext(properties, null, environment).getInstanceId());
+        assertThat(context.getBuildVersion()).isEqualTo("2.4.1");
+        assertThat(context.getJvm()).contains(Runtime.version().toString());
+        assertThat(AlertContextEnricher.resolveContext(new BugleProperties.Context(), "2.4.0", Map.of("HOSTNAME", "vm-3")))
+                .satisfies(outsideKubernetes -> {
+                    assertThat(outsideKubernetes.getPod()).isNull();
+                    assertThat(outsideKubernetes.getBuildVersion()).isEqualTo("2.4.0");
+                });
+    }
+
+    @Test
+    void shouldStampEveryAlertWithTheSameStaticContext() {
+        // Given
+        BugleProperties properties = new BugleProperties();
+        properties.setServiceName("order-service");
+        properties.setEnvironment(Environment.PROD);
+        properties.getContext().setEnabled(true);
+        AlertContextEnricher enricher = AlertContextEnricher.from(properties, "2.4.0");
+        AlertEvent first = new AlertEvent();
+        AlertEvent second = new AlertEvent();
+
+        // When
+        enricher.enrich(first);
+        enricher.enrich(second);
+
+        // Then
+        assertThat(first.getServiceName()).isEqualTo("order-service");
+        assertThat(first.getEnvironment()).isEqualTo("PROD");
+        assertThat(first.getContext()).isNotNull().isSameAs(second.getContext());
+        assertThat(first.getContext().getBuildVersion()).isEqualTo("2.4.0");
+        assertThat(AlertContextEnricher.from(new BugleProperties(), null).getContext()).isNull();
+    }
+}
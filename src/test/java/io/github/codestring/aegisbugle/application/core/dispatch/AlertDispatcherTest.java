@@ -0,0 +1,228 @@
+package io.github.codestring.aegisbugle.application.core.dispatch;
+
+import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import io.github.codestring.aegisbugle.application.core.model.BatchItemResult;
+import io.github.codestring.aegisbugle.application.core.model.BatchPublishResult;
+import io.github.codestring.aegisbugle.application.port.out.BuglePublisher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AlertDispatcherTest {
+
+    @Mock
+    private BuglePublisher publisher;
+
+    private AlertDispatcher dispatcher;
+
+    private final Set<String> published = ConcurrentHashMap.newKeySet();
+
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.close();
+        }
+    }
+
+    @Test
+    void shouldPublishDispatchedAlertsOnConsumerThread() {
+        // Given
+        dispatcher = new AlertDispatcher(publisher, 16, WaitStrategy.SLEEPING, OverflowPolicy.DROP_NEWEST, 10, 1, 8);
+        AlertEvent event = alert("alert-1");
+
+        // When
+        boolean accepted = dispatcher.dispatch(event, "alerts");
+
+        // Then
+        assertThat(accepted).isTrue();
+        verify(publisher, timeout(5000)).sendAlertsAsync(List.of(event), "alerts");
+    }
+
+    @Test
+    void shouldPublishConsecutiveAlertsForSameTopicAsOneBatch() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch consuming = new CountDownLatch(1);
+        blockPublisherUntil(consuming, release);
+        dispatcher = new AlertDispatcher(publisher, 16, WaitStrategy.SLEEPING, OverflowPolicy.DROP_NEWEST, 10, 1, 8);
+        dispatcher.dispatch(alert("in-flight"), "alerts");
+        assertThat(consuming.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        dispatcher.dispatch(alert("alert-1"), "alerts");
+        dispatcher.dispatch(alert("alert-2"), "alerts");
+        dispatcher.dispatch(alert("alert-3"), "other");
+        release.countDown();
+
+        // Then
+        await().atMost(5, TimeUnit.SECONDS).until(() -> published.size() == 4);
+        verify(publisher, times(2)).sendAlertsAsync(anyCollection(), eq("alerts"));
+        verify(publisher, times(1)).sendAlertsAsync(anyCollection(), eq("other"));
+    }
+
+    @Test
+    void shouldDropNewestWhenFull() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch consuming = new CountDownLatch(1);
+        blockPublisherUntil(consuming, release);
+        dispatcher = new AlertDispatcher(publisher, 2, WaitStrategy.SLEEPING, OverflowPolicy.DROP_NEWEST, 10, 1, 1);
+        dispatcher.dispatch(alert("in-flight"), "alerts");
+        assertThat(consuming.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        dispatcher.dispatch(alert("alert-1"), "alerts");
+        dispatcher.dispatch(alert("alert-2"), "alerts");
+        boolean accepted = dispatcher.dispatch(alert("alert-3"), "alerts");
+        release.countDown();
+
+        // Then
+        assertThat(accepted).isFalse();
+        assertThat(dispatcher.droppedCount()).isEqualTo(1);
+        await().atMost(5, TimeUnit.SECONDS).until(() -> published.size() == 3);
+        assertThat(published).containsExactlyInAnyOrder("in-flight", "alert-1", "alert-2");
+    }
+
+    @Test
+    void shouldDropOldestWhenFull() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch consuming = new CountDownLatch(1);
+        blockPublisherUntil(consuming, release);
+        dispatcher = new AlertDispatcher(publisher, 2, WaitStrategy.SLEEPING, OverflowPolicy.DROP_OLDEST, 10, 1, 1);
+        dispatcher.dispatch(alert("in-flight"), "alerts");
+        assertThat(consuming.await(5, TimeUnit.SECONDS)).isTrue();
+        AlertEvent oldest = alert("alert-1");
+        AlertEvent newest = alert("alert-3");
+
+        // When
+        dispatcher.dispatch(oldest, "alerts");
+        dispatcher.dispatch(alert("alert-2"), "alerts");
+        boolean accepted = dispatcher.dispatch(newest, "alerts");
+        release.countDown();
+
+        // Then
+        assertThat(accepted).isTrue();
+        assertThat(dispatcher.droppedCount()).isEqualTo(1);
+        await().atMost(5, TimeUnit.SECONDS).until(() -> published.size() == 3);
+        assertThat(published).containsExactlyInAnyOrder("in-flight", "alert-2", "alert-3");
+    }
+
+    @Test
+    void shouldGiveUpBlockingAfterTimeout() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch consuming = new CountDownLatch(1);
+        blockPublisherUntil(consuming, release);
+        dispatcher = new AlertDispatcher(publisher, 2, WaitStrategy.YIELDING, OverflowPolicy.BLOCK, 50, 1, 1);
+        dispatcher.dispatch(alert("in-flight"), "alerts");
+        assertThat(consuming.await(5, TimeUnit.SECONDS)).isTrue();
+        dispatcher.dispatch(alert("alert-1"), "alerts");
+        dispatcher.dispatch(alert("alert-2"), "alerts");
+
+        // When
+        long start = System.nanoTime();
+        boolean accepted = dispatcher.dispatch(alert("alert-3"), "alerts");
+        long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        release.countDown();
+
+        // Then
+        assertThat(accepted).isFalse();
+        assertThat(waitedMs).isGreaterThanOrEqualTo(40);
+        assertThat(dispatcher.droppedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepSubmittingBatchesWhileEarlierOnesAwaitTheirOutcomeUpToTheCap() {
+        // Given
+        List<CompletableFuture<BatchPublishResult>> pending = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            CompletableFuture<BatchPublishResult> outcome = new CompletableFuture<>();
+            pending.add(outcome);
+            return outcome;
+        }).when(publisher).sendAlertsAsync(anyCollection(), any());
+        dispatcher = new AlertDispatcher(publisher, 16, WaitStrategy.SLEEPING, OverflowPolicy.DROP_NEWEST, 10, 1, 1, 2);
+
+        // When
+        dispatcher.dispatch(alert("alert-1"), "alerts");
+        dispatcher.dispatch(alert("alert-2"), "alerts");
+        dispatcher.dispatch(alert("alert-3"), "alerts");
+
+        // Then
+        await().atMost(5, TimeUnit.SECONDS).until(() -> pending.size() == 2);
+        await().during(200, TimeUnit.MILLISECONDS).atMost(1, TimeUnit.SECONDS).until(() -> pending.size() == 2);
+        assertThat(dispatcher.inFlightCount()).isEqualTo(2);
+        pending.get(0).complete(new BatchPublishResult(List.of()));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> pending.size() == 3);
+        pending.forEach(outcome -> outcome.complete(new BatchPublishResult(List.of())));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> dispatcher.inFlightCount() == 0);
+        verify(publisher, never()).sendAlerts(anyCollection(), any());
+    }
+
+    @Test
+    void shouldPublishQueuedAlertsOnClose() {
+        // Given
+        recordPublishedAlerts();
+        dispatcher = new AlertDispatcher(publisher, 64, WaitStrategy.SLEEPING, OverflowPolicy.DROP_NEWEST, 10, 2, 4);
+        for (int i = 0; i < 20; i++) {
+            dispatcher.dispatch(alert("alert-" + i), "alerts");
+        }
+
+        // When
+        dispatcher.close();
+
+        // Then
+        assertThat(published).hasSize(20);
+        assertThat(dispatcher.dispatch(alert("late"), "alerts")).isFalse();
+    }
+
+    private void blockPublisherUntil(CountDownLatch consuming, CountDownLatch release) {
+        doAnswer(invocation -> {
+            Collection<AlertEvent> events = invocation.getArgument(0);
+            if (events.stream().anyMatch(event -> "in-flight".equals(event.getAlertId()))) {
+                consuming.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            return CompletableFuture.completedFuture(record(events));
+        }).when(publisher).sendAlertsAsync(anyCollection(), any());
+    }
+
+    private void recordPublishedAlerts() {
+        doAnswer(invocation -> CompletableFuture.completedFuture(record(invocation.getArgument(0))))
+                .when(publisher).sendAlertsAsync(anyCollection(), any());
+    }
+
+    private BatchPublishResult record(Collection<AlertEvent> events) {
+        List<BatchItemResult> items = new ArrayList<>();
+        int index = 0;
+        for (AlertEvent event : events) {
+            published.add(event.getAlertId());
+            items.add(BatchItemResult.success(index++, event.getAlertId(), null));
+        }
+        return new BatchPublishResult(items);
+    }
+
+    private static AlertEvent alert(String alertId) {
+        return AlertEvent.builder().alertId(alertId).serviceName("test-service").build();
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.codestring.aegisbugle.application.core.dispatch;
+
+import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AlertRingBufferTest {
+
+    @Test
+    void shouldRoundCapacityUpToPowerOfTwo() {
+        assertThat(new AlertRingBuffer(5).capacity()).isEqualTo(8);
+        assertThat(new AlertRingBuffer(8).capacity()).isEqualTo(8);
+    }
+
+    @Test
+    void shouldDrainInFifoOrderAndRejectWhenFull() {
+        // Given
+        AlertRingBuffer ringBuffer = new AlertRingBuffer(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(ringBuffer.offer(alert("alert-" + i), "topic-" + i)).isTrue();
+        }
+
+        // When
+        boolean acceptedWhenFull = ringBuffer.offer(alert("alert-4"), "topic-4");
+        AlertEvent[] events = new AlertEvent[4];
+        String[] topics = new String[4];
+        int drained = ringBuffer.drainTo(events, topics, 4);
+
+        // Then
+        assertThat(acceptedWhenFull).isFalse();
+        assertThat(drained).isEqualTo(4);
+        assertThat(events).extracting(AlertEvent::getAlertId)
+                .containsExactly("alert-0", "alert-1", "alert-2", "alert-3");
+        assertThat(topics).containsExactly("topic-0", "topic-1", "topic-2", "topic-3");
+        assertThat(ringBuffer.size()).isZero();
+    }
+
+    @Test
+    void shouldDiscardOldestAlert() {
+        // Given
+        AlertRingBuffer ringBuffer = new AlertRingBuffer(2);
+        ringBuffer.offer(alert("alert-0"), "topic");
+        ringBuffer.offer(alert("alert-1"), "topic");
+
+        // When
+        ringBuffer.discardOldest();
+        ringBuffer.offer(alert("alert-2"), "topic");
+        AlertEvent[] events = new AlertEvent[2];
+        ringBuffer.drainTo(events, new String[2], 2);
+
+        // Then
+        assertThat(events).extracting(AlertEvent::getAlertId).containsExactly("alert-1", "alert-2");
+    }
+
+    @Test
+    void shouldNotLoseOrDuplicateAlertsUnderConcurrentProducers() throws Exception {
+        // Given
+        int producers = 4;
+        int perProducer = 10_000;
+        AlertRingBuffer ringBuffer = new AlertRingBuffer(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perProducer; i++) {
+                    AlertEvent event = alert(producer + "-" + i);
+                    while (!ringBuffer.offer(event, "topic")) {
+                        Thread.onSpinWait();
+                    }
+                }
+                return null;
+            });
+        }
+
+        // When
+        start.countDown();
+        Set<String> received = new HashSet<>();
+        AlertEvent[] events = new AlertEvent[64];
+        String[] topics = new String[64];
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (received.size() < producers * perProducer && System.nanoTime() < deadline) {
+            int drained = ringBuffer.drainTo(events, topics, events.length);
+            for (int i = 0; i < drained; i++) {
+                assertThat(received.add(events[i].getAlertId())).isTrue();
+            }
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(received).hasSize(producers * perProducer);
+    }
+
+    private static AlertEvent alert(String alertId) {
+        return AlertEvent.builder().alertId(alertId).serviceName("test-service").build();
+    }
+}
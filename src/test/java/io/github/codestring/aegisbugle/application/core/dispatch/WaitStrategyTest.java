@@ -0,0 +1,24 @@
+package io.github.codestring.aegisbugle.application.core.dispatch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WaitStrategyTest {
+
+    @Test
+    void shouldStopCountingAttemptsOnceWaitingNoLongerChanges() {
+        for (WaitStrategy strategy : WaitStrategy.values()) {
+            // Given
+            int attempt = 0;
+
+            // When
+            for (int i = 0; i < 1_000; i++) {
+                attempt = strategy.idle(attempt);
+            }
+
+            // Then
+            assertThat(strategy.idle(attempt)).isEqualTo(attempt).isPositive();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.codestring.aegisbugle.application.core.fingerprint;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StackTraceDeduplicatorTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void shouldCountOccurrencesWithinWindow() {
+        // Given
+        StackTraceDeduplicator deduplicator = new StackTraceDeduplicator(1000, 10, clock::get);
+
+        // When / Then
+        assertThat(deduplicator.record("fp-1")).isEqualTo(1);
+        assertThat(deduplicator.record("fp-1")).isEqualTo(2);
+        assertThat(deduplicator.record("fp-2")).isEqualTo(1);
+        assertThat(deduplicator.record("fp-1")).isEqualTo(3);
+    }
+
+    @Test
+    void shouldStartNewWindowAfterTtl() {
+        // Given
+        StackTraceDeduplicator deduplicator = new StackTraceDeduplicator(1000, 10, clock::get);
+        deduplicator.record("fp-1");
+        deduplicator.record("fp-1");
+
+        // When
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+
+        // Then
+        assertThat(deduplicator.record("fp-1")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldEvictOldestFingerprintWhenFull() {
+        // Given
+        StackTraceDeduplicator deduplicator = new StackTraceDeduplicator(60000, 2, clock::get);
+        deduplicator.record("fp-1");
+        clock.incrementAndGet();
+        deduplicator.record("fp-2");
+        clock.incrementAndGet();
+
+        // When
+        deduplicator.record("fp-3");
+
+        // Then
+        assertThat(deduplicator.size()).isEqualTo(2);
+        assertThat(deduplicator.record("fp-2")).isEqualTo(2);
+        assertThat(deduplicator.record("fp-1")).isEqualTo(1);
+    }
+}
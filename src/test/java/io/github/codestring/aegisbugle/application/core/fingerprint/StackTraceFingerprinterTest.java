@@ -0,0 +1,58 @@
+package io.github.codestring.aegisbugle.application.core.fingerprint;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StackTraceFingerprinterTest {
+
+    private static final String TRACE = """
+            java.lang.IllegalStateException: order 42 not found
+            \tat com.acme.OrderService.load(OrderService.java:57)
+            \tat com.acme.OrderService$$SpringCGLIB$$0.load(<generated>)
+            \tat com.acme.OrderController.lambda$get$3(OrderController.java:21)
+            \tat com.acme.OrderController$$Lambda$812/0x0000000801234567.apply(Unknown Source)
+            \tat jdk.proxy2/jdk.proxy2.$Proxy87.load(Unknown Source)
+            \tat jdk.internal.reflect.GeneratedMethodAccessor12.invoke(Unknown Source)
+            \tat java.base/java.lang.Thread.run(Thread.java:840)
+            Caused by: java.sql.SQLException: connection 7 closed
+            \tat com.acme.Db.query(Db.java:12)
+            """;
+
+    @Test
+    void shouldIgnoreLineNumbersMessagesAndGeneratedClassNoise() {
+        // Given
+        String redeployed = """
+                java.lang.IllegalStateException: order 77 not found
+                \tat com.acme.OrderService.load(OrderService.java:61)
+                \tat com.acme.OrderService$$SpringCGLIB$$0.load(<generated>)
+                \tat com.acme.OrderController.lambda$get$0(OrderController.java:25)
+                \tat com.acme.OrderController$$Lambda/0x00007f3a1c00a000.apply(Unknown Source)
+                \tat jdk.proxy3/jdk.proxy3.$Proxy112.load(Unknown Source)
+                \tat jdk.internal.reflect.GeneratedMethodAccessor98.invoke(Unknown Source)
+                \tat java.base/java.lang.Thread.run(Thread.java:1583)
+                Caused by: java.sql.SQLException: connection 3 closed
+                \tat com.acme.Db.query(Db.java:14)
+                """;
+
+        // When / Then
+        assertThat(StackTraceFingerprinter.fingerprint(redeployed))
+                .isEqualTo(StackTraceFingerprinter.fingerprint(TRACE))
+                .hasSize(32);
+    }
+
+    @Test
+    void shouldDistinguishDifferentFrames() {
+        // Given
+        String other = TRACE.replace("OrderService.load", "OrderService.save");
+
+        // When / Then
+        assertThat(StackTraceFingerprinter.fingerprint(other)).isNotEqualTo(StackTraceFingerprinter.fingerprint(TRACE));
+    }
+
+    @Test
+    void shouldReturnNullWithoutFrames() {
+        assertThat(StackTraceFingerprinter.fingerprint(null)).isNull();
+        assertThat(StackTraceFingerprinter.fingerprint("java.lang.RuntimeException: boom")).isNull();
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.codestring.aegisbugle.application.core.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MonotonicAlertIdGeneratorTest {
+
+    @Test
+    void shouldGenerateStrictlyIncreasingIds() {
+        // Given
+        MonotonicAlertIdGenerator generator = new MonotonicAlertIdGenerator();
+        String previous = generator.nextId();
+
+        // When / Then
+        for (int i = 0; i < 100000; i++) {
+            String next = generator.nextId();
+            assertThat(next).hasSize(MonotonicAlertIdGenerator.ID_LENGTH).isGreaterThan(previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    void shouldGenerateUniqueIdsAcrossThreads() throws Exception {
+        // Given
+        MonotonicAlertIdGenerator generator = new MonotonicAlertIdGenerator();
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // When
+        for (int t = 0; t < 4; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 25000; i++) {
+                    ids.add(generator.nextId());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(ids).hasSize(100000);
+    }
+
+    @Test
+    void shouldSeparateGeneratorsByNode() {
+        // Given
+        MonotonicAlertIdGenerator first = new MonotonicAlertIdGenerator(1);
+        MonotonicAlertIdGenerator second = new MonotonicAlertIdGenerator(2);
+
+        // When
+        String firstId = first.nextId();
+        String secondId = second.nextId();
+
+        // Then
+        assertThat(firstId).isNotEqualTo(secondId);
+        assertThat(firstId.substring(firstId.length() - 1)).isEqualTo("1");
+        assertThat(secondId.substring(secondId.length() - 1)).isEqualTo("2");
+    }
+
+    @Test
+    void shouldEncodeAsCrockfordBase32() {
+        // Given
+        char[] buffer = new char[MonotonicAlertIdGenerator.ID_LENGTH];
+
+        // When
+        MonotonicAlertIdGenerator.encode(-1L, -1L, buffer, 0);
+
+        // Then
+        assertThat(new String(buffer)).isEqualTo("7ZZZZZZZZZZZZZZZZZZZZZZZZZ");
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.codestring.aegisbugle.application.core.model;
+
+import io.github.codestring.aegisbugle.application.core.id.MonotonicAlertIdGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AlertEnvelopeTest {
+
+    @Test
+    void shouldSnapshotEventAndLeaveRoutingKeyOutOfPayloadOnlyWhenAsked() throws Exception {
+        // Given
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("orderId", "ord-1");
+        AlertEvent event = AlertEvent.builder()
+                .alertId("alert-1")
+                .errorCode("ERR_001")
+                .severity(AlertSeverity.HIGH)
+                .routingKey("alerts.high")
+                .metadata(metadata)
+                .build();
+
+        // When
+        AlertEnvelope envelope = AlertEnvelope.of(event);
+        event.setErrorCode("ERR_CHANGED");
+        metadata.put("orderId", "ord-2");
+
+        // Then
+        AlertEvent[] encoded = new AlertEvent[2];
+        envelope.encode(this, payload -> {
+            encoded[0] = payload;
+            return new byte[0];
+        });
+        envelope.encodeWithoutRoutingKey(this, payload -> {
+            encoded[1] = payload;
+            return new byte[1];
+        });
+        assertThat(encoded[0].getRoutingKey()).isEqualTo("alerts.high");
+        assertThat(encoded[0].getErrorCode()).isEqualTo("ERR_001");
+        assertThat(encoded[0].getMetadata()).containsEntry("orderId", "ord-1");
+        assertThat(encoded[1].getRoutingKey()).isNull();
+        assertThat(encoded[1].getMetadata()).containsEntry("orderId", "ord-1");
+        assertThat(envelope.encode(this, payload -> new byte[2])).isEmpty();
+        assertThat(envelope.encodeWithoutRoutingKey(this, payload -> new byte[2])).hasSize(1);
+        assertThat(envelope.getRoutingKey()).isEqualTo("alerts.high");
+        assertThat(event.getRoutingKey()).isEqualTo("alerts.high");
+        assertThat(envelope.toAlertEvent().getRoutingKey()).isEqualTo("alerts.high");
+    }
+
+    @Test
+    void shouldAssignMissingIdWithoutModifyingEvent() {
+        // Given
+        AlertEvent event = AlertEvent.builder().errorCode("ERR_001").build();
+
+        // When
+        AlertEnvelope envelope = AlertEnvelope.of(event, new MonotonicAlertIdGenerator());
+
+        // Then
+        assertThat(envelope.getAlertId()).isNotBlank();
+        assertThat(event.getAlertId()).isNull();
+        assertThatThrownBy(() -> AlertEnvelope.of(event)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldEncodeOncePerFormatAcrossConcurrentSends() throws Exception {
+        // Given
+        AlertEnvelope envelope = AlertEnvelope.of(AlertEvent.builder().alertId("alert-1").errorCode("ERR_001").build());
+        Object json = new Object();
+        Object cbor = new Object();
+        AtomicInteger encodings = new AtomicInteger();
+        AlertEnvelope.Encoder encoder = payload -> {
+            encodings.incrementAndGet();
+            return payload.getErrorCode().getBytes(StandardCharsets.UTF_8);
+        };
+        byte[] first = envelope.encode(json, encoder);
+
+        // When
+        List<CompletableFuture<byte[]>> sends = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            sends.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return envelope.encode(json, encoder);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+        }
+        byte[] other = envelope.encode(cbor, encoder);
+
+        // Then
+        for (CompletableFuture<byte[]> send : sends) {
+            assertThat(send.join()).isSameAs(first);
+        }
+        assertThat(other).isNotSameAs(first).isEqualTo(first);
+        assertThat(encodings).hasValue(2);
+    }
+}
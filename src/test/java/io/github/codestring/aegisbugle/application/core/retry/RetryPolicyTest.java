@@ -0,0 +1,33 @@
+package io.github.codestring.aegisbugle.application.core.retry;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryPolicyTest {
+
+    @Test
+    void shouldBackOffExponentiallyWithinJitterWindow() {
+        // Given
+        RetryPolicy policy = new RetryPolicy(5, 100, 10000, 2.0);
+
+        // When / Then
+        for (int i = 0; i < 100; i++) {
+            assertThat(policy.backoffMillis(1)).isBetween(50L, 100L);
+            assertThat(policy.backoffMillis(2)).isBetween(100L, 200L);
+            assertThat(policy.backoffMillis(4)).isBetween(400L, 800L);
+        }
+    }
+
+    @Test
+    void shouldCapBackoffAtMaximum() {
+        // Given
+        RetryPolicy policy = new RetryPolicy(50, 100, 1000, 2.0);
+
+        // When
+        long backoff = policy.backoffMillis(40);
+
+        // Then
+        assertThat(backoff).isBetween(500L, 1000L);
+    }
+}
@@ -0,0 +1,257 @@
+package io.github.codestring.aegisbugle.application.core.retry;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.github.codestring.aegisbugle.application.core.PublishException;
+import io.github.codestring.aegisbugle.application.core.breaker.CircuitBreakerRegistry;
+import io.github.codestring.aegisbugle.application.core.breaker.CircuitBreakingBuglePublisher;
+import io.github.codestring.aegisbugle.application.core.breaker.PublishRejectedException;
+import io.github.codestring.aegisbugle.application.core.model.AlertEnvelope;
+import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import io.github.codestring.aegisbugle.application.core.model.BatchItemResult;
+import io.github.codestring.aegisbugle.application.core.model.BatchPublishResult;
+import io.github.codestring.aegisbugle.application.core.model.DeliveryReceipt;
+import io.github.codestring.aegisbugle.application.core.model.FailureMessage;
+import io.github.codestring.aegisbugle.application.port.out.BuglePublisher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RetryingBuglePublisherTest {
+
+    @Mock
+    private BuglePublisher delegate;
+
+    private RetryScheduler scheduler;
+    private RetryingBuglePublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new RetryScheduler(1);
+        publisher = new RetryingBuglePublisher(delegate, new RetryPolicy(3, 1, 5, 2.0),
+                new DefaultRetryableErrorClassifier(), scheduler, "failures");
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.close();
+    }
+
+    @Test
+    void shouldRetryRetryableFailureUntilItSucceeds() {
+        // Given
+        AlertEvent event = alert();
+        DeliveryReceipt receipt = DeliveryReceipt.builder().topic("alerts").build();
+        when(delegate.sendAlertAsync(event, "alerts")).thenReturn(
+                CompletableFuture.failedFuture(new PublishException("timeout")),
+                CompletableFuture.failedFuture(new PublishException("timeout")),
+                CompletableFuture.completedFuture(receipt));
+
+        // When
+        DeliveryReceipt result = publisher.sendAlertAsync(event, "alerts").join();
+
+        // Then
+        assertThat(result).isSameAs(receipt);
+        verify(delegate, times(3)).sendAlertAsync(event, "alerts");
+        verify(delegate, never()).sendFailureAsync(any(), any());
+        assertThat(scheduler.scheduledRetries()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRetryAlertsOfAnAsynchronousBatchOneByOne() {
+        // Given
+        AlertEvent first = alert();
+        AlertEvent second = AlertEvent.builder().alertId("alert-2").serviceName("test-service").build();
+        when(delegate.sendAlertAsync(first, "alerts")).thenReturn(
+                CompletableFuture.failedFuture(new PublishException("timeout")),
+                CompletableFuture.completedFuture(new DeliveryReceipt()));
+        when(delegate.sendAlertAsync(second, "alerts")).thenReturn(CompletableFuture.completedFuture(new DeliveryReceipt()));
+
+        // When
+        BatchPublishResult result = publisher.sendAlertsAsync(List.of(first, second), "alerts").join();
+
+        // Then
+        assertThat(result.isAllSucceeded()).isTrue();
+        assertThat(result.size()).isEqualTo(2);
+        verify(delegate, times(2)).sendAlertAsync(first, "alerts");
+        verify(delegate, never()).sendAlerts(anyCollection(), any());
+    }
+
+    @Test
+    void shouldStopRetryingOnceTheCircuitOpens() {
+        // Given
+        AlertEvent event = alert();
+        CircuitBreakerRegistry breakers = new CircuitBreakerRegistry(2, 60000, 1, 100, 0, 10, List.of());
+        RetryingBuglePublisher guarded = new RetryingBuglePublisher(
+                new CircuitBreakingBuglePublisher(delegate, "kafka", breakers, new DefaultRetryableErrorClassifier(), null),
+                new RetryPolicy(3, 1, 5, 2.0), new DefaultRetryableErrorClassifier(), scheduler, "failures");
+        when(delegate.sendAlertAsync(event, "alerts"))
+                .thenReturn(CompletableFuture.failedFuture(new PublishException("broker down")));
+
+        // When
+        CompletableFuture<DeliveryReceipt> result = guarded.sendAlertAsync(event, "alerts");
+
+        // Then
+        assertThatThrownBy(result::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(PublishRejectedException.class);
+        verify(delegate, times(2)).sendAlertAsync(event, "alerts");
+        verify(delegate, never()).sendFailureAsync(any(), any());
+        assertThat(scheduler.scheduledRetries()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRouteToFailureDestinationWhenRetriesAreExhausted() {
+        // Given
+        AlertEvent event = alert();
+        when(delegate.sendAlertAsync(event, "alerts"))
+                .thenReturn(CompletableFuture.failedFuture(new PublishException("broker down")));
+        when(delegate.sendFailureAsync(any(FailureMessage.class), eq("failures")))
+                .thenReturn(CompletableFuture.completedFuture(DeliveryReceipt.builder().messageId("m-1").build()));
+        ArgumentCaptor<FailureMessage> captor = ArgumentCaptor.forClass(FailureMessage.class);
+
+        // When
+        DeliveryReceipt result = publisher.sendAlertAsync(event, "alerts").join();
+
+        // Then
+        verify(delegate, times(4)).sendAlertAsync(event, "alerts");
+        verify(delegate).sendFailureAsync(captor.capture(), eq("failures"));
+        assertThat(captor.getValue().getOriginalDestination()).isEqualTo("alerts");
+        assertThat(captor.getValue().getMessage()).isSameAs(event);
+        assertThat(captor.getValue().getErrorMessage()).isEqualTo("broker down");
+        assertThat(result.isDeadLettered()).isTrue();
+        assertThat(result.getTopic()).isEqualTo("failures");
+        assertThat(result.getMessageId()).isEqualTo("m-1");
+    }
+
+    @Test
+    void shouldNotRetryNonRetryableFailure() {
+        // Given
+        AlertEvent event = alert();
+        PublishException error = new PublishException("Error serializing message", new JsonProcessingException("bad") {});
+        when(delegate.sendAlertAsync(event, "alerts")).thenReturn(CompletableFuture.failedFuture(error));
+        when(delegate.sendFailureAsync(any(FailureMessage.class), eq("failures")))
+                .thenReturn(CompletableFuture.completedFuture(new DeliveryReceipt()));
+
+        // When
+        publisher.sendAlertAsync(event, "alerts").join();
+
+        // Then
+        verify(delegate, times(1)).sendAlertAsync(event, "alerts");
+        verify(delegate).sendFailureAsync(any(FailureMessage.class), eq("failures"));
+    }
+
+    @Test
+    void shouldFailWithOriginalErrorWhenFailureRoutingFails() {
+        // Given
+        AlertEvent event = alert();
+        PublishException error = new PublishException("broker down");
+        when(delegate.sendAlertAsync(event, "alerts")).thenReturn(CompletableFuture.failedFuture(error));
+        when(delegate.sendFailureAsync(any(FailureMessage.class), eq("failures")))
+                .thenReturn(CompletableFuture.failedFuture(new PublishException("still down")));
+
+        // When
+        CompletableFuture<DeliveryReceipt> result = publisher.sendAlertAsync(event, "alerts");
+
+        // Then
+        assertThatThrownBy(result::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCause(error);
+    }
+
+    @Test
+    void shouldRetrySynchronousSendInBackgroundWithoutThrowing() {
+        // Given
+        AlertEvent event = alert();
+        when(delegate.sendAlertAsync(event, "alerts"))
+                .thenReturn(CompletableFuture.failedFuture(new PublishException("timeout")))
+                .thenReturn(CompletableFuture.completedFuture(new DeliveryReceipt()));
+
+        // When
+        publisher.sendAlert(event, "alerts");
+
+        // Then
+        verify(delegate, timeout(5000).times(2)).sendAlertAsync(event, "alerts");
+        verify(delegate, never()).sendAlert(any(AlertEvent.class), any());
+        verify(delegate, never()).sendFailureAsync(any(), any());
+    }
+
+    @Test
+    void shouldDeadLetterAndRethrowSynchronousSendRejectedUpFront() {
+        // Given
+        AlertEvent event = alert();
+        IllegalArgumentException error = new IllegalArgumentException("Routing key is required");
+        when(delegate.sendAlertAsync(event, "alerts")).thenThrow(error);
+        when(delegate.sendFailureAsync(any(FailureMessage.class), eq("failures")))
+                .thenReturn(CompletableFuture.completedFuture(new DeliveryReceipt()));
+
+        // When / Then
+        assertThatThrownBy(() -> publisher.sendAlert(event, "alerts")).isSameAs(error);
+        verify(delegate, times(1)).sendAlertAsync(event, "alerts");
+        verify(delegate).sendFailureAsync(any(FailureMessage.class), eq("failures"));
+    }
+
+    @Test
+    void shouldRetryOnlyFailedItemsOfBatch() {
+        // Given
+        AlertEvent first = alert();
+        AlertEvent second = alert();
+        when(delegate.sendAlerts(anyCollection(), eq("alerts"))).thenReturn(new BatchPublishResult(List.of(
+                BatchItemResult.success(0, "alert-1", new DeliveryReceipt()),
+                BatchItemResult.failure(1, "alert-2", new PublishException("nack")))));
+        when(delegate.sendAlertAsync(second, "alerts"))
+                .thenReturn(CompletableFuture.completedFuture(new DeliveryReceipt()));
+
+        // When
+        BatchPublishResult result = publisher.sendAlerts(List.of(first, second), "alerts");
+
+        // Then
+        assertThat(result.isAllSucceeded()).isTrue();
+        verify(delegate, never()).sendAlertAsync(first, "alerts");
+    }
+
+    @Test
+    void shouldRetrySameEnvelopeAndDeadLetterItsContent() {
+        // Given
+        AlertEvent event = alert();
+        event.setAlertId("alert-1");
+        event.setRoutingKey("rk");
+        AlertEnvelope envelope = AlertEnvelope.of(event);
+        when(delegate.sendEnvelopeAsync(envelope, "alerts"))
+                .thenReturn(CompletableFuture.failedFuture(new PublishException("broker down")));
+        when(delegate.sendFailureAsync(any(FailureMessage.class), eq("failures")))
+                .thenReturn(CompletableFuture.completedFuture(DeliveryReceipt.builder().messageId("m-1").build()));
+        ArgumentCaptor<FailureMessage> captor = ArgumentCaptor.forClass(FailureMessage.class);
+
+        // When
+        DeliveryReceipt result = publisher.sendEnvelopeAsync(envelope, "alerts").join();
+
+        // Then
+        verify(delegate, times(4)).sendEnvelopeAsync(envelope, "alerts");
+        verify(delegate).sendFailureAsync(captor.capture(), eq("failures"));
+        AlertEvent failed = (AlertEvent) captor.getValue().getMessage();
+        assertThat(failed.getAlertId()).isEqualTo("alert-1");
+        assertThat(failed.getRoutingKey()).isEqualTo("rk");
+        assertThat(result.getAlertId()).isEqualTo("alert-1");
+        assertThat(result.isDeadLettered()).isTrue();
+    }
+
+    private static AlertEvent alert() {
+        return AlertEvent.builder().serviceName("test-service").build();
+    }
+}
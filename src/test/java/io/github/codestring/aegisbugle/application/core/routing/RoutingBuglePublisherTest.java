@@ -0,0 +1,140 @@
+package io.github.codestring.aegisbugle.application.core.routing;
+
+import io.github.codestring.aegisbugle.application.core.PublishException;
+import io.github.codestring.aegisbugle.application.core.id.MonotonicAlertIdGenerator;
+import io.github.codestring.aegisbugle.application.core.model.AlertEnvelope;
+import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import io.github.codestring.aegisbugle.application.core.model.AlertSeverity;
+import io.github.codestring.aegisbugle.application.core.model.BrokerType;
+import io.github.codestring.aegisbugle.application.core.model.DeliveryReceipt;
+import io.github.codestring.aegisbugle.application.core.model.DestinationResult;
+import io.github.codestring.aegisbugle.application.port.out.BuglePublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RoutingBuglePublisherTest {
+
+    @Mock
+    private BuglePublisher kafka;
+
+    @Mock
+    private BuglePublisher rabbitMq;
+
+    private RoutingBuglePublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        publisher = new RoutingBuglePublisher(
+                Map.of(BrokerType.KAFKA, kafka, BrokerType.RABBITMQ, rabbitMq),
+                List.of(new AlertRoute(List.of(AlertSeverity.CRITICAL), null, null,
+                                List.of(BrokerType.RABBITMQ, BrokerType.KAFKA)),
+                        new AlertRoute(null, List.of("ERR_NOISE"), List.of("DEV"), List.of())),
+                List.of(BrokerType.KAFKA),
+                Map.of(BrokerType.RABBITMQ, "paging"),
+                new MonotonicAlertIdGenerator());
+    }
+
+    @Test
+    void shouldSendCriticalAlertToEveryRoutedBrokerWithOneEnvelope() {
+        // Given
+        AlertEnvelope envelope = envelope(AlertSeverity.CRITICAL, "ERR_001");
+        when(kafka.sendEnvelopeAsync(envelope, "alerts"))
+                .thenReturn(CompletableFuture.completedFuture(DeliveryReceipt.builder().offset(7L).build()));
+        when(rabbitMq.sendEnvelopeAsync(envelope, "paging"))
+                .thenReturn(CompletableFuture.completedFuture(DeliveryReceipt.builder().messageId("m-1").build()));
+
+        // When
+        DeliveryReceipt receipt = publisher.sendEnvelopeAsync(envelope, "alerts").join();
+
+        // Then
+        assertThat(receipt.getAlertId()).isEqualTo("alert-1");
+        assertThat(receipt.getDestinations()).extracting(DestinationResult::getBroker)
+                .containsExactly(BrokerType.RABBITMQ, BrokerType.KAFKA);
+        assertThat(receipt.getDestinations()).extracting(DestinationResult::getTopic)
+                .containsExactly("paging", "alerts");
+        assertThat(receipt.getDestinations()).allMatch(DestinationResult::isSuccess);
+    }
+
+    @Test
+    void shouldSendUnmatchedAlertToDefaultBrokersOnly() {
+        // Given
+        AlertEnvelope envelope = envelope(AlertSeverity.LOW, "ERR_001");
+        when(kafka.sendEnvelopeAsync(envelope, "alerts"))
+                .thenReturn(CompletableFuture.completedFuture(DeliveryReceipt.builder().build()));
+
+        // When
+        DeliveryReceipt receipt = publisher.sendEnvelopeAsync(envelope, "alerts").join();
+
+        // Then
+        assertThat(receipt.getDestinations()).extracting(DestinationResult::getBroker).containsExactly(BrokerType.KAFKA);
+        verifyNoInteractions(rabbitMq);
+    }
+
+    @Test
+    void shouldDropAlertsMatchingRouteWithoutBrokers() {
+        // Given
+        AlertEvent event = AlertEvent.builder().alertId("alert-2").severity(AlertSeverity.LOW)
+                .errorCode("ERR_NOISE").environment("DEV").build();
+
+        // When
+        DeliveryReceipt receipt = publisher.sendAlertAsync(event, "alerts").join();
+
+        // Then
+        assertThat(receipt.getDestinations()).isEmpty();
+        verifyNoInteractions(kafka, rabbitMq);
+    }
+
+    @Test
+    void shouldReportPartialFailurePerDestinationAndFailOnlyWhenAllFail() {
+        // Given
+        AlertEnvelope envelope = envelope(AlertSeverity.CRITICAL, "ERR_001");
+        when(kafka.sendEnvelopeAsync(any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(DeliveryReceipt.builder().build()))
+                .thenReturn(CompletableFuture.failedFuture(new PublishException("kafka down")));
+        when(rabbitMq.sendEnvelopeAsync(any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new PublishException("rabbitmq down")));
+
+        // When
+        DeliveryReceipt partial = publisher.sendEnvelopeAsync(envelope, "alerts").join();
+        CompletableFuture<DeliveryReceipt> none = publisher.sendEnvelopeAsync(envelope, "alerts");
+
+        // Then
+        assertThat(partial.getDestinations()).extracting(DestinationResult::isSuccess).containsExactly(false, true);
+        assertThat(partial.getDestinations().get(0).getError()).hasMessage("rabbitmq down");
+        assertThatThrownBy(none::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(PublishException.class);
+    }
+
+    @Test
+    void shouldRejectRoutesToBrokersWithoutPublisher() {
+        assertThatThrownBy(() -> new RoutingBuglePublisher(Map.of(BrokerType.KAFKA, kafka),
+                List.of(new AlertRoute(null, null, null, List.of(BrokerType.PULSAR))),
+                List.of(), Map.of(), new MonotonicAlertIdGenerator()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("PULSAR");
+    }
+
+    private static AlertEnvelope envelope(AlertSeverity severity, String errorCode) {
+        return AlertEnvelope.of(AlertEvent.builder()
+                .alertId("alert-1")
+                .severity(severity)
+                .errorCode(errorCode)
+                .environment("PROD")
+                .build());
+    }
+}
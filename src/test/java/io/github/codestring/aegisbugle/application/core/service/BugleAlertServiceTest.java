@@ -0,0 +1,197 @@
+package io.github.codestring.aegisbugle.application.core.service;
+
+import io.github.codestring.aegisbugle.adapter.out.mapper.AlertMapperImpl;
+import io.github.codestring.aegisbugle.application.core.BugleAlertException;
+import io.github.codestring.aegisbugle.application.core.context.AlertContextEnricher;
+import io.github.codestring.aegisbugle.application.core.dispatch.AlertDispatcher;
+import io.github.codestring.aegisbugle.application.core.fingerprint.StackTraceDeduplicator;
+import io.github.codestring.aegisbugle.application.core.id.MonotonicAlertIdGenerator;
+import io.github.codestring.aegisbugle.application.core.model.*;
+import io.github.codestring.aegisbugle.application.core.routing.AlertRoute;
+import io.github.codestring.aegisbugle.application.core.routing.RoutingBuglePublisher;
+import io.github.codestring.aegisbugle.application.port.out.BuglePublisher;
+import io.github.codestring.aegisbugle.config.BugleProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BugleAlertServiceTest {
+
+    @Mock
+    private BuglePublisher publisher;
+
+    @Mock
+    private AlertDispatcher dispatcher;
+
+    @Captor
+    private ArgumentCaptor<AlertEnvelope> alertCaptor;
+
+    private BugleProperties properties;
+    private BugleAlertService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new BugleProperties();
+        properties.setServiceName("test-service");
+        properties.setEnvironment(Environment.DEV);
+        properties.setBrokerType(BrokerType.KAFKA);
+        service = service(null, null, null);
+    }
+
+    @Test
+    void shouldEnrichAndPublishAlert() throws Exception {
+        // When
+        service.raiseFailureAlert(event("alerts", "ERR_001"));
+
+        // Then
+        verify(publisher).sendEnvelope(alertCaptor.capture(), eq("alerts"));
+        AlertEvent alert = alertCaptor.getValue().toAlertEvent();
+        assertThat(alert.getServiceName()).isEqualTo("test-service");
+        assertThat(alert.getEnvironment()).isEqualTo("DEV");
+        assertThat(alert.getErrorCode()).isEqualTo("ERR_001");
+        assertThat(alert.getAlertId()).isNotBlank();
+    }
+
+    @Test
+    void shouldRejectEventWithoutTopic() {
+        assertThatThrownBy(() -> service.raiseFailureAlert(event(null, "ERR_001")))
+                .isInstanceOf(BugleAlertException.class)
+                .hasMessage("Invalid topic provided");
+        verifyNoInteractions(publisher);
+    }
+
+    @Test
+    void shouldRequireRoutingKeyButNoExchangeForRabbitMq() throws Exception {
+        // Given
+        properties.setBrokerType(BrokerType.RABBITMQ);
+        BugleEvent withRoutingKey = event(null, "ERR_001");
+        withRoutingKey.setRoutingKey("alerts.high");
+
+        // When
+        service.raiseFailureAlert(withRoutingKey);
+
+        // Then
+        assertThatThrownBy(() -> service.raiseFailureAlert(event("alerts", "ERR_001")))
+                .isInstanceOf(BugleAlertException.class)
+                .hasMessage("Invalid routing key provided");
+        verify(publisher).sendEnvelope(any(AlertEnvelope.class), isNull());
+    }
+
+    @Test
+    void shouldValidateAgainstTheBrokersTheAlertIsRoutedTo() throws Exception {
+        // Given
+        RoutingBuglePublisher router = new RoutingBuglePublisher(
+                Map.of(BrokerType.KAFKA, publisher, BrokerType.RABBITMQ, publisher),
+                List.of(new AlertRoute(null, List.of("ERR_RABBIT"), null, List.of(BrokerType.RABBITMQ))),
+                List.of(BrokerType.KAFKA), Map.of(), new MonotonicAlertIdGenerator());
+        service = service(null, null, router);
+
+        // When
+        service.raiseFailureAlert(event("alerts", "ERR_001"));
+
+        // Then
+        assertThatThrownBy(() -> service.raiseFailureAlert(event("alerts", "ERR_RABBIT")))
+                .isInstanceOf(BugleAlertException.class)
+                .hasMessage("Invalid routing key provided");
+        verify(publisher).sendEnvelope(any(AlertEnvelope.class), eq("alerts"));
+    }
+
+    @Test
+    void shouldQueueAlertInDispatchMode() throws Exception {
+        // Given
+        service = service(dispatcher, null, null);
+        when(dispatcher.dispatch(any(AlertEvent.class), eq("alerts"))).thenReturn(true);
+
+        // When
+        service.raiseFailureAlert(event("alerts", "ERR_001"));
+
+        // Then
+        verify(dispatcher).dispatch(any(AlertEvent.class), eq("alerts"));
+        verifyNoInteractions(publisher);
+    }
+
+    @Test
+    void shouldPublishBatchGroupedByTopicWithPerItemOutcomes() {
+        // Given
+        when(publisher.sendAlerts(anyCollection(), any())).thenAnswer(invocation -> {
+            Collection<AlertEvent> alerts = invocation.getArgument(0);
+            List<BatchItemResult> items = new ArrayList<>();
+            int index = 0;
+            for (AlertEvent alert : alerts) {
+                items.add(BatchItemResult.success(index++, alert.getAlertId(), null));
+            }
+            return new BatchPublishResult(items);
+        });
+        List<BugleEvent> events = List.of(
+                event("alerts", "ERR_001"),
+                event("audit", "ERR_002"),
+                event(null, "ERR_003"),
+                event("alerts", "ERR_004"));
+
+        // When
+        BatchPublishResult result = service.raiseFailureAlerts(events);
+
+        // Then
+        verify(publisher).sendAlerts(argThat(alerts -> alerts.size() == 2), eq("alerts"));
+        verify(publisher).sendAlerts(argThat(alerts -> alerts.size() == 1), eq("audit"));
+        assertThat(result.getItems()).extracting(BatchItemResult::getIndex).containsExactly(0, 1, 2, 3);
+        assertThat(result.getItems()).extracting(BatchItemResult::isSuccess).containsExactly(true, true, false, true);
+        assertThat(result.getItems().get(2).getError()).isInstanceOf(BugleAlertException.class);
+    }
+
+    @Test
+    void shouldSendRepeatedStackTraceOnlyOnceWhenFingerprinting() throws Exception {
+        // Given
+        service = service(null, new StackTraceDeduplicator(60000, 100), null);
+        BugleEvent event = event("alerts", "ERR_001");
+        event.setStackTrace("java.lang.IllegalStateException: boom\n\tat com.acme.Foo.bar(Foo.java:10)");
+
+        // When
+        service.raiseFailureAlert(event);
+        service.raiseFailureAlert(event);
+
+        // Then
+        verify(publisher, times(2)).sendEnvelope(alertCaptor.capture(), eq("alerts"));
+        AlertEvent first = alertCaptor.getAllValues().get(0).toAlertEvent();
+        AlertEvent second = alertCaptor.getAllValues().get(1).toAlertEvent();
+        assertThat(first.getStackTrace()).isNotNull();
+        assertThat(first.getOccurrenceCount()).isEqualTo(1);
+        assertThat(second.getStackTrace()).isNull();
+        assertThat(second.getOccurrenceCount()).isEqualTo(2);
+        assertThat(second.getStackFingerprint()).isEqualTo(first.getStackFingerprint()).isNotNull();
+    }
+
+    private BugleAlertService service(AlertDispatcher alertDispatcher, StackTraceDeduplicator deduplicator,
+                                      RoutingBuglePublisher router) {
+        return new BugleAlertService(properties, publisher, new AlertMapperImpl(), alertDispatcher, deduplicator,
+                new MonotonicAlertIdGenerator(), AlertContextEnricher.from(properties, null), router);
+    }
+
+    private static BugleEvent event(String topic, String errorCode) {
+        return BugleEvent.builder()
+                .topic(topic)
+                .errorCode(errorCode)
+                .errorMessage("Something failed")
+                .exceptionType("IllegalStateException")
+                .severity(AlertSeverity.HIGH)
+                .build();
+    }
+}
@@ -6,18 +6,38 @@ import io.github.codestring.aegisbugle.adapter.out.NoOpPublisher;
 import io.github.codestring.aegisbugle.adapter.out.PulsarPublisher;
 import io.github.codestring.aegisbugle.adapter.out.RabbitMqPublisher;
 import io.github.codestring.aegisbugle.adapter.out.mapper.AlertMapperImpl;
+import io.github.codestring.aegisbugle.adapter.out.metrics.BugleMeterBinder;
+import io.github.codestring.aegisbugle.adapter.out.metrics.CircuitBreakerMetrics;
+import io.github.codestring.aegisbugle.adapter.out.metrics.PublisherMetrics;
+import io.github.codestring.aegisbugle.adapter.out.spool.SpoolReplayer;
+import io.github.codestring.aegisbugle.adapter.out.warmup.PublisherWarmUp;
+import io.github.codestring.aegisbugle.application.core.breaker.CircuitBreakerRegistry;
+import io.github.codestring.aegisbugle.application.core.context.AlertContextEnricher;
+import io.github.codestring.aegisbugle.application.core.dispatch.AlertDispatcher;
+import io.github.codestring.aegisbugle.application.core.model.AlertContext;
+import io.github.codestring.aegisbugle.application.core.retry.RetryingBuglePublisher;
+import io.github.codestring.aegisbugle.application.core.routing.RoutingBuglePublisher;
 import io.github.codestring.aegisbugle.application.core.service.BugleAlertService;
 import io.github.codestring.aegisbugle.application.port.out.BuglePublisher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.pulsar.client.api.PulsarClient;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.context.annotation.ImportCandidates;
+import org.springframework.boot.info.BuildProperties;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
 
+import java.nio.file.Path;
+import java.util.Properties;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 
@@ -27,6 +47,12 @@ class BugleAutoConfigurationTest {
             .withConfiguration(AutoConfigurations.of(BugleAutoConfiguration.class));
 
 
+    @Test
+    void shouldBeRegisteredAsAutoConfiguration() {
+        assertThat(ImportCandidates.load(AutoConfiguration.class, getClass().getClassLoader()))
+                .contains(BugleAutoConfiguration.class.getName());
+    }
+
     @Test
     void shouldNotLoadWhenDisabled() {
         contextRunner
@@ -62,6 +88,25 @@ class BugleAutoConfigurationTest {
                 });
     }
 
+    @Test
+    void shouldBuildPulsarPublisherOnTheSinglePulsarClientBean() {
+        contextRunner
+                .withBean(AlertMapperImpl.class)
+                .withPropertyValues(
+                        "aegis.bugle.enabled=true",
+                        "aegis.bugle.service-name=testApp",
+                        "aegis.bugle.broker-type=pulsar",
+                        "aegis.bugle.pulsar.service-url=pulsar://localhost:6650"
+                )
+                .run(context -> {
+                    assertThat(context).hasSingleBean(PulsarClient.class);
+                    assertThat(context).hasSingleBean(PulsarPublisher.class);
+                    PulsarClient client = context.getBean(PulsarClient.class);
+                    assertThat(context.getBean(PulsarPublisher.class))
+                            .extracting("producerCache").extracting("pulsarClient").isSameAs(client);
+                });
+    }
+
     @Test
     void shouldLoadKafkaBeansWhenBrokerTypeIsKafka() {
         contextRunner
@@ -76,6 +121,10 @@ class BugleAutoConfigurationTest {
                     assertThat(context).hasSingleBean(ProducerFactory.class);
                     assertThat(context).hasSingleBean(KafkaTemplate.class);
                     assertThat(context).hasSingleBean(ObjectMapper.class);
+                    assertThat(context.getBean(KafkaPublisher.class))
+                            .extracting("kafkaTemplate").isSameAs(context.getBean(KafkaTemplate.class));
+                    assertThat(context.getBean(KafkaTemplate.class).getProducerFactory())
+                            .isSameAs(context.getBean(ProducerFactory.class));
                     assertThat(context).doesNotHaveBean(RabbitTemplate.class);
                     assertThat(context).doesNotHaveBean(PulsarClient.class);
                 });
@@ -97,7 +146,9 @@ class BugleAutoConfigurationTest {
                 .run(context -> {
                     assertThat(context).hasSingleBean(CachingConnectionFactory.class);
                     assertThat(context).hasSingleBean(RabbitTemplate.class);
-                    assertThat(context).hasSingleBean(MessageConverter.class);
+                    assertThat(context).doesNotHaveBean(MessageConverter.class);
+                    assertThat(context.getBean(RabbitMqPublisher.class))
+                            .extracting("rabbitTemplate").isSameAs(context.getBean(RabbitTemplate.class));
                     assertThat(context).hasSingleBean(ObjectMapper.class);
                     assertThat(context).doesNotHaveBean(KafkaTemplate.class);
                     assertThat(context).doesNotHaveBean(PulsarClient.class);
@@ -177,4 +228,216 @@ class BugleAutoConfigurationTest {
                     assertThat(context).doesNotHaveBean(NoOpPublisher.class);
                 });
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldLoadEveryListedBrokerAndRoutingPublisherWhenRoutingIsEnabled() {
+        contextRunner
+                .withBean(AlertMapperImpl.class)
+                .withPropertyValues(
+                        "aegis.bugle.enabled=true",
+                        "aegis.bugle.service-name=testApp",
+                        "aegis.bugle.brokers=kafka,rabbitmq",
+                        "aegis.bugle.routing.enabled=true",
+                        "aegis.bugle.routing.routes[0].severities=CRITICAL",
+                        "aegis.bugle.routing.routes[0].brokers=rabbitmq,kafka",
+                        "aegis.bugle.routing.default-brokers=kafka",
+                        "aegis.bugle.routing.topics.rabbitmq=paging"
+                )
+                .run(context -> {
+                    assertThat(context).hasSingleBean(KafkaPublisher.class);
+                    assertThat(context).hasSingleBean(RabbitMqPublisher.class);
+                    assertThat(context).doesNotHaveBean(PulsarClient.class);
+                    assertThat(context).doesNotHaveBean(NoOpPublisher.class);
+                    assertThat(context.getBean(BuglePublisher.class)).isInstanceOf(RoutingBuglePublisher.class);
+                    assertThat(context).hasSingleBean(BugleAlertService.class);
+                });
+    }
+
+    @Test
+    void shouldLoadAlertDispatcherOnlyWhenDispatchIsEnabled() {
+        contextRunner
+                .withBean(AlertMapperImpl.class)
+                .withPropertyValues(
+                        "aegis.bugle.enabled=true",
+                        "aegis.bugle.service-name=testApp",
+                        "aegis.bugle.dispatch.enabled=true",
+                        "aegis.bugle.dispatch.capacity=100"
+                )
+                .run(context -> {
+                    assertThat(context).hasSingleBean(AlertDispatcher.class);
+                    assertThat(context.getBean(AlertDispatcher.class).capacity()).isEqualTo(128);
+                    assertThat(context).hasSingleBean(BugleAlertService.class);
+                });
+
+        contextRunner
+                .withBean(AlertMapperImpl.class)
+                .withPropertyValues(
+                        "aegis.bugle.enabled=true",
+                        "aegis.bugle.service-name=testApp"
+                )
+                .run(context -> assertThat(context).doesNotHaveBean(AlertDispatcher.class));
+    }
+
+    @Test
+    void shouldShareOneDeliveryPipelineBetweenServiceAndDispatcher() {
+        contextRunner
+                .withBean(AlertMapperImpl.class)
+                .withPropertyValues(
+                        "aegis.bugle.enabled=true",
+                        "aegis.bugle.broker-type=kafka",
+                        "aegis.bugle.service-name=testApp",
+                        "aegis.bugle.dispatch.enabled=true"
+                )
+                .run(context -> {
+                    assertThat(context).hasSingleBean(BugleDeliveryPipeline.class);
+                    BuglePublisher pipeline = context.getBean(BugleDeliveryPipeline.class).getPublisher();
+                    assertThat(pipeline).isInstanceOf(RetryingBuglePublisher.class);
+                    assertThat(context.getBean(BuglePublisher.class)).isSameAs(context.getBean(KafkaPublisher.class));
+                    assertThat(context.getBean(BugleAlertService.class))
+                            .extracting("buglePublisher").isSameAs(pipeline);
+                    assertThat(context.getBean(AlertDispatcher.class)).extracting("publisher").isSameAs(pipeline);
+                });
+    }
+
+    @Test
+    void shouldLoadSpoolBeansOnlyWhenSpoolIsEnabled(@TempDir Path spoolDirectory) {
+        contextRunner
+                .withBean(AlertMapperImpl.class)
+                .withPropertyValues(
+                        "aegis.bugle.enabled=true",
+                        "aegis.bugle.service-name=testApp",
+                        "aegis.bugle.spool.enabled=true",
+                        "aegis.bugle.spool.directory=" + spoolDirectory,
+                        "aegis.bugle.spool.segment-size-bytes=65536"
+                )
+                .run(context -> {
+                    assertThat(context).hasSingleBean(SpoolReplayer.class);
+                    assertThat(context).hasSingleBean(BuglePublisher.class);
+                    assertThat(context).hasSingleBean(BugleAlertService.class);
+                });
+
+        contextRunner
+                .withBean(AlertMapperImpl.class)
+                .withPropertyValues(
+                        "aegis.bugle.enabled=true",
+                        "aegis.bugle.service-name=testApp"
+                )
+                .run(context -> assertThat(context).doesNotHaveBean(SpoolReplayer.class));
+    }
+
+    @Test
+    void shouldSpoolEveryRoutedBrokerSeparately(@TempDir Path spoolDirectory) {
+        contextRunner
+                .withBean(AlertMapperImpl.class)
+                .withPropertyValues(
+                        "aegis.bugle.enabled=true",
+                        "aegis.bugle.service-name=testApp",
+                        "aegis.bugle.brokers=kafka,rabbitmq",
+                        "aegis.bugle.routing.enabled=true",
+                        "aegis.bugle.spool.enabled=true",
+                        "aegis.bugle.spool.directory=" + spoolDirectory,
+                        "aegis.bugle.spool.segment-size-bytes=65536"
+                )
+                .run(context -> {
+                    assertThat(context).hasSingleBean(SpoolReplayer.class);
+                    assertThat(spoolDirectory.resolve("kafka")).isDirectory();
+                    assertThat(spoolDirectory.resolve("rabbitmq")).isDirectory();
+                });
+    }
+
+    @Test
+    void shouldLoadCircuitBreakersOnlyWhenEnabled() {
+        contextRunner
+                .withBean(AlertMapperImpl.class)
+                .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+                .withPropertyValues(
+                        "aegis.bugle.enabled=true",
+                        "aegis.bugle.service-name=testApp",
+                        "aegis.bugle.circuit-breaker.enabled=true",
+                        "aegis.bugle.circuit-breaker.failure-threshold=3"
+                )
+                .run(context -> {
+                    assertThat(context).hasSingleBean(CircuitBreakerRegistry.class);
+                    assertThat(context).hasSingleBean(CircuitBreakerMetrics.class);
+                    assertThat(context).hasSingleBean(BugleAlertService.class);
+                    assertThat(context.getBean(CircuitBreakerRegistry.class).breakers())
+                            .anyMatch(breaker -> breaker.getName().equals("none"));
+                });
+
+        contextRunner
+                .withBean(AlertMapperImpl.class)
+                .withPropertyValues(
+                        "aegis.bugle.enabled=true",
+                        "aegis.bugle.service-name=testApp"
+                )
+                .run(context -> assertThat(context).doesNotHaveBean(CircuitBreakerRegistry.class));
+    }
+
+    @Test
+    void shouldLoadWarmUpOnlyWhenEnabled() {
+        contextRunner
+                .withBean(AlertMapperImpl.class)
+                .withPropertyValues(
+                        "aegis.bugle.enabled=true",
+                        "aegis.bugle.service-name=testApp",
+                        "aegis.bugle.warm-up.enabled=true",
+                        "aegis.bugle.warm-up.destinations=alerts,audit"
+                )
+                .run(context -> {
+                    assertThat(context).hasSingleBean(PublisherWarmUp.class);
+                    assertThat(context.getBean(PublisherWarmUp.class).readiness().join()).hasSize(2);
+                });
+
+        contextRunner
+                .withBean(AlertMapperImpl.class)
+                .withPropertyValues(
+                        "aegis.bugle.enabled=true",
+                        "aegis.bugle.service-name=testApp"
+                )
+                .run(context -> assertThat(context).doesNotHaveBean(PublisherWarmUp.class));
+    }
+
+    @Test
+    void shouldResolveAlertContextWithBuildVersionWhenEnabled() {
+        Properties build = new Properties();
+        build.setProperty("version", "2.4.0");
+        contextRunner
+                .withBean(AlertMapperImpl.class)
+                .withBean(BuildProperties.class, () -> new BuildProperties(build))
+                .withPropertyValues(
+                        "aegis.bugle.enabled=true",
+                        "aegis.bugle.service-name=testApp",
+                        "aegis.bugle.context.enabled=true",
+                        "aegis.bugle.context.instance-id=orders-1"
+                )
+                .run(context -> {
+                    AlertContext alertContext = context.getBean(AlertContextEnricher.class).getContext();
+                    assertThat(alertContext.getBuildVersion()).isEqualTo("2.4.0");
+                    assertThat(alertContext.getInstanceId()).isEqualTo("orders-1");
+                });
+    }
+
+    @Test
+    void shouldLoadMetricsBeansOnlyWhenMeterRegistryIsPresent() {
+        contextRunner
+                .withBean(AlertMapperImpl.class)
+                .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+                .withPropertyValues(
+                        "aegis.bugle.enabled=true",
+                        "aegis.bugle.service-name=testApp"
+                )
+                .run(context -> {
+                    assertThat(context).hasSingleBean(PublisherMetrics.class);
+                    assertThat(context).hasSingleBean(BugleMeterBinder.class);
+                    assertThat(context).hasSingleBean(BuglePublisher.class);
+                });
+
+        contextRunner
+                .withBean(AlertMapperImpl.class)
+                .withPropertyValues(
+                        "aegis.bugle.enabled=true",
+                        "aegis.bugle.service-name=testApp"
+                )
+                .run(context -> assertThat(context).doesNotHaveBean(PublisherMetrics.class));
+    }
+}
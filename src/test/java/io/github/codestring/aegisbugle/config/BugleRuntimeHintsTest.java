@@ -0,0 +1,46 @@
+package io.github.codestring.aegisbugle.config;
+
+import io.github.codestring.aegisbugle.application.core.model.AlertEvent;
+import io.github.codestring.aegisbugle.application.core.model.AlertSeverity;
+import io.github.codestring.aegisbugle.application.core.model.FailureMessage;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BugleRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @Test
+    void shouldRegisterJacksonBindingHintsForAlertPayloads() throws Exception {
+        // When
+        new BugleRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        // Then
+        assertThat(RuntimeHintsPredicates.reflection().onType(AlertEvent.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(AlertEvent.class.getMethod("getErrorCode")))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(FailureMessage.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(AlertSeverity.class)).accepts(hints);
+    }
+
+    @Test
+    void shouldRegisterPropertiesBindingAndCompressionHints() {
+        // When
+        new BugleRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        // Then
+        assertThat(RuntimeHintsPredicates.reflection().onType(BugleProperties.CircuitBreaker.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("net.jpountz.lz4.LZ4JavaSafeCompressor"))
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("net/jpountz/util/linux/amd64/liblz4-java.so"))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("linux/amd64/libzstd-jni-1.5.5-11.so"))
+                .accepts(hints);
+    }
+}
@@ -75,7 +75,7 @@ class KafkaIntegrationTest {
         log.info("Received {} records", records.count());
         ConsumerRecord<String, String> record = records.iterator().next();
         log.info("Consumed message 1 =====>>> {}", record.value());
-        assertThat(record.value()).contains("integration-test-service");
+        assertThat(record.value()).contains("\"service_name\":\"integration-test-service\"");
     }
 
     @Test
@@ -129,6 +129,14 @@ class KafkaIntegrationTest {
             this.content = content;
         }
 
+        public String getId() {
+            return id;
+        }
+
+        public String getContent() {
+            return content;
+        }
+
         @Override
         public String toString() {
             return "TestMessage{id='" + id + "', content='" + content + "'}";